@@ -93,11 +93,11 @@ INSERT INTO airlines (iata_code, name, country, rating, services) VALUES
 ('6E', 'IndiGo', 'India', 4.5, '{"wifi": false, "meal": false, "entertainment": false}'),
 ('9W', 'Jet Airways', 'India', 4.0, '{"wifi": true, "meal": true, "entertainment": true}');
 
-INSERT INTO airports (iata_code, name, city, country, timezone) VALUES
-('DEL', 'Indira Gandhi International Airport', 'Delhi', 'India', 'Asia/Kolkata'),
-('BOM', 'Chhatrapati Shivaji Maharaj International Airport', 'Mumbai', 'India', 'Asia/Kolkata'),
-('BLR', 'Kempegowda International Airport', 'Bangalore', 'India', 'Asia/Kolkata'),
-('MAA', 'Chennai International Airport', 'Chennai', 'India', 'Asia/Kolkata');
+INSERT INTO airports (iata_code, name, city, country, timezone, latitude, longitude) VALUES
+('DEL', 'Indira Gandhi International Airport', 'Delhi', 'India', 'Asia/Kolkata', 28.55616300, 77.10024900),
+('BOM', 'Chhatrapati Shivaji Maharaj International Airport', 'Mumbai', 'India', 'Asia/Kolkata', 19.08956000, 72.86561100),
+('BLR', 'Kempegowda International Airport', 'Bangalore', 'India', 'Asia/Kolkata', 13.19860000, 77.70660000),
+('MAA', 'Chennai International Airport', 'Chennai', 'India', 'Asia/Kolkata', 12.99412400, 80.17091300);
 
 INSERT INTO aircraft (model, manufacturer, capacity, range_km, cruise_speed_kmh) VALUES
 ('Boeing 737-800', 'Boeing', '{"economy": 150, "business": 20, "first": 0}', 5000, 850),
@@ -110,6 +110,11 @@ INSERT INTO flight_info (flight_number, airline_id, departure_airport_id, arriva
 ('6E201', 2, 1, 3, '10:30:00', '12:30:00', 120, '1111100'),
 ('9W301', 3, 2, 4, '14:00:00', '16:00:00', 120, '1111100');
 
+INSERT INTO flight_routes (departure_airport_id, arrival_airport_id, distance_km, average_duration_minutes, route_popularity_score) VALUES
+(1, 2, 1148, 120, 100),
+(1, 3, 1740, 165, 90),
+(2, 4, 1033, 110, 80);
+
 -- Create indexes for performance
 CREATE INDEX idx_airline_name ON airlines(name);
 CREATE INDEX idx_airport_city ON airports(city);
@@ -9,9 +9,15 @@ CREATE TABLE IF NOT EXISTS flight_inventory (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
     flight_info_id BIGINT NOT NULL,
     flight_date DATE NOT NULL,
-    available_seats JSON NOT NULL, -- {"economy": 150, "business": 20, "first": 8}
-    pricing JSON NOT NULL, -- {"economy": 15000, "business": 45000, "first": 80000}
-    total_capacity JSON NOT NULL,
+    economy_available_seats INT NOT NULL DEFAULT 0,
+    economy_total_capacity INT NOT NULL DEFAULT 0,
+    economy_price_minor BIGINT NOT NULL DEFAULT 0, -- fare in paise
+    business_available_seats INT NOT NULL DEFAULT 0,
+    business_total_capacity INT NOT NULL DEFAULT 0,
+    business_price_minor BIGINT NOT NULL DEFAULT 0,
+    first_available_seats INT NOT NULL DEFAULT 0,
+    first_total_capacity INT NOT NULL DEFAULT 0,
+    first_price_minor BIGINT NOT NULL DEFAULT 0,
     last_updated TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     version BIGINT DEFAULT 1, -- For optimistic locking
     status ENUM('ACTIVE', 'CANCELLED', 'DELAYED') DEFAULT 'ACTIVE',
@@ -34,6 +40,47 @@ CREATE TABLE IF NOT EXISTS inventory_update_log (
     INDEX idx_inventory_updates (flight_inventory_id, created_at DESC)
 );
 
+-- Audit entries queued with their inventory change, relayed to inventory_update_log
+CREATE TABLE IF NOT EXISTS inventory_audit_outbox (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    flight_inventory_id BIGINT,
+    update_type ENUM('MANUAL', 'BOOKING', 'CANCELLATION', 'EVENT') NOT NULL,
+    old_values VARCHAR(1000),
+    new_values VARCHAR(1000),
+    updated_by VARCHAR(100),
+    update_reason VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Append-only seat and fare events per inventory, replayed on top of the latest snapshot
+CREATE TABLE IF NOT EXISTS inventory_event (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    flight_inventory_id BIGINT NOT NULL,
+    event_type ENUM('SEATS_ADJUSTED', 'SEATS_SET', 'CAPACITY_SET', 'PRICE_SET') NOT NULL,
+    seat_class ENUM('ECONOMY', 'BUSINESS', 'FIRST') NOT NULL,
+    amount BIGINT NOT NULL, -- seats, or fare in paise
+    occurred_at TIMESTAMP(6) NOT NULL,
+    INDEX idx_inventory_events (flight_inventory_id, id)
+);
+
+-- Cabin values of an inventory after all its events up to last_event_id
+CREATE TABLE IF NOT EXISTS inventory_snapshot (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    flight_inventory_id BIGINT NOT NULL,
+    last_event_id BIGINT NOT NULL,
+    as_of TIMESTAMP(6),
+    economy_available_seats INT NOT NULL DEFAULT 0,
+    economy_total_capacity INT NOT NULL DEFAULT 0,
+    economy_price_minor BIGINT NOT NULL DEFAULT 0,
+    business_available_seats INT NOT NULL DEFAULT 0,
+    business_total_capacity INT NOT NULL DEFAULT 0,
+    business_price_minor BIGINT NOT NULL DEFAULT 0,
+    first_available_seats INT NOT NULL DEFAULT 0,
+    first_total_capacity INT NOT NULL DEFAULT 0,
+    first_price_minor BIGINT NOT NULL DEFAULT 0,
+    INDEX idx_inventory_snapshots (flight_inventory_id, last_event_id)
+);
+
 -- Reserved Seats (for booking process)
 CREATE TABLE IF NOT EXISTS seat_reservations (
     id BIGINT PRIMARY KEY AUTO_INCREMENT,
@@ -48,11 +95,35 @@ CREATE TABLE IF NOT EXISTS seat_reservations (
     INDEX idx_reservation_expiry (reserved_until, status)
 );
 
+-- Seat ledger write-behind checkpoints (reservation mode "ledger")
+CREATE TABLE IF NOT EXISTS seat_ledger_checkpoint (
+    ledger_id VARCHAR(100) PRIMARY KEY,
+    last_sequence BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Streaming inventory import progress, one row per import id
+CREATE TABLE IF NOT EXISTS inventory_import_checkpoint (
+    import_id VARCHAR(100) PRIMARY KEY,
+    last_line BIGINT NOT NULL,
+    items_created BIGINT NOT NULL,
+    items_updated BIGINT NOT NULL,
+    items_failed BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Heartbeat written to the primary and read back from each replica to measure its lag
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INT PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
 -- Insert sample data
-INSERT INTO flight_inventory (flight_info_id, flight_date, available_seats, pricing, total_capacity) VALUES
-(1, '2024-01-15', '{"economy": 150, "business": 20, "first": 8}', '{"economy": 15000, "business": 45000, "first": 80000}', '{"economy": 150, "business": 20, "first": 8}'),
-(2, '2024-01-15', '{"economy": 180, "business": 25, "first": 10}', '{"economy": 12000, "business": 40000, "first": 75000}', '{"economy": 180, "business": 25, "first": 10}'),
-(3, '2024-01-15', '{"economy": 120, "business": 15, "first": 6}', '{"economy": 18000, "business": 50000, "first": 90000}', '{"economy": 120, "business": 15, "first": 6}');
+INSERT INTO flight_inventory (flight_info_id, flight_date, economy_available_seats, economy_total_capacity, economy_price_minor, business_available_seats, business_total_capacity, business_price_minor, first_available_seats, first_total_capacity, first_price_minor) VALUES
+(1, '2024-01-15', 150, 150, 1500000, 20, 20, 4500000, 8, 8, 8000000),
+(2, '2024-01-15', 180, 180, 1200000, 25, 25, 4000000, 10, 10, 7500000),
+(3, '2024-01-15', 120, 120, 1800000, 15, 15, 5000000, 6, 6, 9000000);
 
 -- Create indexes for performance
 CREATE INDEX idx_flight_info_date ON flight_inventory(flight_info_id, flight_date);
@@ -69,6 +69,12 @@ CREATE TABLE IF NOT EXISTS search_logs (
     INDEX idx_search_analytics (departure_airport, arrival_airport, created_at)
 );
 
+-- Heartbeat written to the primary and read back from each replica to measure its lag
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    id INT PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
+
 -- Insert sample data
 INSERT INTO search_flights (flight_info_id, flight_number, airline_name, departure_airport_code, 
                            departure_city, arrival_airport_code, arrival_city, departure_time, 
@@ -0,0 +1,44 @@
+-- Move flight_inventory seat counts and fares from JSON documents to typed per-cabin columns
+-- The JSON columns are kept; drop them with migrate-flight-inventory-drop-json-columns.sql
+-- once mismatched_rows is 0 and the application reading the typed columns has been deployed
+USE inventory_db;
+
+-- Step 1: add the typed columns next to the JSON ones
+ALTER TABLE flight_inventory
+    ADD COLUMN economy_available_seats INT NOT NULL DEFAULT 0,
+    ADD COLUMN economy_total_capacity INT NOT NULL DEFAULT 0,
+    ADD COLUMN economy_price_minor BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN business_available_seats INT NOT NULL DEFAULT 0,
+    ADD COLUMN business_total_capacity INT NOT NULL DEFAULT 0,
+    ADD COLUMN business_price_minor BIGINT NOT NULL DEFAULT 0,
+    ADD COLUMN first_available_seats INT NOT NULL DEFAULT 0,
+    ADD COLUMN first_total_capacity INT NOT NULL DEFAULT 0,
+    ADD COLUMN first_price_minor BIGINT NOT NULL DEFAULT 0;
+
+-- Step 2: copy the JSON values; missing keys and JSON nulls become 0, fares are stored in paise
+UPDATE flight_inventory SET
+    economy_available_seats = COALESCE(CAST(NULLIF(available_seats->>'$.economy', 'null') AS SIGNED), 0),
+    economy_total_capacity = COALESCE(CAST(NULLIF(total_capacity->>'$.economy', 'null') AS SIGNED), 0),
+    economy_price_minor = COALESCE(ROUND(CAST(NULLIF(pricing->>'$.economy', 'null') AS DECIMAL(14, 4)) * 100), 0),
+    business_available_seats = COALESCE(CAST(NULLIF(available_seats->>'$.business', 'null') AS SIGNED), 0),
+    business_total_capacity = COALESCE(CAST(NULLIF(total_capacity->>'$.business', 'null') AS SIGNED), 0),
+    business_price_minor = COALESCE(ROUND(CAST(NULLIF(pricing->>'$.business', 'null') AS DECIMAL(14, 4)) * 100), 0),
+    first_available_seats = COALESCE(CAST(NULLIF(available_seats->>'$.first', 'null') AS SIGNED), 0),
+    first_total_capacity = COALESCE(CAST(NULLIF(total_capacity->>'$.first', 'null') AS SIGNED), 0),
+    first_price_minor = COALESCE(ROUND(CAST(NULLIF(pricing->>'$.first', 'null') AS DECIMAL(14, 4)) * 100), 0);
+
+-- Step 3: verify every seat count, capacity and fare was copied
+SELECT COUNT(*) AS mismatched_rows
+FROM flight_inventory
+WHERE economy_available_seats <> COALESCE(CAST(NULLIF(available_seats->>'$.economy', 'null') AS SIGNED), 0)
+   OR economy_total_capacity <> COALESCE(CAST(NULLIF(total_capacity->>'$.economy', 'null') AS SIGNED), 0)
+   OR economy_price_minor <> COALESCE(ROUND(CAST(NULLIF(pricing->>'$.economy', 'null') AS DECIMAL(14, 4)) * 100), 0)
+   OR business_available_seats <> COALESCE(CAST(NULLIF(available_seats->>'$.business', 'null') AS SIGNED), 0)
+   OR business_total_capacity <> COALESCE(CAST(NULLIF(total_capacity->>'$.business', 'null') AS SIGNED), 0)
+   OR business_price_minor <> COALESCE(ROUND(CAST(NULLIF(pricing->>'$.business', 'null') AS DECIMAL(14, 4)) * 100), 0)
+   OR first_available_seats <> COALESCE(CAST(NULLIF(available_seats->>'$.first', 'null') AS SIGNED), 0)
+   OR first_total_capacity <> COALESCE(CAST(NULLIF(total_capacity->>'$.first', 'null') AS SIGNED), 0)
+   OR first_price_minor <> COALESCE(ROUND(CAST(NULLIF(pricing->>'$.first', 'null') AS DECIMAL(14, 4)) * 100), 0);
+
+-- Verify the changes
+DESCRIBE flight_inventory;
@@ -0,0 +1,41 @@
+-- Drop the flight_inventory JSON columns replaced by the typed per-cabin columns
+-- Run after migrate-flight-inventory-cabin-columns.sql once the application reading the typed
+-- columns has been deployed. Aborts without dropping anything if any row still differs.
+USE inventory_db;
+
+DROP PROCEDURE IF EXISTS drop_flight_inventory_json_columns;
+
+DELIMITER //
+CREATE PROCEDURE drop_flight_inventory_json_columns()
+BEGIN
+    DECLARE mismatched_rows INT;
+
+    SELECT COUNT(*) INTO mismatched_rows
+    FROM flight_inventory
+    WHERE economy_available_seats <> COALESCE(CAST(NULLIF(available_seats->>'$.economy', 'null') AS SIGNED), 0)
+       OR economy_total_capacity <> COALESCE(CAST(NULLIF(total_capacity->>'$.economy', 'null') AS SIGNED), 0)
+       OR economy_price_minor <> COALESCE(ROUND(CAST(NULLIF(pricing->>'$.economy', 'null') AS DECIMAL(14, 4)) * 100), 0)
+       OR business_available_seats <> COALESCE(CAST(NULLIF(available_seats->>'$.business', 'null') AS SIGNED), 0)
+       OR business_total_capacity <> COALESCE(CAST(NULLIF(total_capacity->>'$.business', 'null') AS SIGNED), 0)
+       OR business_price_minor <> COALESCE(ROUND(CAST(NULLIF(pricing->>'$.business', 'null') AS DECIMAL(14, 4)) * 100), 0)
+       OR first_available_seats <> COALESCE(CAST(NULLIF(available_seats->>'$.first', 'null') AS SIGNED), 0)
+       OR first_total_capacity <> COALESCE(CAST(NULLIF(total_capacity->>'$.first', 'null') AS SIGNED), 0)
+       OR first_price_minor <> COALESCE(ROUND(CAST(NULLIF(pricing->>'$.first', 'null') AS DECIMAL(14, 4)) * 100), 0);
+
+    IF mismatched_rows > 0 THEN
+        SIGNAL SQLSTATE '45000'
+            SET MESSAGE_TEXT = 'flight_inventory typed columns differ from the JSON columns; nothing dropped';
+    END IF;
+
+    ALTER TABLE flight_inventory
+        DROP COLUMN available_seats,
+        DROP COLUMN pricing,
+        DROP COLUMN total_capacity;
+END //
+DELIMITER ;
+
+CALL drop_flight_inventory_json_columns();
+DROP PROCEDURE drop_flight_inventory_json_columns;
+
+-- Verify the changes
+DESCRIBE flight_inventory;
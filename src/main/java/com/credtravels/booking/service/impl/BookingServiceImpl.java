@@ -5,6 +5,9 @@ import com.credtravels.booking.dto.BookingModificationRequest;
 import com.credtravels.booking.dto.BookingRequest;
 import com.credtravels.booking.model.Booking;
 import com.credtravels.booking.service.BookingService;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.service.InventoryService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -15,11 +18,21 @@ import java.util.UUID;
 @Service
 public class BookingServiceImpl implements BookingService {
     
+    @Autowired
+    private InventoryService inventoryService;
+    
     @Override
     public Booking reserveFlight(BookingRequest request) {
         // TODO: Implement actual booking reservation logic
         Booking booking = new Booking();
         booking.setBookingReference(generateBookingReference());
+        booking.setFlightInfoId(request.getFlightInfoId());
+        booking.setFlightDate(request.getFlightDate());
+        booking.setSeatClass(request.getSeatClass());
+        booking.setPassengerCount(request.getPassengerCount());
+        // Priced by the inventory's fare curves, never by the amount the client sent
+        booking.setTotalAmount(inventoryService.quoteFare(request.getFlightInfoId(), request.getFlightDate(),
+                SeatReservation.SeatClass.valueOf(request.getSeatClass().name()), request.getPassengerCount()));
         // Set other properties
         return booking;
     }
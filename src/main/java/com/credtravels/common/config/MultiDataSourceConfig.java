@@ -1,12 +1,18 @@
 package com.credtravels.common.config;
 
+import com.credtravels.common.datasource.ReplicaRoutingDataSource;
 import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -24,23 +30,43 @@ import java.util.Map;
 )
 public class MultiDataSourceConfig {
 
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${credtravels.datasource.replica.max-lag-ms:5000}")
+    private long replicaMaxLagMillis;
+
     @Bean
     @ConfigurationProperties("spring.datasource.inventory")
     public DataSource inventoryDataSource() {
         return DataSourceBuilder.create().type(HikariDataSource.class).build();
     }
 
+    @Bean
+    public ReplicaRoutingDataSource inventoryRoutingDataSource() {
+        return new ReplicaRoutingDataSource("inventory", inventoryDataSource(),
+                ReplicaRoutingDataSource.replicaPools(environment, "spring.datasource.inventory.replicas", "inventory", meterRegistry),
+                replicaMaxLagMillis, meterRegistry);
+    }
+
+    /**
+     * Read-only transactions read the inventory replicas, everything else the primary. JDBC
+     * access shares this datasource so it joins the JPA transaction's connection.
+     */
     @Bean
     @Primary
     public DataSource primaryDataSource() {
-        return inventoryDataSource();
+        return new LazyConnectionDataSourceProxy(inventoryRoutingDataSource());
     }
 
     @Bean
     @Primary
     public LocalContainerEntityManagerFactoryBean inventoryEntityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(inventoryDataSource());
+        em.setDataSource(primaryDataSource());
         em.setPackagesToScan("com.credtravels.inventory.model");
         em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
         
@@ -29,15 +29,7 @@ public class RedisConfig {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
-        // Configure JSON serializer
-        ObjectMapper mapper = new ObjectMapper();
-        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
-        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
-        
-        // Register JSR310 module for Java 8 date/time support
-        mapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(mapper);
+        GenericJackson2JsonRedisSerializer jsonSerializer = jsonSerializer();
         StringRedisSerializer stringSerializer = new StringRedisSerializer();
 
         // Set serializers
@@ -57,7 +49,7 @@ public class RedisConfig {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .entryTtl(Duration.ofMinutes(5))
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(new GenericJackson2JsonRedisSerializer()));
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer()));
 
         // Custom cache configurations
         Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
@@ -85,10 +77,25 @@ public class RedisConfig {
         
         // Pricing cache - 1 minute
         cacheConfigurations.put("pricing", defaultConfig.entryTtl(Duration.ofMinutes(1)));
+        
+        // Explore destinations sweeps per origin/date - 5 minutes (backed by live pricing)
+        cacheConfigurations.put("explore-destinations", defaultConfig.entryTtl(Duration.ofMinutes(5)));
 
         return RedisCacheManager.builder(connectionFactory)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigurations)
                 .build();
     }
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer() {
+        // Configure JSON serializer
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
+        mapper.activateDefaultTyping(LaissezFaireSubTypeValidator.instance, ObjectMapper.DefaultTyping.NON_FINAL);
+        
+        // Register JSR310 module for Java 8 date/time support
+        mapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
+        
+        return new GenericJackson2JsonRedisSerializer(mapper);
+    }
 }
@@ -1,10 +1,16 @@
 package com.credtravels.common.config;
 
+import com.credtravels.common.datasource.ReplicaRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.orm.jpa.JpaTransactionManager;
 import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
 import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
@@ -24,16 +30,33 @@ import java.util.Map;
 )
 public class SearchConfig {
 
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${credtravels.datasource.replica.max-lag-ms:5000}")
+    private long replicaMaxLagMillis;
+
     @Bean
     @ConfigurationProperties("spring.datasource.search")
     public DataSource searchDataSource() {
         return DataSourceBuilder.create().type(HikariDataSource.class).build();
     }
 
+    @Bean
+    public ReplicaRoutingDataSource searchRoutingDataSource() {
+        return new ReplicaRoutingDataSource("search", searchDataSource(),
+                ReplicaRoutingDataSource.replicaPools(environment, "spring.datasource.search.replicas", "search", meterRegistry),
+                replicaMaxLagMillis, meterRegistry);
+    }
+
     @Bean
     public LocalContainerEntityManagerFactoryBean searchEntityManagerFactory() {
         LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
-        em.setDataSource(searchDataSource());
+        // Repository reads run read-only and go to the search replicas
+        em.setDataSource(new LazyConnectionDataSourceProxy(searchRoutingDataSource()));
         em.setPackagesToScan("com.credtravels.search.model");
         em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
         
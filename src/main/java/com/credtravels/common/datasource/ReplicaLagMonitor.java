@@ -0,0 +1,26 @@
+package com.credtravels.common.datasource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Periodically measures the lag of the replicas behind every routed datasource
+ */
+@Component
+public class ReplicaLagMonitor {
+
+    @Autowired(required = false)
+    private List<ReplicaRoutingDataSource> routingDataSources = List.of();
+
+    @Scheduled(fixedDelayString = "${credtravels.datasource.replica.check-interval-ms:1000}")
+    public void checkReplicas() {
+        for (ReplicaRoutingDataSource routingDataSource : routingDataSources) {
+            if (routingDataSource.hasReplicas()) {
+                routingDataSource.checkReplicas();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.credtravels.common.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the connections of read-only transactions to the replicas, round-robin, and every
+ * other connection to the primary. A replica serves reads only while it is at most the
+ * configured lag behind: a heartbeat written to the primary is read back from each replica
+ * and its age is the replica's lag; an unreachable or lagging replica is skipped and reads
+ * fall back to the primary. Until its first check a replica counts as lagging, and a check
+ * ages with the time since it was made, so a replica stops serving reads once its checks
+ * stop coming in.
+ * Wrap in a LazyConnectionDataSourceProxy so the connection is fetched after the transaction
+ * has declared whether it is read-only. Repository methods open read-only transactions of
+ * their own, so a read that must see the latest commit belongs in a read-write transaction.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String BEAT_SQL = "UPDATE replica_heartbeat SET beat_millis = ? WHERE id = 1";
+    private static final String SEED_SQL = "INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)";
+    private static final String READ_SQL = "SELECT beat_millis FROM replica_heartbeat WHERE id = 1";
+
+    private final String name;
+    private final Pool primary;
+    private final List<Pool> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(String name, DataSource primary, List<DataSource> replicas, long maxLagMillis,
+                                    MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxLagMillis = maxLagMillis;
+        this.primary = new Pool("primary", primary, meterRegistry);
+        for (int i = 0; i < replicas.size(); i++) {
+            Pool replica = new Pool("replica-" + i, replicas.get(i), meterRegistry);
+            Gauge.builder("credtravels.datasource.replica.lag", replica, pool -> pool.check.lagMillis == Long.MAX_VALUE ? Double.NaN : pool.check.lagMillis)
+                    .description("Age of the primary's heartbeat as read from the replica")
+                    .baseUnit("milliseconds")
+                    .tags("datasource", name, "pool", replica.name)
+                    .register(meterRegistry);
+            this.replicas.add(replica);
+        }
+        fallbacks = Counter.builder("credtravels.datasource.replica.fallbacks")
+                .description("Read-only connections served by the primary because no replica was within the lag")
+                .tags("datasource", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Replica pools configured as a list under the prefix, e.g. spring.datasource.inventory.replicas,
+     * with the same settings as the primary pool; pools open on their first connection
+     */
+    public static List<DataSource> replicaPools(Environment environment, String prefix, String name,
+                                                MeterRegistry meterRegistry) {
+        List<HikariConfig> configs = Binder.get(environment).bind(prefix, Bindable.listOf(HikariConfig.class))
+                .orElse(List.of());
+        List<DataSource> pools = new ArrayList<>();
+        for (int i = 0; i < configs.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            configs.get(i).copyStateTo(pool);
+            pool.setPoolName(name + "-replica-" + i);
+            pool.setReadOnly(true);
+            pool.setMetricRegistry(meterRegistry);
+            pools.add(pool);
+        }
+        return pools;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean hasReplicas() {
+        return !replicas.isEmpty();
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Pool pool = route();
+        long start = System.nanoTime();
+        try {
+            return pool.dataSource.getConnection();
+        } finally {
+            pool.acquire.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Pool pool = route();
+        long start = System.nanoTime();
+        try {
+            return pool.dataSource.getConnection(username, password);
+        } finally {
+            pool.acquire.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Write a heartbeat to the primary and measure how far behind it each replica is
+     */
+    public void checkReplicas() {
+        long now = System.currentTimeMillis();
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(primary.dataSource);
+            if (jdbcTemplate.update(BEAT_SQL, now) == 0) {
+                jdbcTemplate.update(SEED_SQL, now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Replica heartbeat not written to the {} primary: {}", name, e.getMessage());
+        }
+        for (Pool replica : replicas) {
+            long lag;
+            try {
+                Long beat = new JdbcTemplate(replica.dataSource).queryForObject(READ_SQL, Long.class);
+                lag = beat != null ? Math.max(0, System.currentTimeMillis() - beat) : Long.MAX_VALUE;
+            } catch (DataAccessException e) {
+                lag = Long.MAX_VALUE;
+                log.debug("Replica heartbeat not readable from {} {}: {}", name, replica.name, e.getMessage());
+            }
+            if ((lag > maxLagMillis) != (replica.check.lagMillis > maxLagMillis)) {
+                log.info("{} {} {} reads", name, replica.name, lag > maxLagMillis ? "stopped serving" : "now serves");
+            }
+            replica.check = new Check(lag, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void close() {
+        for (Pool replica : replicas) {
+            if (replica.dataSource instanceof HikariDataSource pool) {
+                pool.close();
+            }
+        }
+    }
+
+    // Private helper methods
+
+    private Pool route() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return primary;
+        }
+        int start = next.getAndIncrement();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < replicas.size(); i++) {
+            Pool replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (replica.check.servesAt(now, maxLagMillis)) {
+                return replica;
+            }
+        }
+        fallbacks.increment();
+        return primary;
+    }
+
+    private final class Pool {
+
+        private final String name;
+        private final DataSource dataSource;
+        private final Timer acquire;
+        private volatile Check check = new Check(Long.MAX_VALUE, 0);
+
+        private Pool(String poolName, DataSource dataSource, MeterRegistry meterRegistry) {
+            this.name = poolName;
+            this.dataSource = dataSource;
+            this.acquire = Timer.builder("credtravels.datasource.connection.acquire")
+                    .description("Time to obtain a connection from the pool")
+                    .tags("datasource", ReplicaRoutingDataSource.this.name, "pool", poolName)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Lag of a replica and when it was measured. Until the next check the replica may be
+     * behind by as much as that lag plus the time since.
+     */
+    private static final class Check {
+
+        private final long lagMillis;
+        private final long checkedAt;
+
+        private Check(long lagMillis, long checkedAt) {
+            this.lagMillis = lagMillis;
+            this.checkedAt = checkedAt;
+        }
+
+        private boolean servesAt(long now, long maxLagMillis) {
+            return lagMillis <= maxLagMillis && now - checkedAt + lagMillis <= maxLagMillis;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.credtravels.common.exception;
+
+public class SoldOutException extends RuntimeException {
+    
+    public SoldOutException(String message) {
+        super(message);
+    }
+    
+    public SoldOutException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
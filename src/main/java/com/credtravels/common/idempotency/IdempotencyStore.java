@@ -0,0 +1,230 @@
+package com.credtravels.common.idempotency;
+
+import com.credtravels.common.cache.BoundedTtlCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Responses of recent mutations by idempotency key, kept in memory and in Redis so a retry
+ * reaching any node gets the original response. A key is claimed while its request runs, and
+ * the claim is renewed until then so a slow request never lets a retry on another node run too.
+ * Entries expire after the configured time and memory holds at most max-entries of them;
+ * without Redis the store works per node.
+ */
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private static final String KEY_PREFIX = "idempotency:";
+    private static final String CLAIM_SUFFIX = ":claim";
+    private static final RedisScript<Long> RENEW_CLAIM = script("redis/idempotency-claim-renew.lua");
+    private static final RedisScript<Long> RELEASE_CLAIM = script("redis/idempotency-claim-release.lua");
+
+    @Autowired(required = false)
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${credtravels.idempotency.ttl-ms:86400000}")
+    private long ttlMillis;
+
+    @Value("${credtravels.idempotency.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${credtravels.idempotency.claim-ttl-ms:30000}")
+    private long claimTtlMillis;
+
+    @Value("${credtravels.idempotency.redis-enabled:true}")
+    private boolean redisEnabled;
+
+    private BoundedTtlCache<String, StoredResponse> responses;
+    private final Set<String> claimed = ConcurrentHashMap.newKeySet();
+    private final String owner = UUID.randomUUID().toString();
+
+    @PostConstruct
+    public void init() {
+        responses = new BoundedTtlCache<>(maxEntries, Duration.ofMillis(ttlMillis));
+        redisEnabled = redisEnabled && redisTemplate != null;
+    }
+
+    /**
+     * Response recorded for the key, from memory or else from Redis, or null
+     */
+    public StoredResponse find(String key) {
+        StoredResponse response = responses.get(key);
+        if (response != null || !redisEnabled) {
+            return response;
+        }
+        try {
+            String json = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            if (json != null) {
+                response = objectMapper.readValue(json, StoredResponse.class);
+                responses.put(key, response);
+            }
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Idempotency record {} not readable from Redis: {}", key, e.getMessage());
+        }
+        return response;
+    }
+
+    /**
+     * Claim the key for a request about to run; false while another request holds it
+     */
+    public boolean claim(String key) {
+        if (!claimed.add(key)) {
+            return false;
+        }
+        if (!redisEnabled) {
+            return true;
+        }
+        try {
+            // The claim expires by itself should this node stop before releasing it
+            Boolean claimedInRedis = redisTemplate.opsForValue()
+                    .setIfAbsent(claimKey(key), owner, Duration.ofMillis(claimTtlMillis));
+            if (Boolean.FALSE.equals(claimedInRedis)) {
+                claimed.remove(key);
+                return false;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Idempotency key {} claimed on this node only: {}", key, e.getMessage());
+        }
+        return true;
+    }
+
+    /**
+     * Keep the response of a completed request for its retries
+     */
+    public void record(String key, StoredResponse response) {
+        responses.put(key, response);
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(KEY_PREFIX + key, objectMapper.writeValueAsString(response),
+                    Duration.ofMillis(ttlMillis));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.warn("Idempotency record {} kept on this node only: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Let the next request with the key run or replay
+     */
+    public void release(String key) {
+        if (!claimed.remove(key) || !redisEnabled) {
+            return;
+        }
+        try {
+            // A claim that expired meanwhile may belong to another node by now
+            redisTemplate.execute(RELEASE_CLAIM, List.of(claimKey(key)), owner);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency claim {} left to expire: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Extend the claims of requests still running on this node, well before they expire
+     */
+    @Scheduled(fixedDelayString = "${credtravels.idempotency.claim-renew-ms:10000}")
+    public void renewClaims() {
+        if (!redisEnabled) {
+            return;
+        }
+        for (String key : claimed) {
+            try {
+                Long renewed = redisTemplate.execute(RENEW_CLAIM, List.of(claimKey(key)), owner,
+                        String.valueOf(claimTtlMillis));
+                if (renewed == null || renewed == 0L) {
+                    log.warn("Idempotency claim {} expired while its request runs", key);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Idempotency claim {} not renewed: {}", key, e.getMessage());
+            }
+        }
+    }
+
+    private static String claimKey(String key) {
+        return KEY_PREFIX + key + CLAIM_SUFFIX;
+    }
+
+    private static RedisScript<Long> script(String path) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(Long.class);
+        return script;
+    }
+
+    /**
+     * Status, content type and body of a response, with the fingerprint of the request it answered
+     */
+    public static class StoredResponse {
+
+        private String fingerprint;
+        private int status;
+        private String contentType;
+        private String body;
+
+        // Constructors
+        public StoredResponse() {}
+
+        public StoredResponse(String fingerprint, int status, String contentType, String body) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        // Getters and Setters
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public void setContentType(String contentType) {
+            this.contentType = contentType;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public void setBody(String body) {
+            this.body = body;
+        }
+    }
+}
@@ -5,9 +5,11 @@ import com.credtravels.flightsinfo.model.Airline;
 import com.credtravels.flightsinfo.model.Airport;
 import com.credtravels.flightsinfo.model.FlightInfo;
 import com.credtravels.flightsinfo.service.FlightsInfoService;
+import com.credtravels.flightsinfo.service.ReferenceDataVersion;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -19,6 +21,9 @@ public class FlightsInfoController {
     @Autowired
     private FlightsInfoService flightsInfoService;
     
+    @Autowired
+    private ReferenceDataVersion referenceDataVersion;
+    
     /**
      * Get flight information by ID
      */
@@ -50,8 +55,11 @@ public class FlightsInfoController {
      * Get all airlines
      */
     @GetMapping("/airlines")
-    public ResponseEntity<ApiResponse<List<Airline>>> getAirlines() {
+    public ResponseEntity<ApiResponse<List<Airline>>> getAirlines(WebRequest webRequest) {
         
+        if (isNotModified(webRequest)) {
+            return null;
+        }
         List<Airline> airlines = flightsInfoService.getAllAirlines();
         return ResponseEntity.ok(ApiResponse.success(airlines));
     }
@@ -61,8 +69,12 @@ public class FlightsInfoController {
      */
     @GetMapping("/airlines/{airlineId}")
     public ResponseEntity<ApiResponse<Airline>> getAirline(
-            @PathVariable Long airlineId) {
+            @PathVariable Long airlineId,
+            WebRequest webRequest) {
         
+        if (isNotModified(webRequest)) {
+            return null;
+        }
         Optional<Airline> airline = flightsInfoService.getAirline(airlineId);
         if (airline.isPresent()) {
             return ResponseEntity.ok(ApiResponse.success(airline.get()));
@@ -75,8 +87,11 @@ public class FlightsInfoController {
      * Get all airports
      */
     @GetMapping("/airports")
-    public ResponseEntity<ApiResponse<List<Airport>>> getAirports() {
+    public ResponseEntity<ApiResponse<List<Airport>>> getAirports(WebRequest webRequest) {
         
+        if (isNotModified(webRequest)) {
+            return null;
+        }
         List<Airport> airports = flightsInfoService.getAllAirports();
         return ResponseEntity.ok(ApiResponse.success(airports));
     }
@@ -86,8 +101,12 @@ public class FlightsInfoController {
      */
     @GetMapping("/airports/{airportId}")
     public ResponseEntity<ApiResponse<Airport>> getAirport(
-            @PathVariable Long airportId) {
+            @PathVariable Long airportId,
+            WebRequest webRequest) {
         
+        if (isNotModified(webRequest)) {
+            return null;
+        }
         Optional<Airport> airport = flightsInfoService.getAirport(airportId);
         if (airport.isPresent()) {
             return ResponseEntity.ok(ApiResponse.success(airport.get()));
@@ -100,8 +119,11 @@ public class FlightsInfoController {
      * Get routes information
      */
     @GetMapping("/routes")
-    public ResponseEntity<ApiResponse<List<Object>>> getRoutes() {
+    public ResponseEntity<ApiResponse<List<Object>>> getRoutes(WebRequest webRequest) {
         
+        if (isNotModified(webRequest)) {
+            return null;
+        }
         List<Object> routes = flightsInfoService.getRoutes();
         return ResponseEntity.ok(ApiResponse.success(routes));
     }
@@ -112,8 +134,12 @@ public class FlightsInfoController {
     @GetMapping("/routes/{departureAirportId}/{arrivalAirportId}")
     public ResponseEntity<ApiResponse<Object>> getRoute(
             @PathVariable Long departureAirportId,
-            @PathVariable Long arrivalAirportId) {
+            @PathVariable Long arrivalAirportId,
+            WebRequest webRequest) {
         
+        if (isNotModified(webRequest)) {
+            return null;
+        }
         Optional<Object> route = flightsInfoService.getRoute(departureAirportId, arrivalAirportId);
         if (route.isPresent()) {
             return ResponseEntity.ok(ApiResponse.success(route.get()));
@@ -121,4 +147,14 @@ public class FlightsInfoController {
             return ResponseEntity.notFound().build();
         }
     }
+    
+    // Private helper methods
+    
+    /**
+     * Answer a conditional read of reference data from its generation, setting the ETag otherwise
+     */
+    private boolean isNotModified(WebRequest webRequest) {
+        String etag = referenceDataVersion.etag();
+        return etag != null && webRequest.checkNotModified(etag);
+    }
 }
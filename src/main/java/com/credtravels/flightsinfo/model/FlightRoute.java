@@ -0,0 +1,104 @@
+package com.credtravels.flightsinfo.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "flight_routes")
+public class FlightRoute {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "departure_airport_id", nullable = false)
+    private Long departureAirportId;
+    
+    @Column(name = "arrival_airport_id", nullable = false)
+    private Long arrivalAirportId;
+    
+    @Column(name = "distance_km")
+    private Integer distanceKm;
+    
+    @Column(name = "average_duration_minutes")
+    private Integer averageDurationMinutes;
+    
+    @Column(name = "route_popularity_score")
+    private Integer routePopularityScore;
+    
+    @Column(name = "created_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public FlightRoute() {
+        this.createdAt = LocalDateTime.now();
+        this.routePopularityScore = 0;
+    }
+    
+    public FlightRoute(Long departureAirportId, Long arrivalAirportId, Integer distanceKm) {
+        this();
+        this.departureAirportId = departureAirportId;
+        this.arrivalAirportId = arrivalAirportId;
+        this.distanceKm = distanceKm;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getDepartureAirportId() {
+        return departureAirportId;
+    }
+    
+    public void setDepartureAirportId(Long departureAirportId) {
+        this.departureAirportId = departureAirportId;
+    }
+    
+    public Long getArrivalAirportId() {
+        return arrivalAirportId;
+    }
+    
+    public void setArrivalAirportId(Long arrivalAirportId) {
+        this.arrivalAirportId = arrivalAirportId;
+    }
+    
+    public Integer getDistanceKm() {
+        return distanceKm;
+    }
+    
+    public void setDistanceKm(Integer distanceKm) {
+        this.distanceKm = distanceKm;
+    }
+    
+    public Integer getAverageDurationMinutes() {
+        return averageDurationMinutes;
+    }
+    
+    public void setAverageDurationMinutes(Integer averageDurationMinutes) {
+        this.averageDurationMinutes = averageDurationMinutes;
+    }
+    
+    public Integer getRoutePopularityScore() {
+        return routePopularityScore;
+    }
+    
+    public void setRoutePopularityScore(Integer routePopularityScore) {
+        this.routePopularityScore = routePopularityScore;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
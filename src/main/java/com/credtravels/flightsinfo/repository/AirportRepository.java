@@ -0,0 +1,13 @@
+package com.credtravels.flightsinfo.repository;
+
+import com.credtravels.flightsinfo.model.Airport;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface AirportRepository extends JpaRepository<Airport, Long> {
+    
+    Optional<Airport> findByIataCode(String iataCode);
+}
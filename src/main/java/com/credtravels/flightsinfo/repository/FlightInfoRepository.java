@@ -0,0 +1,13 @@
+package com.credtravels.flightsinfo.repository;
+
+import com.credtravels.flightsinfo.model.FlightInfo;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FlightInfoRepository extends JpaRepository<FlightInfo, Long> {
+    
+    List<FlightInfo> findByStatus(FlightInfo.FlightStatus status);
+}
@@ -0,0 +1,13 @@
+package com.credtravels.flightsinfo.repository;
+
+import com.credtravels.flightsinfo.model.FlightRoute;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface FlightRouteRepository extends JpaRepository<FlightRoute, Long> {
+    
+    Optional<FlightRoute> findByDepartureAirportIdAndArrivalAirportId(Long departureAirportId, Long arrivalAirportId);
+}
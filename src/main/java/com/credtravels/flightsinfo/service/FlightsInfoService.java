@@ -3,6 +3,7 @@ package com.credtravels.flightsinfo.service;
 import com.credtravels.flightsinfo.model.Airline;
 import com.credtravels.flightsinfo.model.Airport;
 import com.credtravels.flightsinfo.model.FlightInfo;
+import com.credtravels.flightsinfo.model.FlightRoute;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +15,11 @@ public interface FlightsInfoService {
      */
     Optional<FlightInfo> getFlightInfo(Long flightId);
     
+    /**
+     * Flights currently scheduled, with their departure and arrival airport ids
+     */
+    List<FlightInfo> getActiveFlights();
+    
     /**
      * Search flights by criteria
      */
@@ -48,4 +54,9 @@ public interface FlightsInfoService {
      * Get route by departure and arrival airports
      */
     Optional<Object> getRoute(Long departureAirportId, Long arrivalAirportId);
+    
+    /**
+     * Get all flight routes with their distances
+     */
+    List<FlightRoute> getFlightRoutes();
 }
@@ -0,0 +1,81 @@
+package com.credtravels.flightsinfo.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Generation of the airline, airport and route reference data, used as the ETag of its reads.
+ * The generation moves on when a periodic fingerprint of the data changes, so every node
+ * derives the same ETag and edits made directly in the database are picked up.
+ */
+@Component
+public class ReferenceDataVersion {
+
+    private static final Logger log = LoggerFactory.getLogger(ReferenceDataVersion.class);
+
+    @Autowired
+    private FlightsInfoService flightsInfoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile String etag;
+    private long generation;
+    private long fingerprint;
+
+    @PostConstruct
+    public void init() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Reference data fingerprint not available yet: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Weak ETag of the current generation, or null until the data has been fingerprinted
+     */
+    public String etag() {
+        return etag;
+    }
+
+    public synchronized long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Fingerprint the reference data and start a new generation if it changed
+     */
+    @Scheduled(fixedDelayString = "${credtravels.flights-info.reference-data.check-interval-ms:60000}")
+    public synchronized void refresh() {
+        long current = fingerprint(List.of(flightsInfoService.getAllAirlines(), flightsInfoService.getAllAirports(),
+                flightsInfoService.getRoutes()));
+        if (etag == null || current != fingerprint) {
+            fingerprint = current;
+            generation++;
+            etag = "W/\"ref-" + Long.toHexString(current) + "\"";
+            log.info("Reference data generation {} with ETag {}", generation, etag);
+        }
+    }
+
+    // Private helper methods
+
+    private long fingerprint(Object data) {
+        try {
+            CRC32 crc = new CRC32();
+            crc.update(objectMapper.writeValueAsBytes(data));
+            return crc.getValue();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint reference data", e);
+        }
+    }
+}
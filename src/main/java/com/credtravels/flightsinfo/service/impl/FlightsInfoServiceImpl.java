@@ -3,7 +3,12 @@ package com.credtravels.flightsinfo.service.impl;
 import com.credtravels.flightsinfo.model.Airline;
 import com.credtravels.flightsinfo.model.Airport;
 import com.credtravels.flightsinfo.model.FlightInfo;
+import com.credtravels.flightsinfo.model.FlightRoute;
+import com.credtravels.flightsinfo.repository.AirportRepository;
+import com.credtravels.flightsinfo.repository.FlightInfoRepository;
+import com.credtravels.flightsinfo.repository.FlightRouteRepository;
 import com.credtravels.flightsinfo.service.FlightsInfoService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -13,12 +18,26 @@ import java.util.Optional;
 @Service
 public class FlightsInfoServiceImpl implements FlightsInfoService {
     
+    @Autowired
+    private AirportRepository airportRepository;
+    
+    @Autowired
+    private FlightRouteRepository flightRouteRepository;
+    
+    @Autowired
+    private FlightInfoRepository flightInfoRepository;
+    
     @Override
     public Optional<FlightInfo> getFlightInfo(Long flightId) {
         // TODO: Implement actual database query
         return Optional.empty();
     }
     
+    @Override
+    public List<FlightInfo> getActiveFlights() {
+        return flightInfoRepository.findByStatus(FlightInfo.FlightStatus.ACTIVE);
+    }
+    
     @Override
     public List<FlightInfo> searchFlights(String airline, String route) {
         // TODO: Implement actual database query
@@ -39,25 +58,27 @@ public class FlightsInfoServiceImpl implements FlightsInfoService {
     
     @Override
     public List<Airport> getAllAirports() {
-        // TODO: Implement actual database query
-        return new ArrayList<>();
+        return airportRepository.findAll();
     }
     
     @Override
     public Optional<Airport> getAirport(Long airportId) {
-        // TODO: Implement actual database query
-        return Optional.empty();
+        return airportRepository.findById(airportId);
     }
     
     @Override
     public List<Object> getRoutes() {
-        // TODO: Implement actual database query
-        return new ArrayList<>();
+        return new ArrayList<>(flightRouteRepository.findAll());
     }
     
     @Override
     public Optional<Object> getRoute(Long departureAirportId, Long arrivalAirportId) {
-        // TODO: Implement actual database query
-        return Optional.empty();
+        return flightRouteRepository.findByDepartureAirportIdAndArrivalAirportId(departureAirportId, arrivalAirportId)
+                .map(Object.class::cast);
+    }
+    
+    @Override
+    public List<FlightRoute> getFlightRoutes() {
+        return flightRouteRepository.findAll();
     }
 }
@@ -0,0 +1,189 @@
+package com.credtravels.inventory.audit;
+
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryAuditOutbox;
+import com.credtravels.inventory.model.InventoryUpdateLog;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.InventoryAuditOutboxRepository;
+import com.credtravels.inventory.repository.InventoryUpdateLogRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Audit trail of inventory changes. Each change queues a compact entry, holding only the
+ * cabin fields it changed, in inventory_audit_outbox within the change's own transaction,
+ * so an entry exists exactly when the change committed. A background relay then moves
+ * entries to the indexed inventory_update_log in batches, off the update path.
+ */
+@Component
+public class InventoryAuditJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryAuditJournal.class);
+
+    private static final String OUTBOX_SQL = "INSERT INTO inventory_audit_outbox (flight_inventory_id, update_type, "
+            + "old_values, new_values, updated_by, update_reason, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String LOG_SQL = "INSERT INTO inventory_update_log (flight_inventory_id, update_type, "
+            + "old_values, new_values, updated_by, update_reason, created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private InventoryAuditOutboxRepository outboxRepository;
+
+    @Autowired
+    private InventoryUpdateLogRepository inventoryUpdateLogRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${credtravels.inventory.audit.relay-batch-size:500}")
+    private int relayBatchSize;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Copy of the cabin values an update starts from
+     */
+    public static Map<SeatClass, CabinInventory> snapshot(FlightInventory inventory) {
+        Map<SeatClass, CabinInventory> cabins = new EnumMap<>(SeatClass.class);
+        for (SeatClass seatClass : SeatClass.values()) {
+            CabinInventory cabin = inventory.getCabin(seatClass);
+            cabins.put(seatClass, new CabinInventory(cabin.getAvailableSeats(), cabin.getTotalCapacity(), cabin.getPriceMinor()));
+        }
+        return cabins;
+    }
+
+    /**
+     * Entry recording the fields that differ between the snapshot and the updated inventory,
+     * as {"economy":{"priceMinor":500000}} in the old and new values
+     */
+    public InventoryAuditOutbox entry(Map<SeatClass, CabinInventory> before, FlightInventory after,
+                                      InventoryUpdateLog.UpdateType updateType, String updatedBy, String updateReason) {
+        Map<String, Map<String, Object>> oldValues = new LinkedHashMap<>();
+        Map<String, Map<String, Object>> newValues = new LinkedHashMap<>();
+        for (SeatClass seatClass : SeatClass.values()) {
+            CabinInventory old = before.get(seatClass);
+            CabinInventory current = after.getCabin(seatClass);
+            String cabin = seatClass.name().toLowerCase();
+            putChange(oldValues, newValues, cabin, "availableSeats", old.getAvailableSeats(), current.getAvailableSeats());
+            putChange(oldValues, newValues, cabin, "totalCapacity", old.getTotalCapacity(), current.getTotalCapacity());
+            putChange(oldValues, newValues, cabin, "priceMinor", old.getPriceMinor(), current.getPriceMinor());
+        }
+        return new InventoryAuditOutbox(after.getId(), updateType, toJson(oldValues), toJson(newValues), updatedBy, updateReason);
+    }
+
+    /**
+     * Queue an entry in the caller's transaction
+     */
+    public void record(InventoryAuditOutbox entry) {
+        outboxRepository.save(entry);
+    }
+
+    /**
+     * Queue entries in the caller's transaction with one JDBC batch
+     */
+    public void recordAll(List<InventoryAuditOutbox> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(OUTBOX_SQL, entries.stream().map(InventoryAuditJournal::toRow).toList());
+    }
+
+    /**
+     * Move pending entries to inventory_update_log, one transaction per batch
+     */
+    @Scheduled(fixedDelayString = "${credtravels.inventory.audit.relay-interval-ms:1000}")
+    public void relay() {
+        int moved;
+        int total = 0;
+        do {
+            moved = transactionTemplate.execute(status -> relayBatch());
+            total += moved;
+        } while (moved == relayBatchSize);
+        if (total > 0) {
+            log.debug("Relayed {} inventory audit entries", total);
+        }
+    }
+
+    /**
+     * Audit trail of an inventory, newest first, including entries not relayed yet
+     */
+    @Transactional(readOnly = true)
+    public List<InventoryUpdateLog> findByFlightInventoryIdOrderByCreatedAtDesc(Long flightInventoryId) {
+        // One read transaction so an entry relayed meanwhile is seen on exactly one side
+        List<InventoryUpdateLog> entries = new ArrayList<>();
+        outboxRepository.findByFlightInventoryIdOrderByCreatedAtDesc(flightInventoryId)
+                .forEach(pending -> entries.add(pending.toUpdateLog()));
+        entries.addAll(inventoryUpdateLogRepository.findByFlightInventoryIdOrderByCreatedAtDesc(flightInventoryId));
+        entries.sort(Comparator.comparing(InventoryUpdateLog::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return entries;
+    }
+
+    // Private helper methods
+
+    private int relayBatch() {
+        List<InventoryAuditOutbox> pending = outboxRepository.lockOldest(PageRequest.of(0, relayBatchSize));
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(LOG_SQL, pending.stream().map(InventoryAuditJournal::toRow).toList());
+        outboxRepository.deleteAllByIdInBatch(pending.stream().map(InventoryAuditOutbox::getId).toList());
+        return pending.size();
+    }
+
+    private static void putChange(Map<String, Map<String, Object>> oldValues, Map<String, Map<String, Object>> newValues,
+                                  String cabin, String field, Object before, Object after) {
+        if (!before.equals(after)) {
+            oldValues.computeIfAbsent(cabin, c -> new LinkedHashMap<>()).put(field, before);
+            newValues.computeIfAbsent(cabin, c -> new LinkedHashMap<>()).put(field, after);
+        }
+    }
+
+    private static Object[] toRow(InventoryAuditOutbox entry) {
+        return new Object[] {entry.getFlightInventoryId(), entry.getUpdateType().name(), entry.getOldValues(),
+                entry.getNewValues(), entry.getUpdatedBy(), entry.getUpdateReason(), Timestamp.valueOf(entry.getCreatedAt())};
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize inventory audit values", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-query view of the seat availability index. Each date is snapshotted once, so a
+ * query sees a stable answer while inventory keeps changing. Flights without inventory
+ * for a date are treated as available; reservation remains the authoritative check.
+ * Not thread-safe.
+ */
+public class AvailabilityFilter {
+
+    private final SeatAvailabilityIndex index;
+    private final SeatClass seatClass;
+    private final int seats;
+    private final Map<LocalDate, BitSet> soldOut = new HashMap<>();
+
+    AvailabilityFilter(SeatAvailabilityIndex index, SeatClass seatClass, int seats) {
+        this.index = index;
+        this.seatClass = seatClass;
+        this.seats = seats;
+    }
+
+    /**
+     * Whether the flight may still have enough seats on the date
+     */
+    public boolean hasSeats(Long flightInfoId, LocalDate date) {
+        BitSet blocked = soldOut.computeIfAbsent(date, day -> index.soldOut(day, seatClass, seats));
+        Integer slot = flightInfoId != null ? index.slotOf(flightInfoId) : null;
+        return slot == null || !blocked.get(slot);
+    }
+}
@@ -0,0 +1,454 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.inventory.audit.InventoryAuditJournal;
+import com.credtravels.inventory.dto.AvailabilityUpdate;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent availability updates per flight inventory. Inventory writes only mark their
+ * inventory dirty, once committed and only while someone is subscribed. Every interval the
+ * dirty inventories are read in one query, the cabin values changed since the last push
+ * are serialized once per inventory, and the same payload is queued for all of its
+ * subscribers, so a burst of writes reaches each subscriber as at most one delta.
+ * New subscribers receive a full snapshot from the same push, which keeps it ordered
+ * with the deltas that follow.
+ * Pushes run on a thread of their own and never wait for a client: each subscriber's events
+ * are written in order by the fan-out threads, and a subscriber that falls max-queued-events
+ * behind or stays in one write for send-timeout-ms is completed, so its client reconnects
+ * and starts again from a snapshot.
+ */
+@Component
+public class AvailabilityPushHub {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityPushHub.class);
+
+    private static final int READ_CHUNK = 1_000;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${credtravels.inventory.push.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMillis;
+
+    @Value("${credtravels.inventory.push.fan-out-threads:8}")
+    private int fanOutThreads;
+
+    @Value("${credtravels.inventory.push.resync-every:30}")
+    private int resyncEvery;
+
+    @Value("${credtravels.inventory.push.max-queued-events:5}")
+    private int maxQueuedEvents;
+
+    @Value("${credtravels.inventory.push.send-timeout-ms:5000}")
+    private long sendTimeoutMillis;
+
+    private final Map<Long, Channel> channels = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // Subscribers in the middle of a write, at most one per fan-out thread
+    private final Set<Subscriber> sending = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger pendingSends = new AtomicInteger();
+    private final AtomicBoolean pushQueued = new AtomicBoolean();
+    private ExecutorService pushExecutor;
+    private ExecutorService fanOut;
+    private Counter evictions;
+    private long pushes;
+
+    @PostConstruct
+    public void init() {
+        pushExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "availability-push");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threads = new AtomicInteger();
+        fanOut = Executors.newFixedThreadPool(fanOutThreads, runnable -> {
+            Thread thread = new Thread(runnable, "availability-push-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        evictions = Counter.builder("credtravels.inventory.push.evictions")
+                .description("Availability subscribers completed for falling behind or stalling a write")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pushExecutor.shutdown();
+        fanOut.shutdown();
+    }
+
+    /**
+     * Subscribe to the availability of an inventory; the first event is its snapshot
+     */
+    public SseEmitter subscribe(FlightInventory inventory) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        register(inventory.getId(), emitter);
+        return emitter;
+    }
+
+    /**
+     * Push the inventory to its subscribers with the next interval, once the current transaction commits
+     */
+    public void changed(Long flightInventoryId) {
+        if (flightInventoryId == null || !channels.containsKey(flightInventoryId)) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.add(flightInventoryId);
+                }
+            });
+        } else {
+            dirty.add(flightInventoryId);
+        }
+    }
+
+    public void changed(Collection<Long> flightInventoryIds) {
+        flightInventoryIds.forEach(this::changed);
+    }
+
+    /**
+     * Hand the next push to the push thread, unless one is still waiting there, so the
+     * scheduler thread shared with the other jobs is never held by subscribers
+     */
+    @Scheduled(fixedDelayString = "${credtravels.inventory.push.interval-ms:1000}")
+    public void schedulePush() {
+        if (!pushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        pushExecutor.execute(() -> {
+            pushQueued.set(false);
+            try {
+                push();
+            } catch (RuntimeException e) {
+                log.error("Failed to push availability updates", e);
+            }
+        });
+    }
+
+    /**
+     * Queue the changes of dirty inventories for their subscribers. Every resync-every pushes all
+     * subscribed inventories are compared, catching writes made by other nodes.
+     */
+    public synchronized void push() {
+        evictStalled();
+        boolean resync = resyncEvery > 0 && ++pushes % resyncEvery == 0;
+        Set<Long> ids = new HashSet<>();
+        for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        if (resync) {
+            ids.addAll(channels.keySet());
+        }
+        ids.retainAll(channels.keySet());
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        List<Long> pending = List.copyOf(ids);
+        int[] queued = {0, 0};
+        // Read on the primary: a replica behind the write that marked an inventory dirty would
+        // push the old counts and leave the new ones to the next resync
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int from = 0; from < pending.size(); from += READ_CHUNK) {
+                for (FlightInventory inventory : flightInventoryRepository.findAllById(
+                        pending.subList(from, Math.min(pending.size(), from + READ_CHUNK)))) {
+                    Channel channel = channels.get(inventory.getId());
+                    if (channel != null) {
+                        queued[0]++;
+                        queued[1] += push(channel, inventory);
+                    }
+                }
+            }
+        });
+        log.debug("Queued availability of {} inventories as {} events", queued[0], queued[1]);
+    }
+
+    /**
+     * Number of live subscribers over all inventories
+     */
+    public int getSubscriberCount() {
+        return channels.values().stream().mapToInt(Channel::size).sum();
+    }
+
+    // Package-private for tests
+
+    void register(Long flightInventoryId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(flightInventoryId, emitter);
+        channels.compute(flightInventoryId, (id, existing) -> {
+            Channel channel = existing != null ? existing : new Channel();
+            channel.joining.add(subscriber);
+            return channel;
+        });
+        emitter.onCompletion(() -> unsubscribe(flightInventoryId, emitter));
+        emitter.onTimeout(() -> unsubscribe(flightInventoryId, emitter));
+        emitter.onError(error -> unsubscribe(flightInventoryId, emitter));
+        dirty.add(flightInventoryId);
+    }
+
+    /**
+     * Wait until every queued event has been written or dropped
+     */
+    boolean awaitSends(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (pendingSends.get() > 0) {
+            if (System.currentTimeMillis() >= deadline) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    // Private helper methods
+
+    /**
+     * Queue the delta for current subscribers and the snapshot for new ones. Pushes run one at
+     * a time and each subscriber writes its queue in order, so it sees its events in order.
+     */
+    private int push(Channel channel, FlightInventory inventory) {
+        Map<SeatClass, CabinInventory> current = InventoryAuditJournal.snapshot(inventory);
+        int queued = 0;
+        if (channel.lastPushed != null && !channel.subscribers.isEmpty()) {
+            Map<String, Map<String, Object>> changes = cabinValues(channel.lastPushed, current);
+            if (!changes.isEmpty()) {
+                String delta = toJson(inventory, changes);
+                for (Subscriber subscriber : channel.subscribers.values()) {
+                    queued += subscriber.offer("delta", delta) ? 1 : 0;
+                }
+            }
+        }
+        channel.lastPushed = current;
+
+        String snapshot = null;
+        Subscriber joined;
+        while ((joined = channel.joining.poll()) != null) {
+            if (snapshot == null) {
+                snapshot = toJson(inventory, cabinValues(null, current));
+            }
+            if (joined.offer("snapshot", snapshot)) {
+                channel.subscribers.put(joined.emitter, joined);
+                queued++;
+            }
+        }
+        return queued;
+    }
+
+    private void evictStalled() {
+        long stalledBefore = System.currentTimeMillis() - sendTimeoutMillis;
+        for (Subscriber subscriber : sending) {
+            long since = subscriber.sendingSince;
+            if (since > 0 && since <= stalledBefore) {
+                evict(subscriber, "stalled in a write");
+            }
+        }
+    }
+
+    /**
+     * Drop a subscriber that cannot keep up. Completing the emitter ends the response, which
+     * also fails a write still blocked on it.
+     */
+    private void evict(Subscriber subscriber, String reason) {
+        if (subscriber.closed) {
+            return;
+        }
+        subscriber.closed = true;
+        unsubscribe(subscriber.flightInventoryId, subscriber.emitter);
+        evictions.increment();
+        log.debug("Availability subscriber of inventory {} evicted, {}", subscriber.flightInventoryId, reason);
+        try {
+            subscriber.emitter.complete();
+        } catch (RuntimeException e) {
+            log.debug("Could not complete evicted availability subscriber", e);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, String eventName, String payload) {
+        try {
+            subscriber.emitter.send(SseEmitter.event().name(eventName).data(payload, MediaType.APPLICATION_JSON));
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the emitter already completed
+            subscriber.closed = true;
+            unsubscribe(subscriber.flightInventoryId, subscriber.emitter);
+            return false;
+        }
+    }
+
+    private void unsubscribe(Long flightInventoryId, SseEmitter emitter) {
+        channels.computeIfPresent(flightInventoryId, (id, channel) -> {
+            channel.subscribers.remove(emitter);
+            channel.joining.removeIf(subscriber -> subscriber.emitter == emitter);
+            return channel.size() == 0 ? null : channel;
+        });
+    }
+
+    /**
+     * Cabin values differing from the previous state, or all of them without one
+     */
+    private static Map<String, Map<String, Object>> cabinValues(Map<SeatClass, CabinInventory> previous,
+                                                                Map<SeatClass, CabinInventory> current) {
+        Map<String, Map<String, Object>> cabins = new LinkedHashMap<>();
+        for (SeatClass seatClass : SeatClass.values()) {
+            CabinInventory old = previous != null ? previous.get(seatClass) : null;
+            CabinInventory cabin = current.get(seatClass);
+            Map<String, Object> values = new LinkedHashMap<>();
+            if (old == null || old.getAvailableSeats() != cabin.getAvailableSeats()) {
+                values.put("availableSeats", cabin.getAvailableSeats());
+            }
+            if (old == null || old.getTotalCapacity() != cabin.getTotalCapacity()) {
+                values.put("totalCapacity", cabin.getTotalCapacity());
+            }
+            if (old == null || old.getPriceMinor() != cabin.getPriceMinor()) {
+                values.put("price", cabin.priceAsDecimal());
+            }
+            if (!values.isEmpty()) {
+                cabins.put(seatClass.name().toLowerCase(), values);
+            }
+        }
+        return cabins;
+    }
+
+    private String toJson(FlightInventory inventory, Map<String, Map<String, Object>> cabins) {
+        try {
+            return objectMapper.writeValueAsString(new AvailabilityUpdate(inventory.getId(), inventory.getFlightInfoId(),
+                    inventory.getFlightDate(), inventory.getLastUpdated(), cabins));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize availability update", e);
+        }
+    }
+
+    /**
+     * Subscribers of one inventory and the cabin values they were last sent
+     */
+    private static class Channel {
+
+        private final Map<SseEmitter, Subscriber> subscribers = new ConcurrentHashMap<>();
+        private final Queue<Subscriber> joining = new ConcurrentLinkedQueue<>();
+        private Map<SeatClass, CabinInventory> lastPushed;
+
+        private int size() {
+            return subscribers.size() + joining.size();
+        }
+    }
+
+    /**
+     * Events waiting for one subscriber, written in order by at most one fan-out thread at a time
+     */
+    private final class Subscriber implements Runnable {
+
+        private final Long flightInventoryId;
+        private final SseEmitter emitter;
+        private final Queue<String[]> outbox = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean writing = new AtomicBoolean();
+        private volatile long sendingSince;
+        private volatile boolean closed;
+
+        private Subscriber(Long flightInventoryId, SseEmitter emitter) {
+            this.flightInventoryId = flightInventoryId;
+            this.emitter = emitter;
+        }
+
+        private boolean offer(String eventName, String payload) {
+            if (closed) {
+                return false;
+            }
+            if (queued.incrementAndGet() > maxQueuedEvents) {
+                evict(this, maxQueuedEvents + " events behind");
+                return false;
+            }
+            outbox.add(new String[] {eventName, payload});
+            drain();
+            return true;
+        }
+
+        private void drain() {
+            if (!writing.compareAndSet(false, true)) {
+                return;
+            }
+            pendingSends.incrementAndGet();
+            try {
+                fanOut.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Shutting down
+                writing.set(false);
+                pendingSends.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                String[] event;
+                while (!closed && (event = outbox.poll()) != null) {
+                    queued.decrementAndGet();
+                    sending.add(this);
+                    sendingSince = System.currentTimeMillis();
+                    try {
+                        send(this, event[0], event[1]);
+                    } finally {
+                        sendingSince = 0;
+                        sending.remove(this);
+                    }
+                }
+            } finally {
+                writing.set(false);
+                if (!closed && !outbox.isEmpty()) {
+                    drain();
+                }
+                pendingSends.decrementAndGet();
+            }
+        }
+    }
+}
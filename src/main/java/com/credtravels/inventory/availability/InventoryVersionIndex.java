@@ -0,0 +1,158 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.common.cache.BoundedTtlCache;
+import com.credtravels.common.datasource.ReplicaRoutingDataSource;
+import com.credtravels.inventory.events.InventoryEventGaps;
+import com.credtravels.inventory.model.FlightInventory;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Last served version of each flight inventory, so a conditional read whose ETag still
+ * matches is answered without loading the row. Versions are recorded when a read loads the
+ * row and dropped once a change to the inventory commits on this node; changes committed
+ * by other nodes are picked up by tailing inventory_event. Entries also expire after the
+ * configured time as a backstop. With inventory replicas, a changed inventory is not recorded
+ * again until the replicas can have caught up, as a read from a replica may predate the change.
+ */
+@Component
+public class InventoryVersionIndex {
+
+    private static final String TAIL_SQL = "SELECT id, flight_inventory_id FROM inventory_event "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final int TAIL_PAGE = 10_000;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private InventoryEventGaps inventoryEventGaps;
+
+    @Autowired(required = false)
+    @Qualifier("inventoryRoutingDataSource")
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Value("${credtravels.datasource.replica.check-interval-ms:1000}")
+    private long replicaCheckIntervalMillis;
+
+    @Value("${credtravels.inventory.etag.max-entries:100000}")
+    private int maxEntries;
+
+    @Value("${credtravels.inventory.etag.ttl-ms:60000}")
+    private long ttlMillis;
+
+    private JdbcTemplate jdbcTemplate;
+    private BoundedTtlCache<String, Long> inventoryIds;
+    private BoundedTtlCache<Long, Long> versions;
+    private BoundedTtlCache<Long, Boolean> recentlyChanged;
+    private volatile long tailCursor = -1;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // Flight and date to inventory id never changes, so ids may outlive versions
+        inventoryIds = new BoundedTtlCache<>(maxEntries, Duration.ofDays(1));
+        versions = new BoundedTtlCache<>(maxEntries, Duration.ofMillis(ttlMillis));
+        if (routingDataSource != null && routingDataSource.hasReplicas()) {
+            // A replica may be up to its lag behind before a check notices
+            recentlyChanged = new BoundedTtlCache<>(maxEntries,
+                    Duration.ofMillis(routingDataSource.getMaxLagMillis() + replicaCheckIntervalMillis));
+        }
+    }
+
+    /**
+     * Weak ETag of an inventory row; the body of a read only changes with its version
+     */
+    public static String etagOf(FlightInventory inventory) {
+        return "W/\"" + inventory.getId() + "-" + (inventory.getVersion() != null ? inventory.getVersion() : 0L) + "\"";
+    }
+
+    /**
+     * ETag of the flight date as last recorded, or null when it has to be loaded
+     */
+    public String etag(Long flightInfoId, LocalDate flightDate) {
+        Long flightInventoryId = inventoryIds.get(key(flightInfoId, flightDate));
+        if (flightInventoryId == null) {
+            return null;
+        }
+        Long version = versions.get(flightInventoryId);
+        return version != null ? "W/\"" + flightInventoryId + "-" + version + "\"" : null;
+    }
+
+    /**
+     * Remember the version of a row that was just read, returning its ETag
+     */
+    public String record(FlightInventory inventory) {
+        inventoryIds.put(key(inventory.getFlightInfoId(), inventory.getFlightDate()), inventory.getId());
+        if (recentlyChanged == null || recentlyChanged.get(inventory.getId()) == null) {
+            versions.put(inventory.getId(), inventory.getVersion() != null ? inventory.getVersion() : 0L);
+        }
+        return etagOf(inventory);
+    }
+
+    /**
+     * Forget the versions of inventories once the current transaction commits
+     */
+    public void invalidate(Collection<Long> flightInventoryIds) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    flightInventoryIds.forEach(InventoryVersionIndex.this::forget);
+                }
+            });
+        } else {
+            flightInventoryIds.forEach(this::forget);
+        }
+    }
+
+    /**
+     * Forget the versions of inventories changed by any node since the last run. The cursor
+     * stops before missing event ids until they time out, so a late commit below it is still seen.
+     */
+    @Scheduled(fixedDelayString = "${credtravels.inventory.etag.tail-interval-ms:1000}")
+    public void tail() {
+        if (tailCursor < 0) {
+            tailCursor = inventoryEventGaps.head();
+        }
+        long[] cursor = {tailCursor};
+        boolean[] held = {false};
+        List<Long> changed = jdbcTemplate.query(TAIL_SQL, (resultSet, row) -> {
+            if (!held[0] && inventoryEventGaps.mayPass(cursor[0], resultSet.getLong(1))) {
+                cursor[0] = resultSet.getLong(1);
+            } else {
+                held[0] = true;
+            }
+            return resultSet.getLong(2);
+        }, tailCursor, TAIL_PAGE);
+        changed.forEach(this::forget);
+        tailCursor = cursor[0];
+    }
+
+    // Private helper methods
+
+    private void forget(Long flightInventoryId) {
+        versions.remove(flightInventoryId);
+        if (recentlyChanged != null) {
+            recentlyChanged.put(flightInventoryId, Boolean.TRUE);
+        }
+    }
+
+    private static String key(Long flightInfoId, LocalDate flightDate) {
+        return flightInfoId + "_" + flightDate;
+    }
+}
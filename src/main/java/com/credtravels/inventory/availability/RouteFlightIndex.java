@@ -0,0 +1,73 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.flightsinfo.model.Airport;
+import com.credtravels.flightsinfo.model.FlightInfo;
+import com.credtravels.flightsinfo.service.FlightsInfoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flight info ids by route, so inventory can be searched by airports although flight_info
+ * lives in another database. Built from the active flights of the flights-info module and
+ * rebuilt periodically; readers see an immutable snapshot swapped in whole.
+ */
+@Component
+public class RouteFlightIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RouteFlightIndex.class);
+
+    @Autowired
+    private FlightsInfoService flightsInfoService;
+
+    private volatile Map<String, List<Long>> routes;
+
+    /**
+     * Ids of the active flights from one airport to another by IATA code, empty for an unknown route
+     */
+    public List<Long> flightIds(String departureAirport, String arrivalAirport) {
+        Map<String, List<Long>> current = routes;
+        if (current == null) {
+            current = refresh();
+        }
+        return current.getOrDefault(routeKey(departureAirport, arrivalAirport), List.of());
+    }
+
+    /**
+     * Rebuild the index from the flights-info module
+     */
+    @Scheduled(fixedDelayString = "${credtravels.inventory.route-index.refresh-interval-ms:300000}")
+    public synchronized Map<String, List<Long>> refresh() {
+        Map<Long, String> airportCodes = new HashMap<>();
+        for (Airport airport : flightsInfoService.getAllAirports()) {
+            airportCodes.put(airport.getId(), airport.getIataCode());
+        }
+        Map<String, List<Long>> built = new HashMap<>();
+        int indexed = 0;
+        for (FlightInfo flight : flightsInfoService.getActiveFlights()) {
+            String from = airportCodes.get(flight.getDepartureAirportId());
+            String to = airportCodes.get(flight.getArrivalAirportId());
+            if (from != null && to != null) {
+                built.computeIfAbsent(routeKey(from, to), key -> new ArrayList<>()).add(flight.getId());
+                indexed++;
+            }
+        }
+        built.replaceAll((route, ids) -> List.copyOf(ids));
+        routes = built;
+        log.debug("Route index built with {} flights on {} routes", indexed, built.size());
+        return built;
+    }
+
+    // Private helper methods
+
+    private static String routeKey(String departureAirport, String arrivalAirport) {
+        return departureAirport.toUpperCase() + "-" + arrivalAirport.toUpperCase();
+    }
+}
@@ -0,0 +1,155 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-date, per-cabin bitmaps answering "does this flight have at least N seats" for
+ * N = 1..{@value #MAX_SEATS}. Flights are mapped to dense slots so a bitmap is one bit per
+ * flight. Inventory writes are applied after their transaction commits and are ordered by
+ * the inventory version, so a late commit never overwrites a newer state. A date is loaded
+ * from the database the first time it is read.
+ */
+@Component
+public class SeatAvailabilityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatAvailabilityIndex.class);
+
+    public static final int MAX_SEATS = 9;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    private final Map<Long, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final Map<LocalDate, DayAvailability> days = new ConcurrentHashMap<>();
+
+    /**
+     * Record the seat counts of an inventory row once the current transaction commits
+     */
+    public void record(FlightInventory inventory) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(inventory);
+                }
+            });
+        } else {
+            apply(inventory);
+        }
+    }
+
+    /**
+     * Filter over this index for a cabin and party size, snapshotting each date on first use
+     */
+    public AvailabilityFilter filter(SeatClass seatClass, int seats) {
+        return new AvailabilityFilter(this, seatClass, Math.max(1, Math.min(seats, MAX_SEATS)));
+    }
+
+    /**
+     * Forget dates that have already departed
+     */
+    @Scheduled(cron = "0 15 0 * * *")
+    public void evictPastDates() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(date -> date.isBefore(today));
+    }
+
+    // Package-private for AvailabilityFilter
+
+    Integer slotOf(Long flightInfoId) {
+        return slots.get(flightInfoId);
+    }
+
+    /**
+     * Copy of the slots known on a date to have fewer than the given seats in the cabin
+     */
+    BitSet soldOut(LocalDate date, SeatClass seatClass, int seats) {
+        DayAvailability day = loadedDay(date);
+        synchronized (day) {
+            BitSet blocked = (BitSet) day.known.clone();
+            blocked.andNot(day.atLeast.get(seatClass)[seats]);
+            return blocked;
+        }
+    }
+
+    // Private helper methods
+
+    private DayAvailability loadedDay(LocalDate date) {
+        DayAvailability day = days.computeIfAbsent(date, key -> new DayAvailability());
+        if (!day.loaded) {
+            synchronized (day) {
+                if (!day.loaded) {
+                    for (FlightInventory inventory : flightInventoryRepository.findByFlightDate(date)) {
+                        applyTo(day, inventory);
+                    }
+                    day.loaded = true;
+                    log.debug("Loaded seat availability for {} flights on {}", day.versions.size(), date);
+                }
+            }
+        }
+        return day;
+    }
+
+    private void apply(FlightInventory inventory) {
+        DayAvailability day = days.computeIfAbsent(inventory.getFlightDate(), key -> new DayAvailability());
+        synchronized (day) {
+            applyTo(day, inventory);
+        }
+    }
+
+    private void applyTo(DayAvailability day, FlightInventory inventory) {
+        int slot = slots.computeIfAbsent(inventory.getFlightInfoId(), id -> nextSlot.getAndIncrement());
+        long version = inventory.getVersion() != null ? inventory.getVersion() : 0L;
+        Long known = day.versions.get(slot);
+        if (known != null && known > version) {
+            return;
+        }
+        day.versions.put(slot, version);
+
+        boolean active = inventory.getStatus() == null || inventory.getStatus() == FlightInventory.FlightStatus.ACTIVE;
+        day.known.set(slot);
+        for (SeatClass seatClass : SeatClass.values()) {
+            int available = active ? inventory.getCabin(seatClass).getAvailableSeats() : 0;
+            BitSet[] atLeast = day.atLeast.get(seatClass);
+            for (int count = 1; count <= MAX_SEATS; count++) {
+                atLeast[count].set(slot, available >= count);
+            }
+        }
+    }
+
+    private static final class DayAvailability {
+
+        private volatile boolean loaded;
+        private final BitSet known = new BitSet();
+        private final Map<SeatClass, BitSet[]> atLeast = new EnumMap<>(SeatClass.class);
+        private final Map<Integer, Long> versions = new HashMap<>();
+
+        private DayAvailability() {
+            for (SeatClass seatClass : SeatClass.values()) {
+                BitSet[] bitmaps = new BitSet[MAX_SEATS + 1];
+                for (int count = 1; count <= MAX_SEATS; count++) {
+                    bitmaps[count] = new BitSet();
+                }
+                atLeast.put(seatClass, bitmaps);
+            }
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.credtravels.inventory.batch;
+
+import com.credtravels.inventory.audit.InventoryAuditJournal;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.dto.InventoryBatchResult;
+import com.credtravels.inventory.events.InventoryEventStore;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryAuditOutbox;
+import com.credtravels.inventory.model.InventoryEvent;
+import com.credtravels.inventory.model.InventoryUpdateLog;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.pricing.FarePricingEngine;
+import com.credtravels.inventory.seats.SeatCounter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedRuntimeException;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies large lists of inventory updates. Items are partitioned by flight so that no
+ * two workers touch the same rows, and each partition is written in chunks, one short
+ * transaction per chunk: existing rows are fetched in one query, then updated, inserted
+ * and audited with JDBC batches. A chunk that fails is retried item by item so one bad
+ * row only fails itself. Every item gets its own result.
+ */
+@Component
+public class InventoryBatchWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryBatchWriter.class);
+
+    private static final String SELECT_SQL = "SELECT id, flight_info_id, flight_date, "
+            + "economy_available_seats, economy_total_capacity, economy_price_minor, "
+            + "business_available_seats, business_total_capacity, business_price_minor, "
+            + "first_available_seats, first_total_capacity, first_price_minor, version, status "
+            + "FROM flight_inventory WHERE flight_info_id IN (:flightInfoIds) AND flight_date BETWEEN :fromDate AND :toDate";
+
+    private static final String UPDATE_SQL = "UPDATE flight_inventory SET "
+            + "economy_available_seats = ?, economy_total_capacity = ?, economy_price_minor = ?, "
+            + "business_available_seats = ?, business_total_capacity = ?, business_price_minor = ?, "
+            + "first_available_seats = ?, first_total_capacity = ?, first_price_minor = ?, "
+            + "version = version + 1, last_updated = CURRENT_TIMESTAMP WHERE id = ? AND version = ?";
+
+    private static final String UPDATE_KEEPING_SEATS_SQL = "UPDATE flight_inventory SET "
+            + "economy_total_capacity = ?, economy_price_minor = ?, "
+            + "business_total_capacity = ?, business_price_minor = ?, "
+            + "first_total_capacity = ?, first_price_minor = ?, "
+            + "version = version + 1, last_updated = CURRENT_TIMESTAMP WHERE id = ? AND version = ?";
+
+    private static final String INSERT_SQL = "INSERT INTO flight_inventory (flight_info_id, flight_date, "
+            + "economy_available_seats, economy_total_capacity, economy_price_minor, "
+            + "business_available_seats, business_total_capacity, business_price_minor, "
+            + "first_available_seats, first_total_capacity, first_price_minor, "
+            + "version, status, last_updated, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 1, 'ACTIVE', CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private InventoryAuditJournal auditJournal;
+
+    @Autowired
+    private InventoryEventStore inventoryEventStore;
+
+    @Autowired
+    private SeatCounter seatCounter;
+
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+
+    @Autowired
+    private FarePricingEngine farePricingEngine;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${credtravels.inventory.batch.parallelism:4}")
+    private int parallelism;
+
+    @Value("${credtravels.inventory.batch.chunk-size:500}")
+    private int chunkSize;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private ExecutorService executor;
+    private Counter chunkFallbacks;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "inventory-batch-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        chunkFallbacks = Counter.builder("credtravels.inventory.batch.chunk.fallbacks")
+                .description("Batch chunks that failed and were retried one item per transaction")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Apply the updates in parallel per flight partition, returning one result per item in request order
+     */
+    public List<InventoryBatchResult> write(List<InventoryUpdateRequest> requests) {
+        InventoryBatchResult[] results = new InventoryBatchResult[requests.size()];
+        List<List<Integer>> partitions = new ArrayList<>();
+        for (int i = 0; i < parallelism; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int index = 0; index < requests.size(); index++) {
+            InventoryUpdateRequest request = requests.get(index);
+            results[index] = new InventoryBatchResult(index, request);
+            String invalid = validate(request);
+            if (invalid != null) {
+                results[index].failed(invalid);
+            } else {
+                partitions.get(Math.floorMod(request.getFlightInfoId().hashCode(), parallelism)).add(index);
+            }
+        }
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (List<Integer> partition : partitions) {
+            if (!partition.isEmpty()) {
+                workers.add(executor.submit(() -> writePartition(partition, requests, results)));
+            }
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for inventory batch", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Inventory batch partition failed", e.getCause());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    // Private helper methods
+
+    private void writePartition(List<Integer> partition, List<InventoryUpdateRequest> requests,
+                                InventoryBatchResult[] results) {
+        for (int from = 0; from < partition.size(); from += chunkSize) {
+            writeChunk(partition.subList(from, Math.min(partition.size(), from + chunkSize)), requests, results);
+        }
+    }
+
+    private void writeChunk(List<Integer> chunk, List<InventoryUpdateRequest> requests, InventoryBatchResult[] results) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applyChunk(chunk, requests, results));
+        } catch (RuntimeException e) {
+            if (chunk.size() == 1) {
+                results[chunk.get(0)].failed(messageOf(e));
+                return;
+            }
+            chunkFallbacks.increment();
+            log.warn("Inventory batch chunk of {} items failed, retrying items one by one: {}", chunk.size(), messageOf(e));
+            for (Integer index : chunk) {
+                writeChunk(List.of(index), requests, results);
+            }
+        }
+    }
+
+    private void applyChunk(List<Integer> chunk, List<InventoryUpdateRequest> requests, InventoryBatchResult[] results) {
+        Map<String, FlightInventory> rows = prefetch(chunk.stream().map(requests::get).toList());
+        Map<String, Long> originalVersions = new HashMap<>();
+        Map<String, Map<SeatClass, CabinInventory>> originalCabins = new HashMap<>();
+        rows.forEach((key, inventory) -> {
+            originalVersions.put(key, inventory.getVersion());
+            originalCabins.put(key, InventoryAuditJournal.snapshot(inventory));
+        });
+
+        Map<String, List<Integer>> itemsByKey = new LinkedHashMap<>();
+        Map<String, List<InventoryAuditOutbox>> auditByKey = new HashMap<>();
+        Set<Integer> createdItems = new HashSet<>();
+        for (Integer index : chunk) {
+            InventoryUpdateRequest request = requests.get(index);
+            String key = key(request.getFlightInfoId(), request.getFlightDate());
+            FlightInventory inventory = rows.get(key);
+            if (inventory == null) {
+                inventory = new FlightInventory();
+                inventory.setFlightInfoId(request.getFlightInfoId());
+                inventory.setFlightDate(request.getFlightDate());
+                rows.put(key, inventory);
+                createdItems.add(index);
+                applyCabinUpdates(inventory, request);
+            } else {
+                // Audited like a single update; the id of a row created in this chunk is filled in below
+                Map<SeatClass, CabinInventory> before = InventoryAuditJournal.snapshot(inventory);
+                applyCabinUpdates(inventory, request);
+                auditByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(auditJournal.entry(before, inventory,
+                        InventoryUpdateLog.UpdateType.MANUAL, request.getUpdatedBy(), request.getUpdateReason()));
+            }
+            itemsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(index);
+        }
+
+        boolean keepSeats = seatCounter.ownsAvailableSeats();
+        List<String> updatedKeys = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<String> createdKeys = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (String key : itemsByKey.keySet()) {
+            FlightInventory inventory = rows.get(key);
+            if (inventory.getId() != null) {
+                updatedKeys.add(key);
+                updates.add(updateRow(inventory, originalVersions.get(key), keepSeats));
+            } else {
+                createdKeys.add(key);
+                inserts.add(insertRow(inventory));
+            }
+        }
+
+        Set<String> conflicted = new HashSet<>();
+        if (!updates.isEmpty()) {
+            int[] counts = jdbcTemplate.getJdbcTemplate().batchUpdate(keepSeats ? UPDATE_KEEPING_SEATS_SQL : UPDATE_SQL, updates);
+            for (int i = 0; i < counts.length; i++) {
+                // Drivers that rewrite batches report SUCCESS_NO_INFO rather than row counts
+                if (counts[i] == 0) {
+                    conflicted.add(updatedKeys.get(i));
+                }
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.getJdbcTemplate().batchUpdate(INSERT_SQL, inserts);
+            Map<String, FlightInventory> inserted = prefetch(createdKeys.stream()
+                    .map(key -> requests.get(itemsByKey.get(key).get(0)))
+                    .toList());
+            for (String key : createdKeys) {
+                FlightInventory row = inserted.get(key);
+                rows.get(key).setId(row.getId());
+            }
+        }
+
+        List<InventoryAuditOutbox> auditEntries = new ArrayList<>();
+        List<InventoryEvent> events = new ArrayList<>();
+        for (String key : itemsByKey.keySet()) {
+            FlightInventory inventory = rows.get(key);
+            if (conflicted.contains(key)) {
+                itemsByKey.get(key).forEach(index -> results[index].failed("Inventory changed concurrently, retry the item"));
+                continue;
+            }
+            for (InventoryAuditOutbox entry : auditByKey.getOrDefault(key, List.of())) {
+                entry.setFlightInventoryId(inventory.getId());
+                auditEntries.add(entry);
+            }
+            // One set of events per flight date with the net change of its items
+            events.addAll(originalCabins.containsKey(key)
+                    ? InventoryEventStore.changes(originalCabins.get(key), inventory, !keepSeats)
+                    : InventoryEventStore.created(inventory));
+            for (Integer index : itemsByKey.get(key)) {
+                results[index].succeeded(createdItems.contains(index)
+                        ? InventoryBatchResult.Status.CREATED : InventoryBatchResult.Status.UPDATED, inventory.getId());
+            }
+            if (inventory.getVersion() != null && originalVersions.containsKey(key)) {
+                inventory.setVersion(inventory.getVersion() + 1);
+            }
+            // Counters that own the seat counts take the new values once the chunk commits
+            for (Integer index : itemsByKey.get(key)) {
+                Map<String, Integer> availableSeats = requests.get(index).getAvailableSeats();
+                if (availableSeats != null) {
+                    availableSeats.keySet().forEach(cabin -> {
+                        SeatClass seatClass = seatClassOf(cabin);
+                        seatCounter.setAvailableSeats(inventory, seatClass, inventory.getCabin(seatClass).getAvailableSeats());
+                    });
+                }
+            }
+            seatAvailabilityIndex.record(inventory);
+            farePricingEngine.record(inventory);
+        }
+        auditJournal.recordAll(auditEntries);
+        inventoryEventStore.appendAll(events);
+    }
+
+    /**
+     * Current rows of the flights and dates in the requests, keyed by flight and date
+     */
+    private Map<String, FlightInventory> prefetch(List<InventoryUpdateRequest> requests) {
+        Set<Long> flightInfoIds = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        LocalDate fromDate = null;
+        LocalDate toDate = null;
+        for (InventoryUpdateRequest request : requests) {
+            flightInfoIds.add(request.getFlightInfoId());
+            keys.add(key(request.getFlightInfoId(), request.getFlightDate()));
+            fromDate = fromDate == null || request.getFlightDate().isBefore(fromDate) ? request.getFlightDate() : fromDate;
+            toDate = toDate == null || request.getFlightDate().isAfter(toDate) ? request.getFlightDate() : toDate;
+        }
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("flightInfoIds", flightInfoIds)
+                .addValue("fromDate", fromDate)
+                .addValue("toDate", toDate);
+        Map<String, FlightInventory> rows = new HashMap<>();
+        jdbcTemplate.query(SELECT_SQL, parameters, resultSet -> {
+            FlightInventory inventory = mapRow(resultSet);
+            String key = key(inventory.getFlightInfoId(), inventory.getFlightDate());
+            // Keep the first row should a flight date have been stored twice
+            if (keys.contains(key) && (!rows.containsKey(key) || rows.get(key).getId() > inventory.getId())) {
+                rows.put(key, inventory);
+            }
+        });
+        return rows;
+    }
+
+    private static FlightInventory mapRow(ResultSet resultSet) throws SQLException {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setId(resultSet.getLong("id"));
+        inventory.setFlightInfoId(resultSet.getLong("flight_info_id"));
+        inventory.setFlightDate(resultSet.getDate("flight_date").toLocalDate());
+        for (SeatClass seatClass : SeatClass.values()) {
+            String cabin = seatClass.name().toLowerCase();
+            inventory.getCabin(seatClass).setAvailableSeats(resultSet.getInt(cabin + "_available_seats"));
+            inventory.getCabin(seatClass).setTotalCapacity(resultSet.getInt(cabin + "_total_capacity"));
+            inventory.getCabin(seatClass).setPriceMinor(resultSet.getLong(cabin + "_price_minor"));
+        }
+        inventory.setVersion(resultSet.getLong("version"));
+        String status = resultSet.getString("status");
+        if (status != null) {
+            inventory.setStatus(FlightInventory.FlightStatus.valueOf(status));
+        }
+        return inventory;
+    }
+
+    private static Object[] updateRow(FlightInventory inventory, Long version, boolean keepSeats) {
+        List<Object> row = new ArrayList<>();
+        for (SeatClass seatClass : SeatClass.values()) {
+            CabinInventory cabin = inventory.getCabin(seatClass);
+            if (!keepSeats) {
+                row.add(cabin.getAvailableSeats());
+            }
+            row.add(cabin.getTotalCapacity());
+            row.add(cabin.getPriceMinor());
+        }
+        row.add(inventory.getId());
+        row.add(version);
+        return row.toArray();
+    }
+
+    private static Object[] insertRow(FlightInventory inventory) {
+        List<Object> row = new ArrayList<>();
+        row.add(inventory.getFlightInfoId());
+        row.add(inventory.getFlightDate());
+        for (SeatClass seatClass : SeatClass.values()) {
+            CabinInventory cabin = inventory.getCabin(seatClass);
+            row.add(cabin.getAvailableSeats());
+            row.add(cabin.getTotalCapacity());
+            row.add(cabin.getPriceMinor());
+        }
+        return row.toArray();
+    }
+
+    private static void applyCabinUpdates(FlightInventory inventory, InventoryUpdateRequest request) {
+        if (request.getAvailableSeats() != null) {
+            request.getAvailableSeats().forEach((cabin, seats) ->
+                    inventory.getCabin(seatClassOf(cabin)).setAvailableSeats(seats));
+        }
+        if (request.getTotalCapacity() != null) {
+            request.getTotalCapacity().forEach((cabin, capacity) ->
+                    inventory.getCabin(seatClassOf(cabin)).setTotalCapacity(capacity));
+        }
+        if (request.getPricing() != null) {
+            request.getPricing().forEach((cabin, price) ->
+                    inventory.getCabin(seatClassOf(cabin)).setPriceMinor(CabinInventory.toMinorUnits(price)));
+        }
+    }
+
+    /**
+     * Reason the item cannot be applied, or null when it is well formed
+     */
+    private static String validate(InventoryUpdateRequest request) {
+        if (request == null || request.getFlightInfoId() == null || request.getFlightDate() == null) {
+            return "Flight info ID and flight date are required";
+        }
+        List<Map<String, ?>> cabinMaps = Arrays.asList(
+                request.getAvailableSeats(), request.getTotalCapacity(), request.getPricing());
+        for (Map<String, ?> cabins : cabinMaps) {
+            if (cabins == null) {
+                continue;
+            }
+            for (Map.Entry<String, ?> entry : cabins.entrySet()) {
+                if (seatClassOrNull(entry.getKey()) == null) {
+                    return "Unknown seat class: " + entry.getKey();
+                }
+                if (entry.getValue() == null) {
+                    return "Missing value for seat class: " + entry.getKey();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static SeatClass seatClassOf(String cabin) {
+        return SeatClass.valueOf(cabin.toUpperCase());
+    }
+
+    private static SeatClass seatClassOrNull(String cabin) {
+        try {
+            return cabin != null ? seatClassOf(cabin) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String key(Long flightInfoId, LocalDate flightDate) {
+        return flightInfoId + "|" + flightDate;
+    }
+
+    private static String messageOf(RuntimeException e) {
+        if (e instanceof NestedRuntimeException nested && nested.getMostSpecificCause() != e) {
+            return nested.getMostSpecificCause().getMessage();
+        }
+        return e.getMessage();
+    }
+}
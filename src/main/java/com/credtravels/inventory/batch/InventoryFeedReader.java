@@ -0,0 +1,243 @@
+package com.credtravels.inventory.batch;
+
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads an inventory feed one line at a time. CSV feeds start with a header naming the
+ * columns (flight_info_id, flight_date, economy_available_seats, economy_total_capacity,
+ * economy_price, ... updated_by, update_reason; empty cells leave a value unchanged);
+ * NDJSON feeds hold one InventoryUpdateRequest per line. A line that cannot be parsed
+ * comes back with its error rather than stopping the feed.
+ */
+public class InventoryFeedReader implements Closeable {
+
+    private static final String AVAILABLE_SEATS = "_available_seats";
+    private static final String TOTAL_CAPACITY = "_total_capacity";
+    private static final String PRICE = "_price";
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+
+    private String[] columns;
+    private long lineNumber;
+
+    public InventoryFeedReader(InputStream feed, Format format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(feed, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * The next record of the feed, or null once it is exhausted
+     */
+    public FeedRecord next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.NDJSON) {
+                return parseJson(line);
+            }
+            if (columns == null) {
+                columns = parseHeader(line);
+                continue;
+            }
+            return parseCsv(line);
+        }
+        return null;
+    }
+
+    /**
+     * Number of the last line read, counting from 1 and including the header
+     */
+    public long getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    // Private helper methods
+
+    private FeedRecord parseJson(String line) {
+        try {
+            return new FeedRecord(lineNumber, objectMapper.readValue(line, InventoryUpdateRequest.class), null);
+        } catch (JsonProcessingException e) {
+            return new FeedRecord(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private String[] parseHeader(String line) {
+        List<String> cells = splitCsv(line);
+        String[] header = new String[cells.size()];
+        for (int i = 0; i < header.length; i++) {
+            String column = cells.get(i).trim().toLowerCase();
+            if (!isKnownColumn(column)) {
+                throw new ValidationException("Unknown inventory feed column: " + cells.get(i));
+            }
+            header[i] = column;
+        }
+        List<String> present = List.of(header);
+        if (!present.contains("flight_info_id") || !present.contains("flight_date")) {
+            throw new ValidationException("Inventory feed header must name flight_info_id and flight_date");
+        }
+        return header;
+    }
+
+    private FeedRecord parseCsv(String line) {
+        List<String> cells = splitCsv(line);
+        if (cells.size() > columns.length) {
+            return new FeedRecord(lineNumber, null, "Expected " + columns.length + " columns but found " + cells.size());
+        }
+        InventoryUpdateRequest request = new InventoryUpdateRequest();
+        Map<String, Integer> availableSeats = new HashMap<>();
+        Map<String, Integer> totalCapacity = new HashMap<>();
+        Map<String, BigDecimal> pricing = new HashMap<>();
+        for (int i = 0; i < cells.size(); i++) {
+            String column = columns[i];
+            String value = cells.get(i).trim();
+            if (value.isEmpty()) {
+                continue;
+            }
+            try {
+                if (column.equals("flight_info_id")) {
+                    request.setFlightInfoId(Long.valueOf(value));
+                } else if (column.equals("flight_date")) {
+                    request.setFlightDate(LocalDate.parse(value));
+                } else if (column.equals("updated_by")) {
+                    request.setUpdatedBy(value);
+                } else if (column.equals("update_reason")) {
+                    request.setUpdateReason(value);
+                } else if (column.endsWith(AVAILABLE_SEATS)) {
+                    availableSeats.put(cabinOf(column, AVAILABLE_SEATS), Integer.valueOf(value));
+                } else if (column.endsWith(TOTAL_CAPACITY)) {
+                    totalCapacity.put(cabinOf(column, TOTAL_CAPACITY), Integer.valueOf(value));
+                } else {
+                    pricing.put(cabinOf(column, PRICE), new BigDecimal(value));
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                return new FeedRecord(lineNumber, null, "Invalid value '" + value + "' for column " + column);
+            }
+        }
+        request.setAvailableSeats(availableSeats.isEmpty() ? null : availableSeats);
+        request.setTotalCapacity(totalCapacity.isEmpty() ? null : totalCapacity);
+        request.setPricing(pricing.isEmpty() ? null : pricing);
+        return new FeedRecord(lineNumber, request, null);
+    }
+
+    private static boolean isKnownColumn(String column) {
+        if (List.of("flight_info_id", "flight_date", "updated_by", "update_reason").contains(column)) {
+            return true;
+        }
+        for (SeatClass seatClass : SeatClass.values()) {
+            String cabin = seatClass.name().toLowerCase();
+            if (column.equals(cabin + AVAILABLE_SEATS) || column.equals(cabin + TOTAL_CAPACITY)
+                    || column.equals(cabin + PRICE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String cabinOf(String column, String suffix) {
+        return column.substring(0, column.length() - suffix.length());
+    }
+
+    /**
+     * Split one CSV line, honouring double-quoted cells with "" as an escaped quote
+     */
+    private static List<String> splitCsv(String line) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    cell.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    cell.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format fromContentType(String contentType) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if ("csv".equalsIgnoreCase(mediaType.getSubtype())) {
+                return CSV;
+            }
+            if ("x-ndjson".equalsIgnoreCase(mediaType.getSubtype())) {
+                return NDJSON;
+            }
+            throw new ValidationException("Unsupported inventory feed type: " + contentType);
+        }
+    }
+
+    /**
+     * One feed line, holding either the parsed request or the reason it was rejected
+     */
+    public static class FeedRecord {
+
+        private final long line;
+        private final InventoryUpdateRequest request;
+        private final String error;
+
+        FeedRecord(long line, InventoryUpdateRequest request, String error) {
+            this.line = line;
+            this.request = request;
+            this.error = error;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public InventoryUpdateRequest getRequest() {
+            return request;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+}
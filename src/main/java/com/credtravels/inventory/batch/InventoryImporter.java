@@ -0,0 +1,128 @@
+package com.credtravels.inventory.batch;
+
+import com.credtravels.inventory.dto.InventoryBatchResult;
+import com.credtravels.inventory.dto.InventoryImportSummary;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.model.InventoryImportCheckpoint;
+import com.credtravels.inventory.repository.InventoryImportCheckpointRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams an inventory feed into flight_inventory in constant memory. Lines are parsed
+ * as they arrive and written through InventoryBatchWriter one bounded batch at a time;
+ * the feed is not read while a batch is being written, so a fast sender is held back by
+ * the connection rather than buffered here. After every batch the checkpoint records
+ * the last line written, and a later upload under the same import id skips up to it.
+ * Items carry absolute values, so a batch written again after a crash between the
+ * write and its checkpoint ends in the same state.
+ */
+@Component
+public class InventoryImporter {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryImporter.class);
+
+    @Autowired
+    private InventoryBatchWriter inventoryBatchWriter;
+
+    @Autowired
+    private InventoryImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${credtravels.inventory.import.batch-size:2000}")
+    private int batchSize;
+
+    @Value("${credtravels.inventory.import.max-reported-errors:100}")
+    private int maxReportedErrors;
+
+    /**
+     * Import the feed under the given id, resuming after the last checkpointed line
+     */
+    public InventoryImportSummary importFeed(String importId, InventoryFeedReader.Format format, InputStream feed)
+            throws IOException {
+        // From the primary, as a lagging replica's checkpoint would import lines twice
+        InventoryImportCheckpoint checkpoint = new TransactionTemplate(transactionManager)
+                .execute(status -> checkpointRepository.findById(importId)
+                        .orElseGet(() -> new InventoryImportCheckpoint(importId)));
+        long resumeAfter = checkpoint.getLastLine();
+        checkpoint.setStatus(InventoryImportCheckpoint.ImportStatus.IN_PROGRESS);
+        log.info("Importing inventory feed {} as {}, resuming after line {}", importId, format, resumeAfter);
+
+        List<String> errors = new ArrayList<>();
+        List<InventoryUpdateRequest> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        try (InventoryFeedReader reader = new InventoryFeedReader(feed, format, objectMapper)) {
+            InventoryFeedReader.FeedRecord record;
+            while ((record = reader.next()) != null) {
+                if (record.getLine() <= resumeAfter) {
+                    continue;
+                }
+                if (record.getError() != null) {
+                    checkpoint.setItemsFailed(checkpoint.getItemsFailed() + 1);
+                    reportError(errors, record.getLine(), record.getError());
+                    continue;
+                }
+                batch.add(record.getRequest());
+                batchLines.add(record.getLine());
+                if (batch.size() >= batchSize) {
+                    writeBatch(checkpoint, batch, batchLines, errors, reader.getLineNumber());
+                }
+            }
+            checkpoint.setStatus(InventoryImportCheckpoint.ImportStatus.COMPLETED);
+            writeBatch(checkpoint, batch, batchLines, errors, Math.max(resumeAfter, reader.getLineNumber()));
+        }
+
+        log.info("Inventory feed {} imported up to line {}: {} created, {} updated, {} failed", importId,
+                checkpoint.getLastLine(), checkpoint.getItemsCreated(), checkpoint.getItemsUpdated(), checkpoint.getItemsFailed());
+        return new InventoryImportSummary(checkpoint, resumeAfter, errors);
+    }
+
+    // Private helper methods
+
+    private void writeBatch(InventoryImportCheckpoint checkpoint, List<InventoryUpdateRequest> batch, List<Long> batchLines,
+                            List<String> errors, long lastLine) {
+        if (!batch.isEmpty()) {
+            List<InventoryBatchResult> results = inventoryBatchWriter.write(batch);
+            for (int i = 0; i < results.size(); i++) {
+                InventoryBatchResult result = results.get(i);
+                switch (result.getStatus()) {
+                    case CREATED -> checkpoint.setItemsCreated(checkpoint.getItemsCreated() + 1);
+                    case UPDATED -> checkpoint.setItemsUpdated(checkpoint.getItemsUpdated() + 1);
+                    default -> {
+                        checkpoint.setItemsFailed(checkpoint.getItemsFailed() + 1);
+                        reportError(errors, batchLines.get(i), result.getMessage());
+                    }
+                }
+            }
+            batch.clear();
+            batchLines.clear();
+        }
+        checkpoint.setLastLine(lastLine);
+        checkpoint.setUpdatedAt(LocalDateTime.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private void reportError(List<String> errors, long line, String message) {
+        // Only the first errors are kept so a feed full of bad lines still imports in constant memory
+        if (errors.size() < maxReportedErrors) {
+            errors.add("Line " + line + ": " + message);
+        }
+    }
+}
@@ -1,7 +1,15 @@
 package com.credtravels.inventory.controller;
 
 import com.credtravels.common.dto.ApiResponse;
+import com.credtravels.inventory.availability.InventoryVersionIndex;
+import com.credtravels.inventory.batch.InventoryFeedReader;
+import com.credtravels.inventory.dto.FlightAvailability;
+import com.credtravels.inventory.dto.FlightDateKey;
+import com.credtravels.inventory.dto.InventoryBatchResult;
+import com.credtravels.inventory.dto.InventoryChangePage;
+import com.credtravels.inventory.dto.InventoryImportSummary;
 import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.ReservationLeg;
 import com.credtravels.inventory.dto.SeatReservationRequest;
 import com.credtravels.inventory.model.FlightInventory;
 import com.credtravels.inventory.model.SeatReservation;
@@ -9,11 +17,20 @@ import com.credtravels.inventory.service.InventoryService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/inventory")
@@ -41,11 +58,31 @@ public class InventoryController {
     @GetMapping("/flights/{flightId}")
     public ResponseEntity<ApiResponse<FlightInventory>> getFlightInventory(
             @PathVariable Long flightId,
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate flightDate) {
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate flightDate,
+            WebRequest webRequest) {
         
-        return inventoryService.getFlightInventory(flightId, flightDate)
-                .map(inventory -> ResponseEntity.ok(ApiResponse.success(inventory)))
-                .orElse(ResponseEntity.notFound().build());
+        if (isNotModified(flightId, flightDate, webRequest)) {
+            return null;
+        }
+        Optional<FlightInventory> inventory = inventoryService.getFlightInventory(flightId, flightDate);
+        if (inventory.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        // A matching ETag still turns into a 304 without writing the body
+        return ResponseEntity.ok().eTag(InventoryVersionIndex.etagOf(inventory.get())).body(ApiResponse.success(inventory.get()));
+    }
+    
+    /**
+     * Get flight inventory as it stood at a point in time
+     */
+    @GetMapping("/flights/{flightId}/history")
+    public ResponseEntity<ApiResponse<FlightInventory>> getFlightInventoryAt(
+            @PathVariable Long flightId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate flightDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        
+        FlightInventory inventory = inventoryService.getFlightInventoryAt(flightId, flightDate, at);
+        return ResponseEntity.ok(ApiResponse.success(inventory));
     }
     
     /**
@@ -54,12 +91,64 @@ public class InventoryController {
     @GetMapping("/flights/{flightId}/availability")
     public ResponseEntity<ApiResponse<FlightInventory>> getFlightAvailability(
             @PathVariable Long flightId,
-            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate flightDate) {
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate flightDate,
+            WebRequest webRequest) {
         
+        if (isNotModified(flightId, flightDate, webRequest)) {
+            return null;
+        }
         FlightInventory availability = inventoryService.getFlightAvailability(flightId, flightDate);
+        return ResponseEntity.ok().eTag(InventoryVersionIndex.etagOf(availability)).body(ApiResponse.success(availability));
+    }
+    
+    /**
+     * Availability of several flight dates in one round-trip, in request order
+     */
+    @PostMapping("/flights/availability")
+    public ResponseEntity<ApiResponse<List<FlightAvailability>>> getBulkAvailability(
+            @Valid @RequestBody List<FlightDateKey> flights) {
+        
+        List<FlightAvailability> availability = inventoryService.getBulkAvailability(flights);
         return ResponseEntity.ok(ApiResponse.success(availability));
     }
     
+    /**
+     * Fare of the next seats of a cabin at the current load factor
+     */
+    @GetMapping("/flights/{flightId}/fare")
+    public ResponseEntity<ApiResponse<BigDecimal>> quoteFare(
+            @PathVariable Long flightId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate flightDate,
+            @RequestParam(defaultValue = "ECONOMY") SeatReservation.SeatClass seatClass,
+            @RequestParam(defaultValue = "1") int seats) {
+        
+        BigDecimal fare = inventoryService.quoteFare(flightId, flightDate, seatClass, seats);
+        return ResponseEntity.ok(ApiResponse.success(fare));
+    }
+    
+    /**
+     * Stream availability of a flight as server-sent events: a snapshot, then at most one delta per push interval
+     */
+    @GetMapping(value = "/flights/{flightId}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamFlightAvailability(
+            @PathVariable Long flightId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate flightDate) {
+        
+        return inventoryService.subscribeAvailability(flightId, flightDate);
+    }
+    
+    /**
+     * Inventory changes after a cursor; call without a cursor to get the current head
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<InventoryChangePage>> getInventoryChanges(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "500") int limit) {
+        
+        InventoryChangePage page = inventoryService.getInventoryChanges(cursor, limit);
+        return ResponseEntity.ok(ApiResponse.success(page));
+    }
+    
     /**
      * Reserve seats
      */
@@ -73,6 +162,17 @@ public class InventoryController {
         return ResponseEntity.ok(ApiResponse.success("Seats reserved successfully", reservation));
     }
     
+    /**
+     * Reserve seats on all legs of an itinerary, or on none of them
+     */
+    @PutMapping("/reservations/itinerary")
+    public ResponseEntity<ApiResponse<List<SeatReservation>>> reserveItinerary(
+            @Valid @RequestBody List<ReservationLeg> legs) {
+        
+        List<SeatReservation> reservations = inventoryService.reserveItinerary(legs);
+        return ResponseEntity.ok(ApiResponse.success("Itinerary seats reserved successfully", reservations));
+    }
+    
     /**
      * Release seat reservation
      */
@@ -102,11 +202,28 @@ public class InventoryController {
      * Batch update inventory
      */
     @PostMapping("/batch-update")
-    public ResponseEntity<ApiResponse<List<FlightInventory>>> batchUpdateInventory(
+    public ResponseEntity<ApiResponse<List<InventoryBatchResult>>> batchUpdateInventory(
             @Valid @RequestBody List<InventoryUpdateRequest> requests) {
         
-        List<FlightInventory> updatedInventories = inventoryService.batchUpdateInventory(requests);
-        return ResponseEntity.ok(ApiResponse.success("Batch update completed successfully", updatedInventories));
+        List<InventoryBatchResult> results = inventoryService.batchUpdateInventory(requests);
+        long failed = results.stream().filter(result -> result.getStatus() == InventoryBatchResult.Status.FAILED).count();
+        String message = failed == 0 ? "Batch update completed successfully"
+                : "Batch update completed with " + failed + " of " + results.size() + " items failed";
+        return ResponseEntity.ok(ApiResponse.success(message, results));
+    }
+    
+    /**
+     * Stream a CSV or NDJSON inventory feed; repeat the upload with the returned importId to resume it
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponse<InventoryImportSummary>> importInventory(
+            @RequestParam(required = false) String importId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream feed) throws IOException {
+        
+        InventoryImportSummary summary = inventoryService.importInventory(
+                importId, InventoryFeedReader.Format.fromContentType(contentType), feed);
+        return ResponseEntity.ok(ApiResponse.success("Inventory import completed", summary));
     }
     
     /**
@@ -128,4 +245,17 @@ public class InventoryController {
         inventoryService.cleanupExpiredReservations();
         return ResponseEntity.ok(ApiResponse.success("Cleanup completed successfully", null));
     }
+    
+    // Private helper methods
+    
+    /**
+     * Answer a conditional read from the last known version, without loading the inventory
+     */
+    private boolean isNotModified(Long flightId, LocalDate flightDate, WebRequest webRequest) {
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) == null) {
+            return false;
+        }
+        String etag = inventoryService.getInventoryETag(flightId, flightDate);
+        return etag != null && webRequest.checkNotModified(etag);
+    }
 }
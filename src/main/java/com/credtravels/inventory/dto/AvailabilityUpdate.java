@@ -0,0 +1,80 @@
+package com.credtravels.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Cabin values of a flight date sent to availability subscribers and change feed consumers:
+ * every value in a snapshot, only the changed ones otherwise, e.g.
+ * {"economy":{"availableSeats":98,"price":5500.00}}
+ */
+public class AvailabilityUpdate {
+
+    private Long flightInventoryId;
+
+    private Long flightInfoId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate flightDate;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastUpdated;
+
+    private Map<String, Map<String, Object>> cabins;
+
+    // Constructors
+    public AvailabilityUpdate() {}
+
+    public AvailabilityUpdate(Long flightInventoryId, Long flightInfoId, LocalDate flightDate,
+                              LocalDateTime lastUpdated, Map<String, Map<String, Object>> cabins) {
+        this.flightInventoryId = flightInventoryId;
+        this.flightInfoId = flightInfoId;
+        this.flightDate = flightDate;
+        this.lastUpdated = lastUpdated;
+        this.cabins = cabins;
+    }
+
+    // Getters and Setters
+    public Long getFlightInventoryId() {
+        return flightInventoryId;
+    }
+
+    public void setFlightInventoryId(Long flightInventoryId) {
+        this.flightInventoryId = flightInventoryId;
+    }
+
+    public Long getFlightInfoId() {
+        return flightInfoId;
+    }
+
+    public void setFlightInfoId(Long flightInfoId) {
+        this.flightInfoId = flightInfoId;
+    }
+
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+
+    public void setFlightDate(LocalDate flightDate) {
+        this.flightDate = flightDate;
+    }
+
+    public LocalDateTime getLastUpdated() {
+        return lastUpdated;
+    }
+
+    public void setLastUpdated(LocalDateTime lastUpdated) {
+        this.lastUpdated = lastUpdated;
+    }
+
+    public Map<String, Map<String, Object>> getCabins() {
+        return cabins;
+    }
+
+    public void setCabins(Map<String, Map<String, Object>> cabins) {
+        this.cabins = cabins;
+    }
+}
@@ -0,0 +1,95 @@
+package com.credtravels.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Availability of one flight date in a bulk lookup: the status, ETag and the seats and fare
+ * of each cabin, e.g. {"economy":{"availableSeats":98,"price":5500.00}}. Only the flight
+ * and date are returned when the flight date has no inventory.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class FlightAvailability {
+    
+    private Long flightId;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate flightDate;
+    
+    private boolean found;
+    
+    private String status;
+    
+    private String etag;
+    
+    private Map<String, Map<String, Object>> cabins;
+    
+    // Constructors
+    public FlightAvailability() {}
+    
+    public FlightAvailability(Long flightId, LocalDate flightDate) {
+        this.flightId = flightId;
+        this.flightDate = flightDate;
+    }
+    
+    public FlightAvailability(Long flightId, LocalDate flightDate, String status, String etag,
+                              Map<String, Map<String, Object>> cabins) {
+        this(flightId, flightDate);
+        this.found = true;
+        this.status = status;
+        this.etag = etag;
+        this.cabins = cabins;
+    }
+    
+    // Getters and Setters
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+    
+    public void setFlightDate(LocalDate flightDate) {
+        this.flightDate = flightDate;
+    }
+    
+    public boolean isFound() {
+        return found;
+    }
+    
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+    
+    public String getStatus() {
+        return status;
+    }
+    
+    public void setStatus(String status) {
+        this.status = status;
+    }
+    
+    public String getEtag() {
+        return etag;
+    }
+    
+    public void setEtag(String etag) {
+        this.etag = etag;
+    }
+    
+    public Map<String, Map<String, Object>> getCabins() {
+        return cabins;
+    }
+    
+    public void setCabins(Map<String, Map<String, Object>> cabins) {
+        this.cabins = cabins;
+    }
+}
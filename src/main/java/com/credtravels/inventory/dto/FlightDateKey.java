@@ -0,0 +1,44 @@
+package com.credtravels.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * A flight and date whose availability is asked for in a bulk lookup
+ */
+public class FlightDateKey {
+    
+    @NotNull(message = "Flight ID is required")
+    private Long flightId;
+    
+    @NotNull(message = "Flight date is required")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate flightDate;
+    
+    // Constructors
+    public FlightDateKey() {}
+    
+    public FlightDateKey(Long flightId, LocalDate flightDate) {
+        this.flightId = flightId;
+        this.flightDate = flightDate;
+    }
+    
+    // Getters and Setters
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+    
+    public void setFlightDate(LocalDate flightDate) {
+        this.flightDate = flightDate;
+    }
+}
@@ -0,0 +1,98 @@
+package com.credtravels.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryBatchResult {
+
+    private int index;
+
+    private Long flightInfoId;
+
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate flightDate;
+
+    private Status status;
+
+    private Long flightInventoryId;
+
+    private String message;
+
+    // Constructors
+    public InventoryBatchResult() {}
+
+    public InventoryBatchResult(int index, InventoryUpdateRequest request) {
+        this.index = index;
+        this.flightInfoId = request.getFlightInfoId();
+        this.flightDate = request.getFlightDate();
+    }
+
+    // Getters and Setters
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public Long getFlightInfoId() {
+        return flightInfoId;
+    }
+
+    public void setFlightInfoId(Long flightInfoId) {
+        this.flightInfoId = flightInfoId;
+    }
+
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+
+    public void setFlightDate(LocalDate flightDate) {
+        this.flightDate = flightDate;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Long getFlightInventoryId() {
+        return flightInventoryId;
+    }
+
+    public void setFlightInventoryId(Long flightInventoryId) {
+        this.flightInventoryId = flightInventoryId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // Business methods
+    public void succeeded(Status status, Long flightInventoryId) {
+        this.status = status;
+        this.flightInventoryId = flightInventoryId;
+        this.message = null;
+    }
+
+    public void failed(String message) {
+        this.status = Status.FAILED;
+        this.flightInventoryId = null;
+        this.message = message;
+    }
+
+    public enum Status {
+        CREATED, UPDATED, FAILED
+    }
+}
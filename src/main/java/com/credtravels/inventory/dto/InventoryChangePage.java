@@ -0,0 +1,62 @@
+package com.credtravels.inventory.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One page of the inventory change feed. Pass nextCursor as the cursor of the next request;
+ * hasMore tells whether that request would return more changes right away.
+ */
+public class InventoryChangePage {
+
+    private long cursor;
+
+    private long nextCursor;
+
+    private boolean hasMore;
+
+    private List<AvailabilityUpdate> changes = new ArrayList<>();
+
+    // Constructors
+    public InventoryChangePage() {}
+
+    public InventoryChangePage(long cursor, long nextCursor, boolean hasMore, List<AvailabilityUpdate> changes) {
+        this.cursor = cursor;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.changes = changes;
+    }
+
+    // Getters and Setters
+    public long getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(long cursor) {
+        this.cursor = cursor;
+    }
+
+    public long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public List<AvailabilityUpdate> getChanges() {
+        return changes;
+    }
+
+    public void setChanges(List<AvailabilityUpdate> changes) {
+        this.changes = changes;
+    }
+}
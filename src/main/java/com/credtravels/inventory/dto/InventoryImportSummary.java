@@ -0,0 +1,104 @@
+package com.credtravels.inventory.dto;
+
+import com.credtravels.inventory.model.InventoryImportCheckpoint;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class InventoryImportSummary {
+
+    private String importId;
+
+    private InventoryImportCheckpoint.ImportStatus status;
+
+    private long resumedAfterLine;
+
+    private long lastLine;
+
+    private long itemsCreated;
+
+    private long itemsUpdated;
+
+    private long itemsFailed;
+
+    private List<String> errors = new ArrayList<>();
+
+    // Constructors
+    public InventoryImportSummary() {}
+
+    public InventoryImportSummary(InventoryImportCheckpoint checkpoint, long resumedAfterLine, List<String> errors) {
+        this.importId = checkpoint.getImportId();
+        this.status = checkpoint.getStatus();
+        this.resumedAfterLine = resumedAfterLine;
+        this.lastLine = checkpoint.getLastLine();
+        this.itemsCreated = checkpoint.getItemsCreated();
+        this.itemsUpdated = checkpoint.getItemsUpdated();
+        this.itemsFailed = checkpoint.getItemsFailed();
+        this.errors = errors;
+    }
+
+    // Getters and Setters
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public InventoryImportCheckpoint.ImportStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(InventoryImportCheckpoint.ImportStatus status) {
+        this.status = status;
+    }
+
+    public long getResumedAfterLine() {
+        return resumedAfterLine;
+    }
+
+    public void setResumedAfterLine(long resumedAfterLine) {
+        this.resumedAfterLine = resumedAfterLine;
+    }
+
+    public long getLastLine() {
+        return lastLine;
+    }
+
+    public void setLastLine(long lastLine) {
+        this.lastLine = lastLine;
+    }
+
+    public long getItemsCreated() {
+        return itemsCreated;
+    }
+
+    public void setItemsCreated(long itemsCreated) {
+        this.itemsCreated = itemsCreated;
+    }
+
+    public long getItemsUpdated() {
+        return itemsUpdated;
+    }
+
+    public void setItemsUpdated(long itemsUpdated) {
+        this.itemsUpdated = itemsUpdated;
+    }
+
+    public long getItemsFailed() {
+        return itemsFailed;
+    }
+
+    public void setItemsFailed(long itemsFailed) {
+        this.itemsFailed = itemsFailed;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,73 @@
+package com.credtravels.inventory.dto;
+
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+/**
+ * Seats wanted on one leg of an itinerary reserved all at once
+ */
+public class ReservationLeg {
+    
+    @NotNull(message = "Flight ID is required")
+    private Long flightId;
+    
+    @NotNull(message = "Flight date is required")
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate flightDate;
+    
+    @NotNull(message = "Seat class is required")
+    private SeatClass seatClass;
+    
+    @NotNull(message = "Seat count is required")
+    @Min(value = 1, message = "Minimum 1 seat required")
+    @Max(value = 9, message = "Maximum 9 seats allowed")
+    private Integer seatCount;
+    
+    // Constructors
+    public ReservationLeg() {}
+    
+    public ReservationLeg(Long flightId, LocalDate flightDate, SeatClass seatClass, Integer seatCount) {
+        this.flightId = flightId;
+        this.flightDate = flightDate;
+        this.seatClass = seatClass;
+        this.seatCount = seatCount;
+    }
+    
+    // Getters and Setters
+    public Long getFlightId() {
+        return flightId;
+    }
+    
+    public void setFlightId(Long flightId) {
+        this.flightId = flightId;
+    }
+    
+    public LocalDate getFlightDate() {
+        return flightDate;
+    }
+    
+    public void setFlightDate(LocalDate flightDate) {
+        this.flightDate = flightDate;
+    }
+    
+    public SeatClass getSeatClass() {
+        return seatClass;
+    }
+    
+    public void setSeatClass(SeatClass seatClass) {
+        this.seatClass = seatClass;
+    }
+    
+    public Integer getSeatCount() {
+        return seatCount;
+    }
+    
+    public void setSeatCount(Integer seatCount) {
+        this.seatCount = seatCount;
+    }
+}
@@ -0,0 +1,127 @@
+package com.credtravels.inventory.events;
+
+import com.credtravels.inventory.dto.AvailabilityUpdate;
+import com.credtravels.inventory.dto.InventoryChangePage;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Incremental sync over inventory_event. The cursor is an event id; a page walks the
+ * primary key past it and returns each inventory touched once, with the current values
+ * of the cabin fields its events changed. A missing id ends the page until it times out,
+ * since a concurrent transaction may still commit it (see {@link InventoryEventGaps}).
+ */
+@Component
+public class InventoryChangeFeed {
+
+    private static final String PAGE_SQL = "SELECT id, flight_inventory_id, event_type, seat_class "
+            + "FROM inventory_event WHERE id > ? ORDER BY id LIMIT ?";
+
+    private enum Field { AVAILABLE_SEATS, TOTAL_CAPACITY, PRICE }
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private InventoryEventGaps inventoryEventGaps;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * Cursor to start syncing from after reading the full inventory
+     */
+    public long head() {
+        return inventoryEventGaps.head();
+    }
+
+    /**
+     * Inventories changed by up to limit events after the cursor
+     */
+    public InventoryChangePage changesAfter(long cursor, int limit) {
+        Map<Long, Map<SeatClass, Set<Field>>> touched = new LinkedHashMap<>();
+        long[] next = {cursor};
+        int[] read = {0};
+        boolean[] held = {false};
+        jdbcTemplate.query(PAGE_SQL, resultSet -> {
+            if (held[0] || read[0] < limit && !inventoryEventGaps.mayPass(next[0], resultSet.getLong(1))) {
+                held[0] = true;
+                return;
+            }
+            read[0]++;
+            if (read[0] > limit) {
+                return;
+            }
+            next[0] = resultSet.getLong(1);
+            touched.computeIfAbsent(resultSet.getLong(2), id -> new EnumMap<>(SeatClass.class))
+                    .computeIfAbsent(SeatClass.valueOf(resultSet.getString(4)), seatClass -> EnumSet.noneOf(Field.class))
+                    .add(fieldOf(EventType.valueOf(resultSet.getString(3))));
+        }, cursor, limit + 1);
+
+        List<AvailabilityUpdate> changes = new ArrayList<>();
+        if (!touched.isEmpty()) {
+            Map<Long, FlightInventory> rows = new LinkedHashMap<>();
+            flightInventoryRepository.findAllById(touched.keySet()).forEach(row -> rows.put(row.getId(), row));
+            touched.forEach((flightInventoryId, fields) -> {
+                FlightInventory row = rows.get(flightInventoryId);
+                if (row != null) {
+                    changes.add(new AvailabilityUpdate(row.getId(), row.getFlightInfoId(), row.getFlightDate(),
+                            row.getLastUpdated(), cabinValues(row, fields)));
+                }
+            });
+        }
+        return new InventoryChangePage(cursor, next[0], read[0] > limit, changes);
+    }
+
+    // Private helper methods
+
+    private static Field fieldOf(EventType eventType) {
+        return switch (eventType) {
+            case SEATS_ADJUSTED, SEATS_SET -> Field.AVAILABLE_SEATS;
+            case CAPACITY_SET -> Field.TOTAL_CAPACITY;
+            case PRICE_SET -> Field.PRICE;
+        };
+    }
+
+    private static Map<String, Map<String, Object>> cabinValues(FlightInventory row, Map<SeatClass, Set<Field>> fields) {
+        Map<String, Map<String, Object>> cabins = new LinkedHashMap<>();
+        fields.forEach((seatClass, changed) -> {
+            CabinInventory cabin = row.getCabin(seatClass);
+            Map<String, Object> values = new LinkedHashMap<>();
+            if (changed.contains(Field.AVAILABLE_SEATS)) {
+                values.put("availableSeats", cabin.getAvailableSeats());
+            }
+            if (changed.contains(Field.TOTAL_CAPACITY)) {
+                values.put("totalCapacity", cabin.getTotalCapacity());
+            }
+            if (changed.contains(Field.PRICE)) {
+                values.put("price", cabin.priceAsDecimal());
+            }
+            cabins.put(seatClass.name().toLowerCase(), values);
+        });
+        return cabins;
+    }
+}
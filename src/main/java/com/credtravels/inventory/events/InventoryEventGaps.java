@@ -0,0 +1,68 @@
+package com.credtravels.inventory.events;
+
+import com.credtravels.common.cache.BoundedTtlCache;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Missing ids seen by readers walking inventory_event in id order. An event id is taken on
+ * insert but only shows once its transaction commits, so a reader holds its cursor before a
+ * missing id until this node has seen the gap for longer than the gap timeout; by then the
+ * transaction that took the id has committed or rolled back. The timeout has to exceed the
+ * longest inventory transaction.
+ */
+@Component
+public class InventoryEventGaps {
+
+    private static final int MAX_GAPS = 10_000;
+
+    private static final String HEAD_SQL = "SELECT COALESCE(MAX(id), 0) FROM inventory_event WHERE occurred_at <= ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${credtravels.inventory.changes.gap-timeout-ms:30000}")
+    private long gapTimeoutMillis;
+
+    private JdbcTemplate jdbcTemplate;
+    // Id before the gap to the time this node first saw it
+    private BoundedTtlCache<Long, Long> firstSeen;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        // A gap forgotten early is only held again, never skipped
+        firstSeen = new BoundedTtlCache<>(MAX_GAPS, Duration.ofMillis(Math.max(gapTimeoutMillis, 1_000) * 10));
+    }
+
+    /**
+     * Cursor below which every event has committed or never will. Events take their time before
+     * they insert and commit within one transaction each, so an id missing below an event older
+     * than twice the gap timeout has been settled.
+     */
+    public long head() {
+        LocalDateTime settled = LocalDateTime.now().minusNanos(2 * gapTimeoutMillis * 1_000_000);
+        return jdbcTemplate.queryForObject(HEAD_SQL, Long.class, Timestamp.valueOf(settled));
+    }
+
+    /**
+     * Whether a reader at the given id may move on to the next id it found, rather than wait
+     * for the ids in between
+     */
+    public boolean mayPass(long lastId, long nextId) {
+        if (nextId == lastId + 1) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Long seen = firstSeen.putIfAbsent(lastId, now);
+        return now - (seen != null ? seen : now) >= gapTimeoutMillis;
+    }
+}
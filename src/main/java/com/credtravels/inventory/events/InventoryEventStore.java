@@ -0,0 +1,262 @@
+package com.credtravels.inventory.events;
+
+import com.credtravels.inventory.availability.InventoryVersionIndex;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryEvent;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.InventorySnapshot;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.InventorySnapshotRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only history of seat and fare changes per flight inventory. Writers append
+ * events in the transaction that changes flight_inventory; a background job snapshots
+ * inventories whose events have piled up, so rebuilding any inventory at any time
+ * replays at most a snapshot interval of events.
+ */
+@Component
+public class InventoryEventStore {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryEventStore.class);
+
+    private static final SeatClass[] SEAT_CLASSES = SeatClass.values();
+
+    private static final String APPEND_SQL = "INSERT INTO inventory_event (flight_inventory_id, event_type, seat_class, "
+            + "amount, occurred_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String REPLAY_SQL = "SELECT id, event_type, seat_class, amount, occurred_at FROM inventory_event "
+            + "WHERE flight_inventory_id = ? AND id > ? AND occurred_at <= ? ORDER BY id";
+
+    // Ids of events counted per run, so one run reads a bounded range of the primary key
+    private static final long COUNT_CHUNK = 100_000;
+
+    private static final String LAST_EVENT_SQL = "SELECT COALESCE(MAX(id), 0) FROM inventory_event";
+
+    private static final String LAST_SNAPSHOT_SQL = "SELECT COALESCE(MAX(last_event_id), 0) FROM inventory_snapshot";
+
+    private static final String NEW_EVENTS_SQL = "SELECT flight_inventory_id, COUNT(*) FROM inventory_event "
+            + "WHERE id > ? AND id <= ? GROUP BY flight_inventory_id";
+
+    // Inventories without any snapshot start from their current row and the events it already reflects
+    private static final String SEED_SQL = "INSERT INTO inventory_snapshot (flight_inventory_id, last_event_id, as_of, "
+            + "economy_available_seats, economy_total_capacity, economy_price_minor, "
+            + "business_available_seats, business_total_capacity, business_price_minor, "
+            + "first_available_seats, first_total_capacity, first_price_minor) "
+            + "SELECT fi.id, COALESCE((SELECT MAX(e.id) FROM inventory_event e WHERE e.flight_inventory_id = fi.id), 0), "
+            + "CURRENT_TIMESTAMP, fi.economy_available_seats, fi.economy_total_capacity, fi.economy_price_minor, "
+            + "fi.business_available_seats, fi.business_total_capacity, fi.business_price_minor, "
+            + "fi.first_available_seats, fi.first_total_capacity, fi.first_price_minor FROM flight_inventory fi "
+            + "WHERE NOT EXISTS (SELECT 1 FROM inventory_snapshot s WHERE s.flight_inventory_id = fi.id)";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private InventoryVersionIndex inventoryVersionIndex;
+
+    @Value("${credtravels.inventory.events.snapshot-every:500}")
+    private int snapshotEvery;
+
+    @Value("${credtravels.inventory.events.snapshot-batch-size:200}")
+    private int snapshotBatchSize;
+
+    @Value("${credtravels.inventory.events.snapshot-lag-ms:60000}")
+    private long snapshotLagMillis;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    // Events counted per inventory since its last snapshot by this node, up to the counted id
+    private final Map<Long, Integer> uncompacted = new HashMap<>();
+    private long countedThrough = -1;
+
+    @PostConstruct
+    public void init() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(1_000);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Events setting every cabin value of a newly created inventory
+     */
+    public static List<InventoryEvent> created(FlightInventory inventory) {
+        List<InventoryEvent> events = new ArrayList<>();
+        for (SeatClass seatClass : SEAT_CLASSES) {
+            CabinInventory cabin = inventory.getCabin(seatClass);
+            events.add(new InventoryEvent(inventory.getId(), EventType.SEATS_SET, seatClass, cabin.getAvailableSeats()));
+            events.add(new InventoryEvent(inventory.getId(), EventType.CAPACITY_SET, seatClass, cabin.getTotalCapacity()));
+            events.add(new InventoryEvent(inventory.getId(), EventType.PRICE_SET, seatClass, cabin.getPriceMinor()));
+        }
+        return events;
+    }
+
+    /**
+     * Events for the cabin values that differ between the snapshot and the updated inventory.
+     * Seats are left out when the seat counter reports them as adjustments of its own.
+     */
+    public static List<InventoryEvent> changes(Map<SeatClass, CabinInventory> before, FlightInventory after, boolean includeSeats) {
+        List<InventoryEvent> events = new ArrayList<>();
+        for (SeatClass seatClass : SEAT_CLASSES) {
+            CabinInventory old = before.get(seatClass);
+            CabinInventory cabin = after.getCabin(seatClass);
+            if (includeSeats && old.getAvailableSeats() != cabin.getAvailableSeats()) {
+                events.add(new InventoryEvent(after.getId(), EventType.SEATS_SET, seatClass, cabin.getAvailableSeats()));
+            }
+            if (old.getTotalCapacity() != cabin.getTotalCapacity()) {
+                events.add(new InventoryEvent(after.getId(), EventType.CAPACITY_SET, seatClass, cabin.getTotalCapacity()));
+            }
+            if (old.getPriceMinor() != cabin.getPriceMinor()) {
+                events.add(new InventoryEvent(after.getId(), EventType.PRICE_SET, seatClass, cabin.getPriceMinor()));
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Append events in the caller's transaction with one JDBC batch
+     */
+    public void appendAll(List<InventoryEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(APPEND_SQL, events.stream()
+                .map(event -> new Object[] {event.getFlightInventoryId(), event.getEventType().name(),
+                        event.getSeatClass().name(), event.getAmount(), Timestamp.valueOf(event.getOccurredAt())})
+                .toList());
+        inventoryVersionIndex.invalidate(events.stream().map(InventoryEvent::getFlightInventoryId).distinct().toList());
+    }
+
+    public void append(InventoryEvent event) {
+        appendAll(List.of(event));
+    }
+
+    /**
+     * State of the inventory at the given time: the latest snapshot taken by then plus
+     * the events after it. Null when neither a snapshot nor an event covers that time.
+     */
+    public InventoryState replay(Long flightInventoryId, LocalDateTime at) {
+        InventoryState state = snapshotRepository.findLatest(flightInventoryId, at, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .map(InventoryState::new)
+                .orElse(null);
+        boolean fromSnapshot = state != null;
+        InventoryState replayed = fromSnapshot ? state : new InventoryState();
+        replayEvents(flightInventoryId, replayed, at);
+        return fromSnapshot || replayed.getEventsApplied() > 0 ? replayed : null;
+    }
+
+    /**
+     * Seed snapshots for inventories that have none and snapshot every inventory with
+     * more than snapshot-every events since its last one. Events younger than the lag
+     * are left for the next run so a transaction still open cannot slip behind a snapshot.
+     * Each run counts only the events appended since the previous one.
+     */
+    @Scheduled(fixedDelayString = "${credtravels.inventory.events.snapshot-interval-ms:60000}")
+    public synchronized void compact() {
+        int seeded = transactionTemplate.execute(status -> jdbcTemplate.update(SEED_SQL));
+        countNewEvents();
+        List<Long> hot = uncompacted.entrySet().stream()
+                .filter(entry -> entry.getValue() >= snapshotEvery)
+                .map(Map.Entry::getKey)
+                .limit(snapshotBatchSize)
+                .toList();
+        LocalDateTime horizon = LocalDateTime.now().minusNanos(snapshotLagMillis * 1_000_000);
+        int taken = 0;
+        for (Long flightInventoryId : hot) {
+            if (snapshot(flightInventoryId, horizon)) {
+                uncompacted.remove(flightInventoryId);
+                taken++;
+            }
+        }
+        if (seeded > 0 || taken > 0) {
+            log.info("Inventory event snapshots: {} seeded, {} compacted", seeded, taken);
+        }
+    }
+
+    /**
+     * Write a snapshot of the inventory covering its events up to the horizon
+     */
+    public boolean snapshot(Long flightInventoryId, LocalDateTime horizon) {
+        InventoryState state = snapshotRepository.findLatest(flightInventoryId, horizon, PageRequest.of(0, 1)).stream()
+                .findFirst()
+                .map(InventoryState::new)
+                .orElseGet(InventoryState::new);
+        long lastEventId = state.getLastEventId();
+        replayEvents(flightInventoryId, state, horizon);
+        if (state.getLastEventId() == lastEventId) {
+            return false;
+        }
+        snapshotRepository.save(state.toSnapshot(flightInventoryId));
+        return true;
+    }
+
+    // Private helper methods
+
+    /**
+     * Add the events past the counted id to the per-inventory counts. A node starts counting
+     * after the newest snapshot, so inventories with older events are snapshotted once they
+     * gather another snapshot-every. An id still uncommitted when the range is read is never
+     * counted, which only delays a snapshot by that one event.
+     */
+    private void countNewEvents() {
+        if (countedThrough < 0) {
+            countedThrough = jdbcTemplate.queryForObject(LAST_SNAPSHOT_SQL, Long.class);
+        }
+        long last = jdbcTemplate.queryForObject(LAST_EVENT_SQL, Long.class);
+        while (countedThrough < last) {
+            long to = Math.min(last, countedThrough + COUNT_CHUNK);
+            jdbcTemplate.query(NEW_EVENTS_SQL, resultSet -> {
+                uncompacted.merge(resultSet.getLong(1), resultSet.getInt(2), Integer::sum);
+            }, countedThrough, to);
+            countedThrough = to;
+        }
+    }
+
+    /**
+     * Apply the events after the state in id order, stopping at the first one later than
+     * the given time so that every applied event has all lower ids applied too. Events up
+     * to a lag past that time are read to find the stop, as ids and times of concurrent
+     * writers interleave.
+     */
+    private void replayEvents(Long flightInventoryId, InventoryState state, LocalDateTime until) {
+        boolean[] stopped = {false};
+        jdbcTemplate.query(REPLAY_SQL, resultSet -> {
+            LocalDateTime occurredAt = resultSet.getTimestamp(5).toLocalDateTime();
+            if (stopped[0] || occurredAt.isAfter(until)) {
+                stopped[0] = true;
+                return;
+            }
+            state.apply(resultSet.getLong(1),
+                    EventType.valueOf(resultSet.getString(2)),
+                    SeatClass.valueOf(resultSet.getString(3)).ordinal(),
+                    resultSet.getLong(4),
+                    occurredAt);
+        }, flightInventoryId, state.getLastEventId(), Timestamp.valueOf(until.plusNanos(snapshotLagMillis * 1_000_000)));
+    }
+}
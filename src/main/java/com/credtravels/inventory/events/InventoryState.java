@@ -0,0 +1,109 @@
+package com.credtravels.inventory.events;
+
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.InventorySnapshot;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+
+import java.time.LocalDateTime;
+
+/**
+ * Cabin values of one flight inventory while its events are replayed. Kept in flat
+ * arrays indexed by seat class ordinal so applying an event is a couple of stores.
+ */
+public class InventoryState {
+
+    private static final int CABINS = SeatClass.values().length;
+
+    private final int[] availableSeats = new int[CABINS];
+    private final int[] totalCapacity = new int[CABINS];
+    private final long[] priceMinor = new long[CABINS];
+
+    private long lastEventId;
+    private LocalDateTime asOf;
+    private long eventsApplied;
+
+    public InventoryState() {}
+
+    public InventoryState(InventorySnapshot snapshot) {
+        load(SeatClass.ECONOMY, snapshot.getEconomy());
+        load(SeatClass.BUSINESS, snapshot.getBusiness());
+        load(SeatClass.FIRST, snapshot.getFirst());
+        this.lastEventId = snapshot.getLastEventId();
+        this.asOf = snapshot.getAsOf();
+    }
+
+    // Business methods
+    public void apply(long eventId, EventType eventType, int cabin, long amount, LocalDateTime occurredAt) {
+        switch (eventType) {
+            case SEATS_ADJUSTED -> availableSeats[cabin] += (int) amount;
+            case SEATS_SET -> availableSeats[cabin] = (int) amount;
+            case CAPACITY_SET -> totalCapacity[cabin] = (int) amount;
+            case PRICE_SET -> priceMinor[cabin] = amount;
+        }
+        lastEventId = eventId;
+        asOf = occurredAt;
+        eventsApplied++;
+    }
+
+    /**
+     * Snapshot of this state for the given inventory
+     */
+    public InventorySnapshot toSnapshot(Long flightInventoryId) {
+        InventorySnapshot snapshot = new InventorySnapshot();
+        snapshot.setFlightInventoryId(flightInventoryId);
+        snapshot.setLastEventId(lastEventId);
+        snapshot.setAsOf(asOf);
+        snapshot.setEconomy(cabin(SeatClass.ECONOMY));
+        snapshot.setBusiness(cabin(SeatClass.BUSINESS));
+        snapshot.setFirst(cabin(SeatClass.FIRST));
+        return snapshot;
+    }
+
+    /**
+     * Detached copy of the inventory with its cabins as of this state
+     */
+    public FlightInventory toFlightInventory(FlightInventory current) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setId(current.getId());
+        inventory.setFlightInfoId(current.getFlightInfoId());
+        inventory.setFlightDate(current.getFlightDate());
+        inventory.setStatus(current.getStatus());
+        inventory.setEconomy(cabin(SeatClass.ECONOMY));
+        inventory.setBusiness(cabin(SeatClass.BUSINESS));
+        inventory.setFirst(cabin(SeatClass.FIRST));
+        inventory.setLastUpdated(asOf);
+        inventory.setCreatedAt(current.getCreatedAt());
+        return inventory;
+    }
+
+    public long getLastEventId() {
+        return lastEventId;
+    }
+
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+
+    public long getEventsApplied() {
+        return eventsApplied;
+    }
+
+    public int getAvailableSeats(SeatClass seatClass) {
+        return availableSeats[seatClass.ordinal()];
+    }
+
+    // Private helper methods
+
+    private void load(SeatClass seatClass, CabinInventory cabin) {
+        availableSeats[seatClass.ordinal()] = cabin.getAvailableSeats();
+        totalCapacity[seatClass.ordinal()] = cabin.getTotalCapacity();
+        priceMinor[seatClass.ordinal()] = cabin.getPriceMinor();
+    }
+
+    private CabinInventory cabin(SeatClass seatClass) {
+        int cabin = seatClass.ordinal();
+        return new CabinInventory(availableSeats[cabin], totalCapacity[cabin], priceMinor[cabin]);
+    }
+}
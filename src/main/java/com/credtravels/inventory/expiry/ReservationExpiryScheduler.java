@@ -0,0 +1,75 @@
+package com.credtravels.inventory.expiry;
+
+import com.credtravels.inventory.repository.SeatReservationRepository;
+import com.credtravels.inventory.service.InventoryService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Releases seat holds within about one tick of their reserved-until time. The wheel is
+ * filled from seat_reservations on startup and by new holds afterwards; each tick the
+ * due holds are expired in fixed-size batches, one transaction per batch. A batch that
+ * fails is retried a little later.
+ */
+@Component
+public class ReservationExpiryScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationExpiryScheduler.class);
+
+    @Autowired
+    private ReservationExpiryWheel expiryWheel;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${credtravels.inventory.expiry.batch-size:200}")
+    private int batchSize;
+
+    @Value("${credtravels.inventory.expiry.retry-delay-ms:5000}")
+    private long retryDelayMillis;
+
+    /**
+     * Schedule every hold still waiting in seat_reservations, read from the primary so that
+     * holds not yet on a replica are not left to the cleanup sweep
+     */
+    @PostConstruct
+    public void rebuild() {
+        List<Object[]> holds = new TransactionTemplate(transactionManager)
+                .execute(status -> seatReservationRepository.findReservedDeadlines());
+        for (Object[] hold : holds) {
+            expiryWheel.schedule((String) hold[0], (LocalDateTime) hold[1]);
+        }
+        log.info("Reservation expiry wheel rebuilt with {} holds", holds.size());
+    }
+
+    @Scheduled(fixedRateString = "${credtravels.inventory.expiry.tick-ms:1000}")
+    public void tick() {
+        List<String> due = expiryWheel.advance(System.currentTimeMillis());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<String> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            try {
+                inventoryService.expireReservations(batch);
+            } catch (RuntimeException e) {
+                log.error("Failed to expire {} reservations, retrying in {} ms", batch.size(), retryDelayMillis, e);
+                long retryAt = System.currentTimeMillis() + retryDelayMillis;
+                batch.forEach(reservationId -> expiryWheel.schedule(reservationId, retryAt));
+            }
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.credtravels.inventory.expiry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel of seat hold deadlines. A hold lands in the bucket of the tick
+ * at which it expires; holds further out than one revolution share buckets with nearer
+ * ones and are skipped until the wheel comes round to their tick. Scheduling and
+ * cancelling are O(1); each advance only visits the buckets of the ticks that passed.
+ */
+@Component
+public class ReservationExpiryWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Map<String, Long>> buckets;
+    private final Map<String, Long> deadlines = new HashMap<>();
+
+    private long currentTick;
+
+    public ReservationExpiryWheel(@Value("${credtravels.inventory.expiry.tick-ms:1000}") long tickMillis,
+                                  @Value("${credtravels.inventory.expiry.wheel-size:1024}") int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashMap<>());
+        }
+        this.currentTick = System.currentTimeMillis() / tickMillis;
+    }
+
+    /**
+     * Expire a hold at the first tick on or after its reserved-until time
+     */
+    public void schedule(String reservationId, LocalDateTime reservedUntil) {
+        schedule(reservationId, reservedUntil.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    public synchronized void schedule(String reservationId, long expiresAtMillis) {
+        cancel(reservationId);
+        // Deadlines already passed are due at the next advance
+        long tick = Math.max(Math.floorDiv(expiresAtMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        buckets.get((int) (tick & mask)).put(reservationId, tick);
+        deadlines.put(reservationId, tick);
+    }
+
+    public synchronized void cancel(String reservationId) {
+        Long tick = deadlines.remove(reservationId);
+        if (tick != null) {
+            buckets.get((int) (tick & mask)).remove(reservationId);
+        }
+    }
+
+    /**
+     * Move the wheel to the given time and take out every hold that is now due
+     */
+    public synchronized List<String> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<String> due = new ArrayList<>();
+        // After a long pause one revolution still covers every bucket
+        long firstTick = Math.max(currentTick + 1, targetTick - mask);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Iterator<Map.Entry<String, Long>> entries = buckets.get((int) (tick & mask)).entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, Long> entry = entries.next();
+                if (entry.getValue() <= targetTick) {
+                    due.add(entry.getKey());
+                    deadlines.remove(entry.getKey());
+                    entries.remove();
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    public synchronized int size() {
+        return deadlines.size();
+    }
+}
@@ -0,0 +1,72 @@
+package com.credtravels.inventory.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Seat counters and fare of one cabin. Prices are held in minor currency units (paise).
+ */
+@Embeddable
+public class CabinInventory {
+    
+    private static final int MINOR_UNIT_SCALE = 2;
+    
+    @Column(name = "available_seats", nullable = false)
+    private int availableSeats;
+    
+    @Column(name = "total_capacity", nullable = false)
+    private int totalCapacity;
+    
+    @Column(name = "price_minor", nullable = false)
+    private long priceMinor;
+    
+    // Constructors
+    public CabinInventory() {}
+    
+    public CabinInventory(int availableSeats, int totalCapacity, long priceMinor) {
+        this.availableSeats = availableSeats;
+        this.totalCapacity = totalCapacity;
+        this.priceMinor = priceMinor;
+    }
+    
+    // Getters and Setters
+    public int getAvailableSeats() {
+        return availableSeats;
+    }
+    
+    public void setAvailableSeats(int availableSeats) {
+        this.availableSeats = availableSeats;
+    }
+    
+    public int getTotalCapacity() {
+        return totalCapacity;
+    }
+    
+    public void setTotalCapacity(int totalCapacity) {
+        this.totalCapacity = totalCapacity;
+    }
+    
+    public long getPriceMinor() {
+        return priceMinor;
+    }
+    
+    public void setPriceMinor(long priceMinor) {
+        this.priceMinor = priceMinor;
+    }
+    
+    // Business methods
+    public BigDecimal priceAsDecimal() {
+        return BigDecimal.valueOf(priceMinor, MINOR_UNIT_SCALE);
+    }
+    
+    public void adjustAvailableSeats(int delta) {
+        this.availableSeats += delta;
+    }
+    
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(MINOR_UNIT_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
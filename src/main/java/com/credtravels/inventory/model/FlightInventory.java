@@ -24,14 +24,29 @@ public class FlightInventory {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate flightDate;
     
-    @Column(name = "available_seats", columnDefinition = "JSON")
-    private String availableSeats; // JSON string: {"economy": 150, "business": 20, "first": 8}
-    
-    @Column(name = "pricing", columnDefinition = "JSON")
-    private String pricing; // JSON string: {"economy": 15000, "business": 45000, "first": 80000}
-    
-    @Column(name = "total_capacity", columnDefinition = "JSON")
-    private String totalCapacity; // JSON string: {"economy": 150, "business": 20, "first": 8}
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "availableSeats", column = @Column(name = "economy_available_seats", nullable = false)),
+        @AttributeOverride(name = "totalCapacity", column = @Column(name = "economy_total_capacity", nullable = false)),
+        @AttributeOverride(name = "priceMinor", column = @Column(name = "economy_price_minor", nullable = false))
+    })
+    private CabinInventory economy;
+    
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "availableSeats", column = @Column(name = "business_available_seats", nullable = false)),
+        @AttributeOverride(name = "totalCapacity", column = @Column(name = "business_total_capacity", nullable = false)),
+        @AttributeOverride(name = "priceMinor", column = @Column(name = "business_price_minor", nullable = false))
+    })
+    private CabinInventory business;
+    
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "availableSeats", column = @Column(name = "first_available_seats", nullable = false)),
+        @AttributeOverride(name = "totalCapacity", column = @Column(name = "first_total_capacity", nullable = false)),
+        @AttributeOverride(name = "priceMinor", column = @Column(name = "first_price_minor", nullable = false))
+    })
+    private CabinInventory first;
     
     @Column(name = "last_updated")
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
@@ -54,6 +69,9 @@ public class FlightInventory {
         this.lastUpdated = LocalDateTime.now();
         this.status = FlightStatus.ACTIVE;
         this.version = 1L;
+        this.economy = new CabinInventory();
+        this.business = new CabinInventory();
+        this.first = new CabinInventory();
     }
     
     // Getters and Setters
@@ -81,28 +99,28 @@ public class FlightInventory {
         this.flightDate = flightDate;
     }
     
-    public String getAvailableSeats() {
-        return availableSeats;
+    public CabinInventory getEconomy() {
+        return economy;
     }
     
-    public void setAvailableSeats(String availableSeats) {
-        this.availableSeats = availableSeats;
+    public void setEconomy(CabinInventory economy) {
+        this.economy = economy;
     }
     
-    public String getPricing() {
-        return pricing;
+    public CabinInventory getBusiness() {
+        return business;
     }
     
-    public void setPricing(String pricing) {
-        this.pricing = pricing;
+    public void setBusiness(CabinInventory business) {
+        this.business = business;
     }
     
-    public String getTotalCapacity() {
-        return totalCapacity;
+    public CabinInventory getFirst() {
+        return first;
     }
     
-    public void setTotalCapacity(String totalCapacity) {
-        this.totalCapacity = totalCapacity;
+    public void setFirst(CabinInventory first) {
+        this.first = first;
     }
     
     public LocalDateTime getLastUpdated() {
@@ -138,6 +156,14 @@ public class FlightInventory {
     }
     
     // Business methods
+    public CabinInventory getCabin(SeatReservation.SeatClass seatClass) {
+        return switch (seatClass) {
+            case ECONOMY -> economy;
+            case BUSINESS -> business;
+            case FIRST -> first;
+        };
+    }
+    
     public void updateLastUpdated() {
         this.lastUpdated = LocalDateTime.now();
     }
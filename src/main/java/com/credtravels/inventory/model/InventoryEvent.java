@@ -0,0 +1,110 @@
+package com.credtravels.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a cabin of a flight inventory, appended in the transaction that made it.
+ * Ids order the events; replaying them over a snapshot rebuilds the inventory.
+ */
+@Entity
+@Table(name = "inventory_event")
+public class InventoryEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "flight_inventory_id", nullable = false)
+    private Long flightInventoryId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 20)
+    private EventType eventType;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "seat_class", nullable = false, length = 20)
+    private SeatReservation.SeatClass seatClass;
+    
+    @Column(name = "amount", nullable = false)
+    private long amount;
+    
+    @Column(name = "occurred_at", nullable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime occurredAt;
+    
+    // Constructors
+    public InventoryEvent() {
+        this.occurredAt = LocalDateTime.now();
+    }
+    
+    public InventoryEvent(Long flightInventoryId, EventType eventType, SeatReservation.SeatClass seatClass, long amount) {
+        this();
+        this.flightInventoryId = flightInventoryId;
+        this.eventType = eventType;
+        this.seatClass = seatClass;
+        this.amount = amount;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getFlightInventoryId() {
+        return flightInventoryId;
+    }
+    
+    public void setFlightInventoryId(Long flightInventoryId) {
+        this.flightInventoryId = flightInventoryId;
+    }
+    
+    public EventType getEventType() {
+        return eventType;
+    }
+    
+    public void setEventType(EventType eventType) {
+        this.eventType = eventType;
+    }
+    
+    public SeatReservation.SeatClass getSeatClass() {
+        return seatClass;
+    }
+    
+    public void setSeatClass(SeatReservation.SeatClass seatClass) {
+        this.seatClass = seatClass;
+    }
+    
+    public long getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(long amount) {
+        this.amount = amount;
+    }
+    
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+    
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+    
+    public enum EventType {
+        /** Available seats moved by the amount, e.g. a hold (negative) or a release */
+        SEATS_ADJUSTED,
+        /** Available seats set to the amount */
+        SEATS_SET,
+        /** Total capacity set to the amount */
+        CAPACITY_SET,
+        /** Fare set to the amount, in minor units */
+        PRICE_SET
+    }
+}
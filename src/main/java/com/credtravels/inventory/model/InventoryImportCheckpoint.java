@@ -0,0 +1,109 @@
+package com.credtravels.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a streaming inventory import: the last feed line whose batch has been
+ * written, and the running counts, so a broken upload can resume after that line
+ */
+@Entity
+@Table(name = "inventory_import_checkpoint")
+public class InventoryImportCheckpoint {
+    
+    @Id
+    @Column(name = "import_id", length = 100)
+    private String importId;
+    
+    @Column(name = "last_line", nullable = false)
+    private long lastLine;
+    
+    @Column(name = "items_created", nullable = false)
+    private long itemsCreated;
+    
+    @Column(name = "items_updated", nullable = false)
+    private long itemsUpdated;
+    
+    @Column(name = "items_failed", nullable = false)
+    private long itemsFailed;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private ImportStatus status;
+    
+    @Column(name = "updated_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public InventoryImportCheckpoint() {}
+    
+    public InventoryImportCheckpoint(String importId) {
+        this.importId = importId;
+        this.status = ImportStatus.IN_PROGRESS;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getImportId() {
+        return importId;
+    }
+    
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+    
+    public long getLastLine() {
+        return lastLine;
+    }
+    
+    public void setLastLine(long lastLine) {
+        this.lastLine = lastLine;
+    }
+    
+    public long getItemsCreated() {
+        return itemsCreated;
+    }
+    
+    public void setItemsCreated(long itemsCreated) {
+        this.itemsCreated = itemsCreated;
+    }
+    
+    public long getItemsUpdated() {
+        return itemsUpdated;
+    }
+    
+    public void setItemsUpdated(long itemsUpdated) {
+        this.itemsUpdated = itemsUpdated;
+    }
+    
+    public long getItemsFailed() {
+        return itemsFailed;
+    }
+    
+    public void setItemsFailed(long itemsFailed) {
+        this.itemsFailed = itemsFailed;
+    }
+    
+    public ImportStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(ImportStatus status) {
+        this.status = status;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    public enum ImportStatus {
+        IN_PROGRESS, COMPLETED
+    }
+}
@@ -0,0 +1,113 @@
+package com.credtravels.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of a flight inventory's cabins once every event up to last_event_id is applied,
+ * so a rebuild only replays the events after it
+ */
+@Entity
+@Table(name = "inventory_snapshot")
+public class InventorySnapshot {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "flight_inventory_id", nullable = false)
+    private Long flightInventoryId;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private long lastEventId;
+    
+    @Column(name = "as_of", nullable = false)
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime asOf;
+    
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "availableSeats", column = @Column(name = "economy_available_seats", nullable = false)),
+        @AttributeOverride(name = "totalCapacity", column = @Column(name = "economy_total_capacity", nullable = false)),
+        @AttributeOverride(name = "priceMinor", column = @Column(name = "economy_price_minor", nullable = false))
+    })
+    private CabinInventory economy;
+    
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "availableSeats", column = @Column(name = "business_available_seats", nullable = false)),
+        @AttributeOverride(name = "totalCapacity", column = @Column(name = "business_total_capacity", nullable = false)),
+        @AttributeOverride(name = "priceMinor", column = @Column(name = "business_price_minor", nullable = false))
+    })
+    private CabinInventory business;
+    
+    @Embedded
+    @AttributeOverrides({
+        @AttributeOverride(name = "availableSeats", column = @Column(name = "first_available_seats", nullable = false)),
+        @AttributeOverride(name = "totalCapacity", column = @Column(name = "first_total_capacity", nullable = false)),
+        @AttributeOverride(name = "priceMinor", column = @Column(name = "first_price_minor", nullable = false))
+    })
+    private CabinInventory first;
+    
+    // Constructors
+    public InventorySnapshot() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getFlightInventoryId() {
+        return flightInventoryId;
+    }
+    
+    public void setFlightInventoryId(Long flightInventoryId) {
+        this.flightInventoryId = flightInventoryId;
+    }
+    
+    public long getLastEventId() {
+        return lastEventId;
+    }
+    
+    public void setLastEventId(long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+    
+    public LocalDateTime getAsOf() {
+        return asOf;
+    }
+    
+    public void setAsOf(LocalDateTime asOf) {
+        this.asOf = asOf;
+    }
+    
+    public CabinInventory getEconomy() {
+        return economy;
+    }
+    
+    public void setEconomy(CabinInventory economy) {
+        this.economy = economy;
+    }
+    
+    public CabinInventory getBusiness() {
+        return business;
+    }
+    
+    public void setBusiness(CabinInventory business) {
+        this.business = business;
+    }
+    
+    public CabinInventory getFirst() {
+        return first;
+    }
+    
+    public void setFirst(CabinInventory first) {
+        this.first = first;
+    }
+}
@@ -0,0 +1,59 @@
+package com.credtravels.inventory.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Highest seat ledger journal sequence already written to flight_inventory, per ledger
+ */
+@Entity
+@Table(name = "seat_ledger_checkpoint")
+public class SeatLedgerCheckpoint {
+    
+    @Id
+    @Column(name = "ledger_id", length = 100)
+    private String ledgerId;
+    
+    @Column(name = "last_sequence", nullable = false)
+    private Long lastSequence;
+    
+    @Column(name = "updated_at")
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public SeatLedgerCheckpoint() {}
+    
+    public SeatLedgerCheckpoint(String ledgerId, Long lastSequence) {
+        this.ledgerId = ledgerId;
+        this.lastSequence = lastSequence;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getLedgerId() {
+        return ledgerId;
+    }
+    
+    public void setLedgerId(String ledgerId) {
+        this.ledgerId = ledgerId;
+    }
+    
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+    
+    public void setLastSequence(Long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
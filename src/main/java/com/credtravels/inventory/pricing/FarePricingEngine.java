@@ -0,0 +1,297 @@
+package com.credtravels.inventory.pricing;
+
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dynamic fares per flight date and cabin. The cabin's base fare is scaled by a load-factor
+ * bucket and a days-to-departure bucket; the fares of every load-factor bucket and the seats
+ * sold at which each opens are precomputed per cabin, and the fare currently on sale is kept
+ * ready, so a quote is an array read. Seat changes are applied after their transaction
+ * commits, ordered by inventory version, and only move the cabin along its curve; a new base
+ * fare or capacity rebuilds the curve. A date is loaded from the database the first time it
+ * is read and again each new day, when its days-to-departure bucket may have moved. Changes
+ * are kept even before their date is loaded, so a load from a lagging replica cannot undo them.
+ */
+@Component
+public class FarePricingEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FarePricingEngine.class);
+
+    private static final int MINOR_UNIT_SCALE = 2;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Value("${credtravels.inventory.pricing.load-factor-buckets:0:0.85,0.5:1.0,0.7:1.2,0.85:1.5,0.95:2.0}")
+    private String loadFactorBuckets;
+
+    @Value("${credtravels.inventory.pricing.days-to-departure-buckets:60:0.9,30:1.0,14:1.15,7:1.3,0:1.5}")
+    private String daysToDepartureBuckets;
+
+    private BigDecimal[] loadFactors;
+    private BigDecimal[] loadFactorMultipliers;
+    private int[] departureDays;
+    private BigDecimal[] departureMultipliers;
+
+    private final Map<LocalDate, DayFares> days = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // Load factors ascending, days to departure descending, so the last match wins for both
+        TreeMap<BigDecimal, BigDecimal> loadFactorTable = parse(loadFactorBuckets, "load-factor-buckets");
+        TreeMap<BigDecimal, BigDecimal> departureTable = parse(daysToDepartureBuckets, "days-to-departure-buckets");
+        if (loadFactorTable.firstKey().signum() != 0 || departureTable.firstKey().signum() != 0) {
+            throw new IllegalStateException("Pricing bucket tables must start at 0");
+        }
+        loadFactors = loadFactorTable.keySet().toArray(new BigDecimal[0]);
+        loadFactorMultipliers = loadFactorTable.values().toArray(new BigDecimal[0]);
+        departureDays = departureTable.descendingKeySet().stream().mapToInt(BigDecimal::intValueExact).toArray();
+        departureMultipliers = departureTable.descendingMap().values().toArray(new BigDecimal[0]);
+    }
+
+    /**
+     * Record the seat counts and base fares of an inventory row once the current transaction commits
+     */
+    public void record(FlightInventory inventory) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(inventory);
+                }
+            });
+        } else {
+            apply(inventory);
+        }
+    }
+
+    /**
+     * Fare of one seat currently on sale, or null when the flight date is unknown, closed or unpriced
+     */
+    public BigDecimal quote(Long flightInfoId, LocalDate flightDate, SeatClass seatClass) {
+        DayFares day = pricedDay(flightDate);
+        synchronized (day) {
+            FlightFares flight = day.flights.get(flightInfoId);
+            if (flight == null || !flight.active) {
+                return null;
+            }
+            long fareMinor = flight.cabins[seatClass.ordinal()].currentMinor;
+            return fareMinor > 0 ? BigDecimal.valueOf(fareMinor, MINOR_UNIT_SCALE) : null;
+        }
+    }
+
+    /**
+     * Total fare of the next seats sold together, each priced at the bucket it is sold in,
+     * or null when the flight date is unknown, closed, unpriced or has fewer seats left
+     */
+    public BigDecimal quote(Long flightInfoId, LocalDate flightDate, SeatClass seatClass, int seats) {
+        DayFares day = pricedDay(flightDate);
+        synchronized (day) {
+            FlightFares flight = day.flights.get(flightInfoId);
+            if (flight == null || !flight.active) {
+                return null;
+            }
+            CabinCurve cabin = flight.cabins[seatClass.ordinal()];
+            if (cabin.currentMinor <= 0 || seats > cabin.availableSeats) {
+                return null;
+            }
+            long totalMinor = 0;
+            int sold = cabin.totalCapacity - cabin.availableSeats;
+            for (int seat = 0; seat < seats; seat++) {
+                totalMinor += cabin.fareAt(sold + seat);
+            }
+            return BigDecimal.valueOf(totalMinor, MINOR_UNIT_SCALE);
+        }
+    }
+
+    /**
+     * Fares currently on sale by flight info id for the active, priced flights of a date
+     */
+    public Map<Long, BigDecimal> fares(LocalDate flightDate, SeatClass seatClass) {
+        DayFares day = pricedDay(flightDate);
+        synchronized (day) {
+            Map<Long, BigDecimal> fares = new HashMap<>(day.flights.size() * 2);
+            day.flights.forEach((flightInfoId, flight) -> {
+                long fareMinor = flight.cabins[seatClass.ordinal()].currentMinor;
+                if (flight.active && fareMinor > 0) {
+                    fares.put(flightInfoId, BigDecimal.valueOf(fareMinor, MINOR_UNIT_SCALE));
+                }
+            });
+            return fares;
+        }
+    }
+
+    /**
+     * Forget dates that have already departed
+     */
+    @Scheduled(cron = "0 15 0 * * *")
+    public void evictPastDates() {
+        LocalDate today = LocalDate.now();
+        days.keySet().removeIf(date -> date.isBefore(today));
+    }
+
+    // Private helper methods
+
+    private DayFares pricedDay(LocalDate date) {
+        DayFares day = days.computeIfAbsent(date, key -> new DayFares());
+        LocalDate today = LocalDate.now();
+        if (!today.equals(day.pricedOn)) {
+            synchronized (day) {
+                if (!today.equals(day.pricedOn)) {
+                    day.pricedOn = today;
+                    day.departureMultiplier = departureMultiplier(ChronoUnit.DAYS.between(today, date));
+                    for (FlightInventory inventory : flightInventoryRepository.findByFlightDate(date)) {
+                        applyTo(day, inventory);
+                    }
+                    // Flights whose curves were not reloaded still price with the previous day's bucket
+                    day.flights.values().forEach(flight -> flight.reprice(day.departureMultiplier));
+                    log.debug("Priced {} flights on {} for {}", day.flights.size(), date, today);
+                }
+            }
+        }
+        return day;
+    }
+
+    private void apply(FlightInventory inventory) {
+        DayFares day = days.computeIfAbsent(inventory.getFlightDate(), key -> new DayFares());
+        synchronized (day) {
+            if (day.departureMultiplier == null) {
+                day.departureMultiplier = departureMultiplier(ChronoUnit.DAYS.between(LocalDate.now(), inventory.getFlightDate()));
+            }
+            applyTo(day, inventory);
+        }
+    }
+
+    private void applyTo(DayFares day, FlightInventory inventory) {
+        long version = inventory.getVersion() != null ? inventory.getVersion() : 0L;
+        FlightFares flight = day.flights.get(inventory.getFlightInfoId());
+        if (flight == null) {
+            flight = new FlightFares();
+            day.flights.put(inventory.getFlightInfoId(), flight);
+        } else if (flight.version > version) {
+            return;
+        }
+        flight.version = version;
+        flight.active = inventory.getStatus() == null || inventory.getStatus() == FlightInventory.FlightStatus.ACTIVE;
+        for (SeatClass seatClass : SeatClass.values()) {
+            CabinInventory source = inventory.getCabin(seatClass);
+            CabinCurve cabin = flight.cabins[seatClass.ordinal()];
+            if (cabin == null || cabin.baseMinor != source.getPriceMinor() || cabin.totalCapacity != source.getTotalCapacity()) {
+                cabin = new CabinCurve(source.getPriceMinor(), source.getTotalCapacity());
+                cabin.build(day.departureMultiplier);
+                flight.cabins[seatClass.ordinal()] = cabin;
+            }
+            cabin.move(source.getAvailableSeats());
+        }
+    }
+
+    private BigDecimal departureMultiplier(long daysToDeparture) {
+        for (int i = 0; i < departureDays.length; i++) {
+            if (daysToDeparture >= departureDays[i]) {
+                return departureMultipliers[i];
+            }
+        }
+        return departureMultipliers[departureMultipliers.length - 1];
+    }
+
+    private static TreeMap<BigDecimal, BigDecimal> parse(String table, String property) {
+        TreeMap<BigDecimal, BigDecimal> buckets = new TreeMap<>();
+        try {
+            for (String bucket : table.split(",")) {
+                String[] parts = bucket.trim().split(":");
+                buckets.put(new BigDecimal(parts[0].trim()), new BigDecimal(parts[1].trim()));
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Invalid credtravels.inventory.pricing." + property + ": " + table, e);
+        }
+        return buckets;
+    }
+
+    private static final class DayFares {
+
+        private volatile LocalDate pricedOn;
+        private BigDecimal departureMultiplier;
+        private final Map<Long, FlightFares> flights = new HashMap<>();
+    }
+
+    private static final class FlightFares {
+
+        private long version;
+        private boolean active;
+        private final CabinCurve[] cabins = new CabinCurve[SeatClass.values().length];
+
+        private void reprice(BigDecimal departureMultiplier) {
+            for (CabinCurve cabin : cabins) {
+                cabin.build(departureMultiplier);
+                cabin.move(cabin.availableSeats);
+            }
+        }
+    }
+
+    /**
+     * Fare of each load-factor bucket of a cabin and the seats sold at which it opens
+     */
+    private final class CabinCurve {
+
+        private final long baseMinor;
+        private final int totalCapacity;
+        private final int[] opensAtSold = new int[loadFactors.length];
+        private final long[] fareMinor = new long[loadFactors.length];
+        private int availableSeats;
+        private long currentMinor;
+
+        private CabinCurve(long baseMinor, int totalCapacity) {
+            this.baseMinor = baseMinor;
+            this.totalCapacity = totalCapacity;
+        }
+
+        private void build(BigDecimal departureMultiplier) {
+            BigDecimal base = BigDecimal.valueOf(baseMinor, MINOR_UNIT_SCALE).multiply(departureMultiplier);
+            for (int i = 0; i < loadFactors.length; i++) {
+                opensAtSold[i] = loadFactors[i].multiply(BigDecimal.valueOf(totalCapacity))
+                        .setScale(0, RoundingMode.CEILING).intValueExact();
+                // Whole currency units, as fares are filed
+                fareMinor[i] = CabinInventory.toMinorUnits(
+                        base.multiply(loadFactorMultipliers[i]).setScale(0, RoundingMode.HALF_UP));
+            }
+        }
+
+        private void move(int available) {
+            availableSeats = available;
+            currentMinor = fareAt(totalCapacity - available);
+        }
+
+        private long fareAt(int sold) {
+            return fareMinor[bucketAt(sold)];
+        }
+
+        private int bucketAt(int sold) {
+            int index = 0;
+            while (index + 1 < opensAtSold.length && sold >= opensAtSold[index + 1]) {
+                index++;
+            }
+            return index;
+        }
+    }
+}
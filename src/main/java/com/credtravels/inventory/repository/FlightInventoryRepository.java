@@ -2,11 +2,13 @@ package com.credtravels.inventory.repository;
 
 import com.credtravels.inventory.model.FlightInventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +19,10 @@ public interface FlightInventoryRepository extends JpaRepository<FlightInventory
     
     List<FlightInventory> findByFlightDate(LocalDate flightDate);
     
+    @Query("SELECT fi FROM FlightInventory fi WHERE fi.flightDate = :flightDate AND fi.flightInfoId IN :flightInfoIds")
+    List<FlightInventory> findByFlightDateAndFlightInfoIds(@Param("flightDate") LocalDate flightDate,
+                                                           @Param("flightInfoIds") Collection<Long> flightInfoIds);
+    
     @Query("SELECT fi FROM FlightInventory fi WHERE fi.flightDate = :date AND fi.status = 'ACTIVE'")
     List<FlightInventory> findActiveFlightsByDate(@Param("date") LocalDate date);
     
@@ -24,4 +30,50 @@ public interface FlightInventoryRepository extends JpaRepository<FlightInventory
     List<FlightInventory> findByFlightInfoIdAndDateRange(@Param("flightInfoId") Long flightInfoId, 
                                                        @Param("fromDate") LocalDate fromDate, 
                                                        @Param("toDate") LocalDate toDate);
+    
+    @Query("SELECT fi FROM FlightInventory fi WHERE fi.flightInfoId IN :flightInfoIds AND fi.flightDate IN :flightDates")
+    List<FlightInventory> findByFlightInfoIdsAndFlightDates(@Param("flightInfoIds") Collection<Long> flightInfoIds,
+                                                            @Param("flightDates") Collection<LocalDate> flightDates);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FlightInventory fi SET fi.economy.availableSeats = fi.economy.availableSeats - :seats, " +
+           "fi.version = fi.version + 1, fi.lastUpdated = CURRENT_TIMESTAMP " +
+           "WHERE fi.flightInfoId = :flightInfoId AND fi.flightDate = :flightDate AND fi.status = 'ACTIVE' " +
+           "AND fi.economy.availableSeats >= :seats")
+    int holdEconomySeats(@Param("flightInfoId") Long flightInfoId, @Param("flightDate") LocalDate flightDate,
+                         @Param("seats") int seats);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FlightInventory fi SET fi.economy.availableSeats = fi.economy.availableSeats + :seats, " +
+           "fi.version = fi.version + 1, fi.lastUpdated = CURRENT_TIMESTAMP " +
+           "WHERE fi.id = :id AND fi.economy.availableSeats + :seats <= fi.economy.totalCapacity")
+    int releaseEconomySeats(@Param("id") Long id, @Param("seats") int seats);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FlightInventory fi SET fi.business.availableSeats = fi.business.availableSeats - :seats, " +
+           "fi.version = fi.version + 1, fi.lastUpdated = CURRENT_TIMESTAMP " +
+           "WHERE fi.flightInfoId = :flightInfoId AND fi.flightDate = :flightDate AND fi.status = 'ACTIVE' " +
+           "AND fi.business.availableSeats >= :seats")
+    int holdBusinessSeats(@Param("flightInfoId") Long flightInfoId, @Param("flightDate") LocalDate flightDate,
+                          @Param("seats") int seats);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FlightInventory fi SET fi.business.availableSeats = fi.business.availableSeats + :seats, " +
+           "fi.version = fi.version + 1, fi.lastUpdated = CURRENT_TIMESTAMP " +
+           "WHERE fi.id = :id AND fi.business.availableSeats + :seats <= fi.business.totalCapacity")
+    int releaseBusinessSeats(@Param("id") Long id, @Param("seats") int seats);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FlightInventory fi SET fi.first.availableSeats = fi.first.availableSeats - :seats, " +
+           "fi.version = fi.version + 1, fi.lastUpdated = CURRENT_TIMESTAMP " +
+           "WHERE fi.flightInfoId = :flightInfoId AND fi.flightDate = :flightDate AND fi.status = 'ACTIVE' " +
+           "AND fi.first.availableSeats >= :seats")
+    int holdFirstSeats(@Param("flightInfoId") Long flightInfoId, @Param("flightDate") LocalDate flightDate,
+                       @Param("seats") int seats);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE FlightInventory fi SET fi.first.availableSeats = fi.first.availableSeats + :seats, " +
+           "fi.version = fi.version + 1, fi.lastUpdated = CURRENT_TIMESTAMP " +
+           "WHERE fi.id = :id AND fi.first.availableSeats + :seats <= fi.first.totalCapacity")
+    int releaseFirstSeats(@Param("id") Long id, @Param("seats") int seats);
 }
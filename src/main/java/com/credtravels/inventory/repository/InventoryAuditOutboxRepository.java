@@ -0,0 +1,24 @@
+package com.credtravels.inventory.repository;
+
+import com.credtravels.inventory.model.InventoryAuditOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventoryAuditOutboxRepository extends JpaRepository<InventoryAuditOutbox, Long> {
+    
+    List<InventoryAuditOutbox> findByFlightInventoryIdOrderByCreatedAtDesc(Long flightInventoryId);
+    
+    /**
+     * Oldest pending entries, locked so concurrent relays do not copy them twice
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM InventoryAuditOutbox o ORDER BY o.id")
+    List<InventoryAuditOutbox> lockOldest(Pageable pageable);
+}
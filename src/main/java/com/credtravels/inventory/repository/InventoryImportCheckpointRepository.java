@@ -0,0 +1,9 @@
+package com.credtravels.inventory.repository;
+
+import com.credtravels.inventory.model.InventoryImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryImportCheckpointRepository extends JpaRepository<InventoryImportCheckpoint, String> {
+}
@@ -0,0 +1,23 @@
+package com.credtravels.inventory.repository;
+
+import com.credtravels.inventory.model.InventorySnapshot;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+    
+    /**
+     * Snapshots of an inventory taken no later than the given time, latest first
+     */
+    @Query("SELECT s FROM InventorySnapshot s WHERE s.flightInventoryId = :flightInventoryId AND s.asOf <= :at ORDER BY s.lastEventId DESC")
+    List<InventorySnapshot> findLatest(@Param("flightInventoryId") Long flightInventoryId,
+                                       @Param("at") LocalDateTime at, 
+                                       Pageable pageable);
+}
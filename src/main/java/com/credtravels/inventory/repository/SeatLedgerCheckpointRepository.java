@@ -0,0 +1,9 @@
+package com.credtravels.inventory.repository;
+
+import com.credtravels.inventory.model.SeatLedgerCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SeatLedgerCheckpointRepository extends JpaRepository<SeatLedgerCheckpoint, String> {
+}
@@ -1,7 +1,10 @@
 package com.credtravels.inventory.repository;
 
 import com.credtravels.inventory.model.SeatReservation;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -15,6 +18,10 @@ public interface SeatReservationRepository extends JpaRepository<SeatReservation
     
     Optional<SeatReservation> findByReservationId(String reservationId);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sr FROM SeatReservation sr WHERE sr.reservationId = :reservationId")
+    Optional<SeatReservation> findByReservationIdForUpdate(@Param("reservationId") String reservationId);
+    
     List<SeatReservation> findByFlightInventoryId(Long flightInventoryId);
     
     @Query("SELECT sr FROM SeatReservation sr WHERE sr.reservedUntil < :now AND sr.status = 'RESERVED'")
@@ -23,5 +30,21 @@ public interface SeatReservationRepository extends JpaRepository<SeatReservation
     @Query("SELECT sr FROM SeatReservation sr WHERE sr.flightInventoryId = :flightInventoryId AND sr.status = 'RESERVED'")
     List<SeatReservation> findActiveReservationsByFlight(@Param("flightInventoryId") Long flightInventoryId);
     
+    @Query("SELECT sr.reservationId, sr.reservedUntil FROM SeatReservation sr WHERE sr.status = 'RESERVED'")
+    List<Object[]> findReservedDeadlines();
+    
+    @Query("SELECT sr.reservationId FROM SeatReservation sr WHERE sr.reservedUntil < :now AND sr.status = 'RESERVED'")
+    List<String> findExpiredReservationIds(@Param("now") LocalDateTime now);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sr FROM SeatReservation sr WHERE sr.reservationId IN :reservationIds " +
+           "AND sr.status = 'RESERVED' AND sr.reservedUntil <= :now ORDER BY sr.id")
+    List<SeatReservation> lockExpiredReservations(@Param("reservationIds") List<String> reservationIds,
+                                                  @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SeatReservation sr SET sr.status = 'EXPIRED' WHERE sr.id IN :ids AND sr.status = 'RESERVED'")
+    int markExpired(@Param("ids") List<Long> ids);
+    
 
 }
@@ -0,0 +1,149 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.common.exception.BusinessException;
+import com.credtravels.common.exception.ResourceNotFoundException;
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.events.InventoryEventStore;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryEvent;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.pricing.FarePricingEngine;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Seat counts kept in flight_inventory and changed with guarded single-statement updates.
+ * Must be called inside a transaction; the held row stays locked until it commits.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credtravels.inventory.reservation", name = "mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseSeatCounter implements SeatCounter {
+    
+    private static final Logger log = LoggerFactory.getLogger(DatabaseSeatCounter.class);
+    
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+    
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+    
+    @Autowired
+    private FarePricingEngine farePricingEngine;
+    
+    @Autowired
+    private InventoryEventStore inventoryEventStore;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Override
+    public Long hold(Long flightInfoId, LocalDate flightDate, SeatReservation reservation) {
+        SeatClass seatClass = reservation.getSeatClass();
+        int seats = reservation.getSeatCount();
+        int updated = switch (seatClass) {
+            case ECONOMY -> flightInventoryRepository.holdEconomySeats(flightInfoId, flightDate, seats);
+            case BUSINESS -> flightInventoryRepository.holdBusinessSeats(flightInfoId, flightDate, seats);
+            case FIRST -> flightInventoryRepository.holdFirstSeats(flightInfoId, flightDate, seats);
+        };
+        
+        // The row is locked by our update, so this read sees the post-decrement state
+        FlightInventory inventory = flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightInfoId, flightDate)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Flight inventory not found for flightId: " + flightInfoId + " and date: " + flightDate));
+        if (updated == 0) {
+            if (inventory.getStatus() != FlightInventory.FlightStatus.ACTIVE) {
+                throw new BusinessException("Flight is not open for reservations: " + inventory.getStatus());
+            }
+            throw new SoldOutException("Only " + inventory.getCabin(seatClass).getAvailableSeats() + " " + seatClass
+                    + " seats left for flightId: " + flightInfoId + " on " + flightDate);
+        }
+        inventoryEventStore.append(new InventoryEvent(inventory.getId(), EventType.SEATS_ADJUSTED, seatClass, -seats));
+        seatAvailabilityIndex.record(inventory);
+        farePricingEngine.record(inventory);
+        return inventory.getId();
+    }
+    
+    @Override
+    public void release(SeatReservation reservation) {
+        Long flightInventoryId = reservation.getFlightInventoryId();
+        SeatClass seatClass = reservation.getSeatClass();
+        int seats = reservation.getSeatCount();
+        int updated = switch (seatClass) {
+            case ECONOMY -> flightInventoryRepository.releaseEconomySeats(flightInventoryId, seats);
+            case BUSINESS -> flightInventoryRepository.releaseBusinessSeats(flightInventoryId, seats);
+            case FIRST -> flightInventoryRepository.releaseFirstSeats(flightInventoryId, seats);
+        };
+        if (updated == 0) {
+            log.warn("Returning {} {} seats to flight inventory {} would exceed capacity, seats not returned",
+                    seats, seatClass, flightInventoryId);
+        } else {
+            inventoryEventStore.append(new InventoryEvent(flightInventoryId, EventType.SEATS_ADJUSTED, seatClass, seats));
+        }
+        flightInventoryRepository.findById(flightInventoryId).ifPresent(inventory -> {
+            seatAvailabilityIndex.record(inventory);
+            farePricingEngine.record(inventory);
+        });
+    }
+    
+    /**
+     * Sum the returned seats per flight inventory and cabin and apply each sum with one
+     * capped increment, in flight inventory id order
+     */
+    @Override
+    public void releaseExpired(List<SeatReservation> reservations) {
+        Map<Long, int[]> returned = new TreeMap<>();
+        for (SeatReservation reservation : reservations) {
+            returned.computeIfAbsent(reservation.getFlightInventoryId(), id -> new int[SeatClass.values().length])
+                    [reservation.getSeatClass().ordinal()] += reservation.getSeatCount();
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        for (SeatClass seatClass : SeatClass.values()) {
+            String cabin = seatClass.name().toLowerCase();
+            List<Object[]> batch = new ArrayList<>();
+            returned.forEach((inventoryId, seats) -> {
+                if (seats[seatClass.ordinal()] > 0) {
+                    batch.add(new Object[] {seats[seatClass.ordinal()], inventoryId});
+                }
+            });
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE flight_inventory SET " + cabin + "_available_seats = LEAST("
+                        + cabin + "_available_seats + ?, " + cabin + "_total_capacity), version = version + 1, "
+                        + "last_updated = CURRENT_TIMESTAMP WHERE id = ?", batch);
+            }
+        }
+        // Recorded as the resulting counts, since the increments may have been capped
+        List<InventoryEvent> events = new ArrayList<>();
+        for (FlightInventory inventory : flightInventoryRepository.findAllById(returned.keySet())) {
+            int[] seats = returned.get(inventory.getId());
+            for (SeatClass seatClass : SeatClass.values()) {
+                if (seats[seatClass.ordinal()] > 0) {
+                    events.add(new InventoryEvent(inventory.getId(), EventType.SEATS_SET, seatClass,
+                            inventory.getCabin(seatClass).getAvailableSeats()));
+                }
+            }
+            seatAvailabilityIndex.record(inventory);
+            farePricingEngine.record(inventory);
+        }
+        inventoryEventStore.appendAll(events);
+    }
+    
+    @Override
+    public void setAvailableSeats(FlightInventory inventory, SeatClass seatClass, int seats) {
+        inventory.getCabin(seatClass).setAvailableSeats(seats);
+    }
+}
@@ -0,0 +1,466 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.common.exception.BusinessException;
+import com.credtravels.common.exception.ResourceNotFoundException;
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.events.InventoryEventStore;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryEvent;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.SeatLedgerCheckpoint;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.pricing.FarePricingEngine;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.SeatLedgerCheckpointRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-JVM seat ledger keyed by (flightInventoryId, SeatClass). Holds and releases are CAS
+ * updates on in-memory counters that never go below zero, each appended to a journal
+ * and forced to disk before it is acknowledged, so a crash cannot lose a hold whose
+ * reservation committed. Net changes are written behind to flight_inventory in
+ * periodic batches, together with the journal sequence they cover, and the journal is
+ * replayed from that checkpoint on startup.
+ *
+ * <p>The ledger owns the seat counts of the flights it serves, so exactly one instance
+ * may run in this mode per inventory database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credtravels.inventory.reservation", name = "mode", havingValue = "ledger")
+public class LedgerSeatCounter implements SeatCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(LedgerSeatCounter.class);
+
+    private static final int CABINS = SeatClass.values().length;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatLedgerCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+
+    @Autowired
+    private FarePricingEngine farePricingEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private InventoryEventStore inventoryEventStore;
+
+    @Value("${credtravels.inventory.ledger.id:default}")
+    private String ledgerId;
+
+    @Value("${credtravels.inventory.ledger.journal-dir:./data/seat-ledger}")
+    private String journalDir;
+
+    @Value("${credtravels.inventory.ledger.fsync:true}")
+    private boolean fsync;
+
+    private final Map<Long, LedgerFlight> flights = new ConcurrentHashMap<>();
+    private final Map<String, Long> inventoryIds = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock cutLock = new ReentrantReadWriteLock();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Object flushLock = new Object();
+
+    private SeatLedgerJournal journal;
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Replay journal changes newer than the checkpoint, then start a fresh segment
+     */
+    @PostConstruct
+    public void recover() throws IOException {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        journal = new SeatLedgerJournal(Paths.get(journalDir, ledgerId), fsync);
+
+        // From the primary, as a lagging replica's checkpoint would replay flushed changes twice
+        long checkpoint = new TransactionTemplate(transactionManager).execute(status -> checkpointRepository.findById(ledgerId)
+                .map(SeatLedgerCheckpoint::getLastSequence)
+                .orElse(0L));
+        long last = checkpoint;
+        int replayed = 0;
+        Map<Long, int[]> deltas = new HashMap<>();
+        for (SeatLedgerJournal.Entry entry : journal.recover()) {
+            last = Math.max(last, entry.getSequence());
+            if (entry.getSequence() > checkpoint) {
+                deltas.computeIfAbsent(entry.getFlightInventoryId(), id -> new int[CABINS])[entry.getSeatClass().ordinal()]
+                        += entry.getDelta();
+                replayed++;
+            }
+        }
+        if (!deltas.isEmpty()) {
+            writeBehind(deltas, last);
+        }
+        journal.delete(journal.sealedSegments());
+        sequence.set(last);
+        journal.open(last + 1);
+        log.info("Seat ledger {} recovered {} journal changes after sequence {}", ledgerId, replayed, checkpoint);
+    }
+
+    @Override
+    public Long hold(Long flightInfoId, LocalDate flightDate, SeatReservation reservation) {
+        SeatClass seatClass = reservation.getSeatClass();
+        int seats = reservation.getSeatCount();
+        LedgerFlight flight = flightFor(flightInfoId, flightDate);
+        int cabin = seatClass.ordinal();
+        long ticket;
+        cutLock.readLock().lock();
+        try {
+            if (!flight.take(cabin, seats)) {
+                throw new SoldOutException("Only " + flight.available.get(cabin) + " " + seatClass
+                        + " seats left for flightId: " + flightInfoId + " on " + flightDate);
+            }
+            ticket = journalChange(flight, seatClass, -seats);
+        } finally {
+            cutLock.readLock().unlock();
+        }
+        releaseOnRollback(flight.inventoryId, seatClass, seats);
+        // Durable before the reservation can commit; a failure rolls it back and returns the seats
+        syncJournal(ticket);
+        return flight.inventoryId;
+    }
+
+    @Override
+    public void release(SeatReservation reservation) {
+        runAfterCommit(() -> returnSeats(
+                reservation.getFlightInventoryId(), reservation.getSeatClass(), reservation.getSeatCount()));
+    }
+
+    @Override
+    public void setAvailableSeats(FlightInventory inventory, SeatClass seatClass, int seats) {
+        if (inventory.getId() == null) {
+            inventory.getCabin(seatClass).setAvailableSeats(seats);
+            return;
+        }
+        // The row keeps its persisted count; the ledger applies the change once the update commits
+        runAfterCommit(() -> {
+            LedgerFlight flight = flightById(inventory.getId());
+            int cabin = seatClass.ordinal();
+            long ticket = 0;
+            cutLock.readLock().lock();
+            try {
+                flight.capacity.set(cabin, inventory.getCabin(seatClass).getTotalCapacity());
+                int delta = seats - flight.available.getAndSet(cabin, seats);
+                if (delta != 0) {
+                    ticket = journalChange(flight, seatClass, delta);
+                }
+            } finally {
+                cutLock.readLock().unlock();
+            }
+            syncJournal(ticket);
+        });
+    }
+
+    @Override
+    public boolean ownsAvailableSeats() {
+        return true;
+    }
+
+    /**
+     * Write the net changes since the last flush to flight_inventory in one batch
+     */
+    @Scheduled(fixedDelayString = "${credtravels.inventory.ledger.flush-interval-ms:1000}")
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, int[]> deltas = new HashMap<>();
+            long cut;
+            List<Path> sealed;
+            cutLock.writeLock().lock();
+            try {
+                for (LedgerFlight flight : flights.values()) {
+                    int[] drained = flight.drain();
+                    if (drained != null) {
+                        deltas.put(flight.inventoryId, drained);
+                    }
+                }
+                cut = sequence.get();
+                sealed = journal.rotate(cut + 1);
+            } catch (IOException e) {
+                restore(deltas);
+                log.error("Seat ledger {} could not rotate its journal, flush skipped", ledgerId, e);
+                return;
+            } finally {
+                cutLock.writeLock().unlock();
+            }
+
+            if (deltas.isEmpty()) {
+                journal.delete(sealed);
+                return;
+            }
+            try {
+                writeBehind(deltas, cut);
+                journal.delete(sealed);
+                log.debug("Seat ledger {} flushed {} flights up to sequence {}", ledgerId, deltas.size(), cut);
+            } catch (RuntimeException e) {
+                // Journal segments are kept, so the changes stay recoverable and go out with the next flush
+                restore(deltas);
+                log.error("Seat ledger {} write-behind failed, will retry", ledgerId, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        flush();
+        journal.close();
+    }
+
+    /**
+     * Forget flights that have departed and have nothing left to flush
+     */
+    @Scheduled(cron = "0 30 0 * * *")
+    public void evictPastFlights() {
+        LocalDate today = LocalDate.now();
+        flights.values().removeIf(flight -> flight.flightDate.isBefore(today) && !flight.hasUnflushed());
+        inventoryIds.values().removeIf(id -> !flights.containsKey(id));
+    }
+
+    // Private helper methods
+
+    private void returnSeats(Long flightInventoryId, SeatClass seatClass, int seats) {
+        LedgerFlight flight = flightById(flightInventoryId);
+        int cabin = seatClass.ordinal();
+        long ticket;
+        cutLock.readLock().lock();
+        try {
+            if (!flight.give(cabin, seats)) {
+                log.warn("Returning {} {} seats to flight inventory {} would exceed capacity, seats not returned",
+                        seats, seatClass, flightInventoryId);
+                return;
+            }
+            ticket = journalChange(flight, seatClass, seats);
+        } finally {
+            cutLock.readLock().unlock();
+        }
+        syncJournal(ticket);
+    }
+
+    private LedgerFlight flightFor(Long flightInfoId, LocalDate flightDate) {
+        String key = flightInfoId + "_" + flightDate;
+        Long inventoryId = inventoryIds.get(key);
+        if (inventoryId != null) {
+            LedgerFlight flight = flights.get(inventoryId);
+            if (flight != null) {
+                return flight;
+            }
+        }
+        FlightInventory inventory = flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightInfoId, flightDate)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Flight inventory not found for flightId: " + flightInfoId + " and date: " + flightDate));
+        if (inventory.getStatus() != FlightInventory.FlightStatus.ACTIVE) {
+            throw new BusinessException("Flight is not open for reservations: " + inventory.getStatus());
+        }
+        LedgerFlight flight = flights.computeIfAbsent(inventory.getId(), id -> new LedgerFlight(inventory));
+        inventoryIds.put(key, inventory.getId());
+        return flight;
+    }
+
+    private LedgerFlight flightById(Long flightInventoryId) {
+        LedgerFlight flight = flights.get(flightInventoryId);
+        if (flight != null) {
+            return flight;
+        }
+        FlightInventory inventory = flightInventoryRepository.findById(flightInventoryId)
+                .orElseThrow(() -> new ResourceNotFoundException("Flight inventory not found: " + flightInventoryId));
+        flight = flights.computeIfAbsent(inventory.getId(), id -> new LedgerFlight(inventory));
+        inventoryIds.put(inventory.getFlightInfoId() + "_" + inventory.getFlightDate(), inventory.getId());
+        return flight;
+    }
+
+    /**
+     * Journal an applied change and queue it for write-behind; undone if the journal write fails.
+     * Callers hold the read side of the cut lock, and sync the returned ticket once they let go
+     * of it and before acknowledging the change.
+     */
+    private long journalChange(LedgerFlight flight, SeatClass seatClass, int delta) {
+        int cabin = seatClass.ordinal();
+        long changeSequence = sequence.incrementAndGet();
+        long ticket;
+        try {
+            ticket = journal.append(changeSequence, flight.inventoryId, seatClass, delta);
+        } catch (IOException e) {
+            flight.available.addAndGet(cabin, -delta);
+            throw new BusinessException("Seat ledger journal unavailable: " + e.getMessage());
+        }
+        flight.unflushed.addAndGet(cabin, delta);
+        return ticket;
+    }
+
+    private void syncJournal(long ticket) {
+        try {
+            journal.sync(ticket);
+        } catch (IOException e) {
+            throw new BusinessException("Seat ledger journal unavailable: " + e.getMessage());
+        }
+    }
+
+    private void writeBehind(Map<Long, int[]> deltas, long lastSequence) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (SeatClass seatClass : SeatClass.values()) {
+                String column = seatClass.name().toLowerCase() + "_available_seats";
+                List<Object[]> batch = new ArrayList<>();
+                deltas.forEach((inventoryId, delta) -> {
+                    if (delta[seatClass.ordinal()] != 0) {
+                        batch.add(new Object[] {delta[seatClass.ordinal()], inventoryId});
+                    }
+                });
+                if (!batch.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE flight_inventory SET " + column + " = " + column + " + ?, "
+                            + "version = version + 1, last_updated = CURRENT_TIMESTAMP WHERE id = ?", batch);
+                }
+            }
+            // The history sees the net change of each flush rather than every hold
+            List<InventoryEvent> events = new ArrayList<>();
+            deltas.forEach((inventoryId, delta) -> {
+                for (SeatClass seatClass : SeatClass.values()) {
+                    if (delta[seatClass.ordinal()] != 0) {
+                        events.add(new InventoryEvent(inventoryId, EventType.SEATS_ADJUSTED, seatClass, delta[seatClass.ordinal()]));
+                    }
+                }
+            });
+            inventoryEventStore.appendAll(events);
+            checkpointRepository.save(new SeatLedgerCheckpoint(ledgerId, lastSequence));
+            // Read back in the same transaction, as a replica may not have the new counts yet
+            for (FlightInventory inventory : flightInventoryRepository.findAllById(deltas.keySet())) {
+                seatAvailabilityIndex.record(inventory);
+                farePricingEngine.record(inventory);
+            }
+        });
+    }
+
+    private void restore(Map<Long, int[]> deltas) {
+        deltas.forEach((inventoryId, delta) -> {
+            LedgerFlight flight = flights.get(inventoryId);
+            for (int cabin = 0; cabin < CABINS; cabin++) {
+                flight.unflushed.addAndGet(cabin, delta[cabin]);
+            }
+        });
+    }
+
+    private void releaseOnRollback(Long flightInventoryId, SeatClass seatClass, int seats) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        returnSeats(flightInventoryId, seatClass, seats);
+                    }
+                }
+            });
+        }
+    }
+
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class LedgerFlight {
+
+        private final Long inventoryId;
+        private final LocalDate flightDate;
+        private final AtomicIntegerArray available = new AtomicIntegerArray(CABINS);
+        private final AtomicIntegerArray capacity = new AtomicIntegerArray(CABINS);
+        private final AtomicIntegerArray unflushed = new AtomicIntegerArray(CABINS);
+
+        private LedgerFlight(FlightInventory inventory) {
+            this.inventoryId = inventory.getId();
+            this.flightDate = inventory.getFlightDate();
+            for (SeatClass seatClass : SeatClass.values()) {
+                available.set(seatClass.ordinal(), inventory.getCabin(seatClass).getAvailableSeats());
+                capacity.set(seatClass.ordinal(), inventory.getCabin(seatClass).getTotalCapacity());
+            }
+        }
+
+        private boolean take(int cabin, int seats) {
+            while (true) {
+                int current = available.get(cabin);
+                if (current < seats) {
+                    return false;
+                }
+                if (available.compareAndSet(cabin, current, current - seats)) {
+                    return true;
+                }
+            }
+        }
+
+        private boolean give(int cabin, int seats) {
+            while (true) {
+                int current = available.get(cabin);
+                if (current + seats > capacity.get(cabin)) {
+                    return false;
+                }
+                if (available.compareAndSet(cabin, current, current + seats)) {
+                    return true;
+                }
+            }
+        }
+
+        private int[] drain() {
+            int[] drained = null;
+            for (int cabin = 0; cabin < CABINS; cabin++) {
+                int delta = unflushed.getAndSet(cabin, 0);
+                if (delta != 0) {
+                    if (drained == null) {
+                        drained = new int[CABINS];
+                    }
+                    drained[cabin] = delta;
+                }
+            }
+            return drained;
+        }
+
+        private boolean hasUnflushed() {
+            for (int cabin = 0; cabin < CABINS; cabin++) {
+                if (unflushed.get(cabin) != 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.events.InventoryEventStore;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryEvent;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.pricing.FarePricingEngine;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.SeatReservationRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Writes the holds taken in Redis to seat_reservations and copies the Redis seat counts
+ * of the touched flights to flight_inventory. Events are claimed in order from the
+ * shared list by whichever node holds the reconciler lock, applied in one transaction
+ * and put back at the head of the list if that transaction fails. Applying an event
+ * twice leaves the same rows, so a retried batch is harmless.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credtravels.inventory.reservation", name = "mode", havingValue = "redis")
+public class RedisHoldReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisHoldReconciler.class);
+
+    private static final String LOCK_KEY = "seat-holds:reconciler";
+
+    private static final RedisScript<List> CLAIM = claimScript();
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+
+    @Autowired
+    private FarePricingEngine farePricingEngine;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+    
+    @Autowired
+    private InventoryEventStore inventoryEventStore;
+
+    @Value("${credtravels.inventory.redis.reconcile-batch-size:500}")
+    private int batchSize;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Apply pending hold events until the list is drained, if this node holds the lock
+     */
+    @Scheduled(fixedDelayString = "${credtravels.inventory.redis.reconcile-interval-ms:500}")
+    public void reconcile() {
+        Boolean locked = redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, nodeId, Duration.ofSeconds(30));
+        if (!Boolean.TRUE.equals(locked)) {
+            return;
+        }
+        int applied = 0;
+        try {
+            List<String> batch;
+            do {
+                batch = claim();
+                applyOrRequeue(batch);
+                applied += batch.size();
+            } while (batch.size() == batchSize);
+        } finally {
+            if (nodeId.equals(redisTemplate.opsForValue().get(LOCK_KEY))) {
+                redisTemplate.delete(LOCK_KEY);
+            }
+        }
+        if (applied > 0) {
+            log.debug("Reconciled {} seat hold events", applied);
+        }
+    }
+
+    // Private helper methods
+
+    @SuppressWarnings("unchecked")
+    private List<String> claim() {
+        List<String> batch = redisTemplate.execute(CLAIM, List.of(RedisSeatCounter.EVENTS_KEY), String.valueOf(batchSize));
+        return batch != null ? batch : List.of();
+    }
+
+    private void applyOrRequeue(List<String> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> inventoryIds = new HashSet<>();
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                apply(batch, inventoryIds);
+                // Read back in the same transaction, as a replica may not have the new counts yet
+                for (FlightInventory inventory : flightInventoryRepository.findAllById(inventoryIds)) {
+                    seatAvailabilityIndex.record(inventory);
+                    farePricingEngine.record(inventory);
+                }
+            });
+        } catch (RuntimeException e) {
+            List<String> requeued = new ArrayList<>(batch);
+            Collections.reverse(requeued);
+            redisTemplate.opsForList().leftPushAll(RedisSeatCounter.EVENTS_KEY, requeued);
+            log.error("Failed to reconcile {} seat hold events, requeued", batch.size(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Event format: TYPE|reservationId|inventoryId|cabin|seats|epochMillis|flightKey
+     */
+    private void apply(List<String> batch, Set<Long> inventoryIds) {
+        Set<String> flightKeys = new HashSet<>();
+        for (String event : batch) {
+            String[] fields = event.split("\\|");
+            String reservationId = fields[1];
+            Long inventoryId = Long.valueOf(fields[2]);
+            switch (fields[0]) {
+                case "HOLD" -> {
+                    if (seatReservationRepository.findByReservationId(reservationId).isEmpty()) {
+                        seatReservationRepository.save(new SeatReservation(inventoryId, reservationId,
+                                SeatClass.valueOf(fields[3]), Integer.valueOf(fields[4]),
+                                RedisSeatCounter.toLocalDateTime(Long.parseLong(fields[5]))));
+                    }
+                }
+                case "RELEASE", "EXPIRE" -> seatReservationRepository.findByReservationId(reservationId)
+                        .filter(reservation -> reservation.getStatus() != SeatReservation.ReservationStatus.CONFIRMED)
+                        .ifPresent(seatReservationRepository::delete);
+                case "CONFIRM" -> seatReservationRepository.findByReservationId(reservationId)
+                        .ifPresent(reservation -> reservation.setStatus(SeatReservation.ReservationStatus.CONFIRMED));
+                default -> log.warn("Skipping unknown seat hold event: {}", event);
+            }
+            inventoryIds.add(inventoryId);
+            flightKeys.add(fields[6]);
+        }
+        copyCounts(flightKeys);
+    }
+
+    /**
+     * Overwrite the available seats of the touched flights with their current Redis counts
+     */
+    private void copyCounts(Set<String> flightKeys) {
+        List<Object> fields = new ArrayList<>();
+        fields.add("id");
+        for (SeatClass seatClass : SeatClass.values()) {
+            fields.add("avail:" + seatClass.name());
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (String flightKey : flightKeys) {
+            List<Object> counts = redisTemplate.opsForHash().multiGet(RedisSeatCounter.countersKey(flightKey), fields);
+            if (counts.get(0) == null) {
+                continue;
+            }
+            Object[] row = new Object[fields.size()];
+            for (int i = 1; i < fields.size(); i++) {
+                row[i - 1] = Integer.valueOf((String) counts.get(i));
+            }
+            row[fields.size() - 1] = Long.valueOf((String) counts.get(0));
+            rows.add(row);
+        }
+        if (!rows.isEmpty()) {
+            new JdbcTemplate(dataSource).batchUpdate("UPDATE flight_inventory SET economy_available_seats = ?, "
+                    + "business_available_seats = ?, first_available_seats = ?, version = version + 1, "
+                    + "last_updated = CURRENT_TIMESTAMP WHERE id = ?", rows);
+            List<InventoryEvent> events = new ArrayList<>();
+            for (Object[] row : rows) {
+                Long inventoryId = (Long) row[row.length - 1];
+                for (SeatClass seatClass : SeatClass.values()) {
+                    events.add(new InventoryEvent(inventoryId, EventType.SEATS_SET, seatClass, (Integer) row[seatClass.ordinal()]));
+                }
+            }
+            inventoryEventStore.appendAll(events);
+        }
+    }
+
+    private static RedisScript<List> claimScript() {
+        DefaultRedisScript<List> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource("redis/seat-events-claim.lua"));
+        script.setResultType(List.class);
+        return script;
+    }
+}
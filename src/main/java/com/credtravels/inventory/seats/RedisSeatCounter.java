@@ -0,0 +1,227 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.common.exception.BusinessException;
+import com.credtravels.common.exception.ResourceNotFoundException;
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Seat counts and holds kept in Redis so every application node sees the same seats.
+ * Each change runs as one server-side script over the counters of a flight date, the
+ * hold key and the reconciliation event list. Holds are keys with the reservation TTL;
+ * their seats are reclaimed by the next hold on the same flight date once the TTL has
+ * passed, or by the expired reservation cleanup. Rows in seat_reservations and the
+ * counts in flight_inventory follow asynchronously through {@link RedisHoldReconciler}.
+ *
+ * <p>Every script also appends to one shared event list, so a single Redis node (or
+ * primary) is assumed rather than a cluster.
+ */
+@Component
+@ConditionalOnProperty(prefix = "credtravels.inventory.reservation", name = "mode", havingValue = "redis")
+public class RedisSeatCounter implements SeatCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(RedisSeatCounter.class);
+
+    static final String EVENTS_KEY = "seat-holds:events";
+
+    private static final RedisScript<List> HOLD = script("redis/seat-hold.lua", List.class);
+    private static final RedisScript<Long> RELEASE = script("redis/seat-release.lua", Long.class);
+    private static final RedisScript<Long> CONFIRM = script("redis/seat-confirm.lua", Long.class);
+    private static final RedisScript<Long> LOAD = script("redis/seat-load.lua", Long.class);
+    private static final RedisScript<Long> SET = script("redis/seat-set.lua", Long.class);
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Override
+    public Long hold(Long flightInfoId, LocalDate flightDate, SeatReservation reservation) {
+        String flightKey = flightKey(flightInfoId, flightDate);
+        long ttlSeconds = Math.max(1, Duration.between(LocalDateTime.now(), reservation.getReservedUntil()).toSeconds());
+        List<String> keys = keys(flightKey, reservation.getReservationId());
+
+        for (boolean loaded = false; ; loaded = true) {
+            List<?> result = redisTemplate.execute(HOLD, keys, reservation.getReservationId(),
+                    reservation.getSeatClass().name(), String.valueOf(reservation.getSeatCount()),
+                    String.valueOf(ttlSeconds), flightKey);
+            long status = (Long) result.get(0);
+            long value = (Long) result.get(1);
+            if (status == 1) {
+                return value;
+            }
+            if (status == 0) {
+                throw new SoldOutException("Only " + value + " " + reservation.getSeatClass()
+                        + " seats left for flightId: " + flightInfoId + " on " + flightDate);
+            }
+            if (status == -2) {
+                throw new BusinessException("Flight is not open for reservations: " + flightInfoId + " on " + flightDate);
+            }
+            if (loaded) {
+                throw new BusinessException("Seat counters unavailable for flightId: " + flightInfoId + " on " + flightDate);
+            }
+            load(flightInfoId, flightDate);
+        }
+    }
+
+    @Override
+    public void release(SeatReservation reservation) {
+        String flightKey = flightKeyOf(reservation);
+        Long returned = redisTemplate.execute(RELEASE, keys(flightKey, reservation.getReservationId()),
+                reservation.getReservationId(), reservation.getSeatClass().name(), String.valueOf(reservation.getSeatCount()),
+                flightKey);
+        if (returned == null || returned == 0) {
+            log.debug("Hold {} was already reclaimed, no seats returned", reservation.getReservationId());
+        }
+    }
+
+    @Override
+    public void confirm(SeatReservation reservation) {
+        String flightKey = flightKeyOf(reservation);
+        Long confirmed = redisTemplate.execute(CONFIRM, keys(flightKey, reservation.getReservationId()),
+                reservation.getReservationId(), reservation.getSeatClass().name(), String.valueOf(reservation.getSeatCount()),
+                flightKey);
+        if (confirmed == null || confirmed == 0) {
+            throw new BusinessException("Reservation has expired: " + reservation.getReservationId());
+        }
+    }
+
+    @Override
+    public void setAvailableSeats(FlightInventory inventory, SeatClass seatClass, int seats) {
+        inventory.getCabin(seatClass).setAvailableSeats(seats);
+        if (inventory.getId() == null) {
+            return;
+        }
+        // Loaded counters take the new count once the update commits
+        runAfterCommit(() -> redisTemplate.execute(SET,
+                List.of(countersKey(flightKey(inventory.getFlightInfoId(), inventory.getFlightDate()))),
+                seatClass.name(), String.valueOf(seats), String.valueOf(inventory.getCabin(seatClass).getTotalCapacity())));
+    }
+
+    @Override
+    public boolean reconcilesReservations() {
+        return true;
+    }
+
+    @Override
+    public Optional<SeatReservation> findPendingHold(String reservationId) {
+        String hold = redisTemplate.opsForValue().get(holdKey(reservationId));
+        if (hold == null) {
+            return Optional.empty();
+        }
+        // flightInfoId:date|cabin|seats|inventoryId|expiresAtMillis
+        String[] fields = hold.split("\\|");
+        SeatReservation reservation = new SeatReservation(Long.valueOf(fields[3]), reservationId,
+                SeatClass.valueOf(fields[1]), Integer.valueOf(fields[2]), toLocalDateTime(Long.parseLong(fields[4])));
+        return Optional.of(reservation);
+    }
+
+    // Static helpers
+
+    static String flightKey(Long flightInfoId, LocalDate flightDate) {
+        return flightInfoId + ":" + flightDate;
+    }
+
+    static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    // Private helper methods
+
+    /**
+     * Load the counters of a flight date from flight_inventory unless another node already has
+     */
+    private void load(Long flightInfoId, LocalDate flightDate) {
+        FlightInventory inventory = flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightInfoId, flightDate)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Flight inventory not found for flightId: " + flightInfoId + " and date: " + flightDate));
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(inventory.getId()));
+        args.add(inventory.getStatus() == FlightInventory.FlightStatus.ACTIVE ? "1" : "0");
+        for (SeatClass seatClass : SeatClass.values()) {
+            CabinInventory cabin = inventory.getCabin(seatClass);
+            args.add(seatClass.name());
+            args.add(String.valueOf(cabin.getAvailableSeats()));
+            args.add(String.valueOf(cabin.getTotalCapacity()));
+        }
+        Long loaded = redisTemplate.execute(LOAD, List.of(countersKey(flightKey(flightInfoId, flightDate))), args.toArray());
+        if (loaded != null && loaded == 1) {
+            log.info("Loaded seat counters of flightId: {} on {} into Redis", flightInfoId, flightDate);
+        }
+    }
+
+    /**
+     * The flight key of a reservation, from its hold or, once the hold is gone, its inventory row
+     */
+    private String flightKeyOf(SeatReservation reservation) {
+        String hold = redisTemplate.opsForValue().get(holdKey(reservation.getReservationId()));
+        if (hold != null) {
+            return hold.substring(0, hold.indexOf('|'));
+        }
+        FlightInventory inventory = flightInventoryRepository.findById(reservation.getFlightInventoryId())
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Flight inventory not found: " + reservation.getFlightInventoryId()));
+        return flightKey(inventory.getFlightInfoId(), inventory.getFlightDate());
+    }
+
+    private static List<String> keys(String flightKey, String reservationId) {
+        return List.of(countersKey(flightKey), holdsKey(flightKey), holdKey(reservationId), EVENTS_KEY);
+    }
+
+    static String countersKey(String flightKey) {
+        return "seats:" + flightKey;
+    }
+
+    private static String holdsKey(String flightKey) {
+        return "seat-holds:" + flightKey;
+    }
+
+    private static String holdKey(String reservationId) {
+        return "seat-hold:" + reservationId;
+    }
+
+    private static <T> RedisScript<T> script(String path, Class<T> resultType) {
+        DefaultRedisScript<T> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(path));
+        script.setResultType(resultType);
+        return script;
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
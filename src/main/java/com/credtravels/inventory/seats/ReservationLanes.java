@@ -0,0 +1,334 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.common.cache.BoundedTtlCache;
+import com.credtravels.common.exception.BusinessException;
+import com.credtravels.common.exception.OptimisticLockException;
+import com.credtravels.common.exception.ResourceNotFoundException;
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Single writer per flight inventory for reservation writes. Holds, releases and confirmations
+ * are routed by flight inventory id to one of a fixed set of lanes, which runs them one at a
+ * time so they never conflict with each other, and commits the operations queued behind one
+ * another in a single transaction. Each operation runs under a savepoint, so one that is
+ * refused (sold out, already confirmed) is undone alone; a database failure undoes the whole
+ * group, whose operations are then run again in a transaction each.
+ * Lanes are per node: writes from other nodes, inventory updates and expiry still meet the
+ * lanes at the database and are resolved there as before.
+ * A caller waits at most the lane timeout for its operation to start; once started, the lane
+ * always completes it, and a lane that stops fails everything still queued on it.
+ */
+@Component
+public class ReservationLanes {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationLanes.class);
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatCounter seatCounter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${credtravels.inventory.reservation.lanes.enabled:false}")
+    private boolean enabled;
+
+    @Value("${credtravels.inventory.reservation.lanes.count:16}")
+    private int laneCount;
+
+    @Value("${credtravels.inventory.reservation.lanes.max-group:64}")
+    private int maxGroup;
+
+    @Value("${credtravels.inventory.reservation.lanes.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${credtravels.inventory.reservation.lanes.timeout-ms:10000}")
+    private long timeoutMillis;
+
+    private BoundedTtlCache<String, Long> inventoryIds;
+    private TransactionTemplate transaction;
+    private TransactionTemplate savepoint;
+    private DistributionSummary groupSize;
+    private Counter groupFallbacks;
+    private volatile Lane[] lanes;
+
+    @PostConstruct
+    public void init() {
+        if (enabled && seatCounter.reconcilesReservations()) {
+            // Holds kept outside the database cannot be undone with a group
+            log.warn("Reservation lanes need a database-backed seat counter, running reservations transactionally");
+            enabled = false;
+        }
+        inventoryIds = new BoundedTtlCache<>(100_000, Duration.ofDays(1));
+        transaction = new TransactionTemplate(transactionManager);
+        // Bounds how long a started operation can keep its caller waiting
+        transaction.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis)));
+        savepoint = new TransactionTemplate(transactionManager);
+        savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        groupSize = DistributionSummary.builder("credtravels.inventory.lanes.group.size")
+                .description("Reservation writes committed per lane transaction")
+                .register(meterRegistry);
+        groupFallbacks = Counter.builder("credtravels.inventory.lanes.group.fallbacks")
+                .description("Lane groups rolled back and run one operation per transaction")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Lane[] current = lanes;
+        if (current != null) {
+            for (Lane lane : current) {
+                lane.thread.interrupt();
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Id of the flight inventory of a flight date, which picks the lane of its writes. Looked up
+     * on the primary, where a flight date just created already exists.
+     */
+    public Long inventoryIdOf(Long flightInfoId, LocalDate flightDate) {
+        String key = flightInfoId + "_" + flightDate;
+        Long flightInventoryId = inventoryIds.get(key);
+        if (flightInventoryId == null) {
+            flightInventoryId = transaction.execute(status -> flightInventoryRepository
+                    .findByFlightInfoIdAndFlightDate(flightInfoId, flightDate)
+                    .orElseThrow(() -> new ResourceNotFoundException(
+                            "Flight inventory not found for flightId: " + flightInfoId + " and date: " + flightDate))
+                    .getId());
+            inventoryIds.put(key, flightInventoryId);
+        }
+        return flightInventoryId;
+    }
+
+    /**
+     * Run a write on the lane of the flight inventory and wait until it has committed,
+     * rethrowing its failure. An operation not started within the timeout is withdrawn;
+     * one already running is waited for, as it may commit.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Long flightInventoryId, Supplier<T> operation) {
+        Task task = new Task(operation);
+        Lane lane = lane(flightInventoryId);
+        if (!lane.queue.offer(task)) {
+            throw new OptimisticLockException("Too many reservations queued for this flight, please retry");
+        }
+        if (lane.stopped) {
+            lane.failQueued();
+        }
+        try {
+            return (T) task.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (task.started.compareAndSet(false, true)) {
+                lane.queue.remove(task);
+                throw new OptimisticLockException("Reservation lane is busy for this flight, please retry");
+            }
+            return (T) awaitStarted(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (task.started.compareAndSet(false, true)) {
+                lane.queue.remove(task);
+                throw new BusinessException("Reservation interrupted before it started");
+            }
+            return (T) awaitStarted(task);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    // Private helper methods
+
+    private static Object awaitStarted(Task task) {
+        try {
+            return task.result.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable failure) {
+        if (failure instanceof RuntimeException cause) {
+            return cause;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("Reservation lane operation failed", failure);
+    }
+
+    private Lane lane(Long flightInventoryId) {
+        Lane[] current = lanes;
+        if (current == null) {
+            current = start();
+        }
+        // Spread sequential ids over the lanes
+        return current[Math.floorMod(Long.hashCode(flightInventoryId * 0x9E3779B97F4A7C15L), current.length)];
+    }
+
+    private synchronized Lane[] start() {
+        if (lanes == null) {
+            Lane[] started = new Lane[laneCount];
+            for (int i = 0; i < laneCount; i++) {
+                started[i] = new Lane(i);
+                started[i].thread.start();
+            }
+            lanes = started;
+            log.info("Started {} reservation lanes", laneCount);
+        }
+        return lanes;
+    }
+
+    private void runGroup(List<Task> group) {
+        groupSize.record(group.size());
+        if (group.size() > 1) {
+            try {
+                transaction.executeWithoutResult(status -> group.forEach(this::runUnderSavepoint));
+                group.forEach(Task::complete);
+                return;
+            } catch (RuntimeException e) {
+                groupFallbacks.increment();
+                log.debug("Reservation group of {} rolled back, running its operations alone: {}", group.size(), e.getMessage());
+            }
+        }
+        for (Task task : group) {
+            task.failure = null;
+            try {
+                task.value = transaction.execute(status -> task.operation.get());
+            } catch (RuntimeException e) {
+                task.failure = e;
+            }
+            task.complete();
+        }
+    }
+
+    private void runUnderSavepoint(Task task) {
+        try {
+            task.value = savepoint.execute(status -> {
+                Object value = task.operation.get();
+                entityManager.flush();
+                return value;
+            });
+        } catch (BusinessException | SoldOutException | ResourceNotFoundException | ValidationException e) {
+            // Earlier operations are flushed, so only what the refused one left behind is dropped
+            entityManager.clear();
+            task.failure = e;
+        }
+    }
+
+    private static final class Task {
+
+        private final Supplier<?> operation;
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        // Set by the lane before running the operation, or by a caller withdrawing it
+        private final AtomicBoolean started = new AtomicBoolean();
+        private Object value;
+        private RuntimeException failure;
+
+        private Task(Supplier<?> operation) {
+            this.operation = operation;
+        }
+
+        private void complete() {
+            if (failure != null) {
+                result.completeExceptionally(failure);
+            } else {
+                result.complete(value);
+            }
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final BlockingQueue<Task> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+        private volatile boolean stopped;
+
+        private Lane(int index) {
+            thread = new Thread(this, "reservation-lane-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Task> group = new ArrayList<>(maxGroup);
+            try {
+                while (true) {
+                    try {
+                        group.add(queue.take());
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    queue.drainTo(group, maxGroup - 1);
+                    // Callers that gave up waiting have withdrawn their operations
+                    group.removeIf(task -> !task.started.compareAndSet(false, true));
+                    try {
+                        if (!group.isEmpty()) {
+                            runGroup(group);
+                        }
+                    } catch (Throwable e) {
+                        // Never leave a caller waiting on a lane that failed outside its operations
+                        group.forEach(task -> task.result.completeExceptionally(e));
+                        log.error("Reservation lane {} failed to run a group", thread.getName(), e);
+                    }
+                    group.clear();
+                }
+            } finally {
+                stopped = true;
+                BusinessException stopping = new BusinessException("Reservation lane stopped, please retry");
+                group.forEach(task -> task.result.completeExceptionally(stopping));
+                failQueued();
+            }
+        }
+
+        private void failQueued() {
+            BusinessException stopping = new BusinessException("Reservation lane stopped, please retry");
+            Task task;
+            while ((task = queue.poll()) != null) {
+                task.result.completeExceptionally(stopping);
+            }
+        }
+    }
+}
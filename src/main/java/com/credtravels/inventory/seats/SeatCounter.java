@@ -0,0 +1,68 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Source of truth for seat counts used by reservations. The implementation is picked
+ * with {@code credtravels.inventory.reservation.mode}.
+ */
+public interface SeatCounter {
+    
+    /**
+     * Take the seats of a new reservation on a flight date, returning the id of the flight
+     * inventory that holds them. Throws SoldOutException when fewer seats remain.
+     */
+    Long hold(Long flightInfoId, LocalDate flightDate, SeatReservation reservation);
+    
+    /**
+     * Return the seats of a released or expired hold
+     */
+    void release(SeatReservation reservation);
+    
+    /**
+     * Return the seats of many expired holds at once
+     */
+    default void releaseExpired(List<SeatReservation> reservations) {
+        reservations.forEach(this::release);
+    }
+    
+    /**
+     * Set the available seats of a cabin as part of an inventory update
+     */
+    void setAvailableSeats(FlightInventory inventory, SeatClass seatClass, int seats);
+    
+    /**
+     * Keep the seats of a hold that is being confirmed
+     */
+    default void confirm(SeatReservation reservation) {
+    }
+    
+    /**
+     * Whether this counter writes its holds to seat_reservations itself, in which case
+     * a hold may not have its row yet
+     */
+    default boolean reconcilesReservations() {
+        return false;
+    }
+    
+    /**
+     * Whether this counter keeps the available seat columns of flight_inventory itself,
+     * so bulk writers must leave them alone and go through setAvailableSeats
+     */
+    default boolean ownsAvailableSeats() {
+        return false;
+    }
+    
+    /**
+     * A live hold that has not been written to seat_reservations yet
+     */
+    default Optional<SeatReservation> findPendingHold(String reservationId) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,215 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of seat ledger changes, one line per change, split into segments.
+ * A segment is sealed when the ledger takes a flush cut and deleted once the flush is
+ * persisted, so the files only ever hold changes not yet written to flight_inventory.
+ * With fsync on, a change is durable once {@link #sync} returns for it; concurrent callers
+ * share one force of the file.
+ */
+class SeatLedgerJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatLedgerJournal.class);
+
+    private static final String PREFIX = "seat-ledger-";
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final List<Path> sealed = new ArrayList<>();
+
+    // Guards forcing the file; taken before the journal's own monitor
+    private final Object syncLock = new Object();
+
+    private FileChannel channel;
+    private Path current;
+    private long appended;
+    private volatile long synced;
+
+    SeatLedgerJournal(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Read every segment left on disk and seal them for deletion once recovered
+     */
+    synchronized List<Entry> recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                    .filter(path -> path.getFileName().toString().endsWith(SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (Path segment : segments) {
+            String content = Files.readString(segment, StandardCharsets.UTF_8);
+            int end = content.lastIndexOf('\n') + 1;
+            if (end < content.length()) {
+                // A change is acknowledged only after its full line is written
+                log.warn("Skipping torn seat ledger journal line in {}: {}", segment.getFileName(), content.substring(end));
+            }
+            for (String line : content.substring(0, end).split("\n")) {
+                Entry entry = Entry.parse(line);
+                if (entry != null) {
+                    entries.add(entry);
+                } else if (!line.isBlank()) {
+                    log.warn("Skipping unreadable seat ledger journal line in {}: {}", segment.getFileName(), line);
+                }
+            }
+            sealed.add(segment);
+        }
+        return entries;
+    }
+
+    /**
+     * Start a new segment whose first change has the given sequence
+     */
+    synchronized void open(long firstSequence) throws IOException {
+        current = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        channel = FileChannel.open(current, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Write a change, returning the ticket to pass to {@link #sync} before acknowledging it
+     */
+    synchronized long append(long sequence, Long flightInventoryId, SeatClass seatClass, int delta) throws IOException {
+        String line = sequence + "," + flightInventoryId + "," + seatClass.name() + "," + delta + "\n";
+        ByteBuffer buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        return ++appended;
+    }
+
+    /**
+     * Force the journal to disk up to the change with the given ticket. A caller finding its
+     * change already forced by another returns at once, so one force covers every change
+     * written before it.
+     */
+    void sync(long ticket) throws IOException {
+        if (!fsync || synced >= ticket) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (synced >= ticket) {
+                return;
+            }
+            FileChannel target;
+            long through;
+            synchronized (this) {
+                target = channel;
+                through = appended;
+            }
+            target.force(false);
+            synced = through;
+        }
+    }
+
+    /**
+     * Seal the current segment and continue in a new one, returning every sealed segment
+     */
+    List<Path> rotate(long nextSequence) throws IOException {
+        synchronized (syncLock) {
+            synchronized (this) {
+                FileChannel previous = channel;
+                Path previousPath = current;
+                if (fsync) {
+                    // Changes not yet forced are in the sealed segment only
+                    previous.force(false);
+                    synced = appended;
+                }
+                open(nextSequence);
+                previous.close();
+                sealed.add(previousPath);
+                return new ArrayList<>(sealed);
+            }
+        }
+    }
+
+    synchronized List<Path> sealedSegments() {
+        return new ArrayList<>(sealed);
+    }
+
+    /**
+     * Remove sealed segments whose changes are persisted
+     */
+    synchronized void delete(List<Path> segments) {
+        for (Path segment : segments) {
+            try {
+                Files.deleteIfExists(segment);
+                sealed.remove(segment);
+            } catch (IOException e) {
+                log.warn("Failed to delete seat ledger journal segment {}", segment, e);
+            }
+        }
+    }
+
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    static final class Entry {
+
+        private final long sequence;
+        private final long flightInventoryId;
+        private final SeatClass seatClass;
+        private final int delta;
+
+        private Entry(long sequence, long flightInventoryId, SeatClass seatClass, int delta) {
+            this.sequence = sequence;
+            this.flightInventoryId = flightInventoryId;
+            this.seatClass = seatClass;
+            this.delta = delta;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        long getFlightInventoryId() {
+            return flightInventoryId;
+        }
+
+        SeatClass getSeatClass() {
+            return seatClass;
+        }
+
+        int getDelta() {
+            return delta;
+        }
+
+        private static Entry parse(String line) {
+            String[] parts = line.split(",");
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                return new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                        SeatClass.valueOf(parts[2]), Integer.parseInt(parts[3]));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+}
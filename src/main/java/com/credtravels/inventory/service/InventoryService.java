@@ -1,11 +1,23 @@
 package com.credtravels.inventory.service;
 
+import com.credtravels.inventory.batch.InventoryFeedReader;
+import com.credtravels.inventory.dto.FlightAvailability;
+import com.credtravels.inventory.dto.FlightDateKey;
+import com.credtravels.inventory.dto.InventoryBatchResult;
+import com.credtravels.inventory.dto.InventoryChangePage;
+import com.credtravels.inventory.dto.InventoryImportSummary;
 import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.ReservationLeg;
 import com.credtravels.inventory.dto.SeatReservationRequest;
 import com.credtravels.inventory.model.FlightInventory;
 import com.credtravels.inventory.model.SeatReservation;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,6 +28,16 @@ public interface InventoryService {
      */
     Optional<FlightInventory> getFlightInventory(Long flightId, LocalDate flightDate);
     
+    /**
+     * Flight inventory as it stood at the given time, rebuilt from its event history
+     */
+    FlightInventory getFlightInventoryAt(Long flightId, LocalDate flightDate, LocalDateTime at);
+    
+    /**
+     * ETag of the flight inventory as last read, or null when it is not known without loading it
+     */
+    String getInventoryETag(Long flightId, LocalDate flightDate);
+    
     /**
      * Update flight inventory
      */
@@ -26,11 +48,38 @@ public interface InventoryService {
      */
     FlightInventory getFlightAvailability(Long flightId, LocalDate flightDate);
     
+    /**
+     * Availability of several flight dates read in one query, in request order
+     */
+    List<FlightAvailability> getBulkAvailability(List<FlightDateKey> flights);
+    
+    /**
+     * Fare of the next seats of a cabin, priced from the flight's load factor and days to departure
+     */
+    BigDecimal quoteFare(Long flightId, LocalDate flightDate, SeatReservation.SeatClass seatClass, int seatCount);
+    
+    /**
+     * Subscribe to availability and price changes of a flight, pushed as server-sent events
+     */
+    SseEmitter subscribeAvailability(Long flightId, LocalDate flightDate);
+    
+    /**
+     * Inventories changed after the cursor of the change feed; without a cursor, an empty page
+     * whose next cursor is the current head
+     */
+    InventoryChangePage getInventoryChanges(Long cursor, int limit);
+    
     /**
      * Reserve seats for a flight
      */
     SeatReservation reserveSeats(Long flightId, LocalDate flightDate, SeatReservationRequest request);
     
+    /**
+     * Reserve seats on every leg of an itinerary in one transaction: all holds are taken,
+     * returned in leg order, or none are
+     */
+    List<SeatReservation> reserveItinerary(List<ReservationLeg> legs);
+    
     /**
      * Release seat reservation
      */
@@ -47,15 +96,30 @@ public interface InventoryService {
     List<FlightInventory> searchFlightsByDateAndRoute(LocalDate date, String departureAirport, String arrivalAirport);
     
     /**
-     * Batch update inventory
+     * Get active flight inventories for a date
      */
-    List<FlightInventory> batchUpdateInventory(List<InventoryUpdateRequest> requests);
+    List<FlightInventory> getActiveFlightsByDate(LocalDate date);
+    
+    /**
+     * Batch update inventory, reporting the outcome of every item in request order
+     */
+    List<InventoryBatchResult> batchUpdateInventory(List<InventoryUpdateRequest> requests);
+    
+    /**
+     * Stream a CSV or NDJSON inventory feed into inventory, resuming a previous upload with the same import id
+     */
+    InventoryImportSummary importInventory(String importId, InventoryFeedReader.Format format, InputStream feed) throws IOException;
     
     /**
      * Get expired reservations
      */
     List<SeatReservation> getExpiredReservations();
     
+    /**
+     * Release the given holds that are still reserved and past their time, in one transaction
+     */
+    int expireReservations(List<String> reservationIds);
+    
     /**
      * Clean up expired reservations
      */
@@ -3,31 +3,74 @@ package com.credtravels.inventory.service.impl;
 import com.credtravels.common.exception.BusinessException;
 import com.credtravels.common.exception.OptimisticLockException;
 import com.credtravels.common.exception.ResourceNotFoundException;
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.inventory.audit.InventoryAuditJournal;
+import com.credtravels.inventory.availability.AvailabilityPushHub;
+import com.credtravels.inventory.availability.InventoryVersionIndex;
+import com.credtravels.inventory.availability.RouteFlightIndex;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.batch.InventoryBatchWriter;
+import com.credtravels.inventory.batch.InventoryFeedReader;
+import com.credtravels.inventory.batch.InventoryImporter;
+import com.credtravels.inventory.dto.FlightAvailability;
+import com.credtravels.inventory.dto.FlightDateKey;
+import com.credtravels.inventory.dto.InventoryBatchResult;
+import com.credtravels.inventory.dto.InventoryChangePage;
+import com.credtravels.inventory.dto.InventoryImportSummary;
 import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.ReservationLeg;
 import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.events.InventoryChangeFeed;
+import com.credtravels.inventory.events.InventoryEventStore;
+import com.credtravels.inventory.events.InventoryState;
+import com.credtravels.inventory.expiry.ReservationExpiryWheel;
+import com.credtravels.inventory.model.CabinInventory;
 import com.credtravels.inventory.model.FlightInventory;
 import com.credtravels.inventory.model.InventoryUpdateLog;
 import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.pricing.FarePricingEngine;
 import com.credtravels.inventory.repository.FlightInventoryRepository;
-import com.credtravels.inventory.repository.InventoryUpdateLogRepository;
 import com.credtravels.inventory.repository.SeatReservationRepository;
+import com.credtravels.inventory.seats.ReservationLanes;
+import com.credtravels.inventory.seats.SeatCounter;
 import com.credtravels.inventory.service.InventoryService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Transactional
@@ -42,15 +85,115 @@ public class InventoryServiceImpl implements InventoryService {
     private SeatReservationRepository seatReservationRepository;
     
     @Autowired
-    private InventoryUpdateLogRepository inventoryUpdateLogRepository;
+    private InventoryAuditJournal auditJournal;
     
     @Autowired
-    private ObjectMapper objectMapper;
+    private InventoryEventStore inventoryEventStore;
+    
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+    
+    @Autowired
+    private RouteFlightIndex routeFlightIndex;
+    
+    @Autowired
+    private FarePricingEngine farePricingEngine;
+    
+    @Autowired
+    private AvailabilityPushHub availabilityPushHub;
+    
+    @Autowired
+    private InventoryVersionIndex inventoryVersionIndex;
+    
+    @Autowired
+    private InventoryChangeFeed inventoryChangeFeed;
+    
+    @Autowired
+    private SeatCounter seatCounter;
+    
+    @Autowired
+    private ReservationLanes reservationLanes;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private ReservationExpiryWheel expiryWheel;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private InventoryBatchWriter inventoryBatchWriter;
+    
+    @Autowired
+    private InventoryImporter inventoryImporter;
+    
+    @Value("${credtravels.inventory.reservation-timeout:900}")
+    private long reservationTimeoutSeconds;
+    
+    @Value("${credtravels.inventory.reservation.max-attempts:3}")
+    private int reservationMaxAttempts;
+    
+    @Value("${credtravels.inventory.reservation.retry-backoff-ms:20}")
+    private long reservationRetryBackoffMs;
+    
+    @Value("${credtravels.inventory.reservation.max-legs:4}")
+    private int itineraryMaxLegs;
+    
+    @Value("${credtravels.inventory.expiry.batch-size:200}")
+    private int expiryBatchSize;
+    
+    @Value("${credtravels.inventory.changes.max-page-size:1000}")
+    private int changesMaxPageSize;
+    
+    @Value("${credtravels.inventory.bulk-availability.max-flights:100}")
+    private int bulkMaxFlights;
+    
+    private DistributionSummary expiryChunkSize;
+    private Timer expiryChunkTimer;
+    private Counter expiredReservations;
+    
+    @PostConstruct
+    public void registerMetrics() {
+        expiryChunkSize = DistributionSummary.builder("credtravels.inventory.expiry.chunk.size")
+                .description("Holds expired per chunk")
+                .register(meterRegistry);
+        expiryChunkTimer = Timer.builder("credtravels.inventory.expiry.chunk.duration")
+                .description("Time to expire one chunk of holds")
+                .register(meterRegistry);
+        expiredReservations = Counter.builder("credtravels.inventory.expiry.reservations")
+                .description("Holds expired")
+                .register(meterRegistry);
+    }
     
     @Override
+    @Transactional(readOnly = true)
     public Optional<FlightInventory> getFlightInventory(Long flightId, LocalDate flightDate) {
         log.debug("Getting flight inventory for flightId: {} and date: {}", flightId, flightDate);
-        return flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightId, flightDate);
+        Optional<FlightInventory> inventory = flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightId, flightDate);
+        inventory.ifPresent(inventoryVersionIndex::record);
+        return inventory;
+    }
+    
+    @Override
+    public String getInventoryETag(Long flightId, LocalDate flightDate) {
+        return inventoryVersionIndex.etag(flightId, flightDate);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public FlightInventory getFlightInventoryAt(Long flightId, LocalDate flightDate, LocalDateTime at) {
+        log.debug("Rebuilding flight inventory for flightId: {} and date: {} at {}", flightId, flightDate, at);
+        
+        FlightInventory current = getFlightInventory(flightId, flightDate)
+                .orElseThrow(() -> new ResourceNotFoundException(
+                        "Flight inventory not found for flightId: " + flightId + " and date: " + flightDate));
+        InventoryState state = inventoryEventStore.replay(current.getId(), at);
+        if (state == null) {
+            throw new ResourceNotFoundException("No inventory history for flightId: " + flightId + " at " + at);
+        }
+        return state.toFlightInventory(current);
     }
     
     @Override
@@ -60,210 +203,469 @@ public class InventoryServiceImpl implements InventoryService {
         
         Optional<FlightInventory> existingInventory = getFlightInventory(flightId, flightDate);
         FlightInventory inventory;
+        Map<SeatReservation.SeatClass, CabinInventory> before = null;
         
         if (existingInventory.isPresent()) {
             inventory = existingInventory.get();
-            // Log the update
-            logInventoryUpdate(inventory, request, "MANUAL", request.getUpdatedBy());
+            before = InventoryAuditJournal.snapshot(inventory);
         } else {
             inventory = new FlightInventory();
             inventory.setFlightInfoId(flightId);
             inventory.setFlightDate(flightDate);
         }
         
-        try {
-            inventory.setAvailableSeats(objectMapper.writeValueAsString(request.getAvailableSeats()));
-            inventory.setPricing(objectMapper.writeValueAsString(request.getPricing()));
-            inventory.setTotalCapacity(objectMapper.writeValueAsString(request.getTotalCapacity()));
-            inventory.updateLastUpdated();
-        } catch (JsonProcessingException e) {
-            throw new BusinessException("Failed to serialize inventory data: " + e.getMessage());
-        }
+        applyCabinUpdates(inventory, request);
+        inventory.updateLastUpdated();
         
         FlightInventory savedInventory = flightInventoryRepository.save(inventory);
+        if (before != null) {
+            // Queued with the update and written to inventory_update_log by the relay
+            auditJournal.record(auditJournal.entry(before, savedInventory, 
+                    InventoryUpdateLog.UpdateType.MANUAL, request.getUpdatedBy(), request.getUpdateReason()));
+            inventoryEventStore.appendAll(InventoryEventStore.changes(before, savedInventory, true));
+        } else {
+            inventoryEventStore.appendAll(InventoryEventStore.created(savedInventory));
+        }
+        seatAvailabilityIndex.record(savedInventory);
+        farePricingEngine.record(savedInventory);
+        availabilityPushHub.changed(savedInventory.getId());
         log.info("Inventory updated successfully for flightId: {} and date: {}", flightId, flightDate);
         
         return savedInventory;
     }
     
     @Override
+    @Transactional(readOnly = true)
     public FlightInventory getFlightAvailability(Long flightId, LocalDate flightDate) {
         log.debug("Getting flight availability for flightId: {} and date: {}", flightId, flightDate);
         
-        return flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightId, flightDate)
+        FlightInventory inventory = flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightId, flightDate)
                 .orElseThrow(() -> new ResourceNotFoundException(
                         "Flight inventory not found for flightId: " + flightId + " and date: " + flightDate));
+        inventoryVersionIndex.record(inventory);
+        return inventory;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public List<FlightAvailability> getBulkAvailability(List<FlightDateKey> flights) {
+        if (flights == null || flights.isEmpty() || flights.size() > bulkMaxFlights) {
+            throw new ValidationException("Bulk availability takes between 1 and " + bulkMaxFlights + " flights");
+        }
+        Set<Long> flightInfoIds = new HashSet<>();
+        Set<LocalDate> flightDates = new HashSet<>();
+        for (FlightDateKey flight : flights) {
+            if (flight == null || flight.getFlightId() == null || flight.getFlightDate() == null) {
+                throw new ValidationException("Each flight needs a flightId and a flightDate");
+            }
+            flightInfoIds.add(flight.getFlightId());
+            flightDates.add(flight.getFlightDate());
+        }
+        log.debug("Getting bulk availability for {} flights", flights.size());
+        
+        // One query over the ids and dates asked for; rows pairing an id with another flight's date are skipped
+        Map<String, FlightInventory> rows = new HashMap<>();
+        for (FlightInventory inventory : flightInventoryRepository.findByFlightInfoIdsAndFlightDates(flightInfoIds, flightDates)) {
+            rows.put(inventory.getFlightInfoId() + "_" + inventory.getFlightDate(), inventory);
+        }
+        List<FlightAvailability> results = new ArrayList<>(flights.size());
+        for (FlightDateKey flight : flights) {
+            FlightInventory inventory = rows.get(flight.getFlightId() + "_" + flight.getFlightDate());
+            if (inventory == null) {
+                results.add(new FlightAvailability(flight.getFlightId(), flight.getFlightDate()));
+                continue;
+            }
+            Map<String, Map<String, Object>> cabins = new LinkedHashMap<>();
+            for (SeatReservation.SeatClass seatClass : SeatReservation.SeatClass.values()) {
+                CabinInventory cabin = inventory.getCabin(seatClass);
+                Map<String, Object> values = new LinkedHashMap<>();
+                values.put("availableSeats", cabin.getAvailableSeats());
+                values.put("price", cabin.priceAsDecimal());
+                cabins.put(seatClass.name().toLowerCase(), values);
+            }
+            results.add(new FlightAvailability(flight.getFlightId(), flight.getFlightDate(),
+                    inventory.getStatus() != null ? inventory.getStatus().name() : null, inventoryVersionIndex.record(inventory), cabins));
+        }
+        return results;
+    }
+    
+    @Override
+    public BigDecimal quoteFare(Long flightId, LocalDate flightDate, SeatReservation.SeatClass seatClass, int seatCount) {
+        if (seatCount < 1 || seatCount > 9) {
+            throw new ValidationException("Seat count must be between 1 and 9");
+        }
+        BigDecimal fare = farePricingEngine.quote(flightId, flightDate, seatClass, seatCount);
+        if (fare == null) {
+            throw new ResourceNotFoundException("No " + seatClass + " fare for " + seatCount + " seats on flightId: "
+                    + flightId + " and date: " + flightDate);
+        }
+        return fare;
+    }
+    
+    @Override
+    public SseEmitter subscribeAvailability(Long flightId, LocalDate flightDate) {
+        log.debug("Subscribing to availability for flightId: {} and date: {}", flightId, flightDate);
+        return availabilityPushHub.subscribe(getFlightAvailability(flightId, flightDate));
+    }
+    
+    /**
+     * Runs read-write so it reads the primary, as a lagging replica could end a page past events it has not applied yet
+     */
+    @Override
+    public InventoryChangePage getInventoryChanges(Long cursor, int limit) {
+        if (limit < 1 || limit > changesMaxPageSize) {
+            throw new ValidationException("Change feed limit must be between 1 and " + changesMaxPageSize);
+        }
+        if (cursor == null) {
+            long head = inventoryChangeFeed.head();
+            return new InventoryChangePage(head, head, false, new ArrayList<>());
+        }
+        if (cursor < 0) {
+            throw new ValidationException("Change feed cursor must not be negative");
+        }
+        return inventoryChangeFeed.changesAfter(cursor, limit);
     }
     
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SeatReservation reserveSeats(Long flightId, LocalDate flightDate, SeatReservationRequest request) {
         log.info("Reserving {} seats of class {} for flightId: {} and date: {}", 
                 request.getSeatCount(), request.getSeatClass(), flightId, flightDate);
         
-        FlightInventory inventory = getFlightAvailability(flightId, flightDate);
-        
-        // Validate seat availability
-        validateSeatAvailability(inventory, request.getSeatClass(), request.getSeatCount());
-        
-        // Create seat reservation
-        String reservationId = generateReservationId();
-        LocalDateTime reservedUntil = LocalDateTime.now().plusSeconds(900); // 15 minutes
-        
-        SeatReservation reservation = new SeatReservation(
-                inventory.getId(), reservationId, request.getSeatClass(), 
-                request.getSeatCount(), reservedUntil);
+        if (request.getSeatCount() > 9) {
+            throw new BusinessException("Maximum 9 seats can be reserved at once");
+        }
         
-        SeatReservation savedReservation = seatReservationRepository.save(reservation);
+        // Each attempt is its own short transaction so a lock conflict can be retried
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                SeatReservation reservation = reservationLanes.isEnabled()
+                        ? reservationLanes.execute(reservationLanes.inventoryIdOf(flightId, flightDate),
+                                () -> holdSeats(flightId, flightDate, request))
+                        : transaction.execute(status -> holdSeats(flightId, flightDate, request));
+                expiryWheel.schedule(reservation.getReservationId(), reservation.getReservedUntil());
+                availabilityPushHub.changed(reservation.getFlightInventoryId());
+                log.info("Seats reserved successfully with reservationId: {}", reservation.getReservationId());
+                return reservation;
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= reservationMaxAttempts) {
+                    throw new OptimisticLockException("Seat reservation conflicted with concurrent updates, please retry", e);
+                }
+                log.debug("Seat hold attempt {} for flightId: {} conflicted, retrying", attempt, flightId);
+                backoff(attempt);
+            }
+        }
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<SeatReservation> reserveItinerary(List<ReservationLeg> legs) {
+        validateItinerary(legs);
+        log.info("Reserving seats on {} itinerary legs", legs.size());
         
-        // Update inventory
-        updateInventoryForReservation(inventory, request.getSeatClass(), request.getSeatCount());
+        // Legs are held in one fixed order, so itineraries sharing flights lock their rows alike and cannot deadlock
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < legs.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing((Integer i) -> legs.get(i).getFlightId())
+                .thenComparing(i -> legs.get(i).getFlightDate())
+                .thenComparing(i -> legs.get(i).getSeatClass()));
         
-        log.info("Seats reserved successfully with reservationId: {}", reservationId);
-        return savedReservation;
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int attempt = 1; ; attempt++) {
+            List<SeatReservation> held = new ArrayList<>();
+            try {
+                SeatReservation[] reservations = transaction.execute(status -> {
+                    LocalDateTime reservedUntil = LocalDateTime.now().plusSeconds(reservationTimeoutSeconds);
+                    SeatReservation[] inLegOrder = new SeatReservation[legs.size()];
+                    for (Integer index : order) {
+                        ReservationLeg leg = legs.get(index);
+                        inLegOrder[index] = holdSeats(leg.getFlightId(), leg.getFlightDate(), leg.getSeatClass(),
+                                leg.getSeatCount(), reservedUntil);
+                        held.add(inLegOrder[index]);
+                    }
+                    return inLegOrder;
+                });
+                for (SeatReservation reservation : reservations) {
+                    expiryWheel.schedule(reservation.getReservationId(), reservation.getReservedUntil());
+                    availabilityPushHub.changed(reservation.getFlightInventoryId());
+                }
+                log.info("Itinerary seats reserved on {} legs", reservations.length);
+                return List.of(reservations);
+            } catch (RuntimeException e) {
+                // Rolling back undoes holds kept in the database; holds kept elsewhere are returned here
+                if (seatCounter.reconcilesReservations()) {
+                    held.forEach(seatCounter::release);
+                }
+                if (!(e instanceof ConcurrencyFailureException)) {
+                    throw e;
+                }
+                if (attempt >= reservationMaxAttempts) {
+                    throw new OptimisticLockException("Itinerary reservation conflicted with concurrent updates, please retry", e);
+                }
+                log.debug("Itinerary hold attempt {} conflicted, retrying", attempt);
+                backoff(attempt);
+            }
+        }
     }
     
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void releaseSeatReservation(String reservationId) {
         log.info("Releasing seat reservation: {}", reservationId);
         
-        SeatReservation reservation = seatReservationRepository.findByReservationId(reservationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId));
-        
-        if (reservation.getStatus() == SeatReservation.ReservationStatus.CONFIRMED) {
-            throw new BusinessException("Cannot release confirmed reservation: " + reservationId);
+        if (reservationLanes.isEnabled()) {
+            reservationLanes.execute(laneOf(reservationId), () -> release(reservationId));
+        } else {
+            new TransactionTemplate(transactionManager).execute(status -> release(reservationId));
         }
         
-        // Update inventory back
-        FlightInventory inventory = flightInventoryRepository.findById(reservation.getFlightInventoryId())
-                .orElseThrow(() -> new ResourceNotFoundException("Flight inventory not found"));
-        
-        updateInventoryForRelease(inventory, reservation.getSeatClass(), reservation.getSeatCount());
-        
-        // Delete reservation
-        seatReservationRepository.delete(reservation);
-        
         log.info("Seat reservation released successfully: {}", reservationId);
     }
     
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public SeatReservation confirmSeatReservation(String reservationId) {
         log.info("Confirming seat reservation: {}", reservationId);
         
-        SeatReservation reservation = seatReservationRepository.findByReservationId(reservationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId));
-        
-        if (!reservation.canBeConfirmed()) {
-            throw new BusinessException("Reservation cannot be confirmed: " + reservationId);
-        }
-        
-        reservation.setStatus(SeatReservation.ReservationStatus.CONFIRMED);
-        SeatReservation confirmedReservation = seatReservationRepository.save(reservation);
+        SeatReservation confirmedReservation = reservationLanes.isEnabled()
+                ? reservationLanes.execute(laneOf(reservationId), () -> confirm(reservationId))
+                : new TransactionTemplate(transactionManager).execute(status -> confirm(reservationId));
         
         log.info("Seat reservation confirmed successfully: {}", reservationId);
         return confirmedReservation;
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<FlightInventory> searchFlightsByDateAndRoute(LocalDate date, String departureAirport, String arrivalAirport) {
         log.debug("Searching flights by date: {} from: {} to: {}", date, departureAirport, arrivalAirport);
         
-        // This would typically involve joining with flight_info table
-        // For now, returning all flights for the given date
-        return flightInventoryRepository.findByFlightDate(date);
+        // flight_info is in another database, so the route's flights come from the in-memory index
+        List<Long> flightInfoIds = routeFlightIndex.flightIds(departureAirport, arrivalAirport);
+        if (flightInfoIds.isEmpty()) {
+            return List.of();
+        }
+        return flightInventoryRepository.findByFlightDateAndFlightInfoIds(date, flightInfoIds);
     }
     
     @Override
-    @Transactional
-    public List<FlightInventory> batchUpdateInventory(List<InventoryUpdateRequest> requests) {
+    @Transactional(readOnly = true)
+    public List<FlightInventory> getActiveFlightsByDate(LocalDate date) {
+        log.debug("Getting active flights for date: {}", date);
+        return flightInventoryRepository.findActiveFlightsByDate(date);
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<InventoryBatchResult> batchUpdateInventory(List<InventoryUpdateRequest> requests) {
         log.info("Performing batch update for {} inventory items", requests.size());
         
-        List<FlightInventory> updatedInventories = requests.stream()
-                .map(request -> updateInventory(
-                        request.getFlightInfoId(), 
-                        request.getFlightDate(), 
-                        request))
-                .toList();
+        // Written in short per-chunk transactions so one bad item does not undo the rest
+        List<InventoryBatchResult> results = inventoryBatchWriter.write(requests);
+        availabilityPushHub.changed(results.stream()
+                .filter(result -> result.getStatus() != InventoryBatchResult.Status.FAILED)
+                .map(InventoryBatchResult::getFlightInventoryId)
+                .distinct()
+                .toList());
         
-        log.info("Batch update completed successfully for {} items", updatedInventories.size());
-        return updatedInventories;
+        long failed = results.stream().filter(result -> result.getStatus() == InventoryBatchResult.Status.FAILED).count();
+        log.info("Batch update completed for {} items, {} failed", results.size(), failed);
+        return results;
+    }
+    
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public InventoryImportSummary importInventory(String importId, InventoryFeedReader.Format format, InputStream feed) throws IOException {
+        if (importId == null || importId.isBlank()) {
+            importId = UUID.randomUUID().toString();
+        } else if (importId.length() > 100) {
+            throw new ValidationException("Import ID must be at most 100 characters");
+        }
+        return inventoryImporter.importFeed(importId, format, feed);
     }
     
     @Override
+    @Transactional(readOnly = true)
     public List<SeatReservation> getExpiredReservations() {
         log.debug("Getting expired reservations");
         return seatReservationRepository.findExpiredReservations(LocalDateTime.now());
     }
     
     @Override
-    @Scheduled(fixedRate = 300000) // Every 5 minutes
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int expireReservations(List<String> reservationIds) {
+        long startedAt = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        Integer expired = new TransactionTemplate(transactionManager).execute(status -> {
+            // Locked so a concurrent release or confirm of the same holds waits for this chunk
+            List<SeatReservation> due = seatReservationRepository.lockExpiredReservations(reservationIds, now);
+            if (due.isEmpty()) {
+                return 0;
+            }
+            seatCounter.releaseExpired(due);
+            availabilityPushHub.changed(due.stream().map(SeatReservation::getFlightInventoryId).distinct().toList());
+            return seatReservationRepository.markExpired(due.stream().map(SeatReservation::getId).toList());
+        });
+        expiryChunkSize.record(expired);
+        expiryChunkTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        expiredReservations.increment(expired);
+        log.debug("Expired {} of {} due reservations", expired, reservationIds.size());
+        return expired;
+    }
+    
+    /**
+     * Backstop for holds the expiry wheel of this node does not know, such as those taken
+     * by another node that has since stopped
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Scheduled(fixedDelayString = "${credtravels.inventory.expiry.sweep-interval-ms:1800000}")
     public void cleanupExpiredReservations() {
         log.info("Starting cleanup of expired reservations");
         
-        List<SeatReservation> expiredReservations = getExpiredReservations();
+        List<String> expiredIds = seatReservationRepository.findExpiredReservationIds(LocalDateTime.now());
         
-        for (SeatReservation reservation : expiredReservations) {
+        int released = 0;
+        for (int from = 0; from < expiredIds.size(); from += expiryBatchSize) {
+            List<String> batch = expiredIds.subList(from, Math.min(expiredIds.size(), from + expiryBatchSize));
             try {
-                releaseSeatReservation(reservation.getReservationId());
+                released += expireReservations(batch);
             } catch (Exception e) {
-                log.error("Failed to cleanup expired reservation: {}", reservation.getReservationId(), e);
+                log.error("Failed to cleanup {} expired reservations", batch.size(), e);
             }
         }
         
-        log.info("Cleanup completed. Processed {} expired reservations", expiredReservations.size());
+        log.info("Cleanup completed. Released {} of {} expired reservations", released, expiredIds.size());
     }
     
     // Private helper methods
     
-    private void validateSeatAvailability(FlightInventory inventory, SeatReservation.SeatClass seatClass, Integer seatCount) {
-        try {
-            String availableSeatsJson = inventory.getAvailableSeats();
-            // Parse JSON and check availability
-            // This is a simplified validation
-            if (seatCount > 9) {
-                throw new BusinessException("Maximum 9 seats can be reserved at once");
+    /**
+     * Take the seats from the seat counter, then record the reservation against the held inventory
+     */
+    private SeatReservation holdSeats(Long flightId, LocalDate flightDate, SeatReservationRequest request) {
+        return holdSeats(flightId, flightDate, request.getSeatClass(), request.getSeatCount(),
+                LocalDateTime.now().plusSeconds(reservationTimeoutSeconds));
+    }
+    
+    private SeatReservation holdSeats(Long flightId, LocalDate flightDate, SeatReservation.SeatClass seatClass,
+                                      int seatCount, LocalDateTime reservedUntil) {
+        SeatReservation reservation = new SeatReservation(null, generateReservationId(), seatClass, seatCount, reservedUntil);
+        reservation.setFlightInventoryId(seatCounter.hold(flightId, flightDate, reservation));
+        return seatCounter.reconcilesReservations() ? reservation : seatReservationRepository.save(reservation);
+    }
+    
+    private Void release(String reservationId) {
+        SeatReservation reservation = findReservation(reservationId);
+        
+        if (reservation.getStatus() == SeatReservation.ReservationStatus.CONFIRMED) {
+            throw new BusinessException("Cannot release confirmed reservation: " + reservationId);
+        }
+        
+        // Return the seats, never beyond capacity; expiry has already returned them for expired holds
+        if (reservation.getStatus() == SeatReservation.ReservationStatus.RESERVED) {
+            seatCounter.release(reservation);
+            availabilityPushHub.changed(reservation.getFlightInventoryId());
+        }
+        
+        // Delete reservation; a pending hold has no row yet and is dropped by reconciliation
+        if (reservation.getId() != null) {
+            seatReservationRepository.delete(reservation);
+        }
+        expiryWheel.cancel(reservationId);
+        return null;
+    }
+    
+    private SeatReservation confirm(String reservationId) {
+        SeatReservation reservation = findReservation(reservationId);
+        
+        if (!reservation.canBeConfirmed()) {
+            throw new BusinessException("Reservation cannot be confirmed: " + reservationId);
+        }
+        
+        seatCounter.confirm(reservation);
+        reservation.setStatus(SeatReservation.ReservationStatus.CONFIRMED);
+        SeatReservation confirmedReservation = seatReservationRepository.save(reservation);
+        expiryWheel.cancel(reservationId);
+        return confirmedReservation;
+    }
+    
+    /**
+     * Flight inventory of a reservation, read without locking to pick the lane that changes it.
+     * Read in a read-write transaction so it comes from the primary, where a reservation just
+     * made is already visible.
+     */
+    private Long laneOf(String reservationId) {
+        return new TransactionTemplate(transactionManager).execute(status -> seatReservationRepository
+                .findByReservationId(reservationId)
+                .or(() -> seatCounter.findPendingHold(reservationId))
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId))
+                .getFlightInventoryId());
+    }
+    
+    private void validateItinerary(List<ReservationLeg> legs) {
+        if (legs == null || legs.isEmpty() || legs.size() > itineraryMaxLegs) {
+            throw new ValidationException("An itinerary reservation takes between 1 and " + itineraryMaxLegs + " legs");
+        }
+        Set<String> seen = new HashSet<>();
+        for (ReservationLeg leg : legs) {
+            if (leg == null || leg.getFlightId() == null || leg.getFlightDate() == null || leg.getSeatClass() == null
+                    || leg.getSeatCount() == null) {
+                throw new ValidationException("Each leg needs a flightId, flightDate, seatClass and seatCount");
+            }
+            if (leg.getSeatCount() < 1 || leg.getSeatCount() > 9) {
+                throw new BusinessException("Between 1 and 9 seats can be reserved per leg");
+            }
+            if (!seen.add(leg.getFlightId() + "_" + leg.getFlightDate() + "_" + leg.getSeatClass())) {
+                throw new ValidationException("Duplicate leg for flightId: " + leg.getFlightId() + " on " + leg.getFlightDate()
+                        + " in " + leg.getSeatClass());
             }
-        } catch (Exception e) {
-            throw new BusinessException("Failed to validate seat availability: " + e.getMessage());
         }
     }
     
-    private void updateInventoryForReservation(FlightInventory inventory, SeatReservation.SeatClass seatClass, Integer seatCount) {
-        // Update available seats in inventory
-        // This is a simplified implementation
-        inventory.updateLastUpdated();
-        flightInventoryRepository.save(inventory);
+    private SeatReservation findReservation(String reservationId) {
+        return seatReservationRepository.findByReservationIdForUpdate(reservationId)
+                .or(() -> seatCounter.findPendingHold(reservationId))
+                .orElseThrow(() -> new ResourceNotFoundException("Reservation not found: " + reservationId));
     }
     
-    private void updateInventoryForRelease(FlightInventory inventory, SeatReservation.SeatClass seatClass, Integer seatCount) {
-        // Update available seats back in inventory
-        // This is a simplified implementation
-        inventory.updateLastUpdated();
-        flightInventoryRepository.save(inventory);
+    private void backoff(int attempt) {
+        long ceiling = reservationRetryBackoffMs << (attempt - 1);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OptimisticLockException("Interrupted while retrying seat reservation", e);
+        }
     }
     
-    private String generateReservationId() {
-        return "RES" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    private void applyCabinUpdates(FlightInventory inventory, InventoryUpdateRequest request) {
+        if (request.getAvailableSeats() != null) {
+            request.getAvailableSeats().forEach((cabin, seats) ->
+                    seatCounter.setAvailableSeats(inventory, seatClassOf(cabin), seats));
+        }
+        if (request.getTotalCapacity() != null) {
+            request.getTotalCapacity().forEach((cabin, capacity) ->
+                    inventory.getCabin(seatClassOf(cabin)).setTotalCapacity(capacity));
+        }
+        if (request.getPricing() != null) {
+            request.getPricing().forEach((cabin, price) ->
+                    inventory.getCabin(seatClassOf(cabin)).setPriceMinor(CabinInventory.toMinorUnits(price)));
+        }
     }
     
-    private void logInventoryUpdate(FlightInventory inventory, InventoryUpdateRequest request, String updateType, String updatedBy) {
+    private SeatReservation.SeatClass seatClassOf(String cabin) {
         try {
-            String oldValues = objectMapper.writeValueAsString(inventory);
-            String newValues = objectMapper.writeValueAsString(request);
-            
-            InventoryUpdateLog log = new InventoryUpdateLog(
-                    inventory.getId(), 
-                    InventoryUpdateLog.UpdateType.valueOf(updateType),
-                    oldValues, 
-                    newValues, 
-                    updatedBy, 
-                    request.getUpdateReason());
-            
-            inventoryUpdateLogRepository.save(log);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to log inventory update", e);
+            return SeatReservation.SeatClass.valueOf(cabin.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Unknown seat class: " + cabin);
         }
     }
+    
+    private String generateReservationId() {
+        return "RES" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+    }
 }
@@ -1,6 +1,7 @@
 package com.credtravels.search.controller;
 
 import com.credtravels.common.dto.ApiResponse;
+import com.credtravels.search.dto.ExploreDestinationsResponse;
 import com.credtravels.search.dto.FlightSearchRequest;
 import com.credtravels.search.dto.FlightSearchResponse;
 import com.credtravels.search.dto.MultiCitySearchRequest;
@@ -12,6 +13,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -31,7 +33,8 @@ public class SearchController {
             @RequestParam String to,
             @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate date,
             @RequestParam(defaultValue = "1") Integer maxHops,
-            @RequestParam(defaultValue = "50") Integer limit) {
+            @RequestParam(defaultValue = "50") Integer limit,
+            @RequestParam(defaultValue = "false") Boolean explain) {
         
         FlightSearchRequest request = new FlightSearchRequest();
         request.setFrom(from);
@@ -39,11 +42,23 @@ public class SearchController {
         request.setDate(date);
         request.setMaxHops(maxHops);
         request.setLimit(limit);
+        request.setExplain(explain);
         
         FlightSearchResponse response = searchService.searchFlights(request);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    /**
+     * Next page of search results using the continuation token of the previous page
+     */
+    @GetMapping("/flights/page")
+    public ResponseEntity<ApiResponse<FlightSearchResponse>> getSearchPage(
+            @RequestParam String pageToken) {
+        
+        FlightSearchResponse response = searchService.getSearchPage(pageToken);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     /**
      * Search direct flights only
      */
@@ -57,6 +72,23 @@ public class SearchController {
         return ResponseEntity.ok(ApiResponse.success(directFlights));
     }
     
+    /**
+     * Explore cheapest destinations from an origin under a budget
+     */
+    @GetMapping("/explore")
+    public ResponseEntity<ApiResponse<ExploreDestinationsResponse>> exploreDestinations(
+            @RequestParam String from,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate fromDate,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate toDate,
+            @RequestParam(required = false) BigDecimal budget,
+            @RequestParam(required = false) String seatClass,
+            @RequestParam(defaultValue = "2") Integer maxHops) {
+        
+        ExploreDestinationsResponse response = searchService.exploreDestinations(
+                from, fromDate, toDate, budget, seatClass, maxHops);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     /**
      * Search airports by query
      */
@@ -0,0 +1,60 @@
+package com.credtravels.search.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+public class DestinationFare {
+    
+    private String destination;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate travelDate;
+    
+    private BigDecimal price;
+    private FlightItinerary itinerary;
+    
+    // Constructors
+    public DestinationFare() {}
+    
+    public DestinationFare(String destination, LocalDate travelDate, BigDecimal price, FlightItinerary itinerary) {
+        this.destination = destination;
+        this.travelDate = travelDate;
+        this.price = price;
+        this.itinerary = itinerary;
+    }
+    
+    // Getters and Setters
+    public String getDestination() {
+        return destination;
+    }
+    
+    public void setDestination(String destination) {
+        this.destination = destination;
+    }
+    
+    public LocalDate getTravelDate() {
+        return travelDate;
+    }
+    
+    public void setTravelDate(LocalDate travelDate) {
+        this.travelDate = travelDate;
+    }
+    
+    public BigDecimal getPrice() {
+        return price;
+    }
+    
+    public void setPrice(BigDecimal price) {
+        this.price = price;
+    }
+    
+    public FlightItinerary getItinerary() {
+        return itinerary;
+    }
+    
+    public void setItinerary(FlightItinerary itinerary) {
+        this.itinerary = itinerary;
+    }
+}
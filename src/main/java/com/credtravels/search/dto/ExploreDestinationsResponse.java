@@ -0,0 +1,93 @@
+package com.credtravels.search.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class ExploreDestinationsResponse {
+    
+    private String origin;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate fromDate;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate toDate;
+    
+    private BigDecimal budget;
+    private List<DestinationFare> destinations;
+    private Integer totalResults;
+    private Long searchTimeMs;
+    
+    // Constructors
+    public ExploreDestinationsResponse() {}
+    
+    public ExploreDestinationsResponse(String origin, LocalDate fromDate, LocalDate toDate, BigDecimal budget,
+                                       List<DestinationFare> destinations) {
+        this.origin = origin;
+        this.fromDate = fromDate;
+        this.toDate = toDate;
+        this.budget = budget;
+        this.destinations = destinations;
+        this.totalResults = destinations != null ? destinations.size() : 0;
+    }
+    
+    // Getters and Setters
+    public String getOrigin() {
+        return origin;
+    }
+    
+    public void setOrigin(String origin) {
+        this.origin = origin;
+    }
+    
+    public LocalDate getFromDate() {
+        return fromDate;
+    }
+    
+    public void setFromDate(LocalDate fromDate) {
+        this.fromDate = fromDate;
+    }
+    
+    public LocalDate getToDate() {
+        return toDate;
+    }
+    
+    public void setToDate(LocalDate toDate) {
+        this.toDate = toDate;
+    }
+    
+    public BigDecimal getBudget() {
+        return budget;
+    }
+    
+    public void setBudget(BigDecimal budget) {
+        this.budget = budget;
+    }
+    
+    public List<DestinationFare> getDestinations() {
+        return destinations;
+    }
+    
+    public void setDestinations(List<DestinationFare> destinations) {
+        this.destinations = destinations;
+    }
+    
+    public Integer getTotalResults() {
+        return totalResults;
+    }
+    
+    public void setTotalResults(Integer totalResults) {
+        this.totalResults = totalResults;
+    }
+    
+    public Long getSearchTimeMs() {
+        return searchTimeMs;
+    }
+    
+    public void setSearchTimeMs(Long searchTimeMs) {
+        this.searchTimeMs = searchTimeMs;
+    }
+}
@@ -0,0 +1,86 @@
+package com.credtravels.search.dto;
+
+import com.credtravels.search.model.SearchFlight;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class FlightItinerary {
+    
+    private List<SearchFlight> legs;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime departureDateTime;
+    
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime arrivalDateTime;
+    
+    private Integer totalDurationMinutes;
+    private Integer stops;
+    private BigDecimal totalPrice;
+    
+    // Constructors
+    public FlightItinerary() {}
+    
+    public FlightItinerary(List<SearchFlight> legs, LocalDateTime departureDateTime, LocalDateTime arrivalDateTime,
+                           BigDecimal totalPrice) {
+        this.legs = legs;
+        this.departureDateTime = departureDateTime;
+        this.arrivalDateTime = arrivalDateTime;
+        this.totalDurationMinutes = (int) Duration.between(departureDateTime, arrivalDateTime).toMinutes();
+        this.stops = legs.size() - 1;
+        this.totalPrice = totalPrice;
+    }
+    
+    // Getters and Setters
+    public List<SearchFlight> getLegs() {
+        return legs;
+    }
+    
+    public void setLegs(List<SearchFlight> legs) {
+        this.legs = legs;
+    }
+    
+    public LocalDateTime getDepartureDateTime() {
+        return departureDateTime;
+    }
+    
+    public void setDepartureDateTime(LocalDateTime departureDateTime) {
+        this.departureDateTime = departureDateTime;
+    }
+    
+    public LocalDateTime getArrivalDateTime() {
+        return arrivalDateTime;
+    }
+    
+    public void setArrivalDateTime(LocalDateTime arrivalDateTime) {
+        this.arrivalDateTime = arrivalDateTime;
+    }
+    
+    public Integer getTotalDurationMinutes() {
+        return totalDurationMinutes;
+    }
+    
+    public void setTotalDurationMinutes(Integer totalDurationMinutes) {
+        this.totalDurationMinutes = totalDurationMinutes;
+    }
+    
+    public Integer getStops() {
+        return stops;
+    }
+    
+    public void setStops(Integer stops) {
+        this.stops = stops;
+    }
+    
+    public BigDecimal getTotalPrice() {
+        return totalPrice;
+    }
+    
+    public void setTotalPrice(BigDecimal totalPrice) {
+        this.totalPrice = totalPrice;
+    }
+}
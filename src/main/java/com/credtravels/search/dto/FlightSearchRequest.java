@@ -30,6 +30,7 @@ public class FlightSearchRequest {
     
     private String seatClass;
     private Integer passengers = 1;
+    private Boolean explain = false;
     
     // Constructors
     public FlightSearchRequest() {}
@@ -96,4 +97,12 @@ public class FlightSearchRequest {
     public void setPassengers(Integer passengers) {
         this.passengers = passengers;
     }
+    
+    public Boolean getExplain() {
+        return explain;
+    }
+    
+    public void setExplain(Boolean explain) {
+        this.explain = explain;
+    }
 }
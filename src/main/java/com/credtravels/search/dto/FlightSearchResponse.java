@@ -1,21 +1,28 @@
 package com.credtravels.search.dto;
 
 import com.credtravels.search.model.SearchFlight;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.util.List;
 
 public class FlightSearchResponse {
     
     private List<SearchFlight> directFlights;
-    private List<SearchFlight> multiHopFlights;
+    private List<FlightItinerary> multiHopFlights;
     private Integer totalResults;
     private Long searchTimeMs;
     private String searchQuery;
     
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String nextPageToken;
+    
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private SearchExplain explain;
+    
     // Constructors
     public FlightSearchResponse() {}
     
-    public FlightSearchResponse(List<SearchFlight> directFlights, List<SearchFlight> multiHopFlights) {
+    public FlightSearchResponse(List<SearchFlight> directFlights, List<FlightItinerary> multiHopFlights) {
         this.directFlights = directFlights;
         this.multiHopFlights = multiHopFlights;
         this.totalResults = (directFlights != null ? directFlights.size() : 0) + 
@@ -31,11 +38,11 @@ public class FlightSearchResponse {
         this.directFlights = directFlights;
     }
     
-    public List<SearchFlight> getMultiHopFlights() {
+    public List<FlightItinerary> getMultiHopFlights() {
         return multiHopFlights;
     }
     
-    public void setMultiHopFlights(List<SearchFlight> multiHopFlights) {
+    public void setMultiHopFlights(List<FlightItinerary> multiHopFlights) {
         this.multiHopFlights = multiHopFlights;
     }
     
@@ -62,4 +69,20 @@ public class FlightSearchResponse {
     public void setSearchQuery(String searchQuery) {
         this.searchQuery = searchQuery;
     }
+    
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+    
+    public void setNextPageToken(String nextPageToken) {
+        this.nextPageToken = nextPageToken;
+    }
+    
+    public SearchExplain getExplain() {
+        return explain;
+    }
+    
+    public void setExplain(SearchExplain explain) {
+        this.explain = explain;
+    }
 }
@@ -0,0 +1,65 @@
+package com.credtravels.search.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SearchExplain {
+    
+    private String strategy;
+    private Map<String, Double> estimatedCosts = new LinkedHashMap<>();
+    private Map<String, Long> stageTimingsMicros = new LinkedHashMap<>();
+    private Long exploredStates;
+    private Integer transferHubs;
+    
+    // Constructors
+    public SearchExplain() {}
+    
+    // Business methods
+    public void recordStage(String stage, long startNanos) {
+        stageTimingsMicros.put(stage, (System.nanoTime() - startNanos) / 1000);
+    }
+    
+    // Getters and Setters
+    public String getStrategy() {
+        return strategy;
+    }
+    
+    public void setStrategy(String strategy) {
+        this.strategy = strategy;
+    }
+    
+    public Map<String, Double> getEstimatedCosts() {
+        return estimatedCosts;
+    }
+    
+    public void setEstimatedCosts(Map<String, Double> estimatedCosts) {
+        this.estimatedCosts = estimatedCosts;
+    }
+    
+    public Map<String, Long> getStageTimingsMicros() {
+        return stageTimingsMicros;
+    }
+    
+    public void setStageTimingsMicros(Map<String, Long> stageTimingsMicros) {
+        this.stageTimingsMicros = stageTimingsMicros;
+    }
+    
+    public Long getExploredStates() {
+        return exploredStates;
+    }
+    
+    public void setExploredStates(Long exploredStates) {
+        this.exploredStates = exploredStates;
+    }
+    
+    public Integer getTransferHubs() {
+        return transferHubs;
+    }
+    
+    public void setTransferHubs(Integer transferHubs) {
+        this.transferHubs = transferHubs;
+    }
+}
@@ -0,0 +1,87 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.search.model.SearchFlight;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Airport coordinates and route distances used for great-circle lower bounds.
+ * Unknown airports yield NaN distances so callers can skip pruning for them.
+ */
+@Component
+public class AirportGeoIndex {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+    private static final double DEFAULT_SPEED_BOUND_KMH = 1000.0;
+
+    private volatile Map<String, double[]> coordinates = Map.of();
+    private volatile Map<String, Integer> routeDistances = Map.of();
+    private volatile double speedBoundKmh = DEFAULT_SPEED_BOUND_KMH;
+
+    /**
+     * Replace the coordinates (latitude, longitude in degrees) and route distances keyed by "FROM-TO"
+     */
+    public synchronized void load(Map<String, double[]> coordinates, Map<String, Integer> routeDistances) {
+        this.coordinates = new HashMap<>(coordinates);
+        this.routeDistances = new HashMap<>(routeDistances);
+        this.speedBoundKmh = DEFAULT_SPEED_BOUND_KMH;
+    }
+
+    /**
+     * Raise the speed bound to the fastest great-circle speed among the flights so that
+     * remaining-time lower bounds stay admissible even for unusually short scheduled durations
+     */
+    public synchronized void raiseSpeedBound(Collection<SearchFlight> flights) {
+        double fastest = speedBoundKmh;
+        for (SearchFlight flight : flights) {
+            double km = greatCircleKm(flight.getDepartureAirportCode(), flight.getArrivalAirportCode());
+            int minutes = FlightTimetable.durationMinutes(flight);
+            if (!Double.isNaN(km) && minutes > 0) {
+                fastest = Math.max(fastest, km / minutes * 60);
+            }
+        }
+        this.speedBoundKmh = fastest;
+    }
+
+    public boolean isEmpty() {
+        return coordinates.isEmpty();
+    }
+
+    public double getSpeedBoundKmh() {
+        return speedBoundKmh;
+    }
+
+    /**
+     * Great-circle distance between two airports, NaN when either is unknown
+     */
+    public double greatCircleKm(String from, String to) {
+        double[] a = coordinates.get(from);
+        double[] b = coordinates.get(to);
+        if (a == null || b == null) {
+            return Double.NaN;
+        }
+        double lat1 = Math.toRadians(a[0]);
+        double lat2 = Math.toRadians(b[0]);
+        double dLat = lat2 - lat1;
+        double dLon = Math.toRadians(b[1] - a[1]);
+        double h = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1.0, Math.sqrt(h)));
+    }
+
+    /**
+     * Flown distance of a leg: the route distance, never shorter than the great-circle distance
+     */
+    public double legDistanceKm(SearchFlight flight) {
+        double greatCircle = greatCircleKm(flight.getDepartureAirportCode(), flight.getArrivalAirportCode());
+        Integer routeDistance = routeDistances.get(
+                FlightTimetable.routeKey(flight.getDepartureAirportCode(), flight.getArrivalAirportCode()));
+        if (routeDistance == null) {
+            return greatCircle;
+        }
+        return Double.isNaN(greatCircle) ? routeDistance : Math.max(routeDistance, greatCircle);
+    }
+}
@@ -0,0 +1,338 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.inventory.availability.AvailabilityFilter;
+import com.credtravels.search.dto.FlightItinerary;
+import com.credtravels.search.model.SearchFlight;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Explores itineraries over the in-memory timetable. Times are kept as absolute
+ * minutes from midnight of the search date so connections may roll over days.
+ * An explorer is created per query and is not thread-safe.
+ *
+ * <p>When geographic bounds are configured, connections whose flown distance exceeds
+ * {@code maxDetourRatio} times the origin-destination great-circle distance are not
+ * results. With pruning enabled, partial itineraries are discarded as soon as an
+ * admissible lower bound proves they cannot become a result or cannot beat the
+ * current top {@code resultLimit} durations, and candidates are expanded in order
+ * of their lower bound so good itineraries tighten the bound early.
+ *
+ * <p>With an availability filter, legs known to be sold out for the requested cabin and
+ * party size are skipped while exploring, so they never seed further connections.
+ */
+public class ConnectionExplorer {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+    private static final double DISTANCE_EPSILON_KM = 1e-6;
+
+    public static final Comparator<FlightItinerary> ITINERARY_ORDER = Comparator
+            .comparing(FlightItinerary::getTotalDurationMinutes)
+            .thenComparing(FlightItinerary::getTotalPrice)
+            .thenComparing(FlightItinerary::getDepartureDateTime)
+            .thenComparing(itinerary -> flightNumbers(itinerary.getLegs()));
+
+    private final FlightTimetable timetable;
+    private final int minConnectionMinutes;
+    private final int maxLayoverMinutes;
+
+    private AirportGeoIndex geo;
+    private double maxDetourRatio = Double.POSITIVE_INFINITY;
+    private boolean pruning;
+    private int resultLimit = Integer.MAX_VALUE;
+    private AvailabilityFilter availability;
+
+    private LocalDate date;
+    private String destination;
+    private int maxHops;
+    private double detourBudgetKm;
+    private List<FlightItinerary> results;
+    private PriorityQueue<Integer> bestDurations;
+    private long exploredStates;
+
+    private final SearchFlight[] legs = new SearchFlight[3];
+    private final int[] departures = new int[3];
+    private final int[] arrivals = new int[3];
+    private final double[] flownKm = new double[3];
+
+    public ConnectionExplorer(FlightTimetable timetable, int minConnectionMinutes, int maxLayoverMinutes) {
+        this.timetable = timetable;
+        this.minConnectionMinutes = minConnectionMinutes;
+        this.maxLayoverMinutes = maxLayoverMinutes;
+    }
+
+    /**
+     * Restrict connections to a geographic detour ratio and optionally prune with lower bounds
+     */
+    public ConnectionExplorer withGeoBounds(AirportGeoIndex geo, double maxDetourRatio, boolean pruning) {
+        this.geo = geo;
+        this.maxDetourRatio = maxDetourRatio;
+        this.pruning = pruning;
+        return this;
+    }
+
+    /**
+     * Only the best resultLimit connections by duration are needed by the caller
+     */
+    public ConnectionExplorer withResultLimit(int resultLimit) {
+        this.resultLimit = resultLimit;
+        return this;
+    }
+
+    /**
+     * Skip legs the availability filter reports as sold out
+     */
+    public ConnectionExplorer withAvailability(AvailabilityFilter availability) {
+        this.availability = availability;
+        return this;
+    }
+
+    /**
+     * Direct flights operating on the date
+     */
+    public List<FlightItinerary> findDirect(String from, String to, LocalDate date) {
+        reset(from, to, date, 1);
+        for (SearchFlight flight : timetable.getFlights(from, to)) {
+            if (isBookable(flight, date)) {
+                push(0, flight, minuteOfDay(flight));
+                collect(1);
+            }
+        }
+        results.sort(ITINERARY_ORDER);
+        return results;
+    }
+
+    /**
+     * Connecting itineraries of two up to maxHops legs found by exploring the whole graph
+     */
+    public List<FlightItinerary> findConnections(String from, String to, LocalDate date, int maxHops) {
+        reset(from, to, date, Math.min(maxHops, legs.length));
+        if (this.maxHops < 2) {
+            return results;
+        }
+        List<Candidate> firstLegs = new ArrayList<>();
+        for (SearchFlight flight : timetable.getDepartures(from)) {
+            if (!flight.getArrivalAirportCode().equals(to) && isBookable(flight, date)) {
+                firstLegs.add(new Candidate(flight, minuteOfDay(flight)));
+            }
+        }
+        exploreFirstLegs(firstLegs);
+        return finish();
+    }
+
+    /**
+     * One-stop itineraries restricted to the precomputed transfer hubs
+     */
+    public List<FlightItinerary> findViaHubs(String from, String to, LocalDate date, List<String> hubs) {
+        reset(from, to, date, 2);
+        List<Candidate> firstLegs = new ArrayList<>();
+        for (String hub : hubs) {
+            for (SearchFlight flight : timetable.getFlights(from, hub)) {
+                if (isBookable(flight, date)) {
+                    firstLegs.add(new Candidate(flight, minuteOfDay(flight)));
+                }
+            }
+        }
+        exploreFirstLegs(firstLegs);
+        return finish();
+    }
+
+    public long getExploredStates() {
+        return exploredStates;
+    }
+
+    // Private helper methods
+
+    private void reset(String from, String to, LocalDate date, int maxHops) {
+        this.destination = to;
+        this.date = date;
+        this.maxHops = maxHops;
+        this.results = new ArrayList<>();
+        this.bestDurations = new PriorityQueue<>(Collections.reverseOrder());
+        double directKm = geo != null ? geo.greatCircleKm(from, to) : Double.NaN;
+        this.detourBudgetKm = Double.isNaN(directKm) ? Double.NaN : directKm * maxDetourRatio;
+    }
+
+    private void exploreFirstLegs(List<Candidate> firstLegs) {
+        if (pruning) {
+            for (Candidate candidate : firstLegs) {
+                candidate.bound = FlightTimetable.durationMinutes(candidate.flight)
+                        + remainingLowerBound(candidate.flight.getArrivalAirportCode());
+            }
+            firstLegs.sort(Comparator.comparingDouble(candidate -> candidate.bound));
+        }
+        for (Candidate candidate : firstLegs) {
+            push(0, candidate.flight, candidate.departure);
+            if (!prune(0)) {
+                expand(1);
+            }
+        }
+    }
+
+    private List<FlightItinerary> finish() {
+        results.sort(ITINERARY_ORDER);
+        return results;
+    }
+
+    private void expand(int depth) {
+        String airport = legs[depth - 1].getArrivalAirportCode();
+        boolean lastHop = depth == maxHops - 1;
+        List<SearchFlight> flights = lastHop
+                ? timetable.getFlights(airport, destination)
+                : timetable.getDepartures(airport);
+
+        int earliest = arrivals[depth - 1] + minConnectionMinutes;
+        int latest = arrivals[depth - 1] + maxLayoverMinutes;
+        List<Candidate> candidates = new ArrayList<>();
+        for (int day = earliest / MINUTES_PER_DAY; day <= latest / MINUTES_PER_DAY; day++) {
+            LocalDate legDate = date.plusDays(day);
+            for (SearchFlight flight : flights) {
+                int departure = day * MINUTES_PER_DAY + minuteOfDay(flight);
+                if (departure < earliest || departure > latest
+                        || visited(flight.getArrivalAirportCode(), depth)
+                        || !isBookable(flight, legDate)) {
+                    continue;
+                }
+                Candidate candidate = new Candidate(flight, departure);
+                if (pruning) {
+                    candidate.bound = departure + FlightTimetable.durationMinutes(flight) - departures[0]
+                            + remainingLowerBound(flight.getArrivalAirportCode());
+                }
+                candidates.add(candidate);
+            }
+        }
+        if (pruning) {
+            candidates.sort(Comparator.comparingDouble(candidate -> candidate.bound));
+        }
+
+        for (Candidate candidate : candidates) {
+            push(depth, candidate.flight, candidate.departure);
+            if (prune(depth)) {
+                continue;
+            }
+            if (candidate.flight.getArrivalAirportCode().equals(destination)) {
+                collect(depth + 1);
+            } else if (!lastHop) {
+                expand(depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Whether the partial itinerary ending at depth can be discarded without changing the results
+     */
+    private boolean prune(int depth) {
+        if (!pruning) {
+            return false;
+        }
+        String airport = legs[depth].getArrivalAirportCode();
+        if (!Double.isNaN(detourBudgetKm)) {
+            double remainingKm = geo.greatCircleKm(airport, destination);
+            if (!Double.isNaN(remainingKm) && flownKm[depth] + remainingKm - DISTANCE_EPSILON_KM > detourBudgetKm) {
+                return true;
+            }
+        }
+        if (bestDurations.size() >= resultLimit) {
+            double bound = arrivals[depth] - departures[0] + remainingLowerBound(airport);
+            return bound > bestDurations.peek();
+        }
+        return false;
+    }
+
+    /**
+     * Admissible lower bound in minutes to reach the destination from an airport
+     */
+    private double remainingLowerBound(String airport) {
+        if (airport.equals(destination)) {
+            return 0;
+        }
+        double remainingKm = geo != null ? geo.greatCircleKm(airport, destination) : Double.NaN;
+        double flightMinutes = Double.isNaN(remainingKm) ? 0 : remainingKm / geo.getSpeedBoundKmh() * 60;
+        return minConnectionMinutes + flightMinutes;
+    }
+
+    private boolean isBookable(SearchFlight flight, LocalDate legDate) {
+        return FlightTimetable.operatesOn(flight, legDate)
+                && (availability == null || availability.hasSeats(flight.getFlightInfoId(), legDate));
+    }
+
+    private void push(int depth, SearchFlight flight, int departure) {
+        legs[depth] = flight;
+        departures[depth] = departure;
+        arrivals[depth] = departure + FlightTimetable.durationMinutes(flight);
+        double legKm = geo != null ? geo.legDistanceKm(flight) : Double.NaN;
+        flownKm[depth] = (depth == 0 ? 0 : flownKm[depth - 1]) + legKm;
+        exploredStates++;
+    }
+
+    private boolean visited(String airport, int depth) {
+        if (airport.equals(legs[0].getDepartureAirportCode())) {
+            return true;
+        }
+        for (int i = 0; i < depth; i++) {
+            if (airport.equals(legs[i].getArrivalAirportCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void collect(int legCount) {
+        if (legCount > 1 && !Double.isNaN(detourBudgetKm) && !Double.isNaN(flownKm[legCount - 1])
+                && flownKm[legCount - 1] > detourBudgetKm) {
+            return;
+        }
+        BigDecimal price = BigDecimal.ZERO;
+        for (int i = 0; i < legCount; i++) {
+            if (legs[i].getBasePrice() != null) {
+                price = price.add(legs[i].getBasePrice());
+            }
+        }
+        LocalDateTime start = date.atStartOfDay();
+        results.add(new FlightItinerary(
+                new ArrayList<>(Arrays.asList(legs).subList(0, legCount)),
+                start.plusMinutes(departures[0]),
+                start.plusMinutes(arrivals[legCount - 1]),
+                price));
+
+        int duration = arrivals[legCount - 1] - departures[0];
+        if (bestDurations.size() < resultLimit) {
+            bestDurations.add(duration);
+        } else if (duration < bestDurations.peek()) {
+            bestDurations.poll();
+            bestDurations.add(duration);
+        }
+    }
+
+    private static int minuteOfDay(SearchFlight flight) {
+        return flight.getDepartureTime().toSecondOfDay() / 60;
+    }
+
+    private static String flightNumbers(List<SearchFlight> legs) {
+        StringBuilder numbers = new StringBuilder();
+        for (SearchFlight leg : legs) {
+            numbers.append(leg.getFlightNumber()).append('/');
+        }
+        return numbers.toString();
+    }
+
+    private static final class Candidate {
+
+        private final SearchFlight flight;
+        private final int departure;
+        private double bound;
+
+        private Candidate(SearchFlight flight, int departure) {
+            this.flight = flight;
+            this.departure = departure;
+        }
+    }
+}
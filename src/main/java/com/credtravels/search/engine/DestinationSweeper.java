@@ -0,0 +1,172 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.inventory.availability.AvailabilityFilter;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.search.dto.DestinationFare;
+import com.credtravels.search.dto.FlightItinerary;
+import com.credtravels.search.model.SearchFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * One-to-all profile search: a single price-ordered sweep from an origin computes the
+ * cheapest itinerary to every reachable airport for flights departing on one date.
+ * Labels are (price, arrival, hops) and are kept per airport only while Pareto-optimal,
+ * so a later but cheaper arrival is still expanded when it may connect onwards.
+ * Legs sold out in the requested cabin are skipped before they are queued, unless the
+ * search availability filter is disabled.
+ */
+@Component
+public class DestinationSweeper {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    @Autowired
+    private FlightTimetable flightTimetable;
+
+    @Autowired
+    private LiveFareSource liveFareSource;
+
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+
+    @Value("${credtravels.search.max-layover-hours:12}")
+    private int maxLayoverHours;
+
+    @Value("${credtravels.search.min-connection-time.domestic:45}")
+    private int minConnectionMinutes;
+
+    @Value("${credtravels.search.availability-filter:true}")
+    private boolean availabilityFilter;
+
+    /**
+     * Cheapest fare to every reachable destination for departures on the date
+     */
+    @Cacheable(value = "explore-destinations", key = "#origin + '_' + #date + '_' + #seatClass + '_' + #maxHops")
+    public ArrayList<DestinationFare> sweep(String origin, LocalDate date, String seatClass, int maxHops) {
+        Map<LocalDate, Map<Long, BigDecimal>> fares = new HashMap<>();
+        AvailabilityFilter availability = availabilityFilter
+                ? seatAvailabilityIndex.filter(SeatReservation.SeatClass.valueOf(seatClass), 1)
+                : null;
+        Map<String, List<Label>> settled = new HashMap<>();
+        ArrayList<DestinationFare> cheapest = new ArrayList<>();
+        PriorityQueue<Label> queue = new PriorityQueue<>(Comparator
+                .comparing((Label label) -> label.price)
+                .thenComparingInt(label -> label.arrival));
+
+        for (SearchFlight flight : flightTimetable.getDepartures(origin)) {
+            if (isBookable(flight, date, availability)) {
+                int departure = minuteOfDay(flight);
+                queue.add(new Label(null, flight, departure, fareOn(flight, date, seatClass, fares)));
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            Label label = queue.poll();
+            String airport = label.flight.getArrivalAirportCode();
+            List<Label> atAirport = settled.computeIfAbsent(airport, key -> new ArrayList<>());
+            if (isDominated(label, atAirport)) {
+                continue;
+            }
+            if (atAirport.isEmpty()) {
+                cheapest.add(new DestinationFare(airport, date, label.price, toItinerary(label, date)));
+            }
+            atAirport.add(label);
+            if (label.hops < maxHops) {
+                expand(label, origin, date, seatClass, fares, availability, queue);
+            }
+        }
+        return cheapest;
+    }
+
+    // Private helper methods
+
+    private void expand(Label label, String origin, LocalDate date, String seatClass,
+                        Map<LocalDate, Map<Long, BigDecimal>> fares, AvailabilityFilter availability,
+                        PriorityQueue<Label> queue) {
+        int earliest = label.arrival + minConnectionMinutes;
+        int latest = label.arrival + maxLayoverHours * 60;
+        for (int day = earliest / MINUTES_PER_DAY; day <= latest / MINUTES_PER_DAY; day++) {
+            LocalDate legDate = date.plusDays(day);
+            for (SearchFlight flight : flightTimetable.getDepartures(label.flight.getArrivalAirportCode())) {
+                int departure = day * MINUTES_PER_DAY + minuteOfDay(flight);
+                if (departure < earliest || departure > latest
+                        || flight.getArrivalAirportCode().equals(origin)
+                        || !isBookable(flight, legDate, availability)) {
+                    continue;
+                }
+                BigDecimal price = label.price.add(fareOn(flight, legDate, seatClass, fares));
+                queue.add(new Label(label, flight, departure, price));
+            }
+        }
+    }
+
+    private BigDecimal fareOn(SearchFlight flight, LocalDate date, String seatClass,
+                              Map<LocalDate, Map<Long, BigDecimal>> fares) {
+        Map<Long, BigDecimal> faresOfDay = fares.computeIfAbsent(date, day -> liveFareSource.getFares(day, seatClass));
+        return LiveFareSource.fareOf(flight, faresOfDay);
+    }
+
+    private static boolean isBookable(SearchFlight flight, LocalDate date, AvailabilityFilter availability) {
+        return FlightTimetable.operatesOn(flight, date)
+                && (availability == null || availability.hasSeats(flight.getFlightInfoId(), date));
+    }
+
+    private static boolean isDominated(Label label, List<Label> settled) {
+        for (Label other : settled) {
+            if (other.arrival <= label.arrival && other.hops <= label.hops) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static FlightItinerary toItinerary(Label label, LocalDate date) {
+        LinkedList<SearchFlight> legs = new LinkedList<>();
+        Label first = label;
+        for (Label current = label; current != null; current = current.parent) {
+            legs.addFirst(current.flight);
+            first = current;
+        }
+        LocalDateTime start = date.atStartOfDay();
+        return new FlightItinerary(new ArrayList<>(legs), start.plusMinutes(first.departure),
+                start.plusMinutes(label.arrival), label.price);
+    }
+
+    private static int minuteOfDay(SearchFlight flight) {
+        return flight.getDepartureTime().toSecondOfDay() / 60;
+    }
+
+    private static final class Label {
+
+        private final Label parent;
+        private final SearchFlight flight;
+        private final int departure;
+        private final int arrival;
+        private final int hops;
+        private final BigDecimal price;
+
+        private Label(Label parent, SearchFlight flight, int departure, BigDecimal price) {
+            this.parent = parent;
+            this.flight = flight;
+            this.departure = departure;
+            this.arrival = departure + FlightTimetable.durationMinutes(flight);
+            this.hops = parent != null ? parent.hops + 1 : 1;
+            this.price = price;
+        }
+    }
+}
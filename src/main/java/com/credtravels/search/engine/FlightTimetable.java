@@ -0,0 +1,201 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.search.model.SearchFlight;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory timetable of search flights indexed by departure airport and by route,
+ * together with the route statistics and transfer table used by the search planner.
+ * Readers always see a consistent immutable snapshot; reloads swap it atomically.
+ */
+@Component
+public class FlightTimetable {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightTimetable.class);
+
+    private final int transferHubCount;
+
+    private volatile Snapshot snapshot = Snapshot.empty();
+
+    public FlightTimetable(@Value("${credtravels.search.transfer-table.hub-count:20}") int transferHubCount) {
+        this.transferHubCount = transferHubCount;
+    }
+
+    /**
+     * Replace the whole timetable
+     */
+    public synchronized void load(Collection<SearchFlight> flights) {
+        Snapshot loaded = Snapshot.build(flights, transferHubCount);
+        this.snapshot = loaded;
+        log.info("Flight timetable loaded with {} flights, {} airports and {} transfer pairs",
+                loaded.flightCount, loaded.departures.size(), loaded.transfers.size());
+    }
+
+    /**
+     * Replace the flights of a single flight info id
+     */
+    public synchronized void replaceFlight(Long flightInfoId, Collection<SearchFlight> flights) {
+        List<SearchFlight> merged = snapshot.departures.values().stream()
+                .flatMap(List::stream)
+                .filter(flight -> !flightInfoId.equals(flight.getFlightInfoId()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        merged.addAll(flights);
+        load(merged);
+    }
+
+    public boolean isLoaded() {
+        return snapshot.loaded;
+    }
+
+    public List<SearchFlight> getDepartures(String airport) {
+        return snapshot.departures.getOrDefault(airport, Collections.emptyList());
+    }
+
+    public List<SearchFlight> getFlights(String from, String to) {
+        return snapshot.routes.getOrDefault(routeKey(from, to), Collections.emptyList());
+    }
+
+    public int getDepartureCount(String airport) {
+        return getDepartures(airport).size();
+    }
+
+    public double getAverageDepartures() {
+        return snapshot.averageDepartures;
+    }
+
+    public Set<String> getAirports() {
+        return snapshot.departures.keySet();
+    }
+
+    /**
+     * Precomputed one-stop hubs for a popular pair, or null when the pair is not in the transfer table
+     */
+    public List<String> getTransferHubs(String from, String to) {
+        return snapshot.transfers.get(routeKey(from, to));
+    }
+
+    // Static helpers
+
+    public static String routeKey(String from, String to) {
+        return from + "-" + to;
+    }
+
+    public static boolean operatesOn(SearchFlight flight, LocalDate date) {
+        String days = flight.getOperatingDays();
+        if (days == null || days.length() < 7) {
+            return true;
+        }
+        return days.charAt(date.getDayOfWeek().getValue() - 1) == '1';
+    }
+
+    public static int durationMinutes(SearchFlight flight) {
+        if (flight.getDurationMinutes() != null) {
+            return flight.getDurationMinutes();
+        }
+        int minutes = flight.getArrivalTime().toSecondOfDay() / 60 - flight.getDepartureTime().toSecondOfDay() / 60;
+        return minutes > 0 ? minutes : minutes + 24 * 60;
+    }
+
+    private static final class Snapshot {
+
+        private final boolean loaded;
+        private final int flightCount;
+        private final double averageDepartures;
+        private final Map<String, List<SearchFlight>> departures;
+        private final Map<String, List<SearchFlight>> routes;
+        private final Map<String, List<String>> transfers;
+
+        private Snapshot(boolean loaded, int flightCount, Map<String, List<SearchFlight>> departures,
+                         Map<String, List<SearchFlight>> routes, Map<String, List<String>> transfers) {
+            this.loaded = loaded;
+            this.flightCount = flightCount;
+            this.departures = departures;
+            this.routes = routes;
+            this.transfers = transfers;
+            this.averageDepartures = departures.isEmpty() ? 0 : (double) flightCount / departures.size();
+        }
+
+        static Snapshot empty() {
+            return new Snapshot(false, 0, Map.of(), Map.of(), Map.of());
+        }
+
+        static Snapshot build(Collection<SearchFlight> flights, int hubCount) {
+            Map<String, List<SearchFlight>> departures = new HashMap<>();
+            Map<String, List<SearchFlight>> routes = new HashMap<>();
+            Map<String, Integer> popularity = new HashMap<>();
+            int count = 0;
+
+            for (SearchFlight flight : flights) {
+                if (flight.getDepartureAirportCode() == null || flight.getArrivalAirportCode() == null
+                        || flight.getDepartureTime() == null || flight.getArrivalTime() == null) {
+                    continue;
+                }
+                departures.computeIfAbsent(flight.getDepartureAirportCode(), key -> new ArrayList<>()).add(flight);
+                routes.computeIfAbsent(routeKey(flight.getDepartureAirportCode(), flight.getArrivalAirportCode()),
+                        key -> new ArrayList<>()).add(flight);
+                int score = flight.getRoutePopularityScore() != null ? flight.getRoutePopularityScore() : 0;
+                popularity.merge(flight.getDepartureAirportCode(), score + 1, Integer::sum);
+                popularity.merge(flight.getArrivalAirportCode(), score + 1, Integer::sum);
+                count++;
+            }
+
+            Comparator<SearchFlight> byDeparture = Comparator.comparing(SearchFlight::getDepartureTime);
+            departures.replaceAll((airport, list) -> sortedCopy(list, byDeparture));
+            routes.replaceAll((route, list) -> sortedCopy(list, byDeparture));
+
+            return new Snapshot(true, count, departures, routes, buildTransfers(departures, popularity, hubCount));
+        }
+
+        /**
+         * Precompute the one-stop hubs between every pair of the most popular airports
+         */
+        private static Map<String, List<String>> buildTransfers(Map<String, List<SearchFlight>> departures,
+                                                               Map<String, Integer> popularity, int hubCount) {
+            List<String> popular = popularity.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                    .limit(hubCount)
+                    .map(Map.Entry::getKey)
+                    .toList();
+
+            Map<String, Set<String>> destinations = new HashMap<>();
+            departures.forEach((airport, list) -> destinations.put(airport,
+                    list.stream().map(SearchFlight::getArrivalAirportCode).collect(Collectors.toCollection(LinkedHashSet::new))));
+
+            Map<String, List<String>> transfers = new HashMap<>();
+            for (String from : popular) {
+                for (String to : popular) {
+                    if (from.equals(to)) {
+                        continue;
+                    }
+                    List<String> hubs = destinations.getOrDefault(from, Set.of()).stream()
+                            .filter(hub -> !hub.equals(to) && !hub.equals(from))
+                            .filter(hub -> destinations.getOrDefault(hub, Set.of()).contains(to))
+                            .toList();
+                    transfers.put(routeKey(from, to), hubs);
+                }
+            }
+            return Collections.unmodifiableMap(transfers);
+        }
+
+        private static List<SearchFlight> sortedCopy(List<SearchFlight> flights, Comparator<SearchFlight> order) {
+            List<SearchFlight> copy = new ArrayList<>(flights);
+            copy.sort(order);
+            return Collections.unmodifiableList(copy);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.pricing.FarePricingEngine;
+import com.credtravels.search.model.SearchFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Live fares from the inventory module's pricing engine, read from its precomputed curves for
+ * all flights of a day without a database read per search.
+ */
+@Component
+public class LiveFareSource {
+
+    @Autowired
+    private FarePricingEngine farePricingEngine;
+
+    /**
+     * Fares by flight info id for one date and seat class
+     */
+    public Map<Long, BigDecimal> getFares(LocalDate date, String seatClass) {
+        SeatReservation.SeatClass cabin = seatClass != null
+                ? SeatReservation.SeatClass.valueOf(seatClass.toUpperCase())
+                : SeatReservation.SeatClass.ECONOMY;
+        return farePricingEngine.fares(date, cabin);
+    }
+
+    /**
+     * Live fare of a flight, falling back to its base price when the inventory has none
+     */
+    public static BigDecimal fareOf(SearchFlight flight, Map<Long, BigDecimal> fares) {
+        BigDecimal fare = fares.get(flight.getFlightInfoId());
+        if (fare != null) {
+            return fare;
+        }
+        return flight.getBasePrice() != null ? flight.getBasePrice() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,107 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.search.dto.FlightSearchRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for a page of search results. The token carries the
+ * canonical query together with the page offset and size, so a page can still be
+ * served by recomputing the search once its result snapshot has been evicted.
+ */
+public final class SearchPageToken {
+
+    private static final String VERSION = "v1";
+    private static final String SEPARATOR = "|";
+    private static final int MAX_TOKEN_LENGTH = 256;
+
+    private final String from;
+    private final String to;
+    private final LocalDate date;
+    private final int maxHops;
+    private final String seatClass;
+    private final int passengers;
+    private final int offset;
+    private final int pageSize;
+
+    public SearchPageToken(String from, String to, LocalDate date, int maxHops, String seatClass,
+                           int passengers, int offset, int pageSize) {
+        this.from = from;
+        this.to = to;
+        this.date = date;
+        this.maxHops = maxHops;
+        this.seatClass = seatClass != null ? seatClass : "";
+        this.passengers = passengers;
+        this.offset = offset;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Token of the page following this one
+     */
+    public SearchPageToken next() {
+        return new SearchPageToken(from, to, date, maxHops, seatClass, passengers, offset + pageSize, pageSize);
+    }
+
+    /**
+     * Canonical form of the query, shared by every page of the same search
+     */
+    public String getQueryKey() {
+        return String.join(SEPARATOR, from, to, date.toString(), String.valueOf(maxHops), seatClass,
+                String.valueOf(passengers));
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, VERSION, getQueryKey(), String.valueOf(offset), String.valueOf(pageSize));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchPageToken decode(String token) {
+        if (token.length() > MAX_TOKEN_LENGTH) {
+            throw new ValidationException("Invalid page token");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR, -1);
+            if (parts.length != 9 || !VERSION.equals(parts[0])) {
+                throw new ValidationException("Invalid page token");
+            }
+            SearchPageToken decoded = new SearchPageToken(parts[1], parts[2], LocalDate.parse(parts[3]),
+                    Integer.parseInt(parts[4]), parts[5], Integer.parseInt(parts[6]),
+                    Integer.parseInt(parts[7]), Integer.parseInt(parts[8]));
+            if (decoded.offset < 0 || decoded.pageSize <= 0) {
+                throw new ValidationException("Invalid page token");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid page token", e);
+        }
+    }
+
+    /**
+     * The search request this token was issued for
+     */
+    public FlightSearchRequest toRequest() {
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom(from);
+        request.setTo(to);
+        request.setDate(date);
+        request.setMaxHops(maxHops);
+        request.setLimit(pageSize);
+        request.setSeatClass(seatClass.isEmpty() ? null : seatClass);
+        request.setPassengers(passengers);
+        return request;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+}
@@ -0,0 +1,29 @@
+package com.credtravels.search.engine;
+
+import java.util.List;
+import java.util.Map;
+
+public class SearchPlan {
+
+    private final SearchStrategy strategy;
+    private final Map<SearchStrategy, Double> estimatedCosts;
+    private final List<String> transferHubs;
+
+    public SearchPlan(SearchStrategy strategy, Map<SearchStrategy, Double> estimatedCosts, List<String> transferHubs) {
+        this.strategy = strategy;
+        this.estimatedCosts = estimatedCosts;
+        this.transferHubs = transferHubs;
+    }
+
+    public SearchStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Map<SearchStrategy, Double> getEstimatedCosts() {
+        return estimatedCosts;
+    }
+
+    public List<String> getTransferHubs() {
+        return transferHubs;
+    }
+}
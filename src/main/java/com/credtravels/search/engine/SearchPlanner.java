@@ -0,0 +1,58 @@
+package com.credtravels.search.engine;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost-based planner that picks the cheapest execution strategy for a search
+ * from the route statistics held by the timetable.
+ */
+@Component
+public class SearchPlanner {
+
+    @Autowired
+    private FlightTimetable timetable;
+
+    /**
+     * Estimate the fan-out of every applicable strategy and choose the cheapest one
+     */
+    public SearchPlan plan(String from, String to, int maxHops) {
+        Map<SearchStrategy, Double> costs = new EnumMap<>(SearchStrategy.class);
+        double directCost = timetable.getFlights(from, to).size();
+        costs.put(SearchStrategy.DIRECT_LOOKUP, directCost);
+
+        if (maxHops <= 1) {
+            return new SearchPlan(SearchStrategy.DIRECT_LOOKUP, costs, null);
+        }
+
+        // The transfer table only holds one-stop connections, so it is exact for two hops only
+        List<String> hubs = timetable.getTransferHubs(from, to);
+        if (maxHops == 2 && hubs != null) {
+            double transferCost = directCost;
+            for (String hub : hubs) {
+                transferCost += timetable.getFlights(from, hub).size() * (1.0 + timetable.getFlights(hub, to).size());
+            }
+            costs.put(SearchStrategy.TRANSFER_TABLE, transferCost);
+        }
+
+        double branching = timetable.getAverageDepartures();
+        double frontier = timetable.getDepartureCount(from);
+        double graphCost = directCost;
+        for (int hop = 1; hop < maxHops; hop++) {
+            graphCost += frontier;
+            frontier *= branching;
+        }
+        costs.put(SearchStrategy.GRAPH_SEARCH, graphCost);
+
+        SearchStrategy cheapest = costs.entrySet().stream()
+                .filter(entry -> entry.getKey() != SearchStrategy.DIRECT_LOOKUP)
+                .min(Map.Entry.comparingByValue())
+                .map(Map.Entry::getKey)
+                .orElse(SearchStrategy.GRAPH_SEARCH);
+        return new SearchPlan(cheapest, costs, cheapest == SearchStrategy.TRANSFER_TABLE ? hubs : null);
+    }
+}
@@ -0,0 +1,42 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.search.dto.FlightItinerary;
+import com.credtravels.search.model.SearchFlight;
+
+import java.util.List;
+
+/**
+ * Ranked results of one search, direct flights first, from which pages are sliced
+ */
+public class SearchResultSnapshot {
+
+    private final List<SearchFlight> directFlights;
+    private final List<FlightItinerary> connections;
+
+    public SearchResultSnapshot(List<SearchFlight> directFlights, List<FlightItinerary> connections) {
+        this.directFlights = List.copyOf(directFlights);
+        this.connections = List.copyOf(connections);
+    }
+
+    public int size() {
+        return directFlights.size() + connections.size();
+    }
+
+    /**
+     * Direct flights falling into the page starting at offset
+     */
+    public List<SearchFlight> directPage(int offset, int pageSize) {
+        int start = Math.min(offset, directFlights.size());
+        int end = Math.min(offset + pageSize, directFlights.size());
+        return directFlights.subList(start, end);
+    }
+
+    /**
+     * Connecting itineraries falling into the page starting at offset
+     */
+    public List<FlightItinerary> connectionPage(int offset, int pageSize) {
+        int start = Math.min(Math.max(0, offset - directFlights.size()), connections.size());
+        int end = Math.min(Math.max(0, offset + pageSize - directFlights.size()), connections.size());
+        return connections.subList(start, end);
+    }
+}
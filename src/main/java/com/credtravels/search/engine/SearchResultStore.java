@@ -0,0 +1,45 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.common.cache.BoundedTtlCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Server-side result snapshots keyed by canonical query, read by follow-up pages
+ */
+@Component
+public class SearchResultStore {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchResultStore.class);
+
+    private final BoundedTtlCache<String, SearchResultSnapshot> snapshots;
+
+    public SearchResultStore(@Value("${credtravels.search.snapshot.max-entries:1000}") int maxEntries,
+                             @Value("${credtravels.search.snapshot.ttl-seconds:300}") long ttlSeconds) {
+        this.snapshots = new BoundedTtlCache<>(maxEntries, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public SearchResultSnapshot get(String queryKey) {
+        return snapshots.get(queryKey);
+    }
+
+    public void put(String queryKey, SearchResultSnapshot snapshot) {
+        snapshots.put(queryKey, snapshot);
+    }
+
+    /**
+     * Release memory held by expired snapshots
+     */
+    @Scheduled(fixedRate = 60000)
+    public void evictExpired() {
+        int evicted = snapshots.evictExpired();
+        if (evicted > 0) {
+            log.debug("Evicted {} expired search result snapshots", evicted);
+        }
+    }
+}
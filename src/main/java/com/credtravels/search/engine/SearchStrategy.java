@@ -0,0 +1,5 @@
+package com.credtravels.search.engine;
+
+public enum SearchStrategy {
+    DIRECT_LOOKUP, TRANSFER_TABLE, GRAPH_SEARCH
+}
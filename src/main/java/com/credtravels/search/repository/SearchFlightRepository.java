@@ -0,0 +1,15 @@
+package com.credtravels.search.repository;
+
+import com.credtravels.search.model.SearchFlight;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SearchFlightRepository extends JpaRepository<SearchFlight, Long> {
+    
+    List<SearchFlight> findByFlightInfoId(Long flightInfoId);
+    
+    List<SearchFlight> findByDepartureAirportCodeAndArrivalAirportCode(String departureAirportCode, String arrivalAirportCode);
+}
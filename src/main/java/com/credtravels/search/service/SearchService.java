@@ -1,10 +1,12 @@
 package com.credtravels.search.service;
 
+import com.credtravels.search.dto.ExploreDestinationsResponse;
 import com.credtravels.search.dto.FlightSearchRequest;
 import com.credtravels.search.dto.FlightSearchResponse;
 import com.credtravels.search.dto.MultiCitySearchRequest;
 import com.credtravels.search.model.SearchFlight;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -15,11 +17,22 @@ public interface SearchService {
      */
     FlightSearchResponse searchFlights(FlightSearchRequest request);
     
+    /**
+     * Next page of a previous search identified by its continuation token
+     */
+    FlightSearchResponse getSearchPage(String pageToken);
+    
     /**
      * Search direct flights only
      */
     List<SearchFlight> searchDirectFlights(String from, String to, LocalDate date);
     
+    /**
+     * Explore the cheapest destinations from an origin within a date range and budget
+     */
+    ExploreDestinationsResponse exploreDestinations(String from, LocalDate fromDate, LocalDate toDate,
+                                                    BigDecimal budget, String seatClass, Integer maxHops);
+    
     /**
      * Search airports by query
      */
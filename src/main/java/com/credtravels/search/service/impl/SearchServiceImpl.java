@@ -1,29 +1,168 @@
 package com.credtravels.search.service.impl;
 
+import com.credtravels.flightsinfo.model.Airport;
+import com.credtravels.flightsinfo.model.FlightRoute;
+import com.credtravels.flightsinfo.service.FlightsInfoService;
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.search.dto.DestinationFare;
+import com.credtravels.search.dto.ExploreDestinationsResponse;
+import com.credtravels.search.dto.FlightItinerary;
 import com.credtravels.search.dto.FlightSearchRequest;
 import com.credtravels.search.dto.FlightSearchResponse;
 import com.credtravels.search.dto.MultiCitySearchRequest;
+import com.credtravels.search.dto.SearchExplain;
+import com.credtravels.search.engine.AirportGeoIndex;
+import com.credtravels.search.engine.ConnectionExplorer;
+import com.credtravels.search.engine.DestinationSweeper;
+import com.credtravels.search.engine.FlightTimetable;
+import com.credtravels.search.engine.SearchPageToken;
+import com.credtravels.search.engine.SearchPlan;
+import com.credtravels.search.engine.SearchPlanner;
+import com.credtravels.search.engine.SearchResultSnapshot;
+import com.credtravels.search.engine.SearchResultStore;
 import com.credtravels.search.model.SearchFlight;
+import com.credtravels.search.repository.SearchFlightRepository;
 import com.credtravels.search.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class SearchServiceImpl implements SearchService {
     
+    private static final Logger log = LoggerFactory.getLogger(SearchServiceImpl.class);
+    
+    @Autowired
+    private SearchFlightRepository searchFlightRepository;
+    
+    @Autowired
+    private FlightTimetable flightTimetable;
+    
+    @Autowired
+    private SearchPlanner searchPlanner;
+    
+    @Autowired
+    private AirportGeoIndex airportGeoIndex;
+    
+    @Autowired
+    private FlightsInfoService flightsInfoService;
+    
+    @Autowired
+    private DestinationSweeper destinationSweeper;
+    
+    @Autowired
+    private SearchResultStore searchResultStore;
+    
+    @Autowired
+    private SeatAvailabilityIndex seatAvailabilityIndex;
+    
+    @Value("${credtravels.search.max-hops:3}")
+    private int maxHops;
+    
+    @Value("${credtravels.search.result-limit:100}")
+    private int resultLimit;
+    
+    @Value("${credtravels.search.max-layover-hours:12}")
+    private int maxLayoverHours;
+    
+    @Value("${credtravels.search.min-connection-time.domestic:45}")
+    private int minConnectionMinutes;
+    
+    @Value("${credtravels.search.max-detour-ratio:2.5}")
+    private double maxDetourRatio;
+    
+    @Value("${credtravels.search.lower-bound-pruning:true}")
+    private boolean lowerBoundPruning;
+    
+    @Value("${credtravels.search.availability-filter:true}")
+    private boolean availabilityFilter;
+    
+    @Value("${credtravels.search.explore.max-days:14}")
+    private int exploreMaxDays;
+    
     @Override
     public FlightSearchResponse searchFlights(FlightSearchRequest request) {
-        // TODO: Implement actual search logic with Lucene
-        return new FlightSearchResponse(new ArrayList<>(), new ArrayList<>());
+        long startedAt = System.currentTimeMillis();
+        int hops = Math.min(request.getMaxHops() != null ? request.getMaxHops() : 1, maxHops);
+        int limit = Math.min(request.getLimit() != null ? request.getLimit() : 50, resultLimit);
+        SearchPageToken page = new SearchPageToken(request.getFrom().toUpperCase(), request.getTo().toUpperCase(),
+                request.getDate(), hops, request.getSeatClass() != null ? request.getSeatClass().toUpperCase() : null,
+                request.getPassengers() != null ? request.getPassengers() : 1, 0, limit);
+        SearchExplain explain = Boolean.TRUE.equals(request.getExplain()) ? new SearchExplain() : null;
+        
+        SearchResultSnapshot snapshot = runSearch(page.toRequest(), explain);
+        searchResultStore.put(page.getQueryKey(), snapshot);
+        return toPage(snapshot, page, explain, startedAt);
+    }
+    
+    @Override
+    public FlightSearchResponse getSearchPage(String pageToken) {
+        long startedAt = System.currentTimeMillis();
+        SearchPageToken page = SearchPageToken.decode(pageToken);
+        if (page.getPageSize() > resultLimit) {
+            throw new ValidationException("Invalid page token");
+        }
+        
+        SearchResultSnapshot snapshot = searchResultStore.get(page.getQueryKey());
+        if (snapshot == null) {
+            log.debug("Result snapshot for {} expired, recomputing", page.getQueryKey());
+            snapshot = runSearch(page.toRequest(), null);
+            searchResultStore.put(page.getQueryKey(), snapshot);
+        }
+        return toPage(snapshot, page, null, startedAt);
     }
     
     @Override
     public List<SearchFlight> searchDirectFlights(String from, String to, LocalDate date) {
-        // TODO: Implement actual search logic
-        return new ArrayList<>();
+        ensureTimetableLoaded();
+        return newExplorer().findDirect(from.toUpperCase(), to.toUpperCase(), date).stream()
+                .map(itinerary -> itinerary.getLegs().get(0))
+                .toList();
+    }
+    
+    @Override
+    public ExploreDestinationsResponse exploreDestinations(String from, LocalDate fromDate, LocalDate toDate,
+                                                           BigDecimal budget, String seatClass, Integer maxHops) {
+        long startedAt = System.currentTimeMillis();
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= exploreMaxDays) {
+            throw new ValidationException("Explore date range must span 1 to " + exploreMaxDays + " days");
+        }
+        ensureTimetableLoaded();
+        
+        String origin = from.toUpperCase();
+        String cabin = seatClassOf(seatClass).name();
+        int hops = Math.min(maxHops != null ? maxHops : 2, this.maxHops);
+        log.debug("Exploring destinations from: {} between {} and {} under {}", origin, fromDate, toDate, budget);
+        
+        Map<String, DestinationFare> cheapest = new HashMap<>();
+        for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+            for (DestinationFare fare : destinationSweeper.sweep(origin, date, cabin, hops)) {
+                cheapest.merge(fare.getDestination(), fare,
+                        (current, candidate) -> candidate.getPrice().compareTo(current.getPrice()) < 0 ? candidate : current);
+            }
+        }
+        
+        List<DestinationFare> destinations = cheapest.values().stream()
+                .filter(fare -> budget == null || fare.getPrice().compareTo(budget) <= 0)
+                .sorted(Comparator.comparing(DestinationFare::getPrice).thenComparing(DestinationFare::getDestination))
+                .toList();
+        
+        ExploreDestinationsResponse response = new ExploreDestinationsResponse(origin, fromDate, toDate, budget, destinations);
+        response.setSearchTimeMs(System.currentTimeMillis() - startedAt);
+        return response;
     }
     
     @Override
@@ -52,11 +191,143 @@ public class SearchServiceImpl implements SearchService {
     
     @Override
     public void buildSearchIndex() {
-        // TODO: Implement Lucene index building
+        log.info("Building search timetable");
+        List<SearchFlight> flights = searchFlightRepository.findAll();
+        loadAirportGeo();
+        airportGeoIndex.raiseSpeedBound(flights);
+        flightTimetable.load(flights);
     }
     
     @Override
     public void updateSearchIndex(Long flightInfoId) {
-        // TODO: Implement Lucene index update
+        log.info("Updating search timetable for flightInfoId: {}", flightInfoId);
+        if (!flightTimetable.isLoaded()) {
+            buildSearchIndex();
+            return;
+        }
+        List<SearchFlight> flights = searchFlightRepository.findByFlightInfoId(flightInfoId);
+        flightTimetable.replaceFlight(flightInfoId, flights);
+        airportGeoIndex.raiseSpeedBound(flights);
+    }
+    
+    // Private helper methods
+    
+    /**
+     * Run the planned search and rank up to resultLimit results
+     */
+    private SearchResultSnapshot runSearch(FlightSearchRequest request, SearchExplain explain) {
+        ensureTimetableLoaded();
+        String from = request.getFrom();
+        String to = request.getTo();
+        int hops = request.getMaxHops();
+        log.debug("Searching flights from: {} to: {} on: {} with maxHops: {}", from, to, request.getDate(), hops);
+        
+        long stage = System.nanoTime();
+        SearchPlan plan = searchPlanner.plan(from, to, hops);
+        recordStage(explain, "plan", stage);
+        
+        ConnectionExplorer explorer = newExplorer().withResultLimit(resultLimit);
+        if (availabilityFilter) {
+            explorer.withAvailability(seatAvailabilityIndex.filter(seatClassOf(request.getSeatClass()),
+                    request.getPassengers() != null ? request.getPassengers() : 1));
+        }
+        stage = System.nanoTime();
+        List<FlightItinerary> direct = explorer.findDirect(from, to, request.getDate());
+        recordStage(explain, "direct", stage);
+        
+        stage = System.nanoTime();
+        List<FlightItinerary> connections = switch (plan.getStrategy()) {
+            case DIRECT_LOOKUP -> new ArrayList<>();
+            case TRANSFER_TABLE -> explorer.findViaHubs(from, to, request.getDate(), plan.getTransferHubs());
+            case GRAPH_SEARCH -> explorer.findConnections(from, to, request.getDate(), hops);
+        };
+        recordStage(explain, "connections", stage);
+        
+        stage = System.nanoTime();
+        List<SearchFlight> directFlights = direct.stream()
+                .limit(resultLimit)
+                .map(itinerary -> itinerary.getLegs().get(0))
+                .toList();
+        List<FlightItinerary> multiHopFlights = connections.stream()
+                .limit(Math.max(0, resultLimit - directFlights.size()))
+                .toList();
+        recordStage(explain, "rank", stage);
+        
+        if (explain != null) {
+            explain.setStrategy(plan.getStrategy().name());
+            plan.getEstimatedCosts().forEach((strategy, cost) -> explain.getEstimatedCosts().put(strategy.name(), cost));
+            explain.setExploredStates(explorer.getExploredStates());
+            explain.setTransferHubs(plan.getTransferHubs() != null ? plan.getTransferHubs().size() : null);
+        }
+        log.debug("Search {} completed with strategy {}", request.getFrom() + "-" + request.getTo(), plan.getStrategy());
+        return new SearchResultSnapshot(directFlights, multiHopFlights);
+    }
+    
+    private FlightSearchResponse toPage(SearchResultSnapshot snapshot, SearchPageToken page,
+                                        SearchExplain explain, long startedAt) {
+        FlightSearchResponse response = new FlightSearchResponse(
+                snapshot.directPage(page.getOffset(), page.getPageSize()),
+                snapshot.connectionPage(page.getOffset(), page.getPageSize()));
+        FlightSearchRequest request = page.toRequest();
+        response.setSearchQuery(request.getFrom() + "-" + request.getTo() + " on " + request.getDate()
+                + " maxHops=" + request.getMaxHops());
+        if (page.getOffset() + page.getPageSize() < snapshot.size()) {
+            response.setNextPageToken(page.next().encode());
+        }
+        response.setExplain(explain);
+        response.setSearchTimeMs(System.currentTimeMillis() - startedAt);
+        return response;
+    }
+    
+    private void ensureTimetableLoaded() {
+        if (!flightTimetable.isLoaded()) {
+            buildSearchIndex();
+        }
+    }
+    
+    private ConnectionExplorer newExplorer() {
+        return new ConnectionExplorer(flightTimetable, minConnectionMinutes, maxLayoverHours * 60)
+                .withGeoBounds(airportGeoIndex, maxDetourRatio, lowerBoundPruning);
+    }
+    
+    private SeatReservation.SeatClass seatClassOf(String seatClass) {
+        if (seatClass == null) {
+            return SeatReservation.SeatClass.ECONOMY;
+        }
+        try {
+            return SeatReservation.SeatClass.valueOf(seatClass.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown seat class: " + seatClass);
+        }
+    }
+    
+    private void loadAirportGeo() {
+        Map<Long, String> codes = new HashMap<>();
+        Map<String, double[]> coordinates = new HashMap<>();
+        for (Airport airport : flightsInfoService.getAllAirports()) {
+            codes.put(airport.getId(), airport.getIataCode());
+            if (airport.getLatitude() != null && airport.getLongitude() != null) {
+                coordinates.put(airport.getIataCode(),
+                        new double[] {airport.getLatitude().doubleValue(), airport.getLongitude().doubleValue()});
+            }
+        }
+        
+        Map<String, Integer> routeDistances = new HashMap<>();
+        for (FlightRoute route : flightsInfoService.getFlightRoutes()) {
+            String from = codes.get(route.getDepartureAirportId());
+            String to = codes.get(route.getArrivalAirportId());
+            if (from != null && to != null && route.getDistanceKm() != null) {
+                routeDistances.put(FlightTimetable.routeKey(from, to), route.getDistanceKm());
+            }
+        }
+        airportGeoIndex.load(coordinates, routeDistances);
+        log.info("Loaded coordinates for {} airports and distances for {} routes",
+                coordinates.size(), routeDistances.size());
+    }
+    
+    private void recordStage(SearchExplain explain, String stage, long startNanos) {
+        if (explain != null) {
+            explain.recordStage(stage, startNanos);
+        }
     }
 }
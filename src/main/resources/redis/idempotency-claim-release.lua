@@ -0,0 +1,8 @@
+-- Drop an idempotency claim, only if this node still holds it.
+-- KEYS[1] claim
+-- ARGV[1] claim owner
+-- Returns 1 when the claim was dropped, otherwise 0
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
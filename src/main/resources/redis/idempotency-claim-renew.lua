@@ -0,0 +1,8 @@
+-- Extend an idempotency claim while its request still runs, only if this node still holds it.
+-- KEYS[1] claim
+-- ARGV[1] claim owner, ARGV[2] claim ttl in milliseconds
+-- Returns 1 when the claim was extended, 0 when it expired or belongs to another node
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
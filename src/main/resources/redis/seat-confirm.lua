@@ -0,0 +1,16 @@
+-- Make a hold permanent while it has not expired; its seats stay taken.
+-- KEYS[1] seat counters, KEYS[2] hold expiry index, KEYS[3] hold, KEYS[4] reconciliation events
+-- ARGV[1] reservation id, ARGV[2] cabin, ARGV[3] seats, ARGV[4] flight key
+-- Returns 1 when confirmed, 0 when the hold has expired
+local member = table.concat({ARGV[1], ARGV[2], ARGV[3]}, '|')
+local expiresAt = redis.call('ZSCORE', KEYS[2], member)
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+if not expiresAt or tonumber(expiresAt) <= now then
+    return 0
+end
+redis.call('ZREM', KEYS[2], member)
+redis.call('DEL', KEYS[3])
+local inventoryId = redis.call('HGET', KEYS[1], 'id')
+redis.call('RPUSH', KEYS[4], table.concat({'CONFIRM', ARGV[1], inventoryId, ARGV[2], ARGV[3], now, ARGV[4]}, '|'))
+return 1
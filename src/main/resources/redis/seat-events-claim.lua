@@ -0,0 +1,6 @@
+-- Take up to ARGV[1] reconciliation events from the head of KEYS[1]
+local batch = redis.call('LRANGE', KEYS[1], 0, tonumber(ARGV[1]) - 1)
+if #batch > 0 then
+    redis.call('LTRIM', KEYS[1], #batch, -1)
+end
+return batch
@@ -0,0 +1,44 @@
+-- Hold seats on one flight date, first reclaiming holds whose time has passed.
+-- KEYS[1] seat counters, KEYS[2] hold expiry index, KEYS[3] hold, KEYS[4] reconciliation events
+-- ARGV[1] reservation id, ARGV[2] cabin, ARGV[3] seats, ARGV[4] hold ttl in seconds, ARGV[5] flight key
+-- Returns {1, inventory id} when held, {0, seats left} when sold out,
+-- {-1, 0} when the counters are not loaded and {-2, 0} when the flight is not open
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return {-1, 0}
+end
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local inventoryId = redis.call('HGET', KEYS[1], 'id')
+
+local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', now)
+for _, member in ipairs(expired) do
+    local reservationId, cabin, seats = string.match(member, '^([^|]+)|([^|]+)|(%d+)$')
+    local field = 'avail:' .. cabin
+    local available = redis.call('HINCRBY', KEYS[1], field, seats)
+    local capacity = tonumber(redis.call('HGET', KEYS[1], 'cap:' .. cabin))
+    if available > capacity then
+        redis.call('HSET', KEYS[1], field, capacity)
+    end
+    redis.call('RPUSH', KEYS[4], table.concat({'EXPIRE', reservationId, inventoryId, cabin, seats, now, ARGV[5]}, '|'))
+end
+if #expired > 0 then
+    redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now)
+end
+
+if redis.call('HGET', KEYS[1], 'active') ~= '1' then
+    return {-2, 0}
+end
+local field = 'avail:' .. ARGV[2]
+local seats = tonumber(ARGV[3])
+local available = tonumber(redis.call('HGET', KEYS[1], field))
+if available < seats then
+    return {0, available}
+end
+redis.call('HINCRBY', KEYS[1], field, -seats)
+
+local ttl = tonumber(ARGV[4])
+local expiresAt = now + ttl * 1000
+redis.call('ZADD', KEYS[2], expiresAt, table.concat({ARGV[1], ARGV[2], ARGV[3]}, '|'))
+redis.call('SET', KEYS[3], table.concat({ARGV[5], ARGV[2], ARGV[3], inventoryId, expiresAt}, '|'), 'EX', ttl)
+redis.call('RPUSH', KEYS[4], table.concat({'HOLD', ARGV[1], inventoryId, ARGV[2], ARGV[3], expiresAt, ARGV[5]}, '|'))
+return {1, tonumber(inventoryId)}
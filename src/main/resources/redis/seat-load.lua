@@ -0,0 +1,12 @@
+-- Load the seat counters of a flight date unless another node already has.
+-- KEYS[1] seat counters
+-- ARGV[1] inventory id, ARGV[2] 1 when open for reservations, then cabin, available, capacity triples
+-- Returns 1 when loaded, 0 when the counters already existed
+if redis.call('EXISTS', KEYS[1]) == 1 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'id', ARGV[1], 'active', ARGV[2])
+for i = 3, #ARGV, 3 do
+    redis.call('HSET', KEYS[1], 'avail:' .. ARGV[i], ARGV[i + 1], 'cap:' .. ARGV[i], ARGV[i + 2])
+end
+return 1
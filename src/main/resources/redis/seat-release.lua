@@ -0,0 +1,18 @@
+-- Return the seats of a hold unless it was already reclaimed or confirmed.
+-- KEYS[1] seat counters, KEYS[2] hold expiry index, KEYS[3] hold, KEYS[4] reconciliation events
+-- ARGV[1] reservation id, ARGV[2] cabin, ARGV[3] seats, ARGV[4] flight key
+-- Returns 1 when the seats were returned, otherwise 0
+redis.call('DEL', KEYS[3])
+if redis.call('ZREM', KEYS[2], table.concat({ARGV[1], ARGV[2], ARGV[3]}, '|')) == 0 then
+    return 0
+end
+local inventoryId = redis.call('HGET', KEYS[1], 'id')
+local field = 'avail:' .. ARGV[2]
+local available = redis.call('HINCRBY', KEYS[1], field, ARGV[3])
+local capacity = tonumber(redis.call('HGET', KEYS[1], 'cap:' .. ARGV[2]))
+if capacity and available > capacity then
+    redis.call('HSET', KEYS[1], field, capacity)
+end
+local time = redis.call('TIME')
+redis.call('RPUSH', KEYS[4], table.concat({'RELEASE', ARGV[1], inventoryId, ARGV[2], ARGV[3], time[1] .. '000', ARGV[4]}, '|'))
+return 1
@@ -0,0 +1,8 @@
+-- Apply an inventory update to loaded counters; unloaded counters pick it up when loaded.
+-- KEYS[1] seat counters
+-- ARGV[1] cabin, ARGV[2] available, ARGV[3] capacity
+if redis.call('EXISTS', KEYS[1]) == 0 then
+    return 0
+end
+redis.call('HSET', KEYS[1], 'avail:' .. ARGV[1], ARGV[2], 'cap:' .. ARGV[1], ARGV[3])
+return 1
@@ -0,0 +1,130 @@
+package com.credtravels.common.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two H2 databases standing in for a primary and its replica; replication is simulated by
+ * copying the primary's heartbeat to the replica
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+    private ReplicaRoutingDataSource routing;
+    private MeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        primary = standIn("routing_primary");
+        replica = standIn("routing_replica");
+        meterRegistry = new SimpleMeterRegistry();
+        routing = new ReplicaRoutingDataSource("test", primary, List.of(replica), 500, meterRegistry);
+
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(primary).execute("DROP ALL OBJECTS");
+        new JdbcTemplate(replica).execute("DROP ALL OBJECTS");
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void readOnlyTransactionsReadTheReplicaWhileItKeepsUp() {
+        // Never checked yet, so the replica counts as lagging
+        assertEquals("routing_primary", readOnly.execute(status -> server()));
+
+        routing.checkReplicas();
+        replicate();
+        routing.checkReplicas();
+        assertEquals("routing_replica", readOnly.execute(status -> server()));
+        assertEquals("routing_primary", readWrite.execute(status -> server()));
+        assertEquals("routing_primary", server());
+
+        // The replica stops applying changes and falls behind
+        new JdbcTemplate(replica).update("UPDATE replica_heartbeat SET beat_millis = ?", System.currentTimeMillis() - 10_000);
+        routing.checkReplicas();
+        assertEquals("routing_primary", readOnly.execute(status -> server()));
+
+        assertEquals(2.0, meterRegistry.get("credtravels.datasource.replica.fallbacks").counter().count());
+        assertTrue(meterRegistry.get("credtravels.datasource.replica.lag").gauge().value() >= 10_000);
+        assertEquals(1, meterRegistry.get("credtravels.datasource.connection.acquire").tag("pool", "replica-0").timer().count());
+    }
+
+    @Test
+    void unreachableReplicaLeavesReadsOnThePrimary() {
+        routing.checkReplicas();
+        replicate();
+        routing.checkReplicas();
+        assertEquals("routing_replica", readOnly.execute(status -> server()));
+
+        new JdbcTemplate(replica).execute("DROP TABLE replica_heartbeat");
+        routing.checkReplicas();
+        assertEquals("routing_primary", readOnly.execute(status -> server()));
+        assertTrue(Double.isNaN(meterRegistry.get("credtravels.datasource.replica.lag").gauge().value()));
+    }
+
+    @Test
+    void replicaStopsServingWhenItsChecksStop() throws InterruptedException {
+        routing.checkReplicas();
+        replicate();
+        routing.checkReplicas();
+        assertEquals("routing_replica", readOnly.execute(status -> server()));
+
+        // No check for longer than the allowed lag, as when the checks are held up
+        Thread.sleep(600);
+        assertEquals("routing_primary", readOnly.execute(status -> server()));
+
+        new JdbcTemplate(replica).update("UPDATE replica_heartbeat SET beat_millis = ?", System.currentTimeMillis());
+        routing.checkReplicas();
+        assertEquals("routing_replica", readOnly.execute(status -> server()));
+    }
+
+    // Private helper methods
+
+    private String server() {
+        return jdbcTemplate.queryForObject("SELECT name FROM server", String.class);
+    }
+
+    private void replicate() {
+        Long beat = new JdbcTemplate(primary).queryForObject("SELECT beat_millis FROM replica_heartbeat WHERE id = 1", Long.class);
+        new JdbcTemplate(replica).update("INSERT INTO replica_heartbeat (id, beat_millis) VALUES (1, ?)", beat);
+    }
+
+    private static HikariDataSource standIn(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE replica_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE server (name VARCHAR(50))");
+        jdbcTemplate.update("INSERT INTO server (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,96 @@
+package com.credtravels.common.idempotency;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.controller.InventoryController;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.SeatReservationRepository;
+import com.credtravels.inventory.service.InventoryService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class IdempotencyFilterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2025, 1, 10);
+    private static final String PATH = "/api/inventory/flights/9600/reserve?flightDate=2025-01-10";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    private MockMvc mockMvc;
+    private Long inventoryId;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        IdempotencyStore store = new IdempotencyStore();
+        ReflectionTestUtils.setField(store, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(store, "ttlMillis", 60_000L);
+        ReflectionTestUtils.setField(store, "maxEntries", 1_000);
+        ReflectionTestUtils.setField(store, "redisEnabled", false);
+        store.init();
+        IdempotencyFilter filter = new IdempotencyFilter();
+        ReflectionTestUtils.setField(filter, "idempotencyStore", store);
+        ReflectionTestUtils.setField(filter, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(filter, "paths", new String[] {"/api/inventory/**"});
+        ReflectionTestUtils.setField(filter, "excludedPaths", new String[] {"/api/inventory/import"});
+
+        InventoryController controller = new InventoryController();
+        ReflectionTestUtils.setField(controller, "inventoryService", inventoryService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filter).build();
+
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(9_600L);
+        inventory.setFlightDate(DATE);
+        inventory.setEconomy(new CabinInventory(100, 100, 500_000L));
+        inventoryId = flightInventoryRepository.save(inventory).getId();
+    }
+
+    @Test
+    void retriedReservationReturnsTheOriginalHold() throws Exception {
+        String first = mockMvc.perform(reserve("retry-1", 2))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String retried = mockMvc.perform(reserve("retry-1", 2))
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(first, retried);
+        assertEquals(1, seatReservationRepository.findByFlightInventoryId(inventoryId).size());
+
+        // The same key on a different request is refused, a new key runs again
+        mockMvc.perform(reserve("retry-1", 3)).andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(reserve("retry-2", 2)).andExpect(status().isOk());
+        assertEquals(2, seatReservationRepository.findByFlightInventoryId(inventoryId).size());
+    }
+
+    private static MockHttpServletRequestBuilder reserve(String key, int seats) {
+        return put(PATH).header(IdempotencyFilter.HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"seatClass\":\"ECONOMY\",\"seatCount\":" + seats + "}");
+    }
+}
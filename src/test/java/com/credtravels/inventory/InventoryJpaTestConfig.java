@@ -0,0 +1,102 @@
+package com.credtravels.inventory;
+
+import com.credtravels.flightsinfo.service.FlightsInfoService;
+import com.credtravels.inventory.audit.InventoryAuditJournal;
+import com.credtravels.inventory.availability.AvailabilityPushHub;
+import com.credtravels.inventory.availability.InventoryVersionIndex;
+import com.credtravels.inventory.availability.RouteFlightIndex;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.batch.InventoryBatchWriter;
+import com.credtravels.inventory.batch.InventoryImporter;
+import com.credtravels.inventory.events.InventoryChangeFeed;
+import com.credtravels.inventory.events.InventoryEventGaps;
+import com.credtravels.inventory.events.InventoryEventStore;
+import com.credtravels.inventory.expiry.ReservationExpiryWheel;
+import com.credtravels.inventory.pricing.FarePricingEngine;
+import com.credtravels.inventory.seats.DatabaseSeatCounter;
+import com.credtravels.inventory.seats.ReservationLanes;
+import com.credtravels.inventory.service.impl.InventoryServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inventory module wired against an in-memory H2 database, without the other modules,
+ * Redis or the web layer. Reused by inventory integration tests. H2 stays in its own mode:
+ * MySQL mode resynchronises identity sequences on every insert without a lock, which hands
+ * out duplicate ids to the parallel batch writer.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories(
+    basePackages = "com.credtravels.inventory.repository",
+    entityManagerFactoryRef = "inventoryEntityManagerFactory",
+    transactionManagerRef = "inventoryTransactionManager"
+)
+@Import({InventoryServiceImpl.class, InventoryAuditJournal.class, InventoryBatchWriter.class, InventoryImporter.class, InventoryEventStore.class, InventoryChangeFeed.class, InventoryEventGaps.class, SeatAvailabilityIndex.class, AvailabilityPushHub.class, InventoryVersionIndex.class, DatabaseSeatCounter.class, ReservationLanes.class, ReservationExpiryWheel.class, FarePricingEngine.class, RouteFlightIndex.class})
+public class InventoryJpaTestConfig {
+
+    @Bean
+    public DataSource inventoryDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:inventory_test;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setMaximumPoolSize(32);
+        return dataSource;
+    }
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean inventoryEntityManagerFactory(DataSource inventoryDataSource) {
+        LocalContainerEntityManagerFactoryBean em = new LocalContainerEntityManagerFactoryBean();
+        em.setDataSource(inventoryDataSource);
+        em.setPackagesToScan("com.credtravels.inventory.model");
+        em.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("hibernate.hbm2ddl.auto", "create-drop");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.show_sql", "false");
+        em.setJpaPropertyMap(properties);
+        return em;
+    }
+
+    @Bean
+    public PlatformTransactionManager inventoryTransactionManager(LocalContainerEntityManagerFactoryBean inventoryEntityManagerFactory) {
+        return new JpaTransactionManager(inventoryEntityManagerFactory.getObject());
+    }
+
+    @Bean
+    public FlightsInfoService flightsInfoService() {
+        // flight_info lives in another database; tests stub the flights they need
+        return Mockito.mock(FlightsInfoService.class);
+    }
+
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
+    @Bean
+    public ObjectMapper objectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        return objectMapper;
+    }
+}
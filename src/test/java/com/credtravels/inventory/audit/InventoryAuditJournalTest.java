@@ -0,0 +1,91 @@
+package com.credtravels.inventory.audit;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryUpdateLog;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.InventoryAuditOutboxRepository;
+import com.credtravels.inventory.repository.InventoryUpdateLogRepository;
+import com.credtravels.inventory.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class InventoryAuditJournalTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 6, 1);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryAuditJournal auditJournal;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private InventoryAuditOutboxRepository outboxRepository;
+
+    @Autowired
+    private InventoryUpdateLogRepository inventoryUpdateLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void updatesAreAuditedAsDeltasOnceCommitted() {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(4_000L);
+        inventory.setFlightDate(DATE);
+        inventory.setEconomy(new CabinInventory(100, 100, 500_000L));
+        Long inventoryId = flightInventoryRepository.save(inventory).getId();
+
+        inventoryService.updateInventory(4_000L, DATE, request("5500.00", "Fare change"));
+        // A rolled back update leaves no audit entry behind
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.updateInventory(4_000L, DATE, request("9900.00", "Abandoned"));
+            status.setRollbackOnly();
+        });
+
+        List<InventoryUpdateLog> pending = auditJournal.findByFlightInventoryIdOrderByCreatedAtDesc(inventoryId);
+        assertEquals(1, pending.size());
+        assertEquals("{\"economy\":{\"priceMinor\":500000}}", pending.get(0).getOldValues());
+        assertEquals("{\"economy\":{\"priceMinor\":550000}}", pending.get(0).getNewValues());
+        assertTrue(inventoryUpdateLogRepository.findByFlightInventoryIdOrderByCreatedAtDesc(inventoryId).isEmpty());
+
+        auditJournal.relay();
+        inventoryService.updateInventory(4_000L, DATE, request("6000.00", "Second change"));
+
+        List<InventoryUpdateLog> trail = auditJournal.findByFlightInventoryIdOrderByCreatedAtDesc(inventoryId);
+        assertEquals(2, trail.size());
+        assertEquals("Second change", trail.get(0).getUpdateReason());
+        assertEquals("Fare change", trail.get(1).getUpdateReason());
+        assertEquals(1, inventoryUpdateLogRepository.findByFlightInventoryIdOrderByCreatedAtDesc(inventoryId).size());
+
+        auditJournal.relay();
+        assertTrue(outboxRepository.findByFlightInventoryIdOrderByCreatedAtDesc(inventoryId).isEmpty());
+        assertEquals(2, inventoryUpdateLogRepository.findByFlightInventoryIdOrderByCreatedAtDesc(inventoryId).size());
+    }
+
+    private static InventoryUpdateRequest request(String economyPrice, String reason) {
+        InventoryUpdateRequest request = new InventoryUpdateRequest();
+        request.setPricing(Map.of("economy", new BigDecimal(economyPrice)));
+        request.setUpdatedBy("revenue");
+        request.setUpdateReason(reason);
+        return request;
+    }
+}
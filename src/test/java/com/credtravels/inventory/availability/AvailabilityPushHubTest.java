@@ -0,0 +1,165 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.service.InventoryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class AvailabilityPushHubTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 8, 1);
+    private static final int SUBSCRIBERS = 20_000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private AvailabilityPushHub hub;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void burstsReachEachSubscriberAsOneDelta() throws InterruptedException {
+        InventoryUpdateRequest create = new InventoryUpdateRequest();
+        create.setAvailableSeats(Map.of("economy", 100, "business", 10));
+        create.setTotalCapacity(Map.of("economy", 100, "business", 10));
+        create.setPricing(Map.of("economy", new BigDecimal("5000.00")));
+        Long inventoryId = inventoryService.updateInventory(6_000L, DATE, create).getId();
+
+        List<RecordingEmitter> subscribers = new ArrayList<>();
+        for (int i = 0; i < SUBSCRIBERS; i++) {
+            RecordingEmitter emitter = new RecordingEmitter();
+            hub.register(inventoryId, emitter);
+            subscribers.add(emitter);
+        }
+        hub.push();
+        assertTrue(hub.awaitSends(10_000));
+        for (RecordingEmitter emitter : subscribers) {
+            assertEquals(1, emitter.events.size());
+            assertTrue(emitter.events.get(0).contains("event:snapshot"));
+            assertTrue(emitter.events.get(0).contains("\"business\":{\"availableSeats\":10,\"totalCapacity\":10,\"price\":0.00}"));
+        }
+
+        for (int i = 0; i < 40; i++) {
+            inventoryService.reserveSeats(6_000L, DATE, new SeatReservationRequest(SeatClass.ECONOMY, 1));
+        }
+        InventoryUpdateRequest fareChange = new InventoryUpdateRequest();
+        fareChange.setPricing(Map.of("economy", new BigDecimal("5500.00")));
+        inventoryService.updateInventory(6_000L, DATE, fareChange);
+        subscribers.get(0).failing = true;
+
+        hub.push();
+        assertTrue(hub.awaitSends(10_000));
+
+        for (RecordingEmitter emitter : subscribers.subList(1, SUBSCRIBERS)) {
+            assertEquals(2, emitter.events.size());
+            assertTrue(emitter.events.get(1).contains("event:delta"));
+            assertTrue(emitter.events.get(1).contains("\"cabins\":{\"economy\":{\"availableSeats\":60,\"price\":5500.00}}"));
+        }
+        assertEquals(SUBSCRIBERS - 1, hub.getSubscriberCount());
+
+        // Nothing changed since the last push
+        hub.push();
+        assertTrue(hub.awaitSends(10_000));
+        assertEquals(2, subscribers.get(1).events.size());
+    }
+
+    @Test
+    void stalledSubscriberIsEvictedWithoutHoldingBackThePush() throws InterruptedException {
+        InventoryUpdateRequest create = new InventoryUpdateRequest();
+        create.setAvailableSeats(Map.of("economy", 100));
+        create.setTotalCapacity(Map.of("economy", 100));
+        create.setPricing(Map.of("economy", new BigDecimal("5000.00")));
+        Long inventoryId = inventoryService.updateInventory(6_001L, DATE, create).getId();
+        int subscribed = hub.getSubscriberCount();
+        double evicted = meterRegistry.get("credtravels.inventory.push.evictions").counter().count();
+
+        RecordingEmitter live = new RecordingEmitter();
+        RecordingEmitter stalled = new RecordingEmitter();
+        stalled.release = new CountDownLatch(1);
+        hub.register(inventoryId, live);
+        hub.register(inventoryId, stalled);
+        ReflectionTestUtils.setField(hub, "sendTimeoutMillis", 0L);
+        try {
+            hub.push();
+            awaitEvents(live, 1);
+            // The stalled write is older than the send timeout by the next push
+            Thread.sleep(5);
+
+            inventoryService.reserveSeats(6_001L, DATE, new SeatReservationRequest(SeatClass.ECONOMY, 1));
+            hub.push();
+            awaitEvents(live, 2);
+            assertTrue(live.events.get(1).contains("\"availableSeats\":99"));
+            assertEquals(subscribed + 1, hub.getSubscriberCount());
+            assertEquals(evicted + 1, meterRegistry.get("credtravels.inventory.push.evictions").counter().count());
+        } finally {
+            ReflectionTestUtils.setField(hub, "sendTimeoutMillis", 5_000L);
+            stalled.release.countDown();
+        }
+        assertTrue(hub.awaitSends(10_000));
+    }
+
+    private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+        for (int i = 0; i < 10_000 && emitter.size() < count; i++) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, emitter.size());
+    }
+
+    /**
+     * Emitter keeping the events sent to it instead of writing them to a response
+     */
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<String> events = new ArrayList<>();
+        private volatile boolean failing;
+        // Holds every write until counted down, as a client that stopped reading does
+        private CountDownLatch release;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            if (release != null) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted", e);
+                }
+            }
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            synchronized (events) {
+                events.add(event.toString());
+            }
+        }
+
+        private int size() {
+            synchronized (events) {
+                return events.size();
+            }
+        }
+    }
+}
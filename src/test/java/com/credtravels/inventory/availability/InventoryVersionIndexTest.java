@@ -0,0 +1,101 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.controller.InventoryController;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.events.InventoryEventGaps;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class InventoryVersionIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 10, 1);
+    private static final String PATH = "/api/inventory/flights/8000/availability?flightDate=2024-10-01";
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryVersionIndex versionIndex;
+
+    @Autowired
+    private InventoryEventGaps inventoryEventGaps;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        // Events of other tests may have left rolled back ids behind
+        ReflectionTestUtils.setField(inventoryEventGaps, "gapTimeoutMillis", 0L);
+        InventoryController controller = new InventoryController();
+        ReflectionTestUtils.setField(controller, "inventoryService", inventoryService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @AfterEach
+    void restoreGapTimeout() {
+        ReflectionTestUtils.setField(inventoryEventGaps, "gapTimeoutMillis", 30_000L);
+    }
+
+    @Test
+    void unchangedInventoryIsAnsweredWithNotModified() throws Exception {
+        InventoryUpdateRequest create = new InventoryUpdateRequest();
+        create.setAvailableSeats(Map.of("economy", 100));
+        create.setTotalCapacity(Map.of("economy", 100));
+        create.setPricing(Map.of("economy", new BigDecimal("5000.00")));
+        Long inventoryId = inventoryService.updateInventory(8_000L, DATE, create).getId();
+        versionIndex.tail();
+
+        String etag = mockMvc.perform(get(PATH)).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        // A hold committed on this node drops the cached version right away
+        inventoryService.reserveSeats(8_000L, DATE, new SeatReservationRequest(SeatClass.ECONOMY, 2));
+        assertNull(versionIndex.etag(8_000L, DATE));
+        String held = mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, held);
+
+        // A change committed by another node is seen through its event
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("UPDATE flight_inventory SET economy_available_seats = 90, version = version + 1 WHERE id = ?",
+                inventoryId);
+        jdbcTemplate.update("INSERT INTO inventory_event (flight_inventory_id, event_type, seat_class, amount, occurred_at) "
+                + "VALUES (?, 'SEATS_SET', 'ECONOMY', 90, CURRENT_TIMESTAMP)", inventoryId);
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, held)).andExpect(status().isNotModified());
+        versionIndex.tail();
+        mockMvc.perform(get(PATH).header(HttpHeaders.IF_NONE_MATCH, held)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,82 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.flightsinfo.model.Airport;
+import com.credtravels.flightsinfo.model.FlightInfo;
+import com.credtravels.flightsinfo.service.FlightsInfoService;
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class RouteFlightIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 12, 1);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private RouteFlightIndex routeFlightIndex;
+
+    @Autowired
+    private FlightsInfoService flightsInfoService;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Test
+    void searchReadsOnlyTheFlightsOfTheRoute() {
+        Mockito.when(flightsInfoService.getAllAirports()).thenReturn(List.of(
+                airport(1L, "DEL"), airport(2L, "BOM"), airport(3L, "BLR")));
+        Mockito.when(flightsInfoService.getActiveFlights()).thenReturn(List.of(
+                flight(9_600L, 1L, 2L), flight(9_601L, 1L, 2L), flight(9_602L, 1L, 3L), flight(9_603L, 2L, 1L)));
+        routeFlightIndex.refresh();
+        for (long flightInfoId = 9_600L; flightInfoId <= 9_603L; flightInfoId++) {
+            flightInventoryRepository.save(inventory(flightInfoId, DATE));
+        }
+        flightInventoryRepository.save(inventory(9_601L, DATE.plusDays(1)));
+
+        List<FlightInventory> found = inventoryService.searchFlightsByDateAndRoute(DATE, "del", "BOM");
+
+        assertEquals(List.of(9_600L, 9_601L), found.stream().map(FlightInventory::getFlightInfoId).sorted().toList());
+        assertTrue(found.stream().allMatch(inventory -> DATE.equals(inventory.getFlightDate())));
+        assertTrue(inventoryService.searchFlightsByDateAndRoute(DATE, "BLR", "DEL").isEmpty());
+    }
+
+    // Private helper methods
+
+    private static Airport airport(Long id, String iataCode) {
+        Airport airport = new Airport();
+        airport.setId(id);
+        airport.setIataCode(iataCode);
+        return airport;
+    }
+
+    private static FlightInfo flight(Long id, Long departureAirportId, Long arrivalAirportId) {
+        FlightInfo flight = new FlightInfo();
+        flight.setId(id);
+        flight.setDepartureAirportId(departureAirportId);
+        flight.setArrivalAirportId(arrivalAirportId);
+        return flight;
+    }
+
+    private static FlightInventory inventory(Long flightInfoId, LocalDate date) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(date);
+        inventory.setEconomy(new CabinInventory(100, 100, 500_000L));
+        return inventory;
+    }
+}
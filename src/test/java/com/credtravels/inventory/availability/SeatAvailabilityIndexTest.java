@@ -0,0 +1,74 @@
+package com.credtravels.inventory.availability;
+
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatAvailabilityIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+    private SeatAvailabilityIndex index;
+    private FlightInventoryRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        index = new SeatAvailabilityIndex();
+        repository = Mockito.mock(FlightInventoryRepository.class);
+        ReflectionTestUtils.setField(index, "flightInventoryRepository", repository);
+    }
+
+    @Test
+    void answersEverySeatCountFromOneToNine() {
+        for (int seats = 0; seats <= 10; seats++) {
+            index.record(inventory(100L + seats, 1L, SeatClass.ECONOMY, seats));
+        }
+        for (int requested = 1; requested <= SeatAvailabilityIndex.MAX_SEATS; requested++) {
+            AvailabilityFilter economy = index.filter(SeatClass.ECONOMY, requested);
+            AvailabilityFilter business = index.filter(SeatClass.BUSINESS, requested);
+            for (int seats = 0; seats <= 10; seats++) {
+                assertEquals(seats >= requested, economy.hasSeats(100L + seats, DATE),
+                        seats + " seats for a party of " + requested);
+                assertFalse(business.hasSeats(100L + seats, DATE));
+            }
+        }
+    }
+
+    @Test
+    void olderVersionsDoNotOverwriteNewerCounts() {
+        index.record(inventory(1L, 3L, SeatClass.ECONOMY, 0));
+        index.record(inventory(1L, 2L, SeatClass.ECONOMY, 5));
+
+        assertFalse(index.filter(SeatClass.ECONOMY, 1).hasSeats(1L, DATE));
+    }
+
+    @Test
+    void loadsDateOnFirstReadAndLetsUnknownFlightsThrough() {
+        Mockito.when(repository.findByFlightDate(DATE)).thenReturn(List.of(inventory(7L, 1L, SeatClass.FIRST, 2)));
+
+        AvailabilityFilter filter = index.filter(SeatClass.FIRST, 3);
+        assertFalse(filter.hasSeats(7L, DATE));
+        assertTrue(filter.hasSeats(8L, DATE));
+        assertTrue(index.filter(SeatClass.FIRST, 2).hasSeats(7L, DATE));
+    }
+
+    private static FlightInventory inventory(Long flightInfoId, Long version, SeatClass seatClass, int seats) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(DATE);
+        inventory.setVersion(version);
+        inventory.getCabin(seatClass).setAvailableSeats(seats);
+        return inventory;
+    }
+}
@@ -0,0 +1,136 @@
+package com.credtravels.inventory.batch;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.InventoryImportSummary;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryImportCheckpoint;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.InventoryImportCheckpointRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class InventoryImporterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 1);
+    private static final long FIRST_FLIGHT = 2_000L;
+    private static final int FLIGHTS = 300;
+    private static final int DAYS = 20;
+
+    @Autowired
+    private InventoryImporter importer;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private InventoryImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void brokenCsvUploadResumesFromCheckpoint() throws IOException {
+        int items = FLIGHTS * DAYS;
+        double fallbacksBefore = chunkFallbacks();
+        // The connection drops part way through the third batch
+        assertThrows(IOException.class, () -> importer.importFeed("feed-1", InventoryFeedReader.Format.CSV, new CsvFeed(4_500)));
+        InventoryImportCheckpoint checkpoint = checkpointRepository.findById("feed-1").orElseThrow();
+        assertEquals(4_001, checkpoint.getLastLine());
+        assertEquals(InventoryImportCheckpoint.ImportStatus.IN_PROGRESS, checkpoint.getStatus());
+
+        InventoryImportSummary summary = importer.importFeed("feed-1", InventoryFeedReader.Format.CSV, new CsvFeed(Long.MAX_VALUE));
+
+        assertEquals(InventoryImportCheckpoint.ImportStatus.COMPLETED, summary.getStatus());
+        assertEquals(4_001, summary.getResumedAfterLine());
+        assertEquals(items + 1, summary.getLastLine());
+        assertEquals(items, summary.getItemsCreated());
+        assertEquals(0, summary.getItemsFailed());
+        FlightInventory last = flightInventoryRepository
+                .findByFlightInfoIdAndFlightDate(FIRST_FLIGHT + FLIGHTS - 1, DATE.plusDays(DAYS - 1)).orElseThrow();
+        assertEquals(90, last.getEconomy().getAvailableSeats());
+        assertEquals(650_000L, last.getEconomy().getPriceMinor());
+        assertEquals(fallbacksBefore, chunkFallbacks());
+    }
+
+    @Test
+    void rejectedNdjsonLinesAreReportedWithoutStoppingTheFeed() throws IOException {
+        String feed = String.join("\n",
+                "{\"flightInfoId\":3000,\"flightDate\":\"2024-05-01\",\"availableSeats\":{\"economy\":40},\"totalCapacity\":{\"economy\":50}}",
+                "not json",
+                "",
+                "{\"flightInfoId\":3000,\"flightDate\":\"2024-05-01\",\"pricing\":{\"economy\":5500.00}}",
+                "{\"flightInfoId\":3001,\"flightDate\":\"2024-05-01\",\"availableSeats\":{\"premium\":4}}");
+
+        InventoryImportSummary summary = importer.importFeed("feed-2", InventoryFeedReader.Format.NDJSON,
+                new ByteArrayInputStream(feed.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(1, summary.getItemsCreated());
+        assertEquals(1, summary.getItemsUpdated());
+        assertEquals(2, summary.getItemsFailed());
+        assertTrue(summary.getErrors().get(0).startsWith("Line 2: Invalid JSON"));
+        assertTrue(summary.getErrors().get(1).startsWith("Line 5: Unknown seat class"));
+        FlightInventory inventory = flightInventoryRepository.findByFlightInfoIdAndFlightDate(3000L, DATE).orElseThrow();
+        assertEquals(40, inventory.getEconomy().getAvailableSeats());
+        assertEquals(550_000L, inventory.getEconomy().getPriceMinor());
+    }
+
+    private double chunkFallbacks() {
+        return meterRegistry.get("credtravels.inventory.batch.chunk.fallbacks").counter().count();
+    }
+
+    /**
+     * Generates the CSV feed line by line, failing like a dropped connection after the given line
+     */
+    private static class CsvFeed extends InputStream {
+
+        private final long failAfterLine;
+        private long line;
+        private byte[] current = new byte[0];
+        private int position;
+
+        CsvFeed(long failAfterLine) {
+            this.failAfterLine = failAfterLine;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (position == current.length && !nextLine()) {
+                return -1;
+            }
+            return current[position++] & 0xff;
+        }
+
+        private boolean nextLine() throws IOException {
+            if (line >= (long) FLIGHTS * DAYS + 1) {
+                return false;
+            }
+            if (line >= failAfterLine) {
+                throw new IOException("Connection reset");
+            }
+            String text;
+            if (line == 0) {
+                text = "flight_info_id,flight_date,economy_available_seats,economy_total_capacity,economy_price,update_reason\n";
+            } else {
+                long item = line - 1;
+                text = (FIRST_FLIGHT + item / DAYS) + "," + DATE.plusDays(item % DAYS) + ",90,100,6500.00,\"RM snapshot, nightly\"\n";
+            }
+            line++;
+            current = text.getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            return true;
+        }
+    }
+}
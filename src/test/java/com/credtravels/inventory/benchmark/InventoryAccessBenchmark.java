@@ -0,0 +1,104 @@
+package com.credtravels.inventory.benchmark;
+
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Availability check, fare read and seat reservation on the former JSON string columns
+ * versus the typed per-cabin columns of FlightInventory.
+ * Run {@link #main} after {@code mvn test-compile} with the test classpath, e.g. from the IDE
+ * or {@code java -cp target/test-classes:target/classes:<test dependencies> ...InventoryAccessBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryAccessBenchmark {
+
+    private static final TypeReference<HashMap<String, Integer>> SEATS = new TypeReference<>() {};
+    private static final TypeReference<HashMap<String, BigDecimal>> FARES = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String availableSeatsJson;
+    private String pricingJson;
+    private FlightInventory inventory;
+
+    @Setup
+    public void setUp() {
+        availableSeatsJson = "{\"economy\": 150, \"business\": 20, \"first\": 8}";
+        pricingJson = "{\"economy\": 15000, \"business\": 45000, \"first\": 80000}";
+        inventory = new FlightInventory();
+        inventory.setEconomy(new CabinInventory(150, 150, 1_500_000L));
+        inventory.setBusiness(new CabinInventory(20, 20, 4_500_000L));
+        inventory.setFirst(new CabinInventory(8, 8, 8_000_000L));
+    }
+
+    @Benchmark
+    public boolean jsonHasSeats() throws Exception {
+        return objectMapper.readValue(availableSeatsJson, SEATS).getOrDefault("economy", 0) >= 2;
+    }
+
+    @Benchmark
+    public boolean typedHasSeats() {
+        return inventory.getCabin(SeatClass.ECONOMY).getAvailableSeats() >= 2;
+    }
+
+    @Benchmark
+    public BigDecimal jsonFare() throws Exception {
+        return objectMapper.readValue(pricingJson, FARES).get("business");
+    }
+
+    @Benchmark
+    public BigDecimal typedFare() {
+        return inventory.getCabin(SeatClass.BUSINESS).priceAsDecimal();
+    }
+
+    @Benchmark
+    public String jsonReserveAndRelease() throws Exception {
+        Map<String, Integer> seats = objectMapper.readValue(availableSeatsJson, SEATS);
+        seats.merge("economy", -2, Integer::sum);
+        String reserved = objectMapper.writeValueAsString(seats);
+        seats = objectMapper.readValue(reserved, SEATS);
+        seats.merge("economy", 2, Integer::sum);
+        availableSeatsJson = objectMapper.writeValueAsString(seats);
+        return availableSeatsJson;
+    }
+
+    @Benchmark
+    public int typedReserveAndRelease() {
+        CabinInventory economy = inventory.getCabin(SeatClass.ECONOMY);
+        economy.adjustAvailableSeats(-2);
+        economy.adjustAvailableSeats(2);
+        return economy.getAvailableSeats();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InventoryAccessBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
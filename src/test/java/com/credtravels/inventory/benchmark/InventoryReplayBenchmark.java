@@ -0,0 +1,117 @@
+package com.credtravels.inventory.benchmark;
+
+import com.credtravels.inventory.events.InventoryState;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.InventorySnapshot;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of rebuilding one inventory from its history: replaying seat and fare events
+ * from scratch or from a snapshot, versus reading the full JSON copies of every change
+ * that inventory_update_log used to hold. Scores are per event or log entry.
+ * Run {@link #main} after {@code mvn test-compile} with the test classpath, e.g. from the IDE
+ * or {@code java -cp target/test-classes:target/classes:<test dependencies> ...InventoryReplayBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryReplayBenchmark {
+
+    private static final int EVENTS = 10_000;
+    private static final int SNAPSHOT_EVERY = 500;
+    private static final TypeReference<HashMap<String, Integer>> SEATS = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final EventType[] eventTypes = new EventType[EVENTS];
+    private final int[] cabins = new int[EVENTS];
+    private final long[] amounts = new long[EVENTS];
+    private final String[] fullCopies = new String[EVENTS];
+    private final LocalDateTime occurredAt = LocalDateTime.now();
+    private InventorySnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        int economy = 150;
+        for (int i = 0; i < EVENTS; i++) {
+            boolean fareChange = i % 50 == 0;
+            eventTypes[i] = fareChange ? EventType.PRICE_SET : EventType.SEATS_ADJUSTED;
+            cabins[i] = SeatClass.ECONOMY.ordinal();
+            amounts[i] = fareChange ? 1_500_000L + i : (i % 2 == 0 ? -2 : 2);
+            if (!fareChange) {
+                economy += (int) amounts[i];
+            }
+            fullCopies[i] = "{\"economy\": " + economy + ", \"business\": 20, \"first\": 8}";
+        }
+        snapshot = new InventorySnapshot();
+        snapshot.setLastEventId(EVENTS - SNAPSHOT_EVERY);
+        snapshot.setAsOf(occurredAt);
+        snapshot.setEconomy(new CabinInventory(150, 150, 1_500_000L));
+        snapshot.setBusiness(new CabinInventory(20, 20, 4_500_000L));
+        snapshot.setFirst(new CabinInventory(8, 8, 8_000_000L));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int replayFullHistory() {
+        InventoryState state = new InventoryState();
+        replay(state, 0);
+        return state.getAvailableSeats(SeatClass.ECONOMY);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SNAPSHOT_EVERY)
+    public int replayFromSnapshot() {
+        InventoryState state = new InventoryState(snapshot);
+        replay(state, EVENTS - SNAPSHOT_EVERY);
+        return state.getAvailableSeats(SeatClass.ECONOMY);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int scanFullJsonCopies() throws Exception {
+        int economy = 0;
+        for (String copy : fullCopies) {
+            Map<String, Integer> seats = objectMapper.readValue(copy, SEATS);
+            economy = seats.get("economy");
+        }
+        return economy;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(InventoryReplayBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private void replay(InventoryState state, int from) {
+        for (int i = from; i < EVENTS; i++) {
+            state.apply(i + 1, eventTypes[i], cabins[i], amounts[i], occurredAt);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.credtravels.inventory.benchmark;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.seats.ReservationLanes;
+import com.credtravels.inventory.service.InventoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds and releases of one seat by 16 threads on a single hot flight date, with guarded SQL
+ * decrements and retries versus the writer lanes, against the in-memory H2 test database.
+ * Throughput is in operations per second; sample time reports the latency percentiles.
+ * Run {@link #main} after {@code mvn test-compile} with the test classpath, e.g. from the IDE
+ * or {@code java -cp target/test-classes:target/classes:<test dependencies> ...SeatReservationBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class SeatReservationBenchmark {
+
+    private static final long FLIGHT_INFO_ID = 42_000L;
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+    @Param({"false", "true"})
+    private boolean lanes;
+
+    private AnnotationConfigApplicationContext context;
+    private InventoryService inventoryService;
+
+    @Setup
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(InventoryJpaTestConfig.class);
+        inventoryService = context.getBean(InventoryService.class);
+        ReflectionTestUtils.setField(context.getBean(ReservationLanes.class), "enabled", lanes);
+
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(FLIGHT_INFO_ID);
+        inventory.setFlightDate(DATE);
+        inventory.setEconomy(new CabinInventory(1_000, 1_000, 1_500_000L));
+        context.getBean(FlightInventoryRepository.class).save(inventory);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public SeatReservation holdAndRelease() {
+        SeatReservation reservation = inventoryService.reserveSeats(FLIGHT_INFO_ID, DATE,
+                new SeatReservationRequest(SeatClass.ECONOMY, 1));
+        inventoryService.releaseSeatReservation(reservation.getReservationId());
+        return reservation;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SeatReservationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
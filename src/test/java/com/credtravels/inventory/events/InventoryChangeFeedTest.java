@@ -0,0 +1,163 @@
+package com.credtravels.inventory.events;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.AvailabilityUpdate;
+import com.credtravels.inventory.dto.InventoryChangePage;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.service.InventoryService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class InventoryChangeFeedTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 9, 1);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryEventGaps inventoryEventGaps;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void passGapsAtOnce() {
+        ReflectionTestUtils.setField(inventoryEventGaps, "gapTimeoutMillis", 0L);
+    }
+
+    @AfterEach
+    void restoreGapTimeout() {
+        ReflectionTestUtils.setField(inventoryEventGaps, "gapTimeoutMillis", 30_000L);
+    }
+
+    @Test
+    void pagesReturnEachTouchedInventoryOnceWithItsChangedFields() {
+        long head = inventoryService.getInventoryChanges(null, 10).getNextCursor();
+
+        // 9 events per created inventory, then 3 holds and a fare change
+        inventoryService.updateInventory(7_000L, DATE, create());
+        inventoryService.updateInventory(7_001L, DATE, create());
+        for (int i = 0; i < 3; i++) {
+            inventoryService.reserveSeats(7_000L, DATE, new SeatReservationRequest(SeatClass.ECONOMY, 2));
+        }
+        InventoryUpdateRequest fareChange = new InventoryUpdateRequest();
+        fareChange.setPricing(Map.of("economy", new BigDecimal("5500.00")));
+        inventoryService.updateInventory(7_001L, DATE, fareChange);
+
+        InventoryChangePage first = inventoryService.getInventoryChanges(head, 10);
+        assertTrue(first.isHasMore());
+        assertEquals(head + 10, first.getNextCursor());
+        assertEquals(2, first.getChanges().size());
+        assertEquals(Map.of("availableSeats", 94, "totalCapacity", 100, "price", new BigDecimal("5000.00")),
+                first.getChanges().get(0).getCabins().get("economy"));
+        assertEquals(Map.of("availableSeats", 100), first.getChanges().get(1).getCabins().get("economy"));
+
+        InventoryChangePage second = inventoryService.getInventoryChanges(first.getNextCursor(), 10);
+        assertTrue(second.isHasMore());
+
+        InventoryChangePage last = inventoryService.getInventoryChanges(second.getNextCursor(), 10);
+        assertFalse(last.isHasMore());
+        assertEquals(head + 22, last.getNextCursor());
+        List<AvailabilityUpdate> changes = last.getChanges();
+        assertEquals(7_000L, changes.get(0).getFlightInfoId());
+        assertEquals(Map.of("economy", Map.of("availableSeats", 94)), changes.get(0).getCabins());
+        assertEquals(7_001L, changes.get(1).getFlightInfoId());
+        assertEquals(Map.of("economy", Map.of("price", new BigDecimal("5500.00"))), changes.get(1).getCabins());
+
+        InventoryChangePage caughtUp = inventoryService.getInventoryChanges(last.getNextCursor(), 10);
+        assertTrue(caughtUp.getChanges().isEmpty());
+        assertEquals(last.getNextCursor(), caughtUp.getNextCursor());
+    }
+
+    @Test
+    void pagesStopBeforeAnIdStillBeingCommitted() throws Exception {
+        long head = inventoryService.getInventoryChanges(null, 10).getNextCursor();
+        ReflectionTestUtils.setField(inventoryEventGaps, "gapTimeoutMillis", 60_000L);
+
+        // The first writer takes its event ids and stays open while the second one commits
+        CountDownLatch appended = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slowWriter = executor.submit(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.updateInventory(7_002L, DATE, create());
+            appended.countDown();
+            await(release);
+        }));
+        try {
+            assertTrue(appended.await(10, TimeUnit.SECONDS));
+            inventoryService.updateInventory(7_003L, DATE, create());
+
+            InventoryChangePage held = inventoryService.getInventoryChanges(head, 100);
+            assertTrue(held.getChanges().isEmpty());
+            assertFalse(held.isHasMore());
+            assertEquals(head, held.getNextCursor());
+        } finally {
+            release.countDown();
+            slowWriter.get(10, TimeUnit.SECONDS);
+            executor.shutdown();
+        }
+
+        InventoryChangePage page = inventoryService.getInventoryChanges(head, 100);
+        assertEquals(List.of(7_002L, 7_003L), page.getChanges().stream().map(AvailabilityUpdate::getFlightInfoId).toList());
+        assertEquals(head + 18, page.getNextCursor());
+    }
+
+    @Test
+    void rolledBackIdsArePassedAfterTheGapTimeout() {
+        long head = inventoryService.getInventoryChanges(null, 10).getNextCursor();
+        ReflectionTestUtils.setField(inventoryEventGaps, "gapTimeoutMillis", 60_000L);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            inventoryService.updateInventory(7_004L, DATE, create());
+            status.setRollbackOnly();
+        });
+        inventoryService.updateInventory(7_005L, DATE, create());
+        assertEquals(head, inventoryService.getInventoryChanges(head, 100).getNextCursor());
+
+        ReflectionTestUtils.setField(inventoryEventGaps, "gapTimeoutMillis", 0L);
+        InventoryChangePage page = inventoryService.getInventoryChanges(head, 100);
+        assertEquals(List.of(7_005L), page.getChanges().stream().map(AvailabilityUpdate::getFlightInfoId).toList());
+        assertEquals(head + 18, page.getNextCursor());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static InventoryUpdateRequest create() {
+        InventoryUpdateRequest request = new InventoryUpdateRequest();
+        request.setAvailableSeats(Map.of("economy", 100));
+        request.setTotalCapacity(Map.of("economy", 100));
+        request.setPricing(Map.of("economy", new BigDecimal("5000.00")));
+        return request;
+    }
+}
@@ -0,0 +1,132 @@
+package com.credtravels.inventory.events;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.InventoryEvent;
+import com.credtravels.inventory.model.InventoryEvent.EventType;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class InventoryEventStoreTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 7, 1);
+    private static final int EVENTS = 100_000;
+    private static final int TAIL = 500;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryEventStore eventStore;
+
+    @Test
+    void inventoryIsRebuiltAsOfAnyPointInTime() throws InterruptedException {
+        InventoryUpdateRequest create = new InventoryUpdateRequest();
+        create.setAvailableSeats(Map.of("economy", 100));
+        create.setTotalCapacity(Map.of("economy", 100));
+        create.setPricing(Map.of("economy", new BigDecimal("5000.00")));
+        Long inventoryId = inventoryService.updateInventory(5_000L, DATE, create).getId();
+        LocalDateTime afterCreate = tick();
+
+        SeatReservation hold = inventoryService.reserveSeats(5_000L, DATE, new SeatReservationRequest(SeatClass.ECONOMY, 2));
+        InventoryUpdateRequest fareChange = new InventoryUpdateRequest();
+        fareChange.setPricing(Map.of("economy", new BigDecimal("5500.00")));
+        inventoryService.updateInventory(5_000L, DATE, fareChange);
+        LocalDateTime afterHold = tick();
+
+        inventoryService.releaseSeatReservation(hold.getReservationId());
+        LocalDateTime afterRelease = tick();
+
+        assertCabin(100, 500_000L, inventoryService.getFlightInventoryAt(5_000L, DATE, afterCreate));
+        assertCabin(98, 550_000L, inventoryService.getFlightInventoryAt(5_000L, DATE, afterHold));
+        assertCabin(100, 550_000L, inventoryService.getFlightInventoryAt(5_000L, DATE, afterRelease));
+
+        // A snapshot answers later times on its own and leaves earlier times to the events
+        assertTrue(eventStore.snapshot(inventoryId, afterHold));
+        assertEquals(0, eventStore.replay(inventoryId, afterHold).getEventsApplied());
+        assertEquals(1, eventStore.replay(inventoryId, afterRelease).getEventsApplied());
+        assertCabin(100, 500_000L, inventoryService.getFlightInventoryAt(5_000L, DATE, afterCreate));
+        assertCabin(100, 550_000L, inventoryService.getFlightInventoryAt(5_000L, DATE, afterRelease));
+    }
+
+    @Test
+    void snapshotLeavesOnlyTheTailToReplay() throws InterruptedException {
+        Long inventoryId = 900_000L;
+        appendSeatAdjustments(inventoryId, EVENTS);
+        LocalDateTime appended = tick();
+
+        InventoryState full = eventStore.replay(inventoryId, appended);
+        assertEquals(EVENTS, full.getEventsApplied());
+        assertEquals(0, full.getAvailableSeats(SeatClass.ECONOMY));
+
+        assertTrue(eventStore.snapshot(inventoryId, appended));
+        appendSeatAdjustments(inventoryId, TAIL);
+        LocalDateTime tail = tick();
+
+        InventoryState fromSnapshot = eventStore.replay(inventoryId, tail);
+        assertEquals(TAIL, fromSnapshot.getEventsApplied());
+        assertEquals(0, fromSnapshot.getAvailableSeats(SeatClass.ECONOMY));
+    }
+
+    @Test
+    void compactionCountsEventsAcrossRuns() throws InterruptedException {
+        Long inventoryId = 910_000L;
+        ReflectionTestUtils.setField(eventStore, "snapshotLagMillis", 0L);
+        try {
+            eventStore.compact();
+            appendSeatAdjustments(inventoryId, 300);
+            tick();
+            eventStore.compact();
+            assertEquals(300, eventStore.replay(inventoryId, tick()).getEventsApplied());
+
+            // The second run adds only its new events to the first run's count
+            appendSeatAdjustments(inventoryId, 200);
+            tick();
+            eventStore.compact();
+            assertEquals(0, eventStore.replay(inventoryId, tick()).getEventsApplied());
+        } finally {
+            ReflectionTestUtils.setField(eventStore, "snapshotLagMillis", 60_000L);
+        }
+    }
+
+    private void appendSeatAdjustments(Long inventoryId, int count) {
+        List<InventoryEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new InventoryEvent(inventoryId, EventType.SEATS_ADJUSTED, SeatClass.ECONOMY, i % 2 == 0 ? -2 : 2));
+        }
+        eventStore.appendAll(events);
+    }
+
+    private static void assertCabin(int availableSeats, long priceMinor, FlightInventory inventory) {
+        assertEquals(availableSeats, inventory.getEconomy().getAvailableSeats());
+        assertEquals(priceMinor, inventory.getEconomy().getPriceMinor());
+    }
+
+    /**
+     * A time strictly between the changes before and after the call
+     */
+    private static LocalDateTime tick() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+}
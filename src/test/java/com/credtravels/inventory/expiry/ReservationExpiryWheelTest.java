@@ -0,0 +1,55 @@
+package com.credtravels.inventory.expiry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReservationExpiryWheelTest {
+
+    private static final long TICK = 1_000;
+
+    @Test
+    void releasesHoldsWithinOneTickOfTheirDeadline() {
+        ReservationExpiryWheel wheel = new ReservationExpiryWheel(TICK, 16);
+        long now = System.currentTimeMillis();
+        wheel.schedule("RES1", now + 2_500);
+        wheel.schedule("RES2", now + 900_000);
+
+        assertTrue(wheel.advance(now + 2_000).isEmpty());
+        assertEquals(List.of("RES1"), wheel.advance(now + 3_500));
+        // Many revolutions of a 16-bucket wheel pass before the second hold is due
+        assertTrue(wheel.advance(now + 899_000 - TICK).isEmpty());
+        assertEquals(List.of("RES2"), wheel.advance(now + 901_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelledAndRescheduledHoldsFireOnlyOnce() {
+        ReservationExpiryWheel wheel = new ReservationExpiryWheel(TICK, 16);
+        long now = System.currentTimeMillis();
+        wheel.schedule("RES1", now + 5_000);
+        wheel.schedule("RES2", now + 5_000);
+        wheel.cancel("RES1");
+        wheel.schedule("RES2", now + 40_000);
+
+        assertTrue(wheel.advance(now + 10_000).isEmpty());
+        assertEquals(List.of("RES2"), wheel.advance(now + 41_000));
+    }
+
+    @Test
+    void catchesUpAfterAPauseLongerThanOneRevolution() {
+        ReservationExpiryWheel wheel = new ReservationExpiryWheel(TICK, 16);
+        long now = System.currentTimeMillis();
+        wheel.schedule("PAST", now - 60_000);
+        for (int i = 0; i < 100; i++) {
+            wheel.schedule("RES" + i, now + i * 1_000L);
+        }
+        wheel.schedule("LATER", now + 500_000);
+
+        assertEquals(101, wheel.advance(now + 120_000).size());
+        assertEquals(List.of("LATER"), wheel.advance(now + 501_000));
+    }
+}
@@ -0,0 +1,104 @@
+package com.credtravels.inventory.pricing;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.service.InventoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class FarePricingEngineTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FarePricingEngine farePricingEngine;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void fareFollowsLoadFactorAsSeatsSell() {
+        // 90 days out prices at 0.9 of the base fare
+        LocalDate date = LocalDate.now().plusDays(90);
+        inventoryService.updateInventory(9_500L, date, update(100, 100, "5000.00"));
+        assertEquals(new BigDecimal("3825.00"), farePricingEngine.quote(9_500L, date, SeatClass.ECONOMY));
+
+        inventoryService.updateInventory(9_500L, date, update(31, 100, "5000.00"));
+        assertEquals(new BigDecimal("4500.00"), farePricingEngine.quote(9_500L, date, SeatClass.ECONOMY));
+        // The second and third seat open the 70% bucket
+        assertEquals(new BigDecimal("15300.00"), inventoryService.quoteFare(9_500L, date, SeatClass.ECONOMY, 3));
+
+        inventoryService.reserveSeats(9_500L, date, new SeatReservationRequest(SeatClass.ECONOMY, 1));
+        assertEquals(new BigDecimal("5400.00"), farePricingEngine.quote(9_500L, date, SeatClass.ECONOMY));
+        assertEquals(new BigDecimal("5400.00"), farePricingEngine.fares(date, SeatClass.ECONOMY).get(9_500L));
+
+        // A new base fare rebuilds the curve
+        inventoryService.updateInventory(9_500L, date, update(30, 100, "6000.00"));
+        assertEquals(new BigDecimal("6480.00"), farePricingEngine.quote(9_500L, date, SeatClass.ECONOMY));
+        assertNull(farePricingEngine.quote(9_500L, date, SeatClass.ECONOMY, 31));
+    }
+
+    @Test
+    void dateIsLoadedFromDatabaseAndPricedByDaysToDeparture() {
+        // Written behind the engine's back, as by another node before this date was first read
+        LocalDate date = LocalDate.now().plusDays(5);
+        new JdbcTemplate(dataSource).update("INSERT INTO flight_inventory (flight_info_id, flight_date, "
+                + "economy_available_seats, economy_total_capacity, economy_price_minor, "
+                + "business_available_seats, business_total_capacity, business_price_minor, "
+                + "first_available_seats, first_total_capacity, first_price_minor, status, version, last_updated, created_at) "
+                + "VALUES (9501, ?, 10, 100, 400000, 0, 0, 0, 0, 0, 0, 'ACTIVE', 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", date);
+
+        // 90% sold, inside a week of departure: 4000 x 1.5 x 1.5
+        Map<Long, BigDecimal> fares = farePricingEngine.fares(date, SeatClass.ECONOMY);
+        assertEquals(Map.of(9_501L, new BigDecimal("9000.00")), fares);
+        assertNull(farePricingEngine.quote(9_501L, date, SeatClass.BUSINESS));
+    }
+
+    @Test
+    void changesRecordedBeforeTheFirstReadOutliveAStaleLoad() {
+        // The row as a lagging replica still has it, at version 1 with 90% sold
+        LocalDate date = LocalDate.now().plusDays(6);
+        new JdbcTemplate(dataSource).update("INSERT INTO flight_inventory (flight_info_id, flight_date, "
+                + "economy_available_seats, economy_total_capacity, economy_price_minor, "
+                + "business_available_seats, business_total_capacity, business_price_minor, "
+                + "first_available_seats, first_total_capacity, first_price_minor, status, version, last_updated, created_at) "
+                + "VALUES (9502, ?, 10, 100, 400000, 0, 0, 0, 0, 0, 0, 'ACTIVE', 1, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", date);
+        FlightInventory committed = new FlightInventory();
+        committed.setFlightInfoId(9_502L);
+        committed.setFlightDate(date);
+        committed.setVersion(2L);
+        committed.setEconomy(new CabinInventory(50, 100, 400_000L));
+        committed.setBusiness(new CabinInventory());
+        committed.setFirst(new CabinInventory());
+        farePricingEngine.record(committed);
+
+        // Half sold, inside a week of departure: 4000 x 1.5 x 1.0
+        assertEquals(new BigDecimal("6000.00"), farePricingEngine.quote(9_502L, date, SeatClass.ECONOMY));
+    }
+
+    // Private helper methods
+
+    private static InventoryUpdateRequest update(int available, int capacity, String price) {
+        InventoryUpdateRequest request = new InventoryUpdateRequest();
+        request.setAvailableSeats(Map.of("economy", available));
+        request.setTotalCapacity(Map.of("economy", capacity));
+        request.setPricing(Map.of("economy", new BigDecimal(price)));
+        return request;
+    }
+}
@@ -0,0 +1,135 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class LedgerSeatCounterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @TempDir
+    Path journalDir;
+
+    @Test
+    void concurrentHoldsNeverOversell() throws Exception {
+        int capacity = 5_000;
+        Long inventoryId = createFlight(43L, capacity);
+        LedgerSeatCounter ledger = newLedger("concurrent");
+
+        int threads = 16;
+        AtomicInteger heldSeats = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                int seats = ThreadLocalRandom.current().nextInt(1, 4);
+                while (true) {
+                    try {
+                        ledger.hold(43L, DATE, reservation(seats));
+                        heldSeats.addAndGet(seats);
+                    } catch (SoldOutException e) {
+                        if (seats == 1) {
+                            return;
+                        }
+                        seats = 1;
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        ledger.flush();
+
+        assertEquals(capacity, heldSeats.get());
+        assertEquals(0, availableEconomy(inventoryId));
+    }
+
+    @Test
+    void recoversUnflushedChangesFromJournal() throws Exception {
+        Long inventoryId = createFlight(44L, 20);
+        LedgerSeatCounter crashed = newLedger("recovery");
+        crashed.hold(44L, DATE, reservation(5));
+        crashed.hold(44L, DATE, reservation(5));
+        crashed.hold(44L, DATE, reservation(5));
+        SeatReservation released = reservation(1);
+        released.setFlightInventoryId(inventoryId);
+        crashed.release(released);
+        assertEquals(20, availableEconomy(inventoryId));
+
+        // A write cut short by the crash is not part of any acknowledged change
+        try (var segments = Files.list(journalDir.resolve("recovery"))) {
+            Path segment = segments.findFirst().orElseThrow();
+            Files.writeString(segment, "99," + inventoryId + ",ECONOMY,-1", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+
+        LedgerSeatCounter restarted = newLedger("recovery");
+        assertEquals(6, availableEconomy(inventoryId));
+
+        restarted.hold(44L, DATE, reservation(6));
+        assertThrows(SoldOutException.class, () -> restarted.hold(44L, DATE, reservation(1)));
+        restarted.flush();
+        assertEquals(0, availableEconomy(inventoryId));
+    }
+
+    private LedgerSeatCounter newLedger(String ledgerId) throws Exception {
+        LedgerSeatCounter ledger = new LedgerSeatCounter();
+        beanFactory.autowireBean(ledger);
+        ReflectionTestUtils.setField(ledger, "ledgerId", ledgerId);
+        ReflectionTestUtils.setField(ledger, "journalDir", journalDir.toString());
+        ledger.recover();
+        return ledger;
+    }
+
+    private static SeatReservation reservation(int seats) {
+        return new SeatReservation(null, "RES" + seats, SeatClass.ECONOMY, seats, LocalDateTime.now().plusMinutes(15));
+    }
+
+    private Long createFlight(Long flightInfoId, int seats) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(DATE);
+        inventory.setEconomy(new CabinInventory(seats, seats, 1_500_000L));
+        return flightInventoryRepository.save(inventory).getId();
+    }
+
+    private int availableEconomy(Long inventoryId) {
+        return flightInventoryRepository.findById(inventoryId).orElseThrow().getEconomy().getAvailableSeats();
+    }
+}
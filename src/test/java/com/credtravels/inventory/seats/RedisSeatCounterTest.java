@@ -0,0 +1,193 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.common.exception.BusinessException;
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.SeatReservationRepository;
+import com.credtravels.inventory.service.InventoryService;
+import com.github.fppt.jedismock.RedisServer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Redis seat holds against an in-process Redis stand-in that runs the same Lua scripts.
+ */
+@SpringJUnitConfig({InventoryJpaTestConfig.class, RedisSeatCounterTest.RedisStandIn.class})
+class RedisSeatCounterTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private RedisSeatCounter seatCounter;
+
+    @Autowired
+    private RedisHoldReconciler reconciler;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Test
+    void nodesSharingRedisNeverOversell() throws Exception {
+        int capacity = 300;
+        Long inventoryId = createFlight(45L, capacity);
+        RedisSeatCounter otherNode = beanFactory.createBean(RedisSeatCounter.class);
+
+        int threads = 8;
+        AtomicInteger heldSeats = new AtomicInteger();
+        AtomicInteger holds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            SeatCounter node = i % 2 == 0 ? seatCounter : otherNode;
+            int seats = i % 3 + 1;
+            workers.add(executor.submit(() -> {
+                int wanted = seats;
+                while (true) {
+                    try {
+                        node.hold(45L, DATE, reservation(wanted, 900));
+                        heldSeats.addAndGet(wanted);
+                        holds.incrementAndGet();
+                    } catch (SoldOutException e) {
+                        if (wanted == 1) {
+                            return;
+                        }
+                        wanted = 1;
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        reconciler.reconcile();
+
+        assertEquals(capacity, heldSeats.get());
+        assertEquals(0, availableEconomy(inventoryId));
+        assertEquals(holds.get(), seatReservationRepository.findByFlightInventoryId(inventoryId).size());
+    }
+
+    @Test
+    void holdsAreReconciledIntoSeatReservations() {
+        Long inventoryId = createFlight(46L, 10);
+        SeatReservation kept = inventoryService.reserveSeats(46L, DATE, new SeatReservationRequest(SeatClass.ECONOMY, 2));
+        SeatReservation released = inventoryService.reserveSeats(46L, DATE, new SeatReservationRequest(SeatClass.ECONOMY, 3));
+
+        // Not written yet, but already visible to release and confirm
+        assertTrue(seatReservationRepository.findByReservationId(kept.getReservationId()).isEmpty());
+        inventoryService.releaseSeatReservation(released.getReservationId());
+        reconciler.reconcile();
+
+        assertEquals(8, availableEconomy(inventoryId));
+        assertTrue(seatReservationRepository.findByReservationId(released.getReservationId()).isEmpty());
+        inventoryService.confirmSeatReservation(kept.getReservationId());
+        reconciler.reconcile();
+        assertEquals(SeatReservation.ReservationStatus.CONFIRMED,
+                seatReservationRepository.findByReservationId(kept.getReservationId()).orElseThrow().getStatus());
+        assertEquals(8, availableEconomy(inventoryId));
+    }
+
+    @Test
+    void expiredHoldsGiveTheirSeatsBack() throws Exception {
+        Long inventoryId = createFlight(47L, 2);
+        SeatReservation expiring = reservation(2, 1);
+        seatCounter.hold(47L, DATE, expiring);
+        assertThrows(SoldOutException.class, () -> seatCounter.hold(47L, DATE, reservation(1, 900)));
+        reconciler.reconcile();
+        assertEquals(0, availableEconomy(inventoryId));
+
+        Thread.sleep(1_100);
+        assertTrue(seatCounter.findPendingHold(expiring.getReservationId()).isEmpty());
+        expiring.setFlightInventoryId(inventoryId);
+        assertThrows(BusinessException.class, () -> seatCounter.confirm(expiring));
+
+        seatCounter.hold(47L, DATE, reservation(1, 900));
+        reconciler.reconcile();
+        assertEquals(1, availableEconomy(inventoryId));
+        assertTrue(seatReservationRepository.findByReservationId(expiring.getReservationId()).isEmpty());
+    }
+
+    private static SeatReservation reservation(int seats, int ttlSeconds) {
+        return new SeatReservation(null, "RES" + UUID.randomUUID().toString().substring(0, 8).toUpperCase(),
+                SeatClass.ECONOMY, seats, LocalDateTime.now().plusSeconds(ttlSeconds));
+    }
+
+    private Long createFlight(Long flightInfoId, int seats) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(DATE);
+        inventory.setEconomy(new CabinInventory(seats, seats, 1_500_000L));
+        return flightInventoryRepository.save(inventory).getId();
+    }
+
+    private int availableEconomy(Long inventoryId) {
+        return flightInventoryRepository.findById(inventoryId).orElseThrow().getEconomy().getAvailableSeats();
+    }
+
+    @Configuration
+    static class RedisStandIn {
+
+        @Bean(destroyMethod = "stop")
+        public RedisServer redisServer() throws Exception {
+            return RedisServer.newRedisServer().start();
+        }
+
+        @Bean
+        public JedisConnectionFactory redisConnectionFactory(RedisServer redisServer) {
+            return new JedisConnectionFactory(new RedisStandaloneConfiguration(redisServer.getHost(), redisServer.getBindPort()));
+        }
+
+        @Bean
+        public StringRedisTemplate stringRedisTemplate(JedisConnectionFactory redisConnectionFactory) {
+            return new StringRedisTemplate(redisConnectionFactory);
+        }
+
+        @Bean
+        @Primary
+        public RedisSeatCounter redisSeatCounter() {
+            return new RedisSeatCounter();
+        }
+
+        @Bean
+        public RedisHoldReconciler redisHoldReconciler() {
+            return new RedisHoldReconciler();
+        }
+    }
+}
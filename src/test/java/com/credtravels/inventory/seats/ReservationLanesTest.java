@@ -0,0 +1,62 @@
+package com.credtravels.inventory.seats;
+
+import com.credtravels.common.exception.OptimisticLockException;
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class ReservationLanesTest {
+
+    @Autowired
+    private ReservationLanes reservationLanes;
+
+    @Test
+    void errorInAnOperationFailsItsCallerAndKeepsTheLaneRunning() {
+        assertThrows(AssertionError.class, () -> reservationLanes.execute(1L, () -> {
+            throw new AssertionError("Lane operation failed");
+        }));
+
+        assertEquals("held", reservationLanes.execute(1L, () -> "held"));
+    }
+
+    @Test
+    void writeNotStartedWithinTheTimeoutIsWithdrawn() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> blocking = CompletableFuture.supplyAsync(() -> reservationLanes.execute(2L, () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "held";
+        }));
+        running.await(10, TimeUnit.SECONDS);
+        AtomicInteger withdrawnRuns = new AtomicInteger();
+
+        ReflectionTestUtils.setField(reservationLanes, "timeoutMillis", 200L);
+        try {
+            // Queued behind the blocked write on the same lane
+            assertThrows(OptimisticLockException.class, () -> reservationLanes.execute(2L, withdrawnRuns::incrementAndGet));
+        } finally {
+            ReflectionTestUtils.setField(reservationLanes, "timeoutMillis", 10_000L);
+            release.countDown();
+        }
+
+        assertEquals("held", blocking.get(10, TimeUnit.SECONDS));
+        assertEquals("next", reservationLanes.execute(2L, () -> "next"));
+        assertEquals(0, withdrawnRuns.get());
+    }
+}
@@ -0,0 +1,126 @@
+package com.credtravels.inventory.service;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.audit.InventoryAuditJournal;
+import com.credtravels.inventory.dto.InventoryBatchResult;
+import com.credtravels.inventory.dto.InventoryUpdateRequest;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.InventoryUpdateLogRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class BatchUpdateInventoryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 3, 1);
+    private static final long FIRST_FLIGHT = 1_000L;
+    private static final int FLIGHTS = 200;
+    private static final int DAYS = 10;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private InventoryUpdateLogRepository inventoryUpdateLogRepository;
+
+    @Autowired
+    private InventoryAuditJournal auditJournal;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void largeBatchReportsEveryItem() {
+        // The first half of the dates already exist, the rest are created by the batch
+        List<FlightInventory> existing = new ArrayList<>();
+        for (int flight = 0; flight < FLIGHTS; flight++) {
+            for (int day = 0; day < DAYS / 2; day++) {
+                FlightInventory inventory = new FlightInventory();
+                inventory.setFlightInfoId(FIRST_FLIGHT + flight);
+                inventory.setFlightDate(DATE.plusDays(day));
+                inventory.setEconomy(new CabinInventory(100, 100, 500_000L));
+                existing.add(inventory);
+            }
+        }
+        flightInventoryRepository.saveAll(existing);
+
+        List<InventoryUpdateRequest> requests = new ArrayList<>();
+        for (int flight = 0; flight < FLIGHTS; flight++) {
+            for (int day = 0; day < DAYS; day++) {
+                requests.add(request(FIRST_FLIGHT + flight, DATE.plusDays(day), 80, "6000.00"));
+            }
+            // A second update of the same flight date in the same batch wins
+            requests.add(request(FIRST_FLIGHT + flight, DATE, 60, "7000.00"));
+        }
+        InventoryUpdateRequest unknownCabin = request(FIRST_FLIGHT, DATE, 10, "1.00");
+        unknownCabin.setAvailableSeats(Map.of("premium", 10));
+        requests.add(unknownCabin);
+        requests.add(new InventoryUpdateRequest(FIRST_FLIGHT, null, null, null, null));
+
+        auditJournal.relay();
+        long logsBefore = inventoryUpdateLogRepository.count();
+        double fallbacksBefore = chunkFallbacks();
+        List<InventoryBatchResult> results = inventoryService.batchUpdateInventory(requests);
+
+        assertEquals(requests.size(), results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(FLIGHTS * DAYS / 2, count(results, InventoryBatchResult.Status.CREATED));
+        assertEquals(FLIGHTS * (DAYS / 2 + 1), count(results, InventoryBatchResult.Status.UPDATED));
+        assertEquals(2, count(results, InventoryBatchResult.Status.FAILED));
+        assertNull(results.get(results.size() - 2).getFlightInventoryId());
+        // Invalid items never reach a chunk, so every chunk commits in one transaction
+        assertEquals(fallbacksBefore, chunkFallbacks());
+
+        for (int flight = 0; flight < FLIGHTS; flight++) {
+            List<FlightInventory> rows = flightInventoryRepository.findByFlightInfoIdAndDateRange(
+                    FIRST_FLIGHT + flight, DATE, DATE.plusDays(DAYS - 1));
+            assertEquals(DAYS, rows.size());
+            for (FlightInventory row : rows) {
+                boolean updatedTwice = row.getFlightDate().equals(DATE);
+                assertEquals(updatedTwice ? 60 : 80, row.getEconomy().getAvailableSeats());
+                assertEquals(updatedTwice ? 700_000L : 600_000L, row.getEconomy().getPriceMinor());
+            }
+        }
+        auditJournal.relay();
+        FlightInventory first = flightInventoryRepository.findByFlightInfoIdAndFlightDate(FIRST_FLIGHT, DATE).orElseThrow();
+        assertEquals(2, inventoryUpdateLogRepository.findByFlightInventoryIdOrderByCreatedAtDesc(first.getId()).size());
+        assertEquals(FLIGHTS * (DAYS / 2 + 1), inventoryUpdateLogRepository.count() - logsBefore);
+    }
+
+    private double chunkFallbacks() {
+        return meterRegistry.get("credtravels.inventory.batch.chunk.fallbacks").counter().count();
+    }
+
+    private static InventoryUpdateRequest request(Long flightInfoId, LocalDate flightDate, int seats, String price) {
+        InventoryUpdateRequest request = new InventoryUpdateRequest();
+        request.setFlightInfoId(flightInfoId);
+        request.setFlightDate(flightDate);
+        request.setAvailableSeats(Map.of("economy", seats));
+        request.setPricing(Map.of("economy", new BigDecimal(price)));
+        request.setUpdatedBy("ops");
+        request.setUpdateReason("Schedule load");
+        return request;
+    }
+
+    private static long count(List<InventoryBatchResult> results, InventoryBatchResult.Status status) {
+        return results.stream().filter(result -> result.getStatus() == status).count();
+    }
+}
@@ -0,0 +1,79 @@
+package com.credtravels.inventory.service;
+
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.FlightAvailability;
+import com.credtravels.inventory.dto.FlightDateKey;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class BulkAvailabilityTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 11, 1);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Test
+    void pairsAreAnsweredInRequestOrderWithoutCrossMatches() {
+        // Flight 9000 flies on the first date only, 9001 on the second only
+        flightInventoryRepository.save(inventory(9_000L, DATE, 120));
+        flightInventoryRepository.save(inventory(9_001L, DATE.plusDays(1), 80));
+
+        List<FlightAvailability> results = inventoryService.getBulkAvailability(List.of(
+                new FlightDateKey(9_001L, DATE.plusDays(1)),
+                new FlightDateKey(9_001L, DATE),
+                new FlightDateKey(9_000L, DATE),
+                new FlightDateKey(9_000L, DATE.plusDays(1))));
+
+        assertEquals(4, results.size());
+        assertTrue(results.get(0).isFound());
+        assertEquals(Map.of("availableSeats", 80, "price", new BigDecimal("5000.00")),
+                results.get(0).getCabins().get("economy"));
+        assertFalse(results.get(1).isFound());
+        assertNull(results.get(1).getCabins());
+        assertTrue(results.get(2).isFound());
+        assertEquals(9_000L, results.get(2).getFlightId());
+        assertEquals("ACTIVE", results.get(2).getStatus());
+        assertEquals(120, results.get(2).getCabins().get("economy").get("availableSeats"));
+        assertFalse(results.get(3).isFound());
+    }
+
+    @Test
+    void oversizedRequestsAreRejected() {
+        List<FlightDateKey> flights = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            flights.add(new FlightDateKey(9_100L + i, DATE));
+        }
+        assertThrows(ValidationException.class, () -> inventoryService.getBulkAvailability(flights));
+        assertThrows(ValidationException.class, () -> inventoryService.getBulkAvailability(List.of()));
+    }
+
+    private static FlightInventory inventory(Long flightInfoId, LocalDate flightDate, int seats) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(flightDate);
+        inventory.setEconomy(new CabinInventory(seats, seats, 500_000L));
+        return inventory;
+    }
+}
@@ -0,0 +1,119 @@
+package com.credtravels.inventory.service;
+
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.ReservationLeg;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.SeatReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class ItineraryReservationTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 12, 1);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Test
+    void soldOutLegRollsBackTheWholeItinerary() {
+        Long first = createFlight(9_500L, 10);
+        Long second = createFlight(9_501L, 1);
+
+        assertThrows(SoldOutException.class, () -> inventoryService.reserveItinerary(List.of(
+                new ReservationLeg(9_500L, DATE, SeatClass.ECONOMY, 2),
+                new ReservationLeg(9_501L, DATE.plusDays(1), SeatClass.ECONOMY, 2))));
+
+        assertEquals(10, availableSeats(first));
+        assertEquals(1, availableSeats(second));
+        assertTrue(seatReservationRepository.findByFlightInventoryId(first).isEmpty());
+
+        List<SeatReservation> reservations = inventoryService.reserveItinerary(List.of(
+                new ReservationLeg(9_501L, DATE.plusDays(1), SeatClass.ECONOMY, 1),
+                new ReservationLeg(9_500L, DATE, SeatClass.ECONOMY, 2)));
+        assertEquals(second, reservations.get(0).getFlightInventoryId());
+        assertEquals(first, reservations.get(1).getFlightInventoryId());
+        assertEquals(8, availableSeats(first));
+        assertEquals(0, availableSeats(second));
+    }
+
+    @Test
+    void opposingItinerariesDoNotDeadlock() throws Exception {
+        int capacity = 200;
+        Long outbound = createFlight(9_510L, capacity);
+        Long inbound = createFlight(9_511L, capacity);
+        ReservationLeg there = new ReservationLeg(9_510L, DATE, SeatClass.ECONOMY, 1);
+        ReservationLeg back = new ReservationLeg(9_511L, DATE.plusDays(1), SeatClass.ECONOMY, 1);
+
+        // Half the callers list the legs in the opposite order; with a single attempt a deadlock would fail a caller
+        Object service = AopTestUtils.getTargetObject(inventoryService);
+        ReflectionTestUtils.setField(service, "reservationMaxAttempts", 1);
+        AtomicInteger reserved = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            List<ReservationLeg> legs = i % 2 == 0 ? List.of(there, back) : List.of(back, there);
+            workers.add(executor.submit(() -> {
+                while (true) {
+                    try {
+                        inventoryService.reserveItinerary(legs);
+                        reserved.incrementAndGet();
+                    } catch (SoldOutException e) {
+                        return;
+                    }
+                }
+            }));
+        }
+        try {
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+            ReflectionTestUtils.setField(service, "reservationMaxAttempts", 3);
+        }
+
+        assertEquals(capacity, reserved.get());
+        assertEquals(0, availableSeats(outbound));
+        assertEquals(0, availableSeats(inbound));
+        assertEquals(capacity, seatReservationRepository.findByFlightInventoryId(inbound).size());
+    }
+
+    private Long createFlight(Long flightInfoId, int seats) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(flightInfoId % 2 == 0 ? DATE : DATE.plusDays(1));
+        inventory.setEconomy(new CabinInventory(seats, seats, 500_000L));
+        return flightInventoryRepository.save(inventory).getId();
+    }
+
+    private int availableSeats(Long flightInventoryId) {
+        return flightInventoryRepository.findById(flightInventoryId).orElseThrow().getEconomy().getAvailableSeats();
+    }
+}
@@ -0,0 +1,98 @@
+package com.credtravels.inventory.service;
+
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.SeatReservationRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class ReservationExpiryTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 16);
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void massExpiryReturnsEverySeatOnce() {
+        Long first = createFlight(50L, 1_500);
+        Long second = createFlight(51L, 1_500);
+        LocalDateTime expiredAt = LocalDateTime.now().minusMinutes(1);
+        List<SeatReservation> holds = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            Long inventoryId = i % 2 == 0 ? first : second;
+            SeatClass seatClass = i % 5 == 0 ? SeatClass.BUSINESS : SeatClass.ECONOMY;
+            holds.add(new SeatReservation(inventoryId, "EXP" + i, seatClass, 1 + i % 2, expiredAt));
+        }
+        seatReservationRepository.saveAll(holds);
+        // A hold that is still running and one already confirmed are left alone
+        seatReservationRepository.save(new SeatReservation(first, "LIVE", SeatClass.ECONOMY, 2,
+                LocalDateTime.now().plusMinutes(10)));
+        SeatReservation confirmed = new SeatReservation(first, "DONE", SeatClass.ECONOMY, 2, expiredAt);
+        confirmed.setStatus(SeatReservation.ReservationStatus.CONFIRMED);
+        seatReservationRepository.save(confirmed);
+        takeSeats(first, holds);
+        takeSeats(second, holds);
+
+        inventoryService.cleanupExpiredReservations();
+
+        FlightInventory firstAfter = flightInventoryRepository.findById(first).orElseThrow();
+        FlightInventory secondAfter = flightInventoryRepository.findById(second).orElseThrow();
+        assertEquals(1_500, firstAfter.getEconomy().getAvailableSeats());
+        assertEquals(1_500, firstAfter.getBusiness().getAvailableSeats());
+        assertEquals(1_500, secondAfter.getEconomy().getAvailableSeats());
+        assertEquals(1_500, secondAfter.getBusiness().getAvailableSeats());
+        assertEquals(0, seatReservationRepository.findExpiredReservationIds(LocalDateTime.now()).size());
+        assertEquals(SeatReservation.ReservationStatus.RESERVED,
+                seatReservationRepository.findByReservationId("LIVE").orElseThrow().getStatus());
+        assertEquals(SeatReservation.ReservationStatus.CONFIRMED,
+                seatReservationRepository.findByReservationId("DONE").orElseThrow().getStatus());
+
+        DistributionSummary chunks = meterRegistry.get("credtravels.inventory.expiry.chunk.size").summary();
+        assertEquals(1_000, (long) chunks.totalAmount());
+        assertEquals(0, inventoryService.expireReservations(List.of("EXP0", "EXP1")));
+    }
+
+    private Long createFlight(Long flightInfoId, int seats) {
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(DATE);
+        inventory.setEconomy(new CabinInventory(seats, seats, 1_500_000L));
+        inventory.setBusiness(new CabinInventory(seats, seats, 4_500_000L));
+        return flightInventoryRepository.save(inventory).getId();
+    }
+
+    private void takeSeats(Long inventoryId, List<SeatReservation> holds) {
+        FlightInventory inventory = flightInventoryRepository.findById(inventoryId).orElseThrow();
+        for (SeatReservation hold : holds) {
+            if (hold.getFlightInventoryId().equals(inventoryId)) {
+                inventory.getCabin(hold.getSeatClass()).adjustAvailableSeats(-hold.getSeatCount());
+            }
+        }
+        flightInventoryRepository.save(inventory);
+    }
+}
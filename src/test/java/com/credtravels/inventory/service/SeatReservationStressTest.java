@@ -0,0 +1,127 @@
+package com.credtravels.inventory.service;
+
+import com.credtravels.common.exception.OptimisticLockException;
+import com.credtravels.common.exception.SoldOutException;
+import com.credtravels.inventory.InventoryJpaTestConfig;
+import com.credtravels.inventory.dto.SeatReservationRequest;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.model.SeatReservation;
+import com.credtravels.inventory.model.SeatReservation.SeatClass;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.inventory.repository.SeatReservationRepository;
+import com.credtravels.inventory.seats.ReservationLanes;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringJUnitConfig(InventoryJpaTestConfig.class)
+class SeatReservationStressTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatReservationStressTest.class);
+
+    private static final int THREADS = 16;
+    private static final int CAPACITY = 600;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private SeatReservationRepository seatReservationRepository;
+
+    @Autowired
+    private ReservationLanes reservationLanes;
+
+    @AfterEach
+    void disableLanes() {
+        ReflectionTestUtils.setField(reservationLanes, "enabled", false);
+    }
+
+    @Test
+    void hotFlightNeverOverbooks() throws Exception {
+        reserveUntilSoldOut(42L, "Guarded seat holds");
+    }
+
+    @Test
+    void hotFlightNeverOverbooksOnReservationLanes() throws Exception {
+        ReflectionTestUtils.setField(reservationLanes, "enabled", true);
+        reserveUntilSoldOut(4_200L, "Seat holds on one writer lane");
+    }
+
+    private void reserveUntilSoldOut(Long flightInfoId, String label) throws Exception {
+        LocalDate date = LocalDate.of(2024, 1, 15);
+        FlightInventory inventory = new FlightInventory();
+        inventory.setFlightInfoId(flightInfoId);
+        inventory.setFlightDate(date);
+        inventory.setEconomy(new CabinInventory(CAPACITY, CAPACITY, 1_500_000L));
+        flightInventoryRepository.save(inventory);
+
+        AtomicInteger reservedSeats = new AtomicInteger();
+        AtomicInteger reservations = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        Queue<Long> latencies = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long startedAt = System.nanoTime();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(executor.submit(() -> {
+                int seats = ThreadLocalRandom.current().nextInt(1, 4);
+                while (true) {
+                    long callStartedAt = System.nanoTime();
+                    try {
+                        inventoryService.reserveSeats(flightInfoId, date, new SeatReservationRequest(SeatClass.ECONOMY, seats));
+                        latencies.add(System.nanoTime() - callStartedAt);
+                        reservedSeats.addAndGet(seats);
+                        reservations.incrementAndGet();
+                    } catch (SoldOutException e) {
+                        if (seats == 1) {
+                            return;
+                        }
+                        seats = 1;
+                    } catch (OptimisticLockException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        FlightInventory soldOut = flightInventoryRepository.findByFlightInfoIdAndFlightDate(flightInfoId, date).orElseThrow();
+        int persistedSeats = seatReservationRepository.findByFlightInventoryId(soldOut.getId()).stream()
+                .mapToInt(SeatReservation::getSeatCount)
+                .sum();
+        assertEquals(0, soldOut.getEconomy().getAvailableSeats());
+        assertEquals(CAPACITY, reservedSeats.get());
+        assertEquals(CAPACITY, persistedSeats);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        log.info("{} on one flight with {} threads: {} reservations in {} ms ({}/s), p99 {} ms, {} conflicts",
+                label, THREADS, reservations.get(), elapsedNanos / 1_000_000,
+                Math.round(reservations.get() * 1e9 / elapsedNanos), sorted[(int) (sorted.length * 0.99)] / 1_000_000,
+                conflicts.get());
+    }
+}
@@ -0,0 +1,71 @@
+package com.credtravels.search;
+
+import com.credtravels.flightsinfo.service.FlightsInfoService;
+import com.credtravels.inventory.availability.SeatAvailabilityIndex;
+import com.credtravels.inventory.pricing.FarePricingEngine;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.search.engine.AirportGeoIndex;
+import com.credtravels.search.engine.DestinationSweeper;
+import com.credtravels.search.engine.FlightTimetable;
+import com.credtravels.search.engine.LiveFareSource;
+import com.credtravels.search.engine.SearchPlanner;
+import com.credtravels.search.engine.SearchResultStore;
+import com.credtravels.search.model.SearchFlight;
+import com.credtravels.search.repository.SearchFlightRepository;
+import com.credtravels.search.service.impl.SearchServiceImpl;
+import org.mockito.Mockito;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+
+/**
+ * Search engine wired over an in-memory timetable, without databases, Redis or the web
+ * layer. Tests stub the search flights and the seat availability they need. Reused by
+ * search engine tests.
+ */
+@Configuration
+@Import({SearchServiceImpl.class, FlightTimetable.class, SearchPlanner.class, AirportGeoIndex.class,
+        DestinationSweeper.class, SearchResultStore.class, LiveFareSource.class, SeatAvailabilityIndex.class})
+public class SearchEngineTestConfig {
+
+    @Bean
+    public SearchFlightRepository searchFlightRepository() {
+        return Mockito.mock(SearchFlightRepository.class);
+    }
+
+    @Bean
+    public FlightsInfoService flightsInfoService() {
+        // No airport coordinates, so searches run without geographic bounds
+        return Mockito.mock(FlightsInfoService.class);
+    }
+
+    @Bean
+    public FlightInventoryRepository flightInventoryRepository() {
+        return Mockito.mock(FlightInventoryRepository.class);
+    }
+
+    @Bean
+    public FarePricingEngine farePricingEngine() {
+        // No live fares, so every leg is priced at its base price
+        return Mockito.mock(FarePricingEngine.class);
+    }
+
+    /**
+     * Daily flight departing at the given time
+     */
+    public static SearchFlight flight(long flightInfoId, String from, String to, String departure, int minutes,
+                                      int price) {
+        SearchFlight flight = new SearchFlight(flightInfoId, "XX" + flightInfoId, "Test Air");
+        flight.setDepartureAirportCode(from);
+        flight.setArrivalAirportCode(to);
+        flight.setDepartureTime(LocalTime.parse(departure));
+        flight.setArrivalTime(LocalTime.parse(departure).plusMinutes(minutes));
+        flight.setDurationMinutes(minutes);
+        flight.setOperatingDays("1111111");
+        flight.setBasePrice(BigDecimal.valueOf(price));
+        return flight;
+    }
+}
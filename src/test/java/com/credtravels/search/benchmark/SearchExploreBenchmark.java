@@ -0,0 +1,83 @@
+package com.credtravels.search.benchmark;
+
+import com.credtravels.search.engine.SyntheticNetwork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Three-hop connection search over every airport pair of the synthetic network, exploring
+ * exhaustively versus pruning with great-circle lower bounds. Scores are per query.
+ * Run {@link #main} after {@code mvn test-compile} with the test classpath, e.g. from the IDE
+ * or {@code java -cp target/test-classes:target/classes:<test dependencies> ...SearchExploreBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SearchExploreBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+    private static final int RESULT_LIMIT = 10;
+    private static final int MAX_HOPS = 3;
+    private static final int QUERIES = 16 * 15;
+
+    private SyntheticNetwork network;
+    private final List<String[]> pairs = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        network = new SyntheticNetwork(42);
+        for (String from : network.getAirports()) {
+            for (String to : network.getAirports()) {
+                if (!from.equals(to)) {
+                    pairs.add(new String[] {from, to});
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int exhaustive() {
+        return explore(false);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int lowerBoundPruning() {
+        return explore(true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SearchExploreBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private int explore(boolean pruning) {
+        int results = 0;
+        for (String[] pair : pairs) {
+            results += network.explorer(pruning, RESULT_LIMIT).findConnections(pair[0], pair[1], DATE, MAX_HOPS).size();
+        }
+        return results;
+    }
+}
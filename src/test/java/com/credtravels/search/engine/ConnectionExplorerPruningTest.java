@@ -0,0 +1,64 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.search.dto.FlightItinerary;
+import com.credtravels.search.model.SearchFlight;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares lower-bound pruning against exhaustive exploration on a synthetic domestic
+ * network and checks that both return the same top results. Timings are measured by
+ * SearchExploreBenchmark.
+ */
+class ConnectionExplorerPruningTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+    private static final int RESULT_LIMIT = 10;
+    private static final int MAX_HOPS = 3;
+
+    private SyntheticNetwork network;
+
+    @BeforeEach
+    void setUp() {
+        network = new SyntheticNetwork(42);
+    }
+
+    @Test
+    void pruningExploresFewerStatesWithIdenticalResults() {
+        long exhaustiveStates = 0;
+        long prunedStates = 0;
+
+        for (String from : network.getAirports()) {
+            for (String to : network.getAirports()) {
+                if (from.equals(to)) {
+                    continue;
+                }
+                ConnectionExplorer exhaustive = network.explorer(false, RESULT_LIMIT);
+                List<FlightItinerary> expected = exhaustive.findConnections(from, to, DATE, MAX_HOPS);
+
+                ConnectionExplorer pruned = network.explorer(true, RESULT_LIMIT);
+                List<FlightItinerary> actual = pruned.findConnections(from, to, DATE, MAX_HOPS);
+
+                assertEquals(keys(expected), keys(actual), from + "-" + to);
+                exhaustiveStates += exhaustive.getExploredStates();
+                prunedStates += pruned.getExploredStates();
+            }
+        }
+
+        assertTrue(prunedStates < exhaustiveStates);
+    }
+
+    private static List<String> keys(List<FlightItinerary> itineraries) {
+        return itineraries.stream()
+                .limit(RESULT_LIMIT)
+                .map(itinerary -> itinerary.getDepartureDateTime() + " "
+                        + itinerary.getLegs().stream().map(SearchFlight::getFlightNumber).toList())
+                .toList();
+    }
+}
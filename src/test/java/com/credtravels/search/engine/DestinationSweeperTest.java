@@ -0,0 +1,156 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.inventory.model.CabinInventory;
+import com.credtravels.inventory.model.FlightInventory;
+import com.credtravels.inventory.repository.FlightInventoryRepository;
+import com.credtravels.search.SearchEngineTestConfig;
+import com.credtravels.search.dto.DestinationFare;
+import com.credtravels.search.dto.ExploreDestinationsResponse;
+import com.credtravels.search.model.SearchFlight;
+import com.credtravels.search.repository.SearchFlightRepository;
+import com.credtravels.search.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.credtravels.search.SearchEngineTestConfig.flight;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringJUnitConfig(SearchEngineTestConfig.class)
+class DestinationSweeperTest {
+
+    // A Monday
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SearchFlightRepository searchFlightRepository;
+
+    @Autowired
+    private FlightInventoryRepository flightInventoryRepository;
+
+    @Autowired
+    private DestinationSweeper destinationSweeper;
+
+    @BeforeEach
+    void setUp() {
+        SearchFlight tuesdaysOnly = flight(12, "DEL", "CCU", "08:00", 150, 3000);
+        tuesdaysOnly.setOperatingDays("0100000");
+        Mockito.when(searchFlightRepository.findAll()).thenReturn(List.of(
+                flight(1, "DEL", "BOM", "08:00", 120, 5000),
+                flight(2, "DEL", "GOI", "06:00", 90, 2000),
+                flight(3, "GOI", "BOM", "09:00", 60, 1000),
+                flight(4, "BOM", "PNQ", "12:00", 60, 500),
+                flight(5, "DEL", "HYD", "07:00", 60, 4000),
+                flight(6, "DEL", "HYD", "14:00", 60, 1500),
+                flight(7, "HYD", "BLR", "10:00", 60, 1000),
+                flight(11, "DEL", "CCU", "08:00", 150, 8000),
+                tuesdaysOnly));
+        searchService.buildSearchIndex();
+    }
+
+    @Test
+    void directFaresOnlyWithOneHop() {
+        assertEquals(Map.of("BOM", "5000", "GOI", "2000", "HYD", "1500", "CCU", "8000"),
+                prices(searchService.exploreDestinations("DEL", DATE, DATE, null, null, 1)));
+    }
+
+    @Test
+    void laterOrLongerButCheaperLabelsDoNotHideOnwardConnections() {
+        ExploreDestinationsResponse response = searchService.exploreDestinations("del", DATE, DATE, null, "economy", 2);
+
+        // BOM is cheapest through GOI, yet the direct BOM leg has fewer hops and still reaches PNQ;
+        // HYD is cheapest on the 14:00, yet the earlier 07:00 arrival still makes the 10:00 to BLR
+        assertEquals(Map.of("BOM", "3000", "GOI", "2000", "HYD", "1500", "CCU", "8000", "PNQ", "5500", "BLR", "5000"),
+                prices(response));
+        assertEquals(List.of("XX1", "XX4"), flightNumbers(response, "PNQ"));
+        assertEquals(List.of("XX5", "XX7"), flightNumbers(response, "BLR"));
+        assertEquals(List.of("HYD", "GOI", "BOM", "BLR", "PNQ", "CCU"),
+                response.getDestinations().stream().map(DestinationFare::getDestination).toList());
+    }
+
+    @Test
+    void budgetCutsOffDearerDestinations() {
+        ExploreDestinationsResponse response = searchService.exploreDestinations("DEL", DATE, DATE,
+                new BigDecimal("3000"), null, 2);
+
+        assertEquals(Map.of("HYD", "1500", "GOI", "2000", "BOM", "3000"), prices(response));
+    }
+
+    @Test
+    void rangeKeepsTheCheapestDayPerDestination() {
+        ExploreDestinationsResponse response = searchService.exploreDestinations("DEL", DATE, DATE.plusDays(1),
+                null, null, 1);
+
+        DestinationFare calcutta = response.getDestinations().stream()
+                .filter(fare -> fare.getDestination().equals("CCU"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(new BigDecimal("3000"), calcutta.getPrice());
+        assertEquals(DATE.plusDays(1), calcutta.getTravelDate());
+        assertEquals("8000", prices(searchService.exploreDestinations("DEL", DATE, DATE, null, null, 1)).get("CCU"));
+    }
+
+    @Test
+    void rangeIsLimitedToExploreMaxDays() {
+        searchService.exploreDestinations("DEL", DATE, DATE.plusDays(13), null, null, 1);
+
+        assertThrows(ValidationException.class,
+                () -> searchService.exploreDestinations("DEL", DATE, DATE.plusDays(14), null, null, 1));
+        assertThrows(ValidationException.class,
+                () -> searchService.exploreDestinations("DEL", DATE, DATE.minusDays(1), null, null, 1));
+    }
+
+    @Test
+    void soldOutLegsAreSkippedOnlyWhileTheAvailabilityFilterIsOn() {
+        // A date of its own, so the seat availability index loads it with GOI sold out
+        LocalDate date = DATE.plusWeeks(1);
+        FlightInventory soldOut = new FlightInventory();
+        soldOut.setFlightInfoId(2L);
+        soldOut.setFlightDate(date);
+        soldOut.setEconomy(new CabinInventory(0, 100, 200_000L));
+        Mockito.when(flightInventoryRepository.findByFlightDate(date)).thenReturn(List.of(soldOut));
+
+        Map<String, String> filtered = prices(searchService.exploreDestinations("DEL", date, date, null, null, 2));
+        assertFalse(filtered.containsKey("GOI"));
+        assertEquals("5000", filtered.get("BOM"));
+
+        ReflectionTestUtils.setField(destinationSweeper, "availabilityFilter", false);
+        try {
+            Map<String, String> unfiltered = prices(searchService.exploreDestinations("DEL", date, date, null, null, 2));
+            assertEquals("2000", unfiltered.get("GOI"));
+            assertEquals("3000", unfiltered.get("BOM"));
+        } finally {
+            ReflectionTestUtils.setField(destinationSweeper, "availabilityFilter", true);
+        }
+    }
+
+    // Private helper methods
+
+    private static Map<String, String> prices(ExploreDestinationsResponse response) {
+        return response.getDestinations().stream()
+                .collect(Collectors.toMap(DestinationFare::getDestination, fare -> fare.getPrice().toPlainString()));
+    }
+
+    private static List<String> flightNumbers(ExploreDestinationsResponse response, String destination) {
+        return response.getDestinations().stream()
+                .filter(fare -> fare.getDestination().equals(destination))
+                .flatMap(fare -> fare.getItinerary().getLegs().stream())
+                .map(SearchFlight::getFlightNumber)
+                .toList();
+    }
+}
@@ -0,0 +1,159 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.common.exception.ValidationException;
+import com.credtravels.search.SearchEngineTestConfig;
+import com.credtravels.search.dto.FlightItinerary;
+import com.credtravels.search.dto.FlightSearchRequest;
+import com.credtravels.search.dto.FlightSearchResponse;
+import com.credtravels.search.model.SearchFlight;
+import com.credtravels.search.repository.SearchFlightRepository;
+import com.credtravels.search.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+
+import static com.credtravels.search.SearchEngineTestConfig.flight;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * DEL to BLR has one direct flight and four one-stop connections, which rank by duration
+ * via BOM at 11:00, via MAA, via GOI and via BOM at 15:00. The store holds one snapshot.
+ */
+@SpringJUnitConfig(SearchEngineTestConfig.class)
+@TestPropertySource(properties = "credtravels.search.snapshot.max-entries=1")
+class SearchPagingTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SearchResultStore searchResultStore;
+
+    @Autowired
+    private SearchFlightRepository searchFlightRepository;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(searchFlightRepository.findAll()).thenReturn(List.of(
+                flight(1, "DEL", "BLR", "06:00", 150, 9000),
+                flight(2, "DEL", "BOM", "08:00", 120, 5000),
+                flight(3, "BOM", "BLR", "11:00", 90, 4000),
+                flight(4, "BOM", "BLR", "15:00", 90, 3500),
+                flight(5, "DEL", "MAA", "07:00", 165, 6000),
+                flight(6, "MAA", "BLR", "12:00", 60, 2500),
+                flight(7, "DEL", "GOI", "06:00", 90, 2000),
+                flight(8, "GOI", "BLR", "13:00", 60, 3000)));
+        searchService.buildSearchIndex();
+    }
+
+    @Test
+    void tokenRoundTripsTheQueryAndPage() {
+        SearchPageToken token = new SearchPageToken("DEL", "BLR", DATE, 2, "BUSINESS", 3, 20, 10);
+
+        SearchPageToken decoded = SearchPageToken.decode(token.encode());
+
+        assertEquals(token.getQueryKey(), decoded.getQueryKey());
+        assertEquals(20, decoded.getOffset());
+        assertEquals(10, decoded.getPageSize());
+        assertEquals(30, SearchPageToken.decode(decoded.next().encode()).getOffset());
+        FlightSearchRequest request = decoded.toRequest();
+        assertEquals(List.of("DEL", "BLR", DATE, 2, "BUSINESS", 3, 10), List.of(request.getFrom(), request.getTo(),
+                request.getDate(), request.getMaxHops(), request.getSeatClass(), request.getPassengers(), request.getLimit()));
+        assertNull(SearchPageToken.decode(new SearchPageToken("DEL", "BLR", DATE, 1, null, 1, 0, 10).encode())
+                .toRequest().getSeatClass());
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        for (String raw : List.of("v2|DEL|BLR|2024-01-15|2||1|0|10", "v1|DEL|BLR|2024-01-15|2||1|0",
+                "v1|DEL|BLR|2024-13-45|2||1|0|10", "v1|DEL|BLR|2024-01-15|two||1|0|10",
+                "v1|DEL|BLR|2024-01-15|2||1|-10|10", "v1|DEL|BLR|2024-01-15|2||1|0|0")) {
+            assertThrows(ValidationException.class, () -> SearchPageToken.decode(encode(raw)), raw);
+        }
+        assertThrows(ValidationException.class, () -> SearchPageToken.decode("not a token!"));
+        assertThrows(ValidationException.class, () -> SearchPageToken.decode(""));
+    }
+
+    @Test
+    void oversizedTokensAreRejected() {
+        String padded = encode("v1|DEL|BLR|2024-01-15|2|" + "X".repeat(300) + "|1|0|10");
+        assertThrows(ValidationException.class, () -> SearchPageToken.decode(padded));
+
+        // Larger pages than a search may return
+        String wide = new SearchPageToken("DEL", "BLR", DATE, 2, null, 1, 0, 1_000).encode();
+        assertThrows(ValidationException.class, () -> searchService.getSearchPage(wide));
+    }
+
+    @Test
+    void pagesSliceDirectFlightsThenConnectionsUntilTheLastPage() {
+        FlightSearchResponse first = searchService.searchFlights(request(2));
+        assertEquals(List.of("XX1"), first.getDirectFlights().stream().map(SearchFlight::getFlightNumber).toList());
+        assertEquals(List.of("XX2/XX3"), legs(first));
+
+        FlightSearchResponse second = searchService.getSearchPage(first.getNextPageToken());
+        assertEquals(List.of(), second.getDirectFlights());
+        assertEquals(List.of("XX5/XX6", "XX7/XX8"), legs(second));
+
+        FlightSearchResponse last = searchService.getSearchPage(second.getNextPageToken());
+        assertEquals(List.of("XX2/XX4"), legs(last));
+        assertNull(last.getNextPageToken());
+
+        // A page size dividing the results evenly ends without an empty page
+        FlightSearchResponse whole = searchService.searchFlights(request(5));
+        assertEquals(4, whole.getMultiHopFlights().size());
+        assertNull(whole.getNextPageToken());
+    }
+
+    @Test
+    void evictedSnapshotIsRecomputedFromTheToken() {
+        FlightSearchResponse first = searchService.searchFlights(request(2));
+        String queryKey = SearchPageToken.decode(first.getNextPageToken()).getQueryKey();
+
+        // Another search takes the only slot of the store
+        FlightSearchRequest other = request(2);
+        other.setTo("BOM");
+        searchService.searchFlights(other);
+        assertNull(searchResultStore.get(queryKey));
+
+        FlightSearchResponse second = searchService.getSearchPage(first.getNextPageToken());
+        assertEquals(List.of("XX5/XX6", "XX7/XX8"), legs(second));
+        assertNotNull(second.getNextPageToken());
+        assertNotNull(searchResultStore.get(queryKey));
+    }
+
+    // Private helper methods
+
+    private static FlightSearchRequest request(int limit) {
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("DEL");
+        request.setTo("BLR");
+        request.setDate(DATE);
+        request.setMaxHops(2);
+        request.setLimit(limit);
+        return request;
+    }
+
+    private static List<String> legs(FlightSearchResponse response) {
+        return response.getMultiHopFlights().stream()
+                .map(FlightItinerary::getLegs)
+                .map(legs -> String.join("/", legs.stream().map(SearchFlight::getFlightNumber).toList()))
+                .toList();
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
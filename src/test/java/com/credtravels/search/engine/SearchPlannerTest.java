@@ -0,0 +1,128 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.search.SearchEngineTestConfig;
+import com.credtravels.search.dto.FlightSearchRequest;
+import com.credtravels.search.dto.FlightSearchResponse;
+import com.credtravels.search.dto.SearchExplain;
+import com.credtravels.search.model.SearchFlight;
+import com.credtravels.search.repository.SearchFlightRepository;
+import com.credtravels.search.service.SearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.credtravels.search.SearchEngineTestConfig.flight;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DEL, BLR and BOM are the three most popular airports and form the transfer table;
+ * MAA, GOI, JAI and LKO are rare. DEL has many departures that never reach BLR.
+ */
+@SpringJUnitConfig(SearchEngineTestConfig.class)
+@TestPropertySource(properties = "credtravels.search.transfer-table.hub-count=3")
+class SearchPlannerTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+    @Autowired
+    private SearchPlanner searchPlanner;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private SearchFlightRepository searchFlightRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<SearchFlight> flights = new ArrayList<>(List.of(
+                popular(flight(1, "DEL", "BOM", "08:00", 120, 5000)),
+                popular(flight(2, "BOM", "BLR", "11:00", 90, 4000)),
+                popular(flight(3, "DEL", "BLR", "06:00", 150, 9000)),
+                popular(flight(4, "BLR", "DEL", "18:00", 150, 9000)),
+                flight(5, "DEL", "MAA", "07:00", 165, 6000),
+                flight(6, "MAA", "BLR", "12:00", 60, 2500),
+                flight(7, "DEL", "GOI", "09:00", 150, 5500),
+                flight(8, "DEL", "GOI", "17:00", 150, 5500),
+                flight(9, "GOI", "BLR", "13:00", 60, 3000)));
+        for (int i = 0; i < 5; i++) {
+            flights.add(flight(10 + i, "DEL", i < 3 ? "JAI" : "LKO", (10 + i) + ":00", 60, 3000));
+        }
+        Mockito.when(searchFlightRepository.findAll()).thenReturn(flights);
+        searchService.buildSearchIndex();
+    }
+
+    @Test
+    void singleHopSearchesOnlyLookUpDirectFlights() {
+        SearchPlan plan = searchPlanner.plan("DEL", "BLR", 1);
+
+        assertEquals(SearchStrategy.DIRECT_LOOKUP, plan.getStrategy());
+        assertEquals(Map.of(SearchStrategy.DIRECT_LOOKUP, 1.0), plan.getEstimatedCosts());
+        assertNull(plan.getTransferHubs());
+    }
+
+    @Test
+    void popularPairUsesTransferTableWhenItFansOutLess() {
+        SearchPlan plan = searchPlanner.plan("DEL", "BLR", 2);
+
+        // Hubs cost 1 x (1 + 1) each for MAA and BOM and 2 x (1 + 1) for GOI; the graph scans all 10 departures
+        assertEquals(SearchStrategy.TRANSFER_TABLE, plan.getStrategy());
+        assertEquals(9.0, plan.getEstimatedCosts().get(SearchStrategy.TRANSFER_TABLE));
+        assertEquals(11.0, plan.getEstimatedCosts().get(SearchStrategy.GRAPH_SEARCH));
+        assertEquals(List.of("MAA", "BOM", "GOI"), plan.getTransferHubs());
+
+        // The transfer table only holds one-stop connections
+        assertEquals(SearchStrategy.GRAPH_SEARCH, searchPlanner.plan("DEL", "BLR", 3).getStrategy());
+    }
+
+    @Test
+    void rarePairFallsBackToGraphSearch() {
+        SearchPlan plan = searchPlanner.plan("MAA", "DEL", 2);
+
+        assertEquals(SearchStrategy.GRAPH_SEARCH, plan.getStrategy());
+        assertEquals(Map.of(SearchStrategy.DIRECT_LOOKUP, 0.0, SearchStrategy.GRAPH_SEARCH, 1.0),
+                plan.getEstimatedCosts());
+        assertNull(plan.getTransferHubs());
+    }
+
+    @Test
+    void explainReportsPlanCostsAndStages() {
+        FlightSearchRequest request = new FlightSearchRequest();
+        request.setFrom("del");
+        request.setTo("blr");
+        request.setDate(DATE);
+        request.setMaxHops(2);
+        request.setExplain(true);
+
+        FlightSearchResponse response = searchService.searchFlights(request);
+
+        SearchExplain explain = response.getExplain();
+        assertEquals("TRANSFER_TABLE", explain.getStrategy());
+        assertEquals(Map.of("DIRECT_LOOKUP", 1.0, "TRANSFER_TABLE", 9.0, "GRAPH_SEARCH", 11.0), explain.getEstimatedCosts());
+        assertEquals(3, explain.getTransferHubs());
+        assertEquals(List.of("plan", "direct", "connections", "rank"), List.copyOf(explain.getStageTimingsMicros().keySet()));
+        assertTrue(explain.getExploredStates() > 0);
+        assertEquals(1, response.getDirectFlights().size());
+        assertEquals(3, response.getMultiHopFlights().size());
+
+        request.setExplain(false);
+        assertNull(searchService.searchFlights(request).getExplain());
+    }
+
+    // Private helper methods
+
+    private static SearchFlight popular(SearchFlight flight) {
+        flight.setRoutePopularityScore(10);
+        return flight;
+    }
+}
@@ -0,0 +1,98 @@
+package com.credtravels.search.engine;
+
+import com.credtravels.search.model.SearchFlight;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic domestic network over 16 real airports: about two thirds of the airport pairs
+ * are served, 2 to 6 times a day, at 750 km/h plus taxi time. Shared by the pruning test
+ * and the search benchmarks.
+ */
+public final class SyntheticNetwork {
+
+    private static final Map<String, double[]> AIRPORTS = new LinkedHashMap<>();
+
+    static {
+        AIRPORTS.put("DEL", new double[] {28.5562, 77.1000});
+        AIRPORTS.put("BOM", new double[] {19.0896, 72.8656});
+        AIRPORTS.put("BLR", new double[] {13.1986, 77.7066});
+        AIRPORTS.put("MAA", new double[] {12.9941, 80.1709});
+        AIRPORTS.put("CCU", new double[] {22.6547, 88.4467});
+        AIRPORTS.put("HYD", new double[] {17.2403, 78.4294});
+        AIRPORTS.put("AMD", new double[] {23.0772, 72.6347});
+        AIRPORTS.put("COK", new double[] {10.1520, 76.4019});
+        AIRPORTS.put("GOI", new double[] {15.3808, 73.8314});
+        AIRPORTS.put("PNQ", new double[] {18.5821, 73.9197});
+        AIRPORTS.put("JAI", new double[] {26.8242, 75.8122});
+        AIRPORTS.put("LKO", new double[] {26.7606, 80.8893});
+        AIRPORTS.put("GAU", new double[] {26.1061, 91.5859});
+        AIRPORTS.put("IXC", new double[] {30.6735, 76.7885});
+        AIRPORTS.put("TRV", new double[] {8.4821, 76.9201});
+        AIRPORTS.put("BBI", new double[] {20.2444, 85.8178});
+    }
+
+    private final AirportGeoIndex geo = new AirportGeoIndex();
+    private final FlightTimetable timetable = new FlightTimetable(20);
+
+    public SyntheticNetwork(long seed) {
+        geo.load(AIRPORTS, Map.of());
+
+        Random random = new Random(seed);
+        List<SearchFlight> flights = new ArrayList<>();
+        List<String> codes = new ArrayList<>(AIRPORTS.keySet());
+        long flightInfoId = 1;
+        for (String from : codes) {
+            for (String to : codes) {
+                if (from.equals(to) || random.nextDouble() < 0.35) {
+                    continue;
+                }
+                int minutes = (int) (geo.greatCircleKm(from, to) / 750 * 60) + 35;
+                int frequency = 2 + random.nextInt(5);
+                for (int i = 0; i < frequency; i++) {
+                    SearchFlight flight = new SearchFlight(flightInfoId, "XX" + flightInfoId, "Test Air");
+                    flight.setDepartureAirportCode(from);
+                    flight.setArrivalAirportCode(to);
+                    LocalTime departure = LocalTime.of(5 + random.nextInt(18), random.nextInt(4) * 15);
+                    flight.setDepartureTime(departure);
+                    flight.setArrivalTime(departure.plusMinutes(minutes));
+                    flight.setDurationMinutes(minutes);
+                    flight.setOperatingDays("1111111");
+                    flight.setBasePrice(BigDecimal.valueOf(3000 + random.nextInt(9000)));
+                    flights.add(flight);
+                    flightInfoId++;
+                }
+            }
+        }
+        geo.raiseSpeedBound(flights);
+        timetable.load(flights);
+    }
+
+    public Set<String> getAirports() {
+        return AIRPORTS.keySet();
+    }
+
+    public AirportGeoIndex getGeo() {
+        return geo;
+    }
+
+    public FlightTimetable getTimetable() {
+        return timetable;
+    }
+
+    /**
+     * Explorer over the network with the production connection, layover and detour limits
+     */
+    public ConnectionExplorer explorer(boolean pruning, int resultLimit) {
+        return new ConnectionExplorer(timetable, 45, 12 * 60)
+                .withGeoBounds(geo, 2.5, pruning)
+                .withResultLimit(resultLimit);
+    }
+}